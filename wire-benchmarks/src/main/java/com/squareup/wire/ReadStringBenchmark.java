@@ -0,0 +1,95 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+import okio.Buffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decodes a length-prefixed string field with {@link WireInput#readString} and, for comparison,
+ * with the JDK's charset decoder. This lives in the runtime's package because WireInput's
+ * factories are package-private. Run with:
+ *
+ * <pre>
+ * mvn package -pl wire-benchmarks -am -DskipTests
+ * java -jar wire-benchmarks/target/benchmarks.jar ReadStringBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class ReadStringBenchmark {
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  @Param({ "ascii", "latin", "cjk" })
+  String text;
+
+  @Param({ "16", "256" })
+  int length;
+
+  private byte[] field;
+  private int prefixLength;
+
+  @Setup public void setUp() throws IOException {
+    String sample;
+    if ("ascii".equals(text)) {
+      sample = "https://example.com/orders?id=";
+    } else if ("latin".equals(text)) {
+      sample = "Cr\u00e8me br\u00fbl\u00e9e \u00e0 la fran\u00e7aise, ";
+    } else {
+      sample = "\u65e5\u672c\u8a9e\u306e\u30c6\u30ad\u30b9\u30c8\u3001";
+    }
+    StringBuilder builder = new StringBuilder();
+    while (builder.length() < length) {
+      builder.append(sample);
+    }
+    String value = builder.substring(0, length);
+
+    byte[] bytes = value.getBytes(UTF_8);
+    Buffer buffer = new Buffer();
+    int size = bytes.length;
+    for (; size >= 0x80; size >>>= 7) {
+      buffer.writeByte((size & 0x7F) | 0x80);
+    }
+    buffer.writeByte(size);
+    prefixLength = (int) buffer.size();
+    field = buffer.write(bytes).readByteArray();
+  }
+
+  @Benchmark public String wireInput() throws IOException {
+    return WireInput.newInstance(field).readString();
+  }
+
+  @Benchmark public String charsetDecoder() {
+    return new String(field, prefixLength, field.length - prefixLength, UTF_8);
+  }
+}
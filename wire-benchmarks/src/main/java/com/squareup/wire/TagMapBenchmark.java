@@ -0,0 +1,95 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Looks up every tag of a message, as {@link MessageAdapter} does while reading, in each
+ * {@link TagMap} implementation and, for comparison, in a {@link HashMap}. This lives in the
+ * runtime's package because TagMap is package-private. Run with:
+ *
+ * <pre>
+ * mvn package -pl wire-benchmarks -am -DskipTests
+ * java -jar wire-benchmarks/target/benchmarks.jar TagMapBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class TagMapBenchmark {
+  /** Tags 1 through 20, or 20 tags spaced 1000 apart as when tag ranges mark ownership. */
+  @Param({ "dense", "thousands" })
+  String layout;
+
+  private int[] tags;
+  private TagMap<String> compact;
+  private Map<Integer, String> hashMap;
+  private TagMap<String> hashed;
+
+  @Setup public void setUp() {
+    Map<Integer, String> map = new HashMap<Integer, String>();
+    int step = "dense".equals(layout) ? 1 : 1000;
+    tags = new int[20];
+    for (int i = 0; i < tags.length; i++) {
+      tags[i] = (i + 1) * step;
+      map.put(tags[i], "field" + i);
+    }
+    compact = TagMap.Compact.compactTagMapOf(map, tags[tags.length - 1]);
+    hashMap = map;
+    hashed = TagMap.Hashed.hashedTagMapOf(map);
+  }
+
+  @Benchmark public int compact() {
+    return lookUpAll(compact);
+  }
+
+  @Benchmark public int hashMap() {
+    int found = 0;
+    for (int tag : tags) {
+      if (hashMap.get(tag) != null) found++;
+    }
+    return found;
+  }
+
+  @Benchmark public int hashed() {
+    return lookUpAll(hashed);
+  }
+
+  private int lookUpAll(TagMap<String> tagMap) {
+    int found = 0;
+    for (int tag : tags) {
+      if (tagMap.get(tag) != null) found++;
+    }
+    return found;
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire.benchmarks;
+
+import com.squareup.wire.benchmarks.proto.Person;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Builds {@link Person} messages, whose builders check two required fields, from one thread and
+ * from as many threads as there are CPUs. Builders check their required fields with generated
+ * null checks, so the ratio between the two throughputs should track the number of CPUs. Run
+ * with:
+ *
+ * <pre>
+ * mvn package -pl wire-benchmarks -am -DskipTests
+ * java -jar wire-benchmarks/target/benchmarks.jar ConcurrentBuildBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class ConcurrentBuildBenchmark {
+  private final Person.PhoneNumber phone =
+      new Person.PhoneNumber.Builder().number("555-1212").build();
+
+  @Benchmark @Threads(1) public Person buildOneThread() {
+    return newPerson();
+  }
+
+  @Benchmark @Threads(Threads.MAX) public Person buildAllThreads() {
+    return newPerson();
+  }
+
+  private Person newPerson() {
+    return new Person.Builder()
+        .id(1)
+        .name("Joe Schmoe")
+        .email("joe@example.com")
+        .phone(Arrays.asList(phone))
+        .build();
+  }
+}
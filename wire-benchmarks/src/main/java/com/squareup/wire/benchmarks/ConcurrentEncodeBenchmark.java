@@ -0,0 +1,75 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire.benchmarks;
+
+import com.squareup.wire.Wire;
+import com.squareup.wire.benchmarks.proto.Order;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encodes and decodes the same messages from one thread and from as many threads as there are
+ * CPUs. Every encode and decode looks up adapters in a shared {@link Wire}, so the ratio between
+ * the two throughputs shows how well those lookups scale. Run with:
+ *
+ * <pre>
+ * mvn package -pl wire-benchmarks -am -DskipTests
+ * java -jar wire-benchmarks/target/benchmarks.jar ConcurrentEncodeBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class ConcurrentEncodeBenchmark {
+  private final Wire wire = new Wire();
+  private Order order;
+  private byte[] bytes;
+
+  @Setup public void setUp() {
+    order = Orders.newOrder(4);
+    bytes = order.toByteArray();
+  }
+
+  @Benchmark @Threads(1) public byte[] encodeOneThread() {
+    return order.toByteArray();
+  }
+
+  @Benchmark @Threads(Threads.MAX) public byte[] encodeAllThreads() {
+    return order.toByteArray();
+  }
+
+  @Benchmark @Threads(1) public Order decodeOneThread() throws IOException {
+    return wire.parseFrom(bytes, Order.class);
+  }
+
+  @Benchmark @Threads(Threads.MAX) public Order decodeAllThreads() throws IOException {
+    return wire.parseFrom(bytes, Order.class);
+  }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire.benchmarks;
+
+import com.squareup.wire.benchmarks.proto.Order;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/** Sample messages shared by the benchmarks. */
+final class Orders {
+  private Orders() {
+  }
+
+  /** Returns an order with {@code itemCount} line items. */
+  static Order newOrder(int itemCount) {
+    List<Order.LineItem> items = new ArrayList<Order.LineItem>();
+    for (int i = 0; i < itemCount; i++) {
+      items.add(new Order.LineItem.Builder()
+          .sku("SKU-" + (100000 + i))
+          .description("Line item number " + i)
+          .quantity(1 + i % 5)
+          .price(199L * (i + 1))
+          .build());
+    }
+    return new Order.Builder()
+        .id("ORDER-8F14E45FCEEA167A")
+        .status(Order.Status.PAID)
+        .created_at(1420070400000L)
+        .items(items)
+        .tags(Arrays.asList("web", "gift", "priority"))
+        .build();
+  }
+}
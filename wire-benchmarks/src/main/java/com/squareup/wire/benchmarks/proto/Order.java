@@ -0,0 +1,506 @@
+// Code generated by Wire protocol buffer compiler, do not edit.
+// Source file: src/main/proto/benchmark.proto
+package com.squareup.wire.benchmarks.proto;
+
+import com.squareup.wire.FieldDescriptor;
+import com.squareup.wire.IntList;
+import com.squareup.wire.Message;
+import com.squareup.wire.MessageCodec;
+import com.squareup.wire.ProtoEnum;
+import com.squareup.wire.ProtoField;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import static com.squareup.wire.Message.Datatype.ENUM;
+import static com.squareup.wire.Message.Datatype.INT32;
+import static com.squareup.wire.Message.Datatype.INT64;
+import static com.squareup.wire.Message.Datatype.MESSAGE;
+import static com.squareup.wire.Message.Datatype.STRING;
+import static com.squareup.wire.Message.Label.OPTIONAL;
+import static com.squareup.wire.Message.Label.REPEATED;
+import static com.squareup.wire.Message.Label.REQUIRED;
+
+public final class Order extends Message {
+  private static final long serialVersionUID = 0L;
+
+  public static final String DEFAULT_ID = "";
+  public static final Status DEFAULT_STATUS = Status.PENDING;
+  public static final Long DEFAULT_CREATED_AT = 0L;
+  public static final List<LineItem> DEFAULT_ITEMS = Collections.emptyList();
+  public static final List<String> DEFAULT_TAGS = Collections.emptyList();
+
+  @ProtoField(tag = 1, type = STRING, label = REQUIRED)
+  public final String id;
+
+  @ProtoField(tag = 2, type = ENUM)
+  public final Status status;
+
+  @ProtoField(tag = 3, type = INT64)
+  public final Long created_at;
+
+  @ProtoField(tag = 4, label = REPEATED, messageType = LineItem.class)
+  public final List<LineItem> items;
+
+  @ProtoField(tag = 5, type = STRING, label = REPEATED)
+  public final List<String> tags;
+
+  public Order(String id, Status status, Long created_at, List<LineItem> items, List<String> tags) {
+    this.id = id;
+    this.status = status;
+    this.created_at = created_at;
+    this.items = immutableCopyOf(items);
+    this.tags = immutableCopyOf(tags);
+  }
+
+  private Order(Builder builder) {
+    this(builder.id, builder.status, builder.created_at, builder.items, builder.tags);
+    setBuilder(builder);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (other == this) return true;
+    if (!(other instanceof Order)) return false;
+    Order o = (Order) other;
+    return equals(id, o.id)
+        && equals(status, o.status)
+        && equals(created_at, o.created_at)
+        && equals(items, o.items)
+        && equals(tags, o.tags);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = hashCode;
+    if (result == 0) {
+      result = id != null ? id.hashCode() : 0;
+      result = result * 37 + (status != null ? status.hashCode() : 0);
+      result = result * 37 + (created_at != null ? created_at.hashCode() : 0);
+      result = result * 37 + (items != null ? items.hashCode() : 1);
+      result = result * 37 + (tags != null ? tags.hashCode() : 1);
+      hashCode = result;
+    }
+    return result;
+  }
+
+  public static final class Builder extends Message.Builder<Order> {
+
+    public String id;
+    public Status status;
+    public Long created_at;
+    public List<LineItem> items;
+    public List<String> tags;
+
+    public Builder() {
+    }
+
+    public Builder(Order message) {
+      super(message);
+      if (message == null) return;
+      this.id = message.id;
+      this.status = message.status;
+      this.created_at = message.created_at;
+      this.items = copyOf(message.items);
+      this.tags = copyOf(message.tags);
+    }
+
+    public Builder id(String id) {
+      this.id = id;
+      return this;
+    }
+
+    public Builder status(Status status) {
+      this.status = status;
+      return this;
+    }
+
+    public Builder created_at(Long created_at) {
+      this.created_at = created_at;
+      return this;
+    }
+
+    public Builder items(List<LineItem> items) {
+      this.items = checkForNulls(items);
+      return this;
+    }
+
+    public Builder tags(List<String> tags) {
+      this.tags = checkForNulls(tags);
+      return this;
+    }
+
+    @Override
+    public Order build() {
+      if (id == null) {
+        throw missingRequiredFields(id, "id");
+      }
+      return new Order(this);
+    }
+  }
+
+  public static final class Codec extends MessageCodec<Order, Builder> {
+
+    private static final FieldDescriptor[] FIELDS = fields(
+        new FieldDescriptor(1, "id", STRING, REQUIRED, null, false, false),
+        new FieldDescriptor(2, "status", ENUM, OPTIONAL, Status.class, false, false),
+        new FieldDescriptor(3, "created_at", INT64, OPTIONAL, null, false, false),
+        new FieldDescriptor(4, "items", MESSAGE, REPEATED, LineItem.class, false, false),
+        new FieldDescriptor(5, "tags", STRING, REPEATED, null, false, false));
+
+    @Override
+    protected FieldDescriptor[] getFieldDescriptors() {
+      return FIELDS;
+    }
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(Order message) {
+      return getSerializedSize(message, null);
+    }
+
+    private int getSerializedSize(Order message, IntList lengths) {
+      int size = 0;
+      if (message.id != null) size += 1 + stringSize(message.id, lengths);
+      if (message.status != null) size += 1 + enumSize(message.status);
+      if (message.created_at != null) size += 1 + varint64Size(message.created_at);
+      size += messagesSize(4, message.items);
+      for (int i = 0, count = message.tags.size(); i < count; i++) {
+        size += 1 + stringSize(message.tags.get(i), lengths);
+      }
+      return size;
+    }
+
+    @Override
+    protected void write(Order message, WireOutput output)
+        throws IOException {
+      IntList lengths = newLengths();
+      getSerializedSize(message, lengths);
+      int lengthIndex = 0;
+      if (message.id != null) {
+        output.writeTag(1, WireType.LENGTH_DELIMITED);
+        writeString(output, message.id, lengths.getInt(lengthIndex++));
+      }
+      if (message.status != null) {
+        output.writeTag(2, WireType.VARINT);
+        output.writeVarint32(message.status.getValue());
+      }
+      if (message.created_at != null) {
+        output.writeTag(3, WireType.VARINT);
+        output.writeVarint64(message.created_at);
+      }
+      writeMessages(output, 4, message.items);
+      for (int i = 0, count = message.tags.size(); i < count; i++) {
+        output.writeTag(5, WireType.LENGTH_DELIMITED);
+        writeString(output, message.tags.get(i), lengths.getInt(lengthIndex++));
+      }
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      switch (tag) {
+        case 1: {
+          builder.id = input.readString();
+          return true;
+        }
+        case 2: {
+          Status value = (Status) readEnum(input, builder, 2);
+          if (value != null) builder.status = value;
+          return true;
+        }
+        case 3: {
+          builder.created_at = input.readVarint64();
+          return true;
+        }
+        case 4: {
+          builder.items = append(builder.items, (LineItem) readMessage(input, 4));
+          return true;
+        }
+        case 5: {
+          builder.tags = append(builder.tags, input.readString());
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(Order message, int tag) {
+      switch (tag) {
+        case 1: return message.id;
+        case 2: return message.status;
+        case 3: return message.created_at;
+        case 4: return message.items;
+        case 5: return message.tags;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      switch (tag) {
+        case 1: return builder.id;
+        case 2: return builder.status;
+        case 3: return builder.created_at;
+        case 4: return builder.items;
+        case 5: return builder.tags;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      switch (tag) {
+        case 1: builder.id = (String) value; break;
+        case 2: builder.status = (Status) value; break;
+        case 3: builder.created_at = (Long) value; break;
+        case 4: builder.items = (List<LineItem>) value; break;
+        case 5: builder.tags = (List<String>) value; break;
+        default: throw new AssertionError(tag);
+      }
+    }
+  }
+
+  public enum Status
+      implements ProtoEnum {
+    PENDING(0),
+    PAID(1),
+    SHIPPED(2);
+
+    private final int value;
+
+    Status(int value) {
+      this.value = value;
+    }
+
+    @Override
+    public int getValue() {
+      return value;
+    }
+  }
+
+  public static final class LineItem extends Message {
+    private static final long serialVersionUID = 0L;
+
+    public static final String DEFAULT_SKU = "";
+    public static final String DEFAULT_DESCRIPTION = "";
+    public static final Integer DEFAULT_QUANTITY = 0;
+    public static final Long DEFAULT_PRICE = 0L;
+
+    @ProtoField(tag = 1, type = STRING)
+    public final String sku;
+
+    @ProtoField(tag = 2, type = STRING)
+    public final String description;
+
+    @ProtoField(tag = 3, type = INT32)
+    public final Integer quantity;
+
+    @ProtoField(tag = 4, type = INT64)
+    public final Long price;
+
+    public LineItem(String sku, String description, Integer quantity, Long price) {
+      this.sku = sku;
+      this.description = description;
+      this.quantity = quantity;
+      this.price = price;
+    }
+
+    private LineItem(Builder builder) {
+      this(builder.sku, builder.description, builder.quantity, builder.price);
+      setBuilder(builder);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (other == this) return true;
+      if (!(other instanceof LineItem)) return false;
+      LineItem o = (LineItem) other;
+      return equals(sku, o.sku)
+          && equals(description, o.description)
+          && equals(quantity, o.quantity)
+          && equals(price, o.price);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = hashCode;
+      if (result == 0) {
+        result = sku != null ? sku.hashCode() : 0;
+        result = result * 37 + (description != null ? description.hashCode() : 0);
+        result = result * 37 + (quantity != null ? quantity.hashCode() : 0);
+        result = result * 37 + (price != null ? price.hashCode() : 0);
+        hashCode = result;
+      }
+      return result;
+    }
+
+    public static final class Builder extends Message.Builder<LineItem> {
+
+      public String sku;
+      public String description;
+      public Integer quantity;
+      public Long price;
+
+      public Builder() {
+      }
+
+      public Builder(LineItem message) {
+        super(message);
+        if (message == null) return;
+        this.sku = message.sku;
+        this.description = message.description;
+        this.quantity = message.quantity;
+        this.price = message.price;
+      }
+
+      public Builder sku(String sku) {
+        this.sku = sku;
+        return this;
+      }
+
+      public Builder description(String description) {
+        this.description = description;
+        return this;
+      }
+
+      public Builder quantity(Integer quantity) {
+        this.quantity = quantity;
+        return this;
+      }
+
+      public Builder price(Long price) {
+        this.price = price;
+        return this;
+      }
+
+      @Override
+      public LineItem build() {
+        return new LineItem(this);
+      }
+    }
+
+    public static final class Codec extends MessageCodec<LineItem, Builder> {
+
+      private static final FieldDescriptor[] FIELDS = fields(
+          new FieldDescriptor(1, "sku", STRING, OPTIONAL, null, false, false),
+          new FieldDescriptor(2, "description", STRING, OPTIONAL, null, false, false),
+          new FieldDescriptor(3, "quantity", INT32, OPTIONAL, null, false, false),
+          new FieldDescriptor(4, "price", INT64, OPTIONAL, null, false, false));
+
+      @Override
+      protected FieldDescriptor[] getFieldDescriptors() {
+        return FIELDS;
+      }
+
+      @Override
+      protected Builder newBuilder() {
+        return new Builder();
+      }
+
+      @Override
+      protected int getSerializedSize(LineItem message) {
+        return getSerializedSize(message, null);
+      }
+
+      private int getSerializedSize(LineItem message, IntList lengths) {
+        int size = 0;
+        if (message.sku != null) size += 1 + stringSize(message.sku, lengths);
+        if (message.description != null) size += 1 + stringSize(message.description, lengths);
+        if (message.quantity != null) size += 1 + int32Size(message.quantity);
+        if (message.price != null) size += 1 + varint64Size(message.price);
+        return size;
+      }
+
+      @Override
+      protected void write(LineItem message, WireOutput output)
+          throws IOException {
+        IntList lengths = newLengths();
+        getSerializedSize(message, lengths);
+        int lengthIndex = 0;
+        if (message.sku != null) {
+          output.writeTag(1, WireType.LENGTH_DELIMITED);
+          writeString(output, message.sku, lengths.getInt(lengthIndex++));
+        }
+        if (message.description != null) {
+          output.writeTag(2, WireType.LENGTH_DELIMITED);
+          writeString(output, message.description, lengths.getInt(lengthIndex++));
+        }
+        if (message.quantity != null) {
+          output.writeTag(3, WireType.VARINT);
+          output.writeSignedVarint32(message.quantity);
+        }
+        if (message.price != null) {
+          output.writeTag(4, WireType.VARINT);
+          output.writeVarint64(message.price);
+        }
+      }
+
+      @Override
+      protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+          throws IOException {
+        switch (tag) {
+          case 1: {
+            builder.sku = input.readString();
+            return true;
+          }
+          case 2: {
+            builder.description = input.readString();
+            return true;
+          }
+          case 3: {
+            builder.quantity = input.readVarint32();
+            return true;
+          }
+          case 4: {
+            builder.price = input.readVarint64();
+            return true;
+          }
+        }
+        return false;
+      }
+
+      @Override
+      protected Object getFieldValue(LineItem message, int tag) {
+        switch (tag) {
+          case 1: return message.sku;
+          case 2: return message.description;
+          case 3: return message.quantity;
+          case 4: return message.price;
+          default: throw new AssertionError(tag);
+        }
+      }
+
+      @Override
+      protected Object getBuilderFieldValue(Builder builder, int tag) {
+        switch (tag) {
+          case 1: return builder.sku;
+          case 2: return builder.description;
+          case 3: return builder.quantity;
+          case 4: return builder.price;
+          default: throw new AssertionError(tag);
+        }
+      }
+
+      @Override
+      protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+        switch (tag) {
+          case 1: builder.sku = (String) value; break;
+          case 2: builder.description = (String) value; break;
+          case 3: builder.quantity = (Integer) value; break;
+          case 4: builder.price = (Long) value; break;
+          default: throw new AssertionError(tag);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,428 @@
+// Code generated by Wire protocol buffer compiler, do not edit.
+// Source file: src/main/proto/benchmark.proto
+package com.squareup.wire.benchmarks.proto;
+
+import com.squareup.wire.FieldDescriptor;
+import com.squareup.wire.IntList;
+import com.squareup.wire.Message;
+import com.squareup.wire.MessageCodec;
+import com.squareup.wire.ProtoEnum;
+import com.squareup.wire.ProtoField;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import static com.squareup.wire.Message.Datatype.ENUM;
+import static com.squareup.wire.Message.Datatype.INT32;
+import static com.squareup.wire.Message.Datatype.MESSAGE;
+import static com.squareup.wire.Message.Datatype.STRING;
+import static com.squareup.wire.Message.Label.OPTIONAL;
+import static com.squareup.wire.Message.Label.REPEATED;
+import static com.squareup.wire.Message.Label.REQUIRED;
+
+/**
+ * A copy of the runtime tests' Person, whose builder has two required fields.
+ */
+public final class Person extends Message {
+  private static final long serialVersionUID = 0L;
+
+  public static final String DEFAULT_NAME = "";
+  public static final Integer DEFAULT_ID = 0;
+  public static final String DEFAULT_EMAIL = "";
+  public static final List<PhoneNumber> DEFAULT_PHONE = Collections.emptyList();
+
+  @ProtoField(tag = 1, type = STRING, label = REQUIRED)
+  public final String name;
+
+  @ProtoField(tag = 2, type = INT32, label = REQUIRED)
+  public final Integer id;
+
+  @ProtoField(tag = 3, type = STRING)
+  public final String email;
+
+  @ProtoField(tag = 4, label = REPEATED, messageType = PhoneNumber.class)
+  public final List<PhoneNumber> phone;
+
+  public Person(String name, Integer id, String email, List<PhoneNumber> phone) {
+    this.name = name;
+    this.id = id;
+    this.email = email;
+    this.phone = immutableCopyOf(phone);
+  }
+
+  private Person(Builder builder) {
+    this(builder.name, builder.id, builder.email, builder.phone);
+    setBuilder(builder);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (other == this) return true;
+    if (!(other instanceof Person)) return false;
+    Person o = (Person) other;
+    return equals(name, o.name)
+        && equals(id, o.id)
+        && equals(email, o.email)
+        && equals(phone, o.phone);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = hashCode;
+    if (result == 0) {
+      result = name != null ? name.hashCode() : 0;
+      result = result * 37 + (id != null ? id.hashCode() : 0);
+      result = result * 37 + (email != null ? email.hashCode() : 0);
+      result = result * 37 + (phone != null ? phone.hashCode() : 1);
+      hashCode = result;
+    }
+    return result;
+  }
+
+  public static final class Builder extends Message.Builder<Person> {
+
+    public String name;
+    public Integer id;
+    public String email;
+    public List<PhoneNumber> phone;
+
+    public Builder() {
+    }
+
+    public Builder(Person message) {
+      super(message);
+      if (message == null) return;
+      this.name = message.name;
+      this.id = message.id;
+      this.email = message.email;
+      this.phone = copyOf(message.phone);
+    }
+
+    public Builder name(String name) {
+      this.name = name;
+      return this;
+    }
+
+    public Builder id(Integer id) {
+      this.id = id;
+      return this;
+    }
+
+    public Builder email(String email) {
+      this.email = email;
+      return this;
+    }
+
+    public Builder phone(List<PhoneNumber> phone) {
+      this.phone = checkForNulls(phone);
+      return this;
+    }
+
+    @Override
+    public Person build() {
+      if (id == null || name == null) {
+        throw missingRequiredFields(id, "id", name, "name");
+      }
+      return new Person(this);
+    }
+  }
+
+  public static final class Codec extends MessageCodec<Person, Builder> {
+
+    private static final FieldDescriptor[] FIELDS = fields(
+        new FieldDescriptor(1, "name", STRING, REQUIRED, null, false, false),
+        new FieldDescriptor(2, "id", INT32, REQUIRED, null, false, false),
+        new FieldDescriptor(3, "email", STRING, OPTIONAL, null, false, false),
+        new FieldDescriptor(4, "phone", MESSAGE, REPEATED, PhoneNumber.class, false, false));
+
+    @Override
+    protected FieldDescriptor[] getFieldDescriptors() {
+      return FIELDS;
+    }
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(Person message) {
+      return getSerializedSize(message, null);
+    }
+
+    private int getSerializedSize(Person message, IntList lengths) {
+      int size = 0;
+      if (message.name != null) size += 1 + stringSize(message.name, lengths);
+      if (message.id != null) size += 1 + int32Size(message.id);
+      if (message.email != null) size += 1 + stringSize(message.email, lengths);
+      size += messagesSize(4, message.phone);
+      return size;
+    }
+
+    @Override
+    protected void write(Person message, WireOutput output)
+        throws IOException {
+      IntList lengths = newLengths();
+      getSerializedSize(message, lengths);
+      int lengthIndex = 0;
+      if (message.name != null) {
+        output.writeTag(1, WireType.LENGTH_DELIMITED);
+        writeString(output, message.name, lengths.getInt(lengthIndex++));
+      }
+      if (message.id != null) {
+        output.writeTag(2, WireType.VARINT);
+        output.writeSignedVarint32(message.id);
+      }
+      if (message.email != null) {
+        output.writeTag(3, WireType.LENGTH_DELIMITED);
+        writeString(output, message.email, lengths.getInt(lengthIndex++));
+      }
+      writeMessages(output, 4, message.phone);
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      switch (tag) {
+        case 1: {
+          builder.name = input.readString();
+          return true;
+        }
+        case 2: {
+          builder.id = input.readVarint32();
+          return true;
+        }
+        case 3: {
+          builder.email = input.readString();
+          return true;
+        }
+        case 4: {
+          builder.phone = append(builder.phone, (PhoneNumber) readMessage(input, 4));
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(Person message, int tag) {
+      switch (tag) {
+        case 1: return message.name;
+        case 2: return message.id;
+        case 3: return message.email;
+        case 4: return message.phone;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      switch (tag) {
+        case 1: return builder.name;
+        case 2: return builder.id;
+        case 3: return builder.email;
+        case 4: return builder.phone;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      switch (tag) {
+        case 1: builder.name = (String) value; break;
+        case 2: builder.id = (Integer) value; break;
+        case 3: builder.email = (String) value; break;
+        case 4: builder.phone = (List<PhoneNumber>) value; break;
+        default: throw new AssertionError(tag);
+      }
+    }
+  }
+
+  public enum PhoneType
+      implements ProtoEnum {
+    MOBILE(0),
+    HOME(1),
+    WORK(2);
+
+    private final int value;
+
+    PhoneType(int value) {
+      this.value = value;
+    }
+
+    @Override
+    public int getValue() {
+      return value;
+    }
+  }
+
+  public static final class PhoneNumber extends Message {
+    private static final long serialVersionUID = 0L;
+
+    public static final String DEFAULT_NUMBER = "";
+    public static final PhoneType DEFAULT_TYPE = PhoneType.HOME;
+
+    @ProtoField(tag = 1, type = STRING, label = REQUIRED)
+    public final String number;
+
+    @ProtoField(tag = 2, type = ENUM)
+    public final PhoneType type;
+
+    public PhoneNumber(String number, PhoneType type) {
+      this.number = number;
+      this.type = type;
+    }
+
+    private PhoneNumber(Builder builder) {
+      this(builder.number, builder.type);
+      setBuilder(builder);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (other == this) return true;
+      if (!(other instanceof PhoneNumber)) return false;
+      PhoneNumber o = (PhoneNumber) other;
+      return equals(number, o.number)
+          && equals(type, o.type);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = hashCode;
+      if (result == 0) {
+        result = number != null ? number.hashCode() : 0;
+        result = result * 37 + (type != null ? type.hashCode() : 0);
+        hashCode = result;
+      }
+      return result;
+    }
+
+    public static final class Builder extends Message.Builder<PhoneNumber> {
+
+      public String number;
+      public PhoneType type;
+
+      public Builder() {
+      }
+
+      public Builder(PhoneNumber message) {
+        super(message);
+        if (message == null) return;
+        this.number = message.number;
+        this.type = message.type;
+      }
+
+      public Builder number(String number) {
+        this.number = number;
+        return this;
+      }
+
+      public Builder type(PhoneType type) {
+        this.type = type;
+        return this;
+      }
+
+      @Override
+      public PhoneNumber build() {
+        if (number == null) {
+          throw missingRequiredFields(number, "number");
+        }
+        return new PhoneNumber(this);
+      }
+    }
+
+    public static final class Codec extends MessageCodec<PhoneNumber, Builder> {
+
+      private static final FieldDescriptor[] FIELDS = fields(
+          new FieldDescriptor(1, "number", STRING, REQUIRED, null, false, false),
+          new FieldDescriptor(2, "type", ENUM, OPTIONAL, PhoneType.class, false, false));
+
+      @Override
+      protected FieldDescriptor[] getFieldDescriptors() {
+        return FIELDS;
+      }
+
+      @Override
+      protected Builder newBuilder() {
+        return new Builder();
+      }
+
+      @Override
+      protected int getSerializedSize(PhoneNumber message) {
+        return getSerializedSize(message, null);
+      }
+
+      private int getSerializedSize(PhoneNumber message, IntList lengths) {
+        int size = 0;
+        if (message.number != null) size += 1 + stringSize(message.number, lengths);
+        if (message.type != null) size += 1 + enumSize(message.type);
+        return size;
+      }
+
+      @Override
+      protected void write(PhoneNumber message, WireOutput output)
+          throws IOException {
+        IntList lengths = newLengths();
+        getSerializedSize(message, lengths);
+        int lengthIndex = 0;
+        if (message.number != null) {
+          output.writeTag(1, WireType.LENGTH_DELIMITED);
+          writeString(output, message.number, lengths.getInt(lengthIndex++));
+        }
+        if (message.type != null) {
+          output.writeTag(2, WireType.VARINT);
+          output.writeVarint32(message.type.getValue());
+        }
+      }
+
+      @Override
+      protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+          throws IOException {
+        switch (tag) {
+          case 1: {
+            builder.number = input.readString();
+            return true;
+          }
+          case 2: {
+            PhoneType value = (PhoneType) readEnum(input, builder, 2);
+            if (value != null) builder.type = value;
+            return true;
+          }
+        }
+        return false;
+      }
+
+      @Override
+      protected Object getFieldValue(PhoneNumber message, int tag) {
+        switch (tag) {
+          case 1: return message.number;
+          case 2: return message.type;
+          default: throw new AssertionError(tag);
+        }
+      }
+
+      @Override
+      protected Object getBuilderFieldValue(Builder builder, int tag) {
+        switch (tag) {
+          case 1: return builder.number;
+          case 2: return builder.type;
+          default: throw new AssertionError(tag);
+        }
+      }
+
+      @Override
+      protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+        switch (tag) {
+          case 1: builder.number = (String) value; break;
+          case 2: builder.type = (PhoneType) value; break;
+          default: throw new AssertionError(tag);
+        }
+      }
+    }
+  }
+}
@@ -83,9 +83,9 @@ final class CommandLineOptions {
    * Unless the {@code --no_options} flag is supplied, code will be emitted for options on messages
    * and fields.  The presence of options on a message will result in a static member named
    * "MESSAGE_OPTIONS", initialized with the options and their values.   The presence of options on
-   * a field (other than the standard options "default", "deprecated", and "packed") will result in
-   * a static member named "FIELD_OPTIONS_&lt;field name&gt;" in the generated code, initialized
-   * with the field option values.
+   * a field (other than the standard options "default", "deprecated", "lazy", and "packed") will
+   * result in a static member named "FIELD_OPTIONS_&lt;field name&gt;" in the generated code,
+   * initialized with the field option values.
    * <p>
    * Regardless of the value of the {@code --no_options} flag, code will be emitted for all
    * enum value options listed in the {@code --enum_options} flag. The resulting code will contain
@@ -2,6 +2,7 @@
 package com.squareup.wire;
 
 import com.squareup.protoparser.FieldElement;
+import com.squareup.protoparser.OptionElement;
 
 final class FieldInfo {
   final String name;
@@ -25,6 +26,18 @@ final class FieldInfo {
     return TypeInfo.isScalar(type) && !"string".equals(type) && !"bytes".equals(type);
   }
 
+  /**
+   * Returns true if the field is a singular message field declared with {@code [lazy = true]}.
+   * Lazy fields are generated as {@code LazyMessage} values that are decoded on first access.
+   */
+  public static boolean isLazy(FieldElement field, boolean isMessage) {
+    if (!isMessage || isRepeated(field) || field.label() == FieldElement.Label.ONE_OF) {
+      return false;
+    }
+    OptionElement lazyOption = OptionElement.findByName(field.options(), "lazy");
+    return lazyOption != null && "true".equals(String.valueOf(lazyOption.value()));
+  }
+
   public static boolean isRepeated(FieldElement field) {
     return field.label() == FieldElement.Label.REPEATED;
   }
@@ -25,9 +25,11 @@ import java.util.Set;
 import java.util.TreeSet;
 import javax.lang.model.element.Modifier;
 
+import static com.squareup.wire.Message.Datatype;
 import static com.squareup.wire.WireCompiler.allFields;
 import static javax.lang.model.element.Modifier.FINAL;
 import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PROTECTED;
 import static javax.lang.model.element.Modifier.PUBLIC;
 import static javax.lang.model.element.Modifier.STATIC;
 
@@ -266,6 +268,7 @@ public class MessageWriter {
     emitMessageEquals(writer, messageType);
     emitMessageHashCode(writer, messageType);
     emitBuilder(writer, messageType);
+    emitCodec(writer, messageType);
   }
 
   private void emitMessageOptions(JavaWriter writer, Map<String, ?> optionsMap) throws IOException {
@@ -421,14 +424,11 @@ public class MessageWriter {
       }
 
       if (!FieldInfo.isOptional(field)) {
-        if (FieldInfo.isPacked(field, isEnum)) {
-          map.put("label", "PACKED");
-        } else {
-          map.put("label", field.label().toString());
-        }
+        map.put("label", labelName(field, isEnum));
       }
 
-      if (FieldInfo.isRepeated(field) && !isScalar) {
+      boolean isLazy = compiler.isLazy(messageType, field);
+      if ((FieldInfo.isRepeated(field) || isLazy) && !isScalar) {
         map.put(isEnum ? "enumType" : "messageType", javaName + ".class");
       }
 
@@ -436,13 +436,8 @@ public class MessageWriter {
         map.put("deprecated", "true");
       }
 
-      // Scan for redacted fields.
-      for (OptionElement option : field.options()) {
-        // We allow any package name to be used as long as it ends with '.redacted'.
-        if (compiler.isRedacted(option)) {
-          map.put("redacted", "true");
-          break;
-        }
+      if (isRedacted(field)) {
+        map.put("redacted", "true");
       }
 
       writer.emitEmptyLine();
@@ -454,10 +449,26 @@ public class MessageWriter {
       }
 
       if (FieldInfo.isRepeated(field)) javaName = "List<" + javaName + ">";
+      if (isLazy) javaName = "LazyMessage<" + javaName + ">";
       writer.emitField(javaName, sanitize(field.name()), EnumSet.of(PUBLIC, FINAL));
     }
   }
 
+  /** Returns the name of the {@code Message.Label} constant for {@code field}. */
+  private static String labelName(FieldElement field, boolean isEnum) {
+    return FieldInfo.isPacked(field, isEnum) ? "PACKED" : field.label().toString();
+  }
+
+  private boolean isRedacted(FieldElement field) {
+    for (OptionElement option : field.options()) {
+      // We allow any package name to be used as long as it ends with '.redacted'.
+      if (compiler.isRedacted(option)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   // Example:
   //
   // public SimpleMessage(int optional_int32, long optional_int64) {
@@ -758,24 +769,548 @@ public class MessageWriter {
   //
   // @Override
   // public SimpleMessage build() {
-  //   checkRequiredFields();
+  //   if (required_int32 == null) {
+  //     throw missingRequiredFields(required_int32, "required_int32");
+  //   }
   //   return new SimpleMessage(this);
   // }
   //
-  // The call to checkRequiredFields will be emitted only if the message has
-  // required fields.
+  // The null check will be emitted only if the message has required fields. Fields are checked in
+  // name order, which is the order they are listed in the exception message.
   //
   private void emitBuilderBuild(JavaWriter writer, MessageElement messageType) throws IOException {
     writer.emitEmptyLine();
     writer.emitAnnotation(Override.class);
     writer.beginMethod(messageType.name(), "build", EnumSet.of(PUBLIC));
     if (hasRequiredFields(messageType)) {
-      writer.emitStatement("checkRequiredFields()");
+      List<String> names = new ArrayList<String>();
+      for (FieldElement field : allFields(messageType)) {
+        if (FieldInfo.isRequired(field)) names.add(sanitize(field.name()));
+      }
+      Collections.sort(names);
+      StringBuilder condition = new StringBuilder();
+      StringBuilder arguments = new StringBuilder();
+      for (String name : names) {
+        if (condition.length() > 0) {
+          condition.append(" || ");
+          arguments.append(", ");
+        }
+        condition.append(name).append(" == null");
+        arguments.append(name).append(", \"").append(name).append('"');
+      }
+      writer.beginControlFlow("if (" + condition + ")");
+      writer.emitStatement("throw missingRequiredFields(%s)", arguments);
+      writer.endControlFlow();
     }
     writer.emitStatement("return new %s(this)", messageType.name());
     writer.endMethod();
   }
 
+  // Example:
+  //
+  // public static final class Codec extends MessageCodec<SimpleMessage, Builder> {
+  //   ...
+  // }
+  //
+  // The codec reads and writes the declared fields of the message without reflection.
+  //
+  private void emitCodec(JavaWriter writer, MessageElement messageType) throws IOException {
+    writer.emitEmptyLine();
+    writer.beginType("Codec", "class", EnumSet.of(PUBLIC, STATIC, FINAL),
+        "MessageCodec<" + messageType.name() + ", Builder>");
+    if (!allFields(messageType).isEmpty()) {
+      emitCodecFieldDescriptors(writer, messageType);
+    }
+    emitCodecNewBuilder(writer);
+    emitCodecSerializedSize(writer, messageType);
+    emitCodecWrite(writer, messageType);
+    emitCodecRead(writer, messageType);
+    emitCodecFieldAccessors(writer, messageType);
+    writer.endType();
+  }
+
+  // Example:
+  //
+  // private static final FieldDescriptor[] FIELDS = fields(
+  //     new FieldDescriptor(1, "optional_int32", INT32, OPTIONAL, null, false, false),
+  //     new FieldDescriptor(2, "nested", MESSAGE, REPEATED, Nested.class, false, false));
+  //
+  // @Override
+  // protected FieldDescriptor[] getFieldDescriptors() {
+  //   return FIELDS;
+  // }
+  //
+  private void emitCodecFieldDescriptors(JavaWriter writer, MessageElement messageType)
+      throws IOException {
+    StringBuilder table = new StringBuilder("fields(");
+    String separator = "\n";
+    for (FieldElement field : allFields(messageType)) {
+      Datatype datatype = getDatatype(messageType, field);
+      String javaName = compiler.javaName(messageType, field.type().toString());
+      boolean isEnum = datatype == Datatype.ENUM;
+      table.append(separator)
+          .append("new FieldDescriptor(").append(field.tag())
+          .append(", \"").append(sanitize(field.name())).append("\", ")
+          .append(datatype).append(", ")
+          .append(labelName(field, isEnum)).append(", ")
+          .append(isEnum || datatype == Datatype.MESSAGE ? javaName + ".class" : "null")
+          .append(", ").append(isRedacted(field))
+          .append(", ").append(compiler.isLazy(messageType, field)).append(")");
+      separator = ",\n";
+    }
+    table.append(")");
+
+    writer.emitEmptyLine();
+    writer.emitField("FieldDescriptor[]", "FIELDS", EnumSet.of(PRIVATE, STATIC, FINAL),
+        table.toString());
+    writer.emitEmptyLine();
+    writer.emitAnnotation(Override.class);
+    writer.beginMethod("FieldDescriptor[]", "getFieldDescriptors", EnumSet.of(PROTECTED));
+    writer.emitStatement("return FIELDS");
+    writer.endMethod();
+  }
+
+  // Example:
+  //
+  // @Override
+  // protected Object getFieldValue(SimpleMessage message, int tag) {
+  //   switch (tag) {
+  //     case 1: return message.optional_int32;
+  //     default: throw new AssertionError(tag);
+  //   }
+  // }
+  //
+  // The builder accessors are emitted the same way. Members of a oneof are set through their
+  // builder method, which clears the other members. The accessors of a message without fields
+  // just throw.
+  //
+  private void emitCodecFieldAccessors(JavaWriter writer, MessageElement messageType)
+      throws IOException {
+    List<FieldElement> fields = allFields(messageType);
+    for (String receiver : Arrays.asList("message", "builder")) {
+      writer.emitEmptyLine();
+      writer.emitAnnotation(Override.class);
+      writer.beginMethod("Object", "message".equals(receiver)
+          ? "getFieldValue" : "getBuilderFieldValue", EnumSet.of(PROTECTED),
+          "message".equals(receiver) ? messageType.name() : "Builder", receiver, "int", "tag");
+      if (fields.isEmpty()) {
+        writer.emitStatement("throw new AssertionError(tag)");
+        writer.endMethod();
+        continue;
+      }
+      writer.beginControlFlow("switch (tag)");
+      for (FieldElement field : fields) {
+        writer.emitStatement("case %d: return %s.%s", field.tag(), receiver,
+            sanitize(field.name()));
+      }
+      writer.emitStatement("default: throw new AssertionError(tag)");
+      writer.endControlFlow();
+      writer.endMethod();
+    }
+
+    boolean hasGenericField = false;
+    for (FieldElement field : fields) {
+      if (FieldInfo.isRepeated(field) || compiler.isLazy(messageType, field)) {
+        hasGenericField = true;
+      }
+    }
+    writer.emitEmptyLine();
+    writer.emitAnnotation(Override.class);
+    if (hasGenericField) {
+      writer.emitAnnotation(SuppressWarnings.class, "\"unchecked\"");
+    }
+    writer.beginMethod("void", "setBuilderFieldValue", EnumSet.of(PROTECTED),
+        "Builder", "builder", "int", "tag", "Object", "value");
+    if (fields.isEmpty()) {
+      writer.emitStatement("throw new AssertionError(tag)");
+      writer.endMethod();
+      return;
+    }
+    writer.beginControlFlow("switch (tag)");
+    for (FieldElement field : fields) {
+      String javaName = compiler.javaName(messageType, field.type().toString());
+      if (FieldInfo.isRepeated(field)) javaName = "List<" + javaName + ">";
+      if (compiler.isLazy(messageType, field)) javaName = "LazyMessage<" + javaName + ">";
+      String name = sanitize(field.name());
+      if (field.label() == FieldElement.Label.ONE_OF) {
+        writer.emitStatement("case %d: builder.%s((%s) value); break", field.tag(), name,
+            javaName);
+      } else {
+        writer.emitStatement("case %d: builder.%s = (%s) value; break", field.tag(), name,
+            javaName);
+      }
+    }
+    writer.emitStatement("default: throw new AssertionError(tag)");
+    writer.endControlFlow();
+    writer.endMethod();
+  }
+
+  private void emitCodecNewBuilder(JavaWriter writer) throws IOException {
+    writer.emitEmptyLine();
+    writer.emitAnnotation(Override.class);
+    writer.beginMethod("Builder", "newBuilder", EnumSet.of(PROTECTED));
+    writer.emitStatement("return new Builder()");
+    writer.endMethod();
+  }
+
+  // Example:
+  //
+  // @Override
+  // protected int getSerializedSize(SimpleMessage message) {
+  //   int size = 0;
+  //   if (message.optional_int32 != null) size += 1 + int32Size(message.optional_int32);
+  //   return size;
+  // }
+  //
+  // Codecs that record string and packed lengths size the message in a private overload that
+  // adds them to a caller's list, or to none when called for the size alone.
+  //
+  private void emitCodecSerializedSize(JavaWriter writer, MessageElement messageType)
+      throws IOException {
+    boolean recordLengths = hasRecordedLengths(messageType);
+    writer.emitEmptyLine();
+    writer.emitAnnotation(Override.class);
+    writer.beginMethod("int", "getSerializedSize", EnumSet.of(PROTECTED),
+        messageType.name(), "message");
+    if (recordLengths) {
+      writer.emitStatement("return getSerializedSize(message, null)");
+      writer.endMethod();
+      writer.emitEmptyLine();
+      writer.beginMethod("int", "getSerializedSize", EnumSet.of(PRIVATE),
+          messageType.name(), "message", "IntList", "lengths");
+    }
+    writer.emitStatement("int size = 0");
+    for (FieldElement field : allFields(messageType)) {
+      Datatype datatype = getDatatype(messageType, field);
+      String value = "message." + sanitize(field.name());
+      int tagSize = tagSize(field.tag());
+      int fixedSize = fixedSize(datatype);
+
+      if (FieldInfo.isPacked(field, datatype == Datatype.ENUM)) {
+        writer.beginControlFlow("if (%s != null)", value);
+        emitCodecPackedSize(writer, value, datatype, field.tag());
+        if (fixedSize != -1) {
+          writer.emitStatement("size += %d + varint32Size(packedSize) + packedSize", tagSize);
+        } else {
+          writer.emitStatement(
+              "size += %d + varint32Size(recordLength(lengths, packedSize)) + packedSize", tagSize);
+        }
+        writer.endControlFlow();
+      } else if (FieldInfo.isRepeated(field)) {
+        if (fixedSize != -1) {
+          writer.emitStatement("size += %s.size() * %d", value, tagSize + fixedSize);
+        } else if (datatype == Datatype.MESSAGE) {
+          writer.emitStatement("size += messagesSize(%d, %s)", field.tag(), value);
+        } else {
+          writer.beginControlFlow("for (int i = 0, count = %s.size(); i < count; i++)", value);
+          writer.emitStatement("size += %d + %s", tagSize,
+              codecSizeExpression(datatype, codecElement(datatype, value), field.tag()));
+          writer.endControlFlow();
+        }
+      } else if (compiler.isLazy(messageType, field)) {
+        writer.emitStatement("if (%s != null) size += %d + lazySize(%s)", value, tagSize, value);
+      } else if (fixedSize != -1) {
+        writer.emitStatement("if (%s != null) size += %d", value, tagSize + fixedSize);
+      } else {
+        writer.emitStatement("if (%s != null) size += %d + %s", value, tagSize,
+            codecSizeExpression(datatype, value, field.tag()));
+      }
+    }
+    writer.emitStatement("return size");
+    writer.endMethod();
+  }
+
+  private void emitCodecPackedSize(JavaWriter writer, String value, Datatype datatype, int tag)
+      throws IOException {
+    int fixedSize = fixedSize(datatype);
+    if (fixedSize != -1) {
+      writer.emitStatement("int packedSize = %s.size() * %d", value, fixedSize);
+    } else {
+      writer.emitStatement("int packedSize = 0");
+      writer.beginControlFlow("for (int i = 0, count = %s.size(); i < count; i++)", value);
+      writer.emitStatement("packedSize += %s",
+          codecSizeExpression(datatype, codecElement(datatype, value), tag));
+      writer.endControlFlow();
+    }
+  }
+
+  // Example:
+  //
+  // @Override
+  // protected void write(SimpleMessage message, WireOutput output) throws IOException {
+  //   if (message.optional_int32 != null) {
+  //     output.writeTag(1, WireType.VARINT);
+  //     output.writeSignedVarint32(message.optional_int32);
+  //   }
+  // }
+  //
+  private void emitCodecWrite(JavaWriter writer, MessageElement messageType) throws IOException {
+    writer.emitEmptyLine();
+    writer.emitAnnotation(Override.class);
+    writer.beginMethod("void", "write", EnumSet.of(PROTECTED),
+        Arrays.asList(messageType.name(), "message", "WireOutput", "output"),
+        Collections.singletonList("IOException"));
+    if (hasRecordedLengths(messageType)) {
+      writer.emitStatement("IntList lengths = newLengths()");
+      writer.emitStatement("getSerializedSize(message, lengths)");
+      writer.emitStatement("int lengthIndex = 0");
+    }
+    for (FieldElement field : allFields(messageType)) {
+      Datatype datatype = getDatatype(messageType, field);
+      String value = "message." + sanitize(field.name());
+      int tag = field.tag();
+
+      if (FieldInfo.isPacked(field, datatype == Datatype.ENUM)) {
+        writer.beginControlFlow("if (%s != null)", value);
+        if (fixedSize(datatype) != -1) {
+          emitCodecPackedSize(writer, value, datatype, tag);
+        } else {
+          writer.emitStatement("int packedSize = lengths.getInt(lengthIndex++)");
+        }
+        writer.emitStatement("output.writeTag(%d, WireType.LENGTH_DELIMITED)", tag);
+        writer.emitStatement("output.writeVarint32(packedSize)");
+        writer.beginControlFlow("for (int i = 0, count = %s.size(); i < count; i++)", value);
+        emitCodecWriteValue(writer, datatype, codecElement(datatype, value), tag);
+        writer.endControlFlow();
+        writer.endControlFlow();
+      } else if (FieldInfo.isRepeated(field) && datatype == Datatype.MESSAGE) {
+        writer.emitStatement("writeMessages(output, %d, %s)", tag, value);
+      } else if (FieldInfo.isRepeated(field)) {
+        writer.beginControlFlow("for (int i = 0, count = %s.size(); i < count; i++)", value);
+        writer.emitStatement("output.writeTag(%d, WireType.%s)", tag, datatype.wireType());
+        emitCodecWriteValue(writer, datatype, codecElement(datatype, value), tag);
+        writer.endControlFlow();
+      } else {
+        writer.beginControlFlow("if (%s != null)", value);
+        writer.emitStatement("output.writeTag(%d, WireType.%s)", tag, datatype.wireType());
+        if (compiler.isLazy(messageType, field)) {
+          writer.emitStatement("writeLazy(output, %d, %s)", tag, value);
+        } else {
+          emitCodecWriteValue(writer, datatype, value, tag);
+        }
+        writer.endControlFlow();
+      }
+    }
+    writer.endMethod();
+  }
+
+  private void emitCodecWriteValue(JavaWriter writer, Datatype datatype, String value, int tag)
+      throws IOException {
+    switch (datatype) {
+      case INT32: writer.emitStatement("output.writeSignedVarint32(%s)", value); break;
+      case INT64: case UINT64: writer.emitStatement("output.writeVarint64(%s)", value); break;
+      case UINT32: writer.emitStatement("output.writeVarint32(%s)", value); break;
+      case SINT32:
+        writer.emitStatement("output.writeVarint32(WireOutput.zigZag32(%s))", value);
+        break;
+      case SINT64:
+        writer.emitStatement("output.writeVarint64(WireOutput.zigZag64(%s))", value);
+        break;
+      case BOOL: writer.emitStatement("output.writeRawByte(%s ? 1 : 0)", value); break;
+      case ENUM: writer.emitStatement("output.writeVarint32(%s.getValue())", value); break;
+      case STRING:
+        writer.emitStatement("writeString(output, %s, lengths.getInt(lengthIndex++))", value);
+        break;
+      case BYTES: writer.emitStatement("output.writeBytes(%s)", value); break;
+      case MESSAGE: writer.emitStatement("writeMessage(output, %d, %s)", tag, value); break;
+      case FIXED32: case SFIXED32: writer.emitStatement("output.writeFixed32(%s)", value); break;
+      case FIXED64: case SFIXED64: writer.emitStatement("output.writeFixed64(%s)", value); break;
+      case FLOAT:
+        writer.emitStatement("output.writeFixed32(Float.floatToIntBits(%s))", value);
+        break;
+      case DOUBLE:
+        writer.emitStatement("output.writeFixed64(Double.doubleToLongBits(%s))", value);
+        break;
+      default: throw new AssertionError("Unknown datatype " + datatype);
+    }
+  }
+
+  // Example:
+  //
+  // @Override
+  // protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+  //     throws IOException {
+  //   switch (tag) {
+  //     case 1: {
+  //       builder.optional_int32 = input.readVarint32();
+  //       return true;
+  //     }
+  //   }
+  //   return false;
+  // }
+  //
+  private void emitCodecRead(JavaWriter writer, MessageElement messageType) throws IOException {
+    writer.emitEmptyLine();
+    writer.emitAnnotation(Override.class);
+    writer.beginMethod("boolean", "read", EnumSet.of(PROTECTED),
+        Arrays.asList("Builder", "builder", "WireInput", "input", "int", "tag", "WireType",
+            "wireType"),
+        Collections.singletonList("IOException"));
+    List<FieldElement> fields = allFields(messageType);
+    if (!fields.isEmpty()) {
+      writer.beginControlFlow("switch (tag)");
+      for (FieldElement field : fields) {
+        Datatype datatype = getDatatype(messageType, field);
+        String javaName = compiler.javaName(messageType, field.type().toString());
+        String name = sanitize(field.name());
+        writer.beginControlFlow("case %d:", field.tag());
+        if (FieldInfo.isRepeated(field)) {
+          boolean packable = datatype != Datatype.STRING && datatype != Datatype.BYTES
+              && datatype != Datatype.MESSAGE;
+          if (packable) {
+            // Accept both packed and unpacked encodings of repeated scalars.
+            writer.beginControlFlow("if (wireType == WireType.LENGTH_DELIMITED)");
+            writer.emitStatement("long oldLimit = beginPacked(input)");
+            writer.beginControlFlow("while (hasMorePacked(input))");
+            emitCodecReadRepeatedValue(writer, datatype, javaName, name, field.tag());
+            writer.endControlFlow();
+            writer.emitStatement("endPacked(input, oldLimit)");
+            writer.nextControlFlow("else");
+            emitCodecReadRepeatedValue(writer, datatype, javaName, name, field.tag());
+            writer.endControlFlow();
+          } else {
+            emitCodecReadRepeatedValue(writer, datatype, javaName, name, field.tag());
+          }
+        } else {
+          String assignment = field.label() == FieldElement.Label.ONE_OF
+              ? "builder." + name + "(%s)"
+              : "builder." + name + " = %s";
+          if (datatype == Datatype.ENUM) {
+            writer.emitStatement("%1$s value = (%1$s) readEnum(input, builder, %2$d)", javaName,
+                field.tag());
+            writer.emitStatement("if (value != null) " + assignment, "value");
+          } else if (compiler.isLazy(messageType, field)) {
+            writer.emitStatement(assignment, "readLazy(input, " + field.tag() + ")");
+          } else {
+            writer.emitStatement(assignment,
+                codecReadExpression(datatype, javaName, field.tag()));
+          }
+        }
+        writer.emitStatement("return true");
+        writer.endControlFlow();
+      }
+      writer.endControlFlow();
+    }
+    writer.emitStatement("return false");
+    writer.endMethod();
+  }
+
+  private void emitCodecReadRepeatedValue(JavaWriter writer, Datatype datatype, String javaName,
+      String name, int tag) throws IOException {
+    if (datatype == Datatype.ENUM) {
+      writer.emitStatement("%1$s value = (%1$s) readEnum(input, builder, %2$d)", javaName, tag);
+      writer.emitStatement("if (value != null) builder.%1$s = append(builder.%1$s, value)", name);
+    } else {
+      String primitive = primitiveName(datatype);
+      writer.emitStatement("builder.%1$s = append%2$s(builder.%1$s, %3$s)", name,
+          primitive != null ? primitive : "", codecReadExpression(datatype, javaName, tag));
+    }
+  }
+
+  /**
+   * Returns an expression for the element at index {@code i} of the repeated field {@code value}.
+   * Scalars are read without boxing when the list is one of the runtime's primitive lists.
+   */
+  private static String codecElement(Datatype datatype, String value) {
+    String primitive = primitiveName(datatype);
+    return primitive != null
+        ? "get" + primitive + "(" + value + ", i)"
+        : value + ".get(i)";
+  }
+
+  /**
+   * Returns the name of the primitive list type that holds repeated values of {@code datatype},
+   * such as "Int" for IntList, or null if values of the type are always boxed.
+   */
+  private static String primitiveName(Datatype datatype) {
+    switch (datatype) {
+      case INT32: case UINT32: case SINT32: case FIXED32: case SFIXED32: return "Int";
+      case INT64: case UINT64: case SINT64: case FIXED64: case SFIXED64: return "Long";
+      case FLOAT: return "Float";
+      case DOUBLE: return "Double";
+      case BOOL: return "Boolean";
+      default: return null;
+    }
+  }
+
+  private String codecReadExpression(Datatype datatype, String javaName, int tag) {
+    switch (datatype) {
+      case INT32: case UINT32: return "input.readVarint32()";
+      case INT64: case UINT64: return "input.readVarint64()";
+      case SINT32: return "WireInput.decodeZigZag32(input.readVarint32())";
+      case SINT64: return "WireInput.decodeZigZag64(input.readVarint64())";
+      case BOOL: return "input.readVarint32() != 0";
+      case STRING: return "input.readString()";
+      case BYTES: return "input.readBytes()";
+      case MESSAGE: return "(" + javaName + ") readMessage(input, " + tag + ")";
+      case FIXED32: case SFIXED32: return "input.readFixed32()";
+      case FIXED64: case SFIXED64: return "input.readFixed64()";
+      case FLOAT: return "Float.intBitsToFloat(input.readFixed32())";
+      case DOUBLE: return "Double.longBitsToDouble(input.readFixed64())";
+      default: throw new AssertionError("Unknown datatype " + datatype);
+    }
+  }
+
+  private String codecSizeExpression(Datatype datatype, String value, int tag) {
+    switch (datatype) {
+      case INT32: return "int32Size(" + value + ")";
+      case INT64: case UINT64: return "varint64Size(" + value + ")";
+      case UINT32: return "varint32Size(" + value + ")";
+      case SINT32: return "sint32Size(" + value + ")";
+      case SINT64: return "sint64Size(" + value + ")";
+      case ENUM: return "enumSize(" + value + ")";
+      case STRING: return "stringSize(" + value + ", lengths)";
+      case BYTES: return "bytesSize(" + value + ")";
+      case MESSAGE: return "messageSize(" + tag + ", " + value + ")";
+      default: throw new AssertionError("Datatype " + datatype + " has a fixed size");
+    }
+  }
+
+  /**
+   * Returns true if sizing {@code messageType} measures strings or packed fields whose lengths are
+   * recorded for the codec's write method to reuse.
+   */
+  boolean hasRecordedLengths(MessageElement messageType) {
+    for (FieldElement field : allFields(messageType)) {
+      Datatype datatype = getDatatype(messageType, field);
+      if (datatype == Datatype.STRING
+          || (fixedSize(datatype) == -1 && FieldInfo.isPacked(field, datatype == Datatype.ENUM))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Returns the encoded size of values of {@code datatype}, or -1 if the size varies. */
+  private static int fixedSize(Datatype datatype) {
+    switch (datatype) {
+      case BOOL: return 1;
+      case FIXED32: case SFIXED32: case FLOAT: return 4;
+      case FIXED64: case SFIXED64: case DOUBLE: return 8;
+      default: return -1;
+    }
+  }
+
+  /** Returns the number of bytes needed to encode the key of a field with the given tag. */
+  private static int tagSize(int tag) {
+    int key = tag << 3;
+    int size = 1;
+    while ((key & ~0x7F) != 0) {
+      key >>>= 7;
+      size++;
+    }
+    return size;
+  }
+
+  private Datatype getDatatype(MessageElement messageType, FieldElement field) {
+    String fieldType = field.type().toString();
+    if (TypeInfo.isScalar(fieldType)) {
+      return Datatype.of(fieldType);
+    }
+    return compiler.isEnum(compiler.fullyQualifiedName(messageType, fieldType))
+        ? Datatype.ENUM : Datatype.MESSAGE;
+  }
+
   private String addThisIfOneOf(String name, String... matches) {
     for (String match : matches) {
       if (match.equals(name)) {
@@ -809,7 +1344,9 @@ public class MessageWriter {
   }
 
   private String getJavaFieldType(MessageElement messageType, FieldElement field) {
-    return getJavaFieldType(compiler.getProtoFile(), messageType, field);
+    String javaName = getJavaFieldType(compiler.getProtoFile(), messageType, field);
+    if (compiler.isLazy(messageType, field)) javaName = "LazyMessage<" + javaName + ">";
+    return javaName;
   }
 
   private String getJavaFieldType(ProtoFile protoFile, MessageElement messageType,
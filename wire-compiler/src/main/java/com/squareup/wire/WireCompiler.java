@@ -60,7 +60,7 @@ public class WireCompiler {
    * Field options that don't trigger generation of a FIELD_OPTIONS_* field.
    */
   static final Set<String> DEFAULT_FIELD_OPTION_KEYS =
-      new LinkedHashSet<String>(Arrays.asList("default", "deprecated", "packed"));
+      new LinkedHashSet<String>(Arrays.asList("default", "deprecated", "lazy", "packed"));
 
   private static final Charset ISO_8859_1 = Charset.forName("ISO_8859_1");
   private static final String CODE_GENERATED_BY_WIRE =
@@ -774,6 +774,19 @@ public class WireCompiler {
       if (hasMessage) {
         imports.add("com.squareup.wire.Message");
       }
+      if (hasCodec(types)) {
+        imports.add("com.squareup.wire.MessageCodec");
+        imports.add("com.squareup.wire.WireInput");
+        imports.add("com.squareup.wire.WireOutput");
+        imports.add("com.squareup.wire.WireType");
+        imports.add("java.io.IOException");
+      }
+      if (hasFieldDescriptors(types)) {
+        imports.add("com.squareup.wire.FieldDescriptor");
+      }
+      if (hasRecordedLengths(types)) {
+        imports.add("com.squareup.wire.IntList");
+      }
       if (hasMessage || hasExtensions) {
         if (hasFields(type)) {
           imports.add("com.squareup.wire.ProtoField");
@@ -782,6 +795,9 @@ public class WireCompiler {
       if (hasBytesField(types)) {
         imports.add("okio.ByteString");
       }
+      if (hasLazyField(types)) {
+        imports.add("com.squareup.wire.LazyMessage");
+      }
       if (hasEnum(types)) {
         imports.add("com.squareup.wire.ProtoEnum");
       }
@@ -827,8 +843,6 @@ public class WireCompiler {
       Collection<Datatype> datatypes = new TreeSet<Datatype>(Datatype.ORDER_BY_NAME);
       Collection<Label> labels = new TreeSet<Label>(Label.ORDER_BY_NAME);
       getDatatypesAndLabels(type, datatypes, labels);
-      // No need to emit 'label = OPTIONAL' since it is the default
-      labels.remove(Label.OPTIONAL);
 
       MessageWriter messageWriter = new MessageWriter(this);
       messageWriter.emitHeader(writer, imports, datatypes, labels);
@@ -1164,6 +1178,37 @@ public class WireCompiler {
     return false;
   }
 
+  /** Returns true if any of the given types is a message, and so has a generated codec. */
+  private boolean hasCodec(List<TypeElement> types) {
+    for (TypeElement type : types) {
+      if (type instanceof MessageElement) return true;
+      if (hasCodec(type.nestedElements())) return true;
+    }
+    return false;
+  }
+
+  /** Returns true if the codec of any of the given messages has a field descriptor table. */
+  private boolean hasFieldDescriptors(List<TypeElement> types) {
+    for (TypeElement type : types) {
+      if (type instanceof MessageElement && !allFields((MessageElement) type).isEmpty()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Returns true if the codec of any of the given messages records string or packed lengths. */
+  private boolean hasRecordedLengths(List<TypeElement> types) {
+    MessageWriter messageWriter = new MessageWriter(this);
+    for (TypeElement type : types) {
+      if (type instanceof MessageElement
+          && messageWriter.hasRecordedLengths((MessageElement) type)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /** Returns a list of field, including fields inside 'oneof' declarations. */
   static List<FieldElement> allFields(MessageElement messageType) {
     List<FieldElement> allFields = new ArrayList<FieldElement>();
@@ -1198,6 +1243,26 @@ public class WireCompiler {
     return false;
   }
 
+  private boolean hasLazyField(List<TypeElement> types) {
+    for (TypeElement type : types) {
+      if (type instanceof MessageElement) {
+        for (FieldElement field : allFields((MessageElement) type)) {
+          if (isLazy(type, field)) return true;
+        }
+      }
+      if (hasLazyField(type.nestedElements())) return true;
+    }
+    return false;
+  }
+
+  /** Returns true if {@code field} of {@code type} is a lazily-decoded message field. */
+  boolean isLazy(TypeElement type, FieldElement field) {
+    String fieldType = field.type().toString();
+    boolean isMessage = !TypeInfo.isScalar(fieldType)
+        && !isEnum(fullyQualifiedName(type, fieldType));
+    return FieldInfo.isLazy(field, isMessage);
+  }
+
   private void getDatatypesAndLabels(TypeElement type, Collection<Datatype> types,
       Collection<Label> labels) {
     if (type instanceof MessageElement) {
@@ -1208,7 +1273,8 @@ public class WireCompiler {
         if (datatype == null && isEnum(fullyQualifiedName(type, field.type().toString()))) {
           datatype = Datatype.ENUM;
         }
-        if (datatype != null) types.add(datatype);
+        // Message fields are named in the codec's field descriptor table.
+        types.add(datatype != null ? datatype : Datatype.MESSAGE);
 
         // Convert Protoparser label to Wire label
         FieldElement.Label label = field.label();
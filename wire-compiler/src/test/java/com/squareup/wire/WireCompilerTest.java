@@ -222,6 +222,18 @@ public class WireCompilerTest {
     testProto(sources, outputs);
   }
 
+  @Test public void testLazy() throws Exception {
+    String[] sources = {
+        "lazy.proto"
+    };
+    String[] outputs = {
+        "com/squareup/wire/protos/lazy/Envelope.java",
+        "com/squareup/wire/protos/lazy/Header.java",
+        "com/squareup/wire/protos/lazy/Payload.java"
+    };
+    testProto(sources, outputs);
+  }
+
   @Test public void testSimple() throws Exception {
     String[] sources = {
         "simple_message.proto",
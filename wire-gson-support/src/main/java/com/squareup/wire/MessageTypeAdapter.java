@@ -64,6 +64,9 @@ class MessageTypeAdapter<M extends Message> extends TypeAdapter<M> {
       if (value == null) {
         continue;
       }
+      if (value instanceof LazyMessage) {
+        value = ((LazyMessage<?>) value).get();
+      }
       out.name(fieldInfo.name);
       emitJson(out, value, fieldInfo.datatype, fieldInfo.label);
     }
@@ -180,6 +183,9 @@ class MessageTypeAdapter<M extends Message> extends TypeAdapter<M> {
       } else {
         Type valueType = getType(fieldInfo);
         Object value = parseValue(fieldInfo.label, valueType, parse(in));
+        if (fieldInfo.lazy && value != null) {
+          value = LazyMessage.of((Message) value);
+        }
         // Use the builder setter method to ensure proper 'oneof' behavior.
         messageAdapter.setBuilderMethod(builder, fieldInfo, value);
       }
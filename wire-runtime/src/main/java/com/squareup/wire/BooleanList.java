@@ -0,0 +1,80 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.util.Arrays;
+
+/**
+ * An immutable list of {@code boolean} values that doesn't box its elements. Wire decodes repeated
+ * {@code bool} fields into instances of this class, and reads them back with
+ * {@link #getBoolean} when encoding.
+ */
+public final class BooleanList extends PrimitiveList<Boolean> {
+  private static final long serialVersionUID = 0L;
+
+  private boolean[] values;
+
+  BooleanList() {
+    super(0);
+    this.values = new boolean[INITIAL_CAPACITY];
+  }
+
+  private BooleanList(boolean[] values) {
+    super(values.length);
+    this.values = values;
+  }
+
+  /** Returns an immutable list containing a copy of {@code values}. */
+  public static BooleanList of(boolean... values) {
+    return new BooleanList(values.clone());
+  }
+
+  /** Returns the element at {@code index} without boxing it. */
+  public boolean getBoolean(int index) {
+    checkIndex(index);
+    return values[index];
+  }
+
+  @Override public Boolean get(int index) {
+    return getBoolean(index);
+  }
+
+  /** Returns a new array containing the elements of this list. */
+  public boolean[] toBooleanArray() {
+    return Arrays.copyOf(values, size());
+  }
+
+  void addBoolean(boolean value) {
+    int index = append();
+    values[index] = value;
+  }
+
+  @Override void addValue(Boolean value) {
+    addBoolean(value);
+  }
+
+  @Override int capacity() {
+    return values.length;
+  }
+
+  @Override void grow(int capacity) {
+    values = Arrays.copyOf(values, capacity);
+  }
+
+  @Override BooleanList copy() {
+    return new BooleanList(toBooleanArray());
+  }
+}
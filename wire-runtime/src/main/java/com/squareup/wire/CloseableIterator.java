@@ -0,0 +1,28 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+/**
+ * An iterator over values decoded from an input that it owns. The input is closed when the
+ * iterator is exhausted or fails; callers that stop iterating early must {@link #close} it.
+ *
+ * @param <T> the type of the values.
+ */
+public interface CloseableIterator<T> extends Iterator<T>, Closeable {
+}
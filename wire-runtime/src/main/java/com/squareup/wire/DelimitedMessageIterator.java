@@ -0,0 +1,92 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.NoSuchElementException;
+
+/**
+ * Decodes consecutive messages, each preceded by its length as a varint, from a single input as
+ * they are requested. Each message is read within a limit pushed on the shared input, so records
+ * are neither copied nor re-wrapped. The input is closed once it is exhausted or a read fails.
+ *
+ * @param <M> the type of the messages.
+ */
+final class DelimitedMessageIterator<M extends Message> implements CloseableIterator<M> {
+  private final WireInput input;
+  private final MessageAdapter<M> adapter;
+
+  /** The message to be returned by {@link #next}, or null if it hasn't been read yet. */
+  private M next;
+  private boolean exhausted;
+
+  DelimitedMessageIterator(WireInput input, MessageAdapter<M> adapter) {
+    this.input = input;
+    this.adapter = adapter;
+  }
+
+  @Override public boolean hasNext() {
+    if (next != null) return true;
+    if (exhausted) return false;
+    try {
+      if (input.exhausted()) {
+        close();
+        return false;
+      }
+      long oldLimit = input.pushLimit(input.readVarint32());
+      next = adapter.read(input);
+      // Reading stops at the end of the input as well as at the limit, so check that the whole
+      // record was present.
+      if (input.getPosition() != input.getLimit()) {
+        throw new EOFException(WireInput.INPUT_ENDED_UNEXPECTEDLY);
+      }
+      input.popLimit(oldLimit);
+      return true;
+    } catch (IOException e) {
+      closeAfterError();
+      throw new RuntimeException(e);
+    } catch (RuntimeException e) {
+      closeAfterError();
+      throw e;
+    }
+  }
+
+  @Override public M next() {
+    if (!hasNext()) throw new NoSuchElementException();
+    M result = next;
+    next = null;
+    return result;
+  }
+
+  @Override public void remove() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override public void close() throws IOException {
+    exhausted = true;
+    next = null;
+    input.close();
+  }
+
+  /** Closes the input after a failed read, so that the read's exception is the one reported. */
+  private void closeAfterError() {
+    try {
+      close();
+    } catch (IOException ignored) {
+    }
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.util.Arrays;
+
+/**
+ * An immutable list of {@code double} values that doesn't box its elements. Wire decodes repeated
+ * {@code double} fields into instances of this class, and reads them back with
+ * {@link #getDouble} when encoding.
+ */
+public final class DoubleList extends PrimitiveList<Double> {
+  private static final long serialVersionUID = 0L;
+
+  private double[] values;
+
+  DoubleList() {
+    super(0);
+    this.values = new double[INITIAL_CAPACITY];
+  }
+
+  private DoubleList(double[] values) {
+    super(values.length);
+    this.values = values;
+  }
+
+  /** Returns an immutable list containing a copy of {@code values}. */
+  public static DoubleList of(double... values) {
+    return new DoubleList(values.clone());
+  }
+
+  /** Returns the element at {@code index} without boxing it. */
+  public double getDouble(int index) {
+    checkIndex(index);
+    return values[index];
+  }
+
+  @Override public Double get(int index) {
+    return getDouble(index);
+  }
+
+  /** Returns a new array containing the elements of this list. */
+  public double[] toDoubleArray() {
+    return Arrays.copyOf(values, size());
+  }
+
+  void addDouble(double value) {
+    int index = append();
+    values[index] = value;
+  }
+
+  @Override void addValue(Double value) {
+    addDouble(value);
+  }
+
+  @Override int capacity() {
+    return values.length;
+  }
+
+  @Override void grow(int capacity) {
+    values = Arrays.copyOf(values, capacity);
+  }
+
+  @Override DoubleList copy() {
+    return new DoubleList(toDoubleArray());
+  }
+}
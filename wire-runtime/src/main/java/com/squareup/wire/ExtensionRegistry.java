@@ -15,37 +15,66 @@
  */
 package com.squareup.wire;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
+/**
+ * The extensions known to a {@link Wire}, grouped by the message type they extend. The registry
+ * is immutable: each extended type's extensions are indexed by tag once, when it is built, so
+ * that decoding an extension field costs the same lookup as a declared field.
+ */
 final class ExtensionRegistry {
 
-  private final Map<Class<? extends ExtendableMessage>, Map<Integer, Extension<?, ?>>>
-      extensionsByTag = new LinkedHashMap<Class<? extends ExtendableMessage>,
-                Map<Integer, Extension<?, ?>>>();
-  private final Map<Class<? extends ExtendableMessage>, Map<String, Extension<?, ?>>>
-      extensionsByName = new LinkedHashMap<Class<? extends ExtendableMessage>,
-          Map<String, Extension<?, ?>>>();
+  private final Map<Class<?>, TagMap<Extension<?, ?>>> extensionsByTag =
+      new LinkedHashMap<Class<?>, TagMap<Extension<?, ?>>>();
+  private final Map<Class<?>, Map<String, Extension<?, ?>>> extensionsByName =
+      new LinkedHashMap<Class<?>, Map<String, Extension<?, ?>>>();
 
-  public <T extends ExtendableMessage<?>, E> void add(Extension<T, E> extension) {
-    Class<? extends ExtendableMessage<?>> messageClass = extension.getExtendedType();
-    Map<Integer, Extension<?, ?>> tagMap = extensionsByTag.get(messageClass);
-    Map<String, Extension<?, ?>> nameMap = extensionsByName.get(messageClass);
-    if (tagMap == null) {
-      tagMap = new LinkedHashMap<Integer, Extension<?, ?>>();
-      nameMap = new LinkedHashMap<String, Extension<?, ?>>();
-      extensionsByTag.put(messageClass, tagMap);
-      extensionsByName.put(messageClass, nameMap);
+  ExtensionRegistry(List<Extension<?, ?>> extensions) {
+    Map<Class<?>, Map<Integer, Extension<?, ?>>> tagMaps =
+        new LinkedHashMap<Class<?>, Map<Integer, Extension<?, ?>>>();
+    for (Extension<?, ?> extension : extensions) {
+      Class<?> messageClass = extension.getExtendedType();
+      Map<Integer, Extension<?, ?>> tagMap = tagMaps.get(messageClass);
+      Map<String, Extension<?, ?>> nameMap = extensionsByName.get(messageClass);
+      if (tagMap == null) {
+        tagMap = new LinkedHashMap<Integer, Extension<?, ?>>();
+        nameMap = new LinkedHashMap<String, Extension<?, ?>>();
+        tagMaps.put(messageClass, tagMap);
+        extensionsByName.put(messageClass, nameMap);
+      }
+      tagMap.put(extension.getTag(), extension);
+      nameMap.put(extension.getName(), extension);
     }
-    tagMap.put(extension.getTag(), extension);
-    nameMap.put(extension.getName(), extension);
+    for (Map.Entry<Class<?>, Map<Integer, Extension<?, ?>>> entry : tagMaps.entrySet()) {
+      extensionsByTag.put(entry.getKey(), TagMap.of(entry.getValue()));
+    }
+  }
+
+  /**
+   * Returns the extensions of {@code messageClass} indexed by tag, or null if it has none. The
+   * adapter of {@code messageClass} holds on to this table.
+   */
+  public TagMap<Extension<?, ?>> getExtensionsByTag(Class<?> messageClass) {
+    return extensionsByTag.get(messageClass);
+  }
+
+  /** Returns the extensions registered for {@code messageClass}. */
+  public Collection<Extension<?, ?>> getExtensions(Class<?> messageClass) {
+    TagMap<Extension<?, ?>> tagMap = extensionsByTag.get(messageClass);
+    return tagMap == null
+        ? Collections.<Extension<?, ?>>emptyList()
+        : Collections.unmodifiableCollection(tagMap.values());
   }
 
   @SuppressWarnings("unchecked")
   public <T extends ExtendableMessage<?>, E> Extension<T, E>
       getExtension(Class<T> messageClass, int tag) {
-    Map<Integer, Extension<?, ?>> map = extensionsByTag.get(messageClass);
-    return map == null ? null : (Extension<T, E>) map.get(tag);
+    TagMap<Extension<?, ?>> tagMap = extensionsByTag.get(messageClass);
+    return tagMap == null ? null : (Extension<T, E>) tagMap.get(tag);
   }
 
   @SuppressWarnings("unchecked")
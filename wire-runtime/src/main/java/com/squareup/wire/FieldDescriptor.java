@@ -0,0 +1,50 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import static com.squareup.wire.Message.Datatype;
+import static com.squareup.wire.Message.Label;
+
+/**
+ * Describes a declared field of a generated message. The Wire compiler emits a table of these in
+ * each message's {@link MessageCodec}, carrying the same metadata as the field's
+ * {@link ProtoField} annotation, so that the runtime does not need to scan annotations.
+ */
+public final class FieldDescriptor {
+  final int tag;
+  final String name;
+  final Datatype datatype;
+  final Label label;
+  final Class<?> enumOrMessageType;
+  final boolean redacted;
+  final boolean lazy;
+
+  /**
+   * @param enumOrMessageType the enum type of an {@code ENUM} field or the message type of a
+   *     {@code MESSAGE} field, or null for scalar fields.
+   * @param lazy true if the field is a message field declared with {@code [lazy = true]}.
+   */
+  public FieldDescriptor(int tag, String name, Datatype datatype, Label label,
+      Class<?> enumOrMessageType, boolean redacted, boolean lazy) {
+    this.tag = tag;
+    this.name = name;
+    this.datatype = datatype;
+    this.label = label;
+    this.enumOrMessageType = enumOrMessageType;
+    this.redacted = redacted;
+    this.lazy = lazy;
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.squareup.wire.Preconditions.checkArgument;
+import static com.squareup.wire.Preconditions.checkNotNull;
+
+/**
+ * A set of field paths to decode when parsing a message with
+ * {@link Wire#parseFrom(byte[], Class, FieldMask)}. A path is a dot-separated list of field
+ * names, such as {@code header.trace_id}; it selects the named field of each nested message
+ * along the way, including every element of a repeated message field. A path that ends at a
+ * message field selects that message in full.
+ *
+ * <p>Fields that are not selected are skipped without being decoded, and are not retained as
+ * unknown fields. Extensions are never selected.
+ */
+public final class FieldMask {
+  /** Selects every field of a message. */
+  private static final FieldMask ALL = new FieldMask(null);
+
+  /** The selected fields by name, or null if every field is selected. */
+  private final Map<String, FieldMask> children;
+
+  /** The selected fields by tag for each message type this mask has been applied to. */
+  private final Map<Class<? extends Message>, TagMap<FieldMask>> resolved =
+      new ConcurrentHashMap<Class<? extends Message>, TagMap<FieldMask>>();
+
+  private FieldMask(Map<String, FieldMask> children) {
+    this.children = children;
+  }
+
+  /** Returns a mask that selects each of {@code paths}. */
+  public static FieldMask of(String... paths) {
+    checkNotNull(paths, "paths");
+    return of(Arrays.asList(paths));
+  }
+
+  /** Returns a mask that selects each of {@code paths}. */
+  public static FieldMask of(Collection<String> paths) {
+    checkNotNull(paths, "paths");
+    Map<String, Object> tree = new LinkedHashMap<String, Object>();
+    for (String path : paths) {
+      checkNotNull(path, "path");
+      add(tree, path, path);
+    }
+    return new FieldMask(toChildren(tree));
+  }
+
+  /**
+   * Adds {@code path} to {@code tree}, a map from field name to either {@link #ALL} or the tree of
+   * nested paths below that field.
+   */
+  @SuppressWarnings("unchecked")
+  private static void add(Map<String, Object> tree, String path, String fullPath) {
+    int dot = path.indexOf('.');
+    String name = dot == -1 ? path : path.substring(0, dot);
+    checkArgument(!name.isEmpty(), "Malformed field path: " + fullPath);
+    Object child = tree.get(name);
+    if (dot == -1) {
+      tree.put(name, ALL);
+    } else if (child != ALL) {
+      if (child == null) {
+        child = new LinkedHashMap<String, Object>();
+        tree.put(name, child);
+      }
+      add((Map<String, Object>) child, path.substring(dot + 1), fullPath);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, FieldMask> toChildren(Map<String, Object> tree) {
+    Map<String, FieldMask> children = new LinkedHashMap<String, FieldMask>();
+    for (Map.Entry<String, Object> entry : tree.entrySet()) {
+      Object child = entry.getValue();
+      children.put(entry.getKey(), child == ALL
+          ? ALL : new FieldMask(toChildren((Map<String, Object>) child)));
+    }
+    return Collections.unmodifiableMap(children);
+  }
+
+  /** Returns true if every field of a message is selected. */
+  boolean isAll() {
+    return children == null;
+  }
+
+  /**
+   * Returns the nested masks of the fields this mask selects from messages handled by
+   * {@code adapter}, keyed by tag.
+   *
+   * @throws IllegalArgumentException if a path names a field that does not exist, or continues
+   *     past a field that is not a message.
+   */
+  <M extends Message> TagMap<FieldMask> resolve(MessageAdapter<M> adapter) {
+    TagMap<FieldMask> result = resolved.get(adapter.getMessageType());
+    if (result == null) {
+      Map<Integer, FieldMask> map = new LinkedHashMap<Integer, FieldMask>();
+      for (Map.Entry<String, FieldMask> entry : children.entrySet()) {
+        MessageAdapter.FieldInfo fieldInfo = adapter.getField(entry.getKey());
+        checkArgument(fieldInfo != null, "No field named " + entry.getKey() + " in "
+            + adapter.getMessageType().getName());
+        checkArgument(entry.getValue().isAll() || fieldInfo.datatype == Message.Datatype.MESSAGE,
+            "Field " + entry.getKey() + " in " + adapter.getMessageType().getName()
+                + " is not a message");
+        map.put(fieldInfo.tag, entry.getValue());
+      }
+      result = TagMap.of(map);
+      resolved.put(adapter.getMessageType(), result);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.util.Arrays;
+
+/**
+ * An immutable list of {@code float} values that doesn't box its elements. Wire decodes repeated
+ * {@code float} fields into instances of this class, and reads them back with
+ * {@link #getFloat} when encoding.
+ */
+public final class FloatList extends PrimitiveList<Float> {
+  private static final long serialVersionUID = 0L;
+
+  private float[] values;
+
+  FloatList() {
+    super(0);
+    this.values = new float[INITIAL_CAPACITY];
+  }
+
+  private FloatList(float[] values) {
+    super(values.length);
+    this.values = values;
+  }
+
+  /** Returns an immutable list containing a copy of {@code values}. */
+  public static FloatList of(float... values) {
+    return new FloatList(values.clone());
+  }
+
+  /** Returns the element at {@code index} without boxing it. */
+  public float getFloat(int index) {
+    checkIndex(index);
+    return values[index];
+  }
+
+  @Override public Float get(int index) {
+    return getFloat(index);
+  }
+
+  /** Returns a new array containing the elements of this list. */
+  public float[] toFloatArray() {
+    return Arrays.copyOf(values, size());
+  }
+
+  void addFloat(float value) {
+    int index = append();
+    values[index] = value;
+  }
+
+  @Override void addValue(Float value) {
+    addFloat(value);
+  }
+
+  @Override int capacity() {
+    return values.length;
+  }
+
+  @Override void grow(int capacity) {
+    values = Arrays.copyOf(values, capacity);
+  }
+
+  @Override FloatList copy() {
+    return new FloatList(toFloatArray());
+  }
+}
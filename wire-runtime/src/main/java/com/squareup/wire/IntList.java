@@ -0,0 +1,81 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.util.Arrays;
+
+/**
+ * An immutable list of {@code int} values that doesn't box its elements. Wire decodes repeated
+ * {@code int32}, {@code uint32}, {@code sint32}, {@code fixed32} and
+ * {@code sfixed32} fields into instances of this class, and reads them back with
+ * {@link #getInt} when encoding.
+ */
+public final class IntList extends PrimitiveList<Integer> {
+  private static final long serialVersionUID = 0L;
+
+  private int[] values;
+
+  IntList() {
+    super(0);
+    this.values = new int[INITIAL_CAPACITY];
+  }
+
+  private IntList(int[] values) {
+    super(values.length);
+    this.values = values;
+  }
+
+  /** Returns an immutable list containing a copy of {@code values}. */
+  public static IntList of(int... values) {
+    return new IntList(values.clone());
+  }
+
+  /** Returns the element at {@code index} without boxing it. */
+  public int getInt(int index) {
+    checkIndex(index);
+    return values[index];
+  }
+
+  @Override public Integer get(int index) {
+    return getInt(index);
+  }
+
+  /** Returns a new array containing the elements of this list. */
+  public int[] toIntArray() {
+    return Arrays.copyOf(values, size());
+  }
+
+  void addInt(int value) {
+    int index = append();
+    values[index] = value;
+  }
+
+  @Override void addValue(Integer value) {
+    addInt(value);
+  }
+
+  @Override int capacity() {
+    return values.length;
+  }
+
+  @Override void grow(int capacity) {
+    values = Arrays.copyOf(values, capacity);
+  }
+
+  @Override IntList copy() {
+    return new IntList(toIntArray());
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static com.squareup.wire.Preconditions.checkNotNull;
+
+/**
+ * The value of a message field declared with {@code [lazy = true]}. When a message is parsed, the
+ * encoded bytes of a lazy field are retained and only decoded the first time {@link #get} is
+ * called. A lazy field that is written without being replaced is re-serialized by copying its
+ * retained bytes.
+ *
+ * @param <M> the message type of the field.
+ */
+public final class LazyMessage<M extends Message> {
+  /** The adapter that decodes the encoded message, or null if this was created from a message. */
+  private final MessageAdapter<M> adapter;
+
+  /**
+   * The encoded message, or null if this was created from a message. This wraps an array copied
+   * from the input, or is a region of the memory-mapped file the message was read from. Either
+   * way it is decoded in place.
+   */
+  private final ByteBuffer region;
+
+  private volatile M message;
+
+  LazyMessage(MessageAdapter<M> adapter, ByteBuffer region) {
+    this.adapter = adapter;
+    this.region = region;
+  }
+
+  private LazyMessage(M message) {
+    this.adapter = null;
+    this.region = null;
+    this.message = message;
+  }
+
+  /** Returns a lazy field value that holds the already-decoded {@code message}. */
+  public static <M extends Message> LazyMessage<M> of(M message) {
+    checkNotNull(message, "message");
+    return new LazyMessage<M>(message);
+  }
+
+  /**
+   * Returns the message, decoding it if this is the first access.
+   *
+   * @throws RuntimeException if the retained bytes are not a valid encoding of the message.
+   */
+  public M get() {
+    M result = message;
+    if (result == null) {
+      try {
+        result = adapter.read(WireInput.newInstance(region));
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+      message = result;
+    }
+    return result;
+  }
+
+  /** Returns true if the message has been decoded, or was never encoded. */
+  public boolean isDecoded() {
+    return message != null;
+  }
+
+  /** Returns the size of the encoded message, without its length prefix. */
+  int getSerializedSize() {
+    if (region != null) return region.remaining();
+    return message.getSerializedSize();
+  }
+
+  /**
+   * Writes the retained encoded message preceded by its length, and returns true. Returns false
+   * without writing anything if this was created from a message.
+   */
+  boolean writeEncoded(WireOutput output) throws IOException {
+    if (region != null) {
+      output.writeVarint32(region.remaining());
+      output.writeRawBytes(region);
+      return true;
+    }
+    return false;
+  }
+
+  @Override public boolean equals(Object other) {
+    if (other == this) return true;
+    if (!(other instanceof LazyMessage)) return false;
+    LazyMessage<?> o = (LazyMessage<?>) other;
+    if (region != null && region.equals(o.region)) return true;
+    return get().equals(o.get());
+  }
+
+  @Override public int hashCode() {
+    return get().hashCode();
+  }
+
+  @Override public String toString() {
+    return get().toString();
+  }
+}
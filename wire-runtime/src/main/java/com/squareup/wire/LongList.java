@@ -0,0 +1,81 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.util.Arrays;
+
+/**
+ * An immutable list of {@code long} values that doesn't box its elements. Wire decodes repeated
+ * {@code int64}, {@code uint64}, {@code sint64}, {@code fixed64} and
+ * {@code sfixed64} fields into instances of this class, and reads them back with
+ * {@link #getLong} when encoding.
+ */
+public final class LongList extends PrimitiveList<Long> {
+  private static final long serialVersionUID = 0L;
+
+  private long[] values;
+
+  LongList() {
+    super(0);
+    this.values = new long[INITIAL_CAPACITY];
+  }
+
+  private LongList(long[] values) {
+    super(values.length);
+    this.values = values;
+  }
+
+  /** Returns an immutable list containing a copy of {@code values}. */
+  public static LongList of(long... values) {
+    return new LongList(values.clone());
+  }
+
+  /** Returns the element at {@code index} without boxing it. */
+  public long getLong(int index) {
+    checkIndex(index);
+    return values[index];
+  }
+
+  @Override public Long get(int index) {
+    return getLong(index);
+  }
+
+  /** Returns a new array containing the elements of this list. */
+  public long[] toLongArray() {
+    return Arrays.copyOf(values, size());
+  }
+
+  void addLong(long value) {
+    int index = append();
+    values[index] = value;
+  }
+
+  @Override void addValue(Long value) {
+    addLong(value);
+  }
+
+  @Override int capacity() {
+    return values.length;
+  }
+
+  @Override void grow(int capacity) {
+    values = Arrays.copyOf(values, capacity);
+  }
+
+  @Override LongList copy() {
+    return new LongList(toLongArray());
+  }
+}
@@ -17,7 +17,10 @@ package com.squareup.wire;
 
 import java.io.IOException;
 import java.io.ObjectStreamException;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -25,7 +28,9 @@ import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import okio.BufferedSink;
 import okio.ByteString;
+import okio.Okio;
 
 /**
  * Superclass for protocol buffer messages.
@@ -184,7 +189,9 @@ public abstract class Message implements Serializable {
     if (source == null) {
       return Collections.emptyList();
     } else if (source instanceof MessageAdapter.ImmutableList) {
-      return source;
+      return ((MessageAdapter.ImmutableList<T>) source).immutableCopy();
+    } else if (source instanceof PrimitiveList) {
+      return ((PrimitiveList<T>) source).immutableCopy();
     }
     return Collections.unmodifiableList(new ArrayList<T>(source));
   }
@@ -227,6 +234,54 @@ public abstract class Message implements Serializable {
     write(WireOutput.newInstance(output, offset, count));
   }
 
+  /**
+   * Writes this message into {@code buffer} at its position, and advances the position past the
+   * encoded bytes. Heap and direct buffers are both written in place, without an intermediate
+   * array.
+   *
+   * @throws BufferOverflowException if fewer than {@link #getSerializedSize} bytes remain in
+   *     {@code buffer}.
+   */
+  public void writeTo(ByteBuffer buffer) {
+    int size = getSerializedSize();
+    if (buffer.remaining() < size) {
+      throw new BufferOverflowException();
+    }
+    write(WireOutput.newInstance(buffer));
+    buffer.position(buffer.position() + size);
+  }
+
+  /**
+   * Writes this message to {@code sink}. The encoded bytes are written directly into the sink's
+   * buffer without first being collected into an intermediate array.
+   */
+  @SuppressWarnings("unchecked")
+  public void writeTo(BufferedSink sink) throws IOException {
+    MessageAdapter<Message> adapter = WIRE.messageAdapter((Class<Message>) getClass());
+    adapter.write(this, WireOutput.newInstance(sink));
+  }
+
+  /**
+   * Writes this message to {@code sink} preceded by its length as a varint, so that a stream of
+   * messages can be read back with {@link Wire#delimitedReader}.
+   */
+  @SuppressWarnings("unchecked")
+  public void writeDelimitedTo(BufferedSink sink) throws IOException {
+    MessageAdapter<Message> adapter = WIRE.messageAdapter((Class<Message>) getClass());
+    WireOutput output = WireOutput.newInstance(sink);
+    output.writeVarint32(getSerializedSize());
+    adapter.write(this, output);
+  }
+
+  /**
+   * Writes this message to {@code stream}. The stream is not flushed or closed.
+   */
+  public void writeTo(OutputStream stream) throws IOException {
+    BufferedSink sink = Okio.buffer(Okio.sink(stream));
+    writeTo(sink);
+    sink.emit();
+  }
+
   @SuppressWarnings("unchecked")
   private void write(WireOutput output) {
     MessageAdapter<Message> adapter = WIRE.messageAdapter((Class<Message>) getClass());
@@ -246,7 +301,14 @@ public abstract class Message implements Serializable {
   @SuppressWarnings("unchecked")
   public int getSerializedSize() {
     if (!haveCachedSerializedSize) {
-      MessageAdapter<Message> adapter = WIRE.messageAdapter((Class<Message>) getClass());
+      return getSerializedSize(WIRE.messageAdapter((Class<Message>) getClass()));
+    }
+    return cachedSerializedSize;
+  }
+
+  /** Returns the serialized size of this message, computing it with {@code adapter} if needed. */
+  int getSerializedSize(MessageAdapter<Message> adapter) {
+    if (!haveCachedSerializedSize) {
       cachedSerializedSize = adapter.getSerializedSize(this);
       haveCachedSerializedSize = true;
     }
@@ -284,6 +346,12 @@ public abstract class Message implements Serializable {
 
     UnknownFieldMap unknownFieldMap;
 
+    /**
+     * The repeated-field lists this builder was last refilled with by {@link Wire#parseInto}, to
+     * be cleared and reused by the next call, or null. Messages built from the builder copy them.
+     */
+    Object[] reusableLists;
+
     /**
      * Constructs a Builder with no unknown field data.
      */
@@ -358,6 +426,25 @@ public abstract class Message implements Serializable {
       WIRE.builderAdapter(getClass()).checkRequiredFields(this);
     }
 
+    /**
+     * Returns an exception listing the required fields that have not been set. Generated builders
+     * check their required fields for null directly, and call this only when one is missing.
+     *
+     * @param valuesAndNames each required field's value followed by its name, in name order.
+     */
+    protected static IllegalStateException missingRequiredFields(Object... valuesAndNames) {
+      StringBuilder sb = new StringBuilder();
+      int missing = 0;
+      for (int i = 0; i < valuesAndNames.length; i += 2) {
+        if (valuesAndNames[i] == null) {
+          sb.append("\n  ").append(valuesAndNames[i + 1]);
+          missing++;
+        }
+      }
+      return new IllegalStateException(
+          "Required field" + (missing > 1 ? "s" : "") + " not set:" + sb);
+    }
+
     /**
      * Checks incoming {@code List}s for null elements and throws an exception if one is
      * present. A null list is allowed.
@@ -17,9 +17,11 @@ package com.squareup.wire;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
 import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -55,10 +57,12 @@ final class MessageAdapter<M extends Message> {
     final Class<? extends ProtoEnum> enumType;
     final Class<? extends Message> messageType;
     final boolean redacted;
+    final boolean lazy;
 
-    // Cached values
-    MessageAdapter<? extends Message> messageAdapter;
-    EnumAdapter<? extends ProtoEnum> enumAdapter;
+    // Cached values, linked on first use. Volatile so that an adapter linked by one thread is
+    // seen fully constructed by the others.
+    volatile MessageAdapter<? extends Message> messageAdapter;
+    volatile EnumAdapter<? extends ProtoEnum> enumAdapter;
 
     private final Field messageField;
     private final Field builderField;
@@ -66,12 +70,14 @@ final class MessageAdapter<M extends Message> {
 
     @SuppressWarnings("unchecked")
     private FieldInfo(int tag, String name, Datatype datatype, Label label, boolean redacted,
-        Class<?> enumOrMessageType, Field messageField, Field builderField, Method builderMethod) {
+        boolean lazy, Class<?> enumOrMessageType, Field messageField, Field builderField,
+        Method builderMethod) {
       this.tag = tag;
       this.name = name;
       this.datatype = datatype;
       this.label = label;
       this.redacted = redacted;
+      this.lazy = lazy;
       if (datatype == Datatype.ENUM) {
         this.enumType = (Class<? extends ProtoEnum>) enumOrMessageType;
         this.messageType = null;
@@ -100,10 +106,18 @@ final class MessageAdapter<M extends Message> {
     }
   }
 
+  Class<M> getMessageType() {
+    return messageType;
+  }
+
   Collection<FieldInfo> getFields() {
     return fieldInfoMap.values();
   }
 
+  FieldInfo getField(int tag) {
+    return fieldInfoMap.get(tag);
+  }
+
   FieldInfo getField(String name) {
     Integer key = tagMap.get(name);
     return key == null ? null : fieldInfoMap.get(key);
@@ -111,7 +125,7 @@ final class MessageAdapter<M extends Message> {
 
   Object getFieldValue(M message, FieldInfo fieldInfo) {
     if (fieldInfo.messageField == null) {
-      throw new AssertionError("Field is not of type \"Message\"");
+      return codec.getFieldValue(message, fieldInfo.tag);
     }
     try {
       return fieldInfo.messageField.get(message);
@@ -121,6 +135,10 @@ final class MessageAdapter<M extends Message> {
   }
 
   public void setBuilderField(Builder<M> builder, FieldInfo fieldInfo, Object value) {
+    if (fieldInfo.builderField == null) {
+      codec.setBuilderFieldValue(builder, fieldInfo.tag, value);
+      return;
+    }
     try {
       fieldInfo.builderField.set(builder, value);
     } catch (IllegalAccessException e) {
@@ -128,7 +146,22 @@ final class MessageAdapter<M extends Message> {
     }
   }
 
+  private Object getBuilderField(Builder<M> builder, FieldInfo fieldInfo) {
+    if (fieldInfo.builderField == null) {
+      return codec.getBuilderFieldValue(builder, fieldInfo.tag);
+    }
+    try {
+      return fieldInfo.builderField.get(builder);
+    } catch (IllegalAccessException e) {
+      throw new AssertionError(e);
+    }
+  }
+
   public void setBuilderMethod(Builder<M> builder, FieldInfo fieldInfo, Object value) {
+    if (fieldInfo.builderMethod == null) {
+      codec.setBuilderFieldValue(builder, fieldInfo.tag, value);
+      return;
+    }
     try {
       fieldInfo.builderMethod.invoke(builder, value);
     } catch (IllegalAccessException e) {
@@ -141,16 +174,35 @@ final class MessageAdapter<M extends Message> {
   private final Wire wire;
   private final Class<M> messageType;
   private final Class<Builder<M>> builderType;
+  private final MessageCodec<M, Builder<M>> codec;
   private final Map<String, Integer> tagMap = new LinkedHashMap<String, Integer>();
   private final TagMap<FieldInfo> fieldInfoMap;
+  /** The extensions of {@code M} registered with {@link #wire} by tag, or null if none are. */
+  private final TagMap<Extension<?, ?>> extensions;
+  private volatile Constructor<M> partialConstructor;
 
   /** Cache information about the Message class and its mapping to proto wire format. */
   MessageAdapter(Wire wire, Class<M> messageType) {
     this.wire = wire;
     this.messageType = messageType;
     this.builderType = getBuilderType(messageType);
+    this.codec = getCodec(messageType);
+    this.extensions = wire.registry.getExtensionsByTag(messageType);
 
     Map<Integer, FieldInfo> map = new LinkedHashMap<Integer, FieldInfo>();
+    FieldDescriptor[] descriptors = codec != null ? codec.getFieldDescriptors() : null;
+    if (descriptors != null) {
+      // Use the table emitted by the compiler; fields are accessed through the codec.
+      for (FieldDescriptor descriptor : descriptors) {
+        tagMap.put(descriptor.name, descriptor.tag);
+        map.put(descriptor.tag, new FieldInfo(descriptor.tag, descriptor.name,
+            descriptor.datatype, descriptor.label, descriptor.redacted, descriptor.lazy,
+            descriptor.enumOrMessageType, null, null, null));
+      }
+      fieldInfoMap = TagMap.of(map);
+      return;
+    }
+
     for (Field messageField : messageType.getDeclaredFields()) {
       // Process fields annotated with '@ProtoField'
       ProtoField annotation = messageField.getAnnotation(ProtoField.class);
@@ -167,8 +219,8 @@ final class MessageAdapter<M extends Message> {
           enumOrMessageType = getMessageType(messageField);
         }
         map.put(tag, new FieldInfo(tag, name, datatype, annotation.label(), annotation.redacted(),
-            enumOrMessageType, messageField, getBuilderField(name),
-            getBuilderMethod(name, messageField.getType())));
+            messageField.getType() == LazyMessage.class, enumOrMessageType, messageField,
+            getBuilderField(name), getBuilderMethod(name, messageField.getType())));
       }
     }
 
@@ -185,6 +237,34 @@ final class MessageAdapter<M extends Message> {
     }
   }
 
+  /**
+   * Returns the compiler-generated codec for {@code messageType}, or null if the message was
+   * generated by an older version of the compiler. In that case fields are read and written
+   * through reflection.
+   */
+  @SuppressWarnings("unchecked")
+  private MessageCodec<M, Builder<M>> getCodec(Class<M> messageType) {
+    Class<MessageCodec<M, Builder<M>>> codecType;
+    try {
+      codecType = (Class<MessageCodec<M, Builder<M>>>)
+          Class.forName(messageType.getName() + "$Codec");
+    } catch (ClassNotFoundException e) {
+      return null;
+    }
+    if (!MessageCodec.class.isAssignableFrom(codecType)) {
+      return null;
+    }
+    try {
+      MessageCodec<M, Builder<M>> result = codecType.newInstance();
+      result.adapter = this;
+      return result;
+    } catch (IllegalAccessException e) {
+      throw new AssertionError(e);
+    } catch (InstantiationException e) {
+      throw new AssertionError(e);
+    }
+  }
+
   private Field getBuilderField(String name) {
     try {
       return builderType.getField(name);
@@ -207,7 +287,7 @@ final class MessageAdapter<M extends Message> {
     Class<?> fieldType = field.getType();
     if (Message.class.isAssignableFrom(fieldType)) {
       return (Class<Message>) fieldType;
-    } else if (List.class.isAssignableFrom(fieldType)) {
+    } else if (List.class.isAssignableFrom(fieldType) || fieldType == LazyMessage.class) {
       return field.getAnnotation(ProtoField.class).messageType();
     }
     return null;
@@ -230,6 +310,20 @@ final class MessageAdapter<M extends Message> {
    * Returns the serialized size of a given message, in bytes.
    */
   int getSerializedSize(M message) {
+    int size = codec != null ? codec.getSerializedSize(message) : getFieldsSerializedSize(message);
+
+    if (message instanceof ExtendableMessage) {
+      ExtendableMessage extendableMessage = (ExtendableMessage) message;
+      if (extendableMessage.extensionMap != null) {
+        size += getExtensionsSerializedSize(extendableMessage.extensionMap);
+      }
+    }
+    size += message.getUnknownFieldsSerializedSize();
+    return size;
+  }
+
+  /** Uses reflection to compute the serialized size of the declared fields of {@code message}. */
+  private int getFieldsSerializedSize(M message) {
     int size = 0;
     for (FieldInfo fieldInfo : getFields()) {
       Object value = getFieldValue(message, fieldInfo);
@@ -242,22 +336,14 @@ final class MessageAdapter<M extends Message> {
 
       if (label.isRepeated()) {
         if (label.isPacked()) {
-          size += getPackedSize((List<?>) value, tag, datatype);
+          size += getPackedSize((List<?>) value, tag, datatype, fieldInfo);
         } else {
-          size += getRepeatedSize((List<?>) value, tag, datatype);
+          size += getRepeatedSize((List<?>) value, tag, datatype, fieldInfo);
         }
       } else {
-        size += getSerializedSize(tag, value, datatype);
-      }
-    }
-
-    if (message instanceof ExtendableMessage) {
-      ExtendableMessage extendableMessage = (ExtendableMessage) message;
-      if (extendableMessage.extensionMap != null) {
-        size += getExtensionsSerializedSize(extendableMessage.extensionMap);
+        size += getSerializedSize(tag, value, datatype, fieldInfo);
       }
     }
-    size += message.getUnknownFieldsSerializedSize();
     return size;
   }
 
@@ -271,29 +357,29 @@ final class MessageAdapter<M extends Message> {
       Label label = extension.getLabel();
       if (label.isRepeated()) {
         if (label.isPacked()) {
-          size += getPackedSize((List<?>) value, tag, datatype);
+          size += getPackedSize((List<?>) value, tag, datatype, null);
         } else {
-          size += getRepeatedSize((List<?>) value, tag, datatype);
+          size += getRepeatedSize((List<?>) value, tag, datatype, null);
         }
       } else {
-        size += getSerializedSize(tag, value, datatype);
+        size += getSerializedSize(tag, value, datatype, null);
       }
     }
     return size;
   }
 
-  private int getRepeatedSize(List<?> value, int tag, Datatype datatype) {
+  private int getRepeatedSize(List<?> value, int tag, Datatype datatype, FieldInfo fieldInfo) {
     int size = 0;
     for (Object o : value) {
-      size += getSerializedSize(tag, o, datatype);
+      size += getSerializedSize(tag, o, datatype, fieldInfo);
     }
     return size;
   }
 
-  private int getPackedSize(List<?> value, int tag, Datatype datatype) {
+  private int getPackedSize(List<?> value, int tag, Datatype datatype, FieldInfo fieldInfo) {
     int packedLength = 0;
     for (Object o : value) {
-      packedLength += getSerializedSizeNoTag(o, datatype);
+      packedLength += getSerializedSizeNoTag(o, datatype, fieldInfo);
     }
     // tag + length + value + value + ...
     int size = WireOutput.varint32Size(WireOutput.makeTag(tag, WireType.LENGTH_DELIMITED));
@@ -302,8 +388,25 @@ final class MessageAdapter<M extends Message> {
     return size;
   }
 
-  /** Uses reflection to write {@code message} to {@code output} in serialized form. */
+  /** Writes {@code message} to {@code output} in serialized form. */
   void write(M message, WireOutput output) throws IOException {
+    if (codec != null) {
+      codec.write(message, output);
+    } else {
+      writeFields(message, output);
+    }
+
+    if (message instanceof ExtendableMessage) {
+      ExtendableMessage extendableMessage = (ExtendableMessage) message;
+      if (extendableMessage.extensionMap != null) {
+        writeExtensions(output, extendableMessage.extensionMap);
+      }
+    }
+    message.writeUnknownFieldMap(output);
+  }
+
+  /** Uses reflection to write the declared fields of {@code message} to {@code output}. */
+  private void writeFields(M message, WireOutput output) throws IOException {
     for (FieldInfo fieldInfo : getFields()) {
       Object value = getFieldValue(message, fieldInfo);
       if (value == null) {
@@ -315,22 +418,14 @@ final class MessageAdapter<M extends Message> {
 
       if (label.isRepeated()) {
         if (label.isPacked()) {
-          writePacked(output, (List<?>) value, tag, datatype);
+          writePacked(output, (List<?>) value, tag, datatype, fieldInfo);
         } else {
-          writeRepeated(output, (List<?>) value, tag, datatype);
+          writeRepeated(output, (List<?>) value, tag, datatype, fieldInfo);
         }
       } else {
-        writeValue(output, tag, value, datatype);
+        writeValue(output, tag, value, datatype, fieldInfo);
       }
     }
-
-    if (message instanceof ExtendableMessage) {
-      ExtendableMessage extendableMessage = (ExtendableMessage) message;
-      if (extendableMessage.extensionMap != null) {
-        writeExtensions(output, extendableMessage.extensionMap);
-      }
-    }
-    message.writeUnknownFieldMap(output);
   }
 
   private <T extends ExtendableMessage<?>> void writeExtensions(WireOutput output,
@@ -343,33 +438,33 @@ final class MessageAdapter<M extends Message> {
       Label label = extension.getLabel();
       if (label.isRepeated()) {
         if (label.isPacked()) {
-          writePacked(output, (List<?>) value, tag, datatype);
+          writePacked(output, (List<?>) value, tag, datatype, null);
         } else {
-          writeRepeated(output, (List<?>) value, tag, datatype);
+          writeRepeated(output, (List<?>) value, tag, datatype, null);
         }
       } else {
-        writeValue(output, tag, value, datatype);
+        writeValue(output, tag, value, datatype, null);
       }
     }
   }
 
-  private void writeRepeated(WireOutput output, List<?> value, int tag, Datatype datatype)
-      throws IOException {
+  private void writeRepeated(WireOutput output, List<?> value, int tag, Datatype datatype,
+      FieldInfo fieldInfo) throws IOException {
     for (Object o : value) {
-      writeValue(output, tag, o, datatype);
+      writeValue(output, tag, o, datatype, fieldInfo);
     }
   }
 
-  private void writePacked(WireOutput output, List<?> value, int tag, Datatype datatype)
-      throws IOException {
+  private void writePacked(WireOutput output, List<?> value, int tag, Datatype datatype,
+      FieldInfo fieldInfo) throws IOException {
     int packedLength = 0;
     for (Object o : value) {
-      packedLength += getSerializedSizeNoTag(o, datatype);
+      packedLength += getSerializedSizeNoTag(o, datatype, fieldInfo);
     }
     output.writeTag(tag, WireType.LENGTH_DELIMITED);
     output.writeVarint32(packedLength);
     for (Object o : value) {
-      writeValueNoTag(output, o, datatype);
+      writeValueNoTag(output, o, datatype, fieldInfo);
     }
   }
 
@@ -418,17 +513,18 @@ final class MessageAdapter<M extends Message> {
   }
 
   /**
-   * Returns the serialized size in bytes of the given tag and value.
+   * Returns the serialized size in bytes of the given tag and value. {@code fieldInfo} is the
+   * declared field holding the value, or null for extensions.
    */
-  private int getSerializedSize(int tag, Object value, Datatype datatype) {
-    return WireOutput.varintTagSize(tag) + getSerializedSizeNoTag(value, datatype);
+  private int getSerializedSize(int tag, Object value, Datatype datatype, FieldInfo fieldInfo) {
+    return WireOutput.varintTagSize(tag) + getSerializedSizeNoTag(value, datatype, fieldInfo);
   }
 
   /**
    * Returns the serialized size in bytes of the given value without any prepended tag or length,
    * e.g., as it would be written as part of a 'packed' repeated field.
    */
-  private int getSerializedSizeNoTag(Object value, Datatype datatype) {
+  private int getSerializedSizeNoTag(Object value, Datatype datatype, FieldInfo fieldInfo) {
     switch (datatype) {
       case INT32: return WireOutput.int32Size((Integer) value);
       case INT64: case UINT64: return WireOutput.varint64Size((Long) value);
@@ -436,14 +532,16 @@ final class MessageAdapter<M extends Message> {
       case SINT32: return WireOutput.varint32Size(WireOutput.zigZag32((Integer) value));
       case SINT64: return WireOutput.varint64Size(WireOutput.zigZag64((Long) value));
       case BOOL: return 1;
-      case ENUM: return getEnumSize((ProtoEnum) value);
+      case ENUM: return WireOutput.varint32Size(((ProtoEnum) value).getValue());
       case STRING:
-        int utf8Length = utf8Length((String) value);
+        int utf8Length = WireOutput.utf8Length((String) value);
         return WireOutput.varint32Size(utf8Length) + utf8Length;
       case BYTES:
         int length = ((ByteString) value).size();
         return WireOutput.varint32Size(length) + length;
-      case MESSAGE: return getMessageSize((Message) value);
+      case MESSAGE:
+        if (value instanceof LazyMessage) return getLazySize((LazyMessage<?>) value);
+        return getMessageSize(fieldInfo, (Message) value);
       case FIXED32: case SFIXED32: case FLOAT:
         return WireType.FIXED_32_SIZE;
       case FIXED64: case SFIXED64: case DOUBLE:
@@ -452,47 +550,50 @@ final class MessageAdapter<M extends Message> {
     }
   }
 
-  private int utf8Length(String s) {
-    int count = 0;
-    for (int i = 0, length = s.length(); i < length; i++) {
-      char ch = s.charAt(i);
-      if (ch <= 0x7F) {
-        count++;
-      } else if (ch <= 0x7FF) {
-        count += 2;
-      } else if (Character.isHighSurrogate(ch)) {
-        count += 4;
-        ++i;
-      } else {
-        count += 3;
-      }
-    }
-    return count;
+  /**
+   * Returns the size of {@code message}, including its length prefix. {@code fieldInfo} is the
+   * declared field holding it, or null for extensions.
+   */
+  int getMessageSize(FieldInfo fieldInfo, Message message) {
+    int messageSize = message.getSerializedSize(messageAdapter(fieldInfo, message));
+    return WireOutput.varint32Size(messageSize) + messageSize;
   }
 
+  /**
+   * Returns the adapter for {@code value}, a value of the message field {@code fieldInfo}. The
+   * adapter is linked to the field on first use so that later values don't look it up; values of
+   * extensions, for which {@code fieldInfo} is null, are looked up by class.
+   */
   @SuppressWarnings("unchecked")
-  private <E extends ProtoEnum> int getEnumSize(E value) {
-    EnumAdapter<E> adapter = (EnumAdapter<E>) wire.enumAdapter(value.getClass());
-    return WireOutput.varint32Size(adapter.toInt(value));
+  private MessageAdapter<Message> messageAdapter(FieldInfo fieldInfo, Message value) {
+    if (fieldInfo == null || fieldInfo.messageType == null) {
+      return wire.messageAdapter((Class<Message>) value.getClass());
+    }
+    MessageAdapter<? extends Message> result = fieldInfo.messageAdapter;
+    if (result == null) {
+      result = wire.messageAdapter(fieldInfo.messageType);
+      fieldInfo.messageAdapter = result;
+    }
+    return (MessageAdapter<Message>) result;
   }
 
-  @SuppressWarnings("unchecked")
-  private <MM extends Message> int getMessageSize(MM message) {
-    int messageSize = message.getSerializedSize();
+  /** Returns the size of a lazy message field value, including its length prefix. */
+  static int getLazySize(LazyMessage<?> value) {
+    int messageSize = value.getSerializedSize();
     return WireOutput.varint32Size(messageSize) + messageSize;
   }
 
-  private void writeValue(WireOutput output, int tag, Object value, Datatype datatype)
-    throws IOException {
+  private void writeValue(WireOutput output, int tag, Object value, Datatype datatype,
+      FieldInfo fieldInfo) throws IOException {
     output.writeTag(tag, datatype.wireType());
-    writeValueNoTag(output, value, datatype);
+    writeValueNoTag(output, value, datatype, fieldInfo);
   }
 
   /**
    * Writes a value with no tag.
    */
-  private void writeValueNoTag(WireOutput output, Object value, Datatype datatype)
-      throws IOException {
+  private void writeValueNoTag(WireOutput output, Object value, Datatype datatype,
+      FieldInfo fieldInfo) throws IOException {
     switch (datatype) {
       case INT32: output.writeSignedVarint32((Integer) value); break;
       case INT64: case UINT64: output.writeVarint64((Long) value); break;
@@ -500,18 +601,16 @@ final class MessageAdapter<M extends Message> {
       case SINT32: output.writeVarint32(WireOutput.zigZag32((Integer) value)); break;
       case SINT64: output.writeVarint64(WireOutput.zigZag64((Long) value)); break;
       case BOOL: output.writeRawByte((Boolean) value ? 1 : 0); break;
-      case ENUM: writeEnum((ProtoEnum) value, output); break;
-      case STRING:
-        final byte[] bytes = ((String) value).getBytes("UTF-8");
-        output.writeVarint32(bytes.length);
-        output.writeRawBytes(bytes);
-        break;
-      case BYTES:
-        ByteString byteString = (ByteString) value;
-        output.writeVarint32(byteString.size());
-        output.writeRawBytes(byteString.toByteArray());
+      case ENUM: output.writeVarint32(((ProtoEnum) value).getValue()); break;
+      case STRING: output.writeString((String) value); break;
+      case BYTES: output.writeBytes((ByteString) value); break;
+      case MESSAGE:
+        if (value instanceof LazyMessage) {
+          writeLazy(fieldInfo, (LazyMessage<?>) value, output);
+        } else {
+          writeMessage(fieldInfo, (Message) value, output);
+        }
         break;
-      case MESSAGE: writeMessage((Message) value, output); break;
       case FIXED32: case SFIXED32: output.writeFixed32((Integer) value); break;
       case FIXED64: case SFIXED64: output.writeFixed64((Long) value); break;
       case FLOAT: output.writeFixed32(Float.floatToIntBits((Float) value)); break;
@@ -520,108 +619,219 @@ final class MessageAdapter<M extends Message> {
     }
   }
 
-  @SuppressWarnings("unchecked")
-  private <MM extends Message> void writeMessage(MM message, WireOutput output) throws IOException {
-    output.writeVarint32(message.getSerializedSize());
-    MessageAdapter<MM> adapter = wire.messageAdapter((Class<MM>) message.getClass());
+  /**
+   * Writes {@code message} preceded by its length. {@code fieldInfo} is the declared field holding
+   * it, or null for extensions.
+   */
+  void writeMessage(FieldInfo fieldInfo, Message message, WireOutput output) throws IOException {
+    MessageAdapter<Message> adapter = messageAdapter(fieldInfo, message);
+    output.writeVarint32(message.getSerializedSize(adapter));
     adapter.write(message, output);
   }
 
-  @SuppressWarnings("unchecked")
-  private <E extends ProtoEnum> void writeEnum(E value, WireOutput output)
+  /**
+   * Writes a lazy message field value. If the value was never decoded, or was decoded from bytes
+   * that are still retained, the bytes are copied unchanged.
+   */
+  void writeLazy(FieldInfo fieldInfo, LazyMessage<?> value, WireOutput output)
       throws IOException {
-    EnumAdapter<E> adapter = (EnumAdapter<E>) wire.enumAdapter(value.getClass());
-    output.writeVarint32(adapter.toInt(value));
+    if (!value.writeEncoded(output)) {
+      writeMessage(fieldInfo, value.get(), output);
+    }
   }
 
   // Reading
 
-  /** Uses reflection to read an instance from {@code input}. */
+  /** Reads an instance from {@code input}. */
   M read(WireInput input) throws IOException {
+    return read(input, null);
+  }
+
+  /**
+   * Reads an instance from {@code input}, decoding only the fields selected by {@code mask}, or
+   * every field if it is null. Fields that are not selected are skipped.
+   */
+  M read(WireInput input, FieldMask mask) throws IOException {
+    Builder<M> builder;
     try {
-      Builder<M> builder = builderType.newInstance();
-      Storage storage = new Storage();
-
-      while (true) {
-        Extension<?, ?> extension = null;
-        int tagAndType = input.readTag();
-        int tag = tagAndType >> WireType.TAG_TYPE_BITS;
-        WireType wireType = WireType.valueOf(tagAndType);
-        if (tag == 0) {
-          // Set repeated fields
-          for (int storedTag : storage.getTags()) {
-            FieldInfo fieldInfo = fieldInfoMap.get(storedTag);
-            List<Object> value = storage.get(storedTag);
-
-            if (fieldInfo != null) {
-              setBuilderField(builder, fieldInfo, value);
-            } else {
-              setExtension((ExtendableBuilder<?>) builder, getExtension(storedTag), value);
-            }
+      builder = codec != null ? codec.newBuilder() : builderType.newInstance();
+    } catch (IllegalAccessException e) {
+      throw new RuntimeException(e);
+    } catch (InstantiationException e) {
+      throw new RuntimeException(e);
+    }
+    TagMap<FieldMask> selected = mask != null ? mask.resolve(this) : null;
+    readFields(builder, input, selected);
+    return selected != null ? buildPartial(builder) : builder.build();
+  }
+
+  /**
+   * Clears {@code builder} and refills it from {@code input}, without building it. Repeated-field
+   * lists left in the builder by the previous call are cleared and reused; messages built from the
+   * builder hold copies of them.
+   */
+  void readInto(Builder<M> builder, WireInput input) throws IOException {
+    Collection<FieldInfo> fields = getFields();
+    Object[] lists = builder.reusableLists;
+    builder.reusableLists = null;
+    int i = 0;
+    for (FieldInfo fieldInfo : fields) {
+      Object value = null;
+      if (lists != null && lists[i] != null && getBuilderField(builder, fieldInfo) == lists[i]) {
+        value = clearList(lists[i]);
+      }
+      setBuilderField(builder, fieldInfo, value);
+      i++;
+    }
+    builder.unknownFieldMap = null;
+    if (builder instanceof ExtendableBuilder) {
+      ((ExtendableBuilder<?>) builder).extensionMap = null;
+    }
+
+    readFields(builder, input, null);
+
+    // Every repeated-field list in the builder now was created while reading it.
+    if (lists == null) lists = new Object[fields.size()];
+    i = 0;
+    for (FieldInfo fieldInfo : fields) {
+      lists[i++] = fieldInfo.label.isRepeated() ? markReusable(getBuilderField(builder, fieldInfo))
+          : null;
+    }
+    builder.reusableLists = lists;
+  }
+
+  /** Empties a list created by the decoder so that it can be refilled, or returns null. */
+  private static Object clearList(Object list) {
+    if (list instanceof ImmutableList) {
+      ((ImmutableList<?>) list).list.clear();
+      return list;
+    } else if (list instanceof PrimitiveList) {
+      ((PrimitiveList<?>) list).reset();
+      return list;
+    }
+    return null;
+  }
+
+  /**
+   * Marks a list created by the decoder as one the builder will clear and refill, so that messages
+   * built from it take a copy, and returns it.
+   */
+  private static Object markReusable(Object list) {
+    if (list instanceof ImmutableList) {
+      ((ImmutableList<?>) list).reusable = true;
+    } else if (list instanceof PrimitiveList) {
+      ((PrimitiveList<?>) list).markReusable();
+    }
+    return list;
+  }
+
+  /**
+   * Reads fields from {@code input} into {@code builder} until the end of the message, decoding
+   * only those in {@code selected}, or every field if it is null.
+   */
+  private void readFields(Builder<M> builder, WireInput input, TagMap<FieldMask> selected)
+      throws IOException {
+    Storage storage = new Storage();
+    while (true) {
+      Extension<?, ?> extension = null;
+      int tagAndType = input.readTag();
+      int tag = tagAndType >> WireType.TAG_TYPE_BITS;
+      WireType wireType = WireType.valueOf(tagAndType);
+      if (tag == 0) {
+        // Set repeated fields
+        for (int storedTag : storage.getTags()) {
+          FieldInfo fieldInfo = fieldInfoMap.get(storedTag);
+          List<Object> value = storage.get(storedTag);
+
+          if (fieldInfo != null) {
+            setBuilderField(builder, fieldInfo, value);
+          } else {
+            setExtension((ExtendableBuilder<?>) builder, getExtension(storedTag), value);
           }
-          return builder.build();
         }
+        return;
+      }
 
-        Datatype datatype;
-        Label label;
-        FieldInfo fieldInfo = fieldInfoMap.get(tag);
-        if (fieldInfo != null) {
-          datatype = fieldInfo.datatype;
-          label = fieldInfo.label;
-        } else {
-          extension = getExtension(tag);
-          if (extension == null) {
-            readUnknownField(builder, input, tag, wireType);
-            continue;
-          }
-          datatype = extension.getDatatype();
-          label = extension.getLabel();
+      FieldMask fieldMask = null;
+      if (selected != null) {
+        fieldMask = selected.get(tag);
+        if (fieldMask == null) {
+          input.skipField(tagAndType);
+          continue;
         }
-        Object value;
-
-        if (label.isPacked() && wireType == WireType.LENGTH_DELIMITED) {
-          // Decode packed format
-          int length = input.readVarint32();
-          long start = input.getPosition();
-          int oldLimit = input.pushLimit(length);
-          while (input.getPosition() < start + length) {
-            value = readValue(input, tag, datatype);
-            if (datatype == Datatype.ENUM && value instanceof Integer) {
-              // An unknown Enum value was encountered, store it as an unknown field
-              builder.addVarint(tag, (Integer) value);
-            } else {
-              storage.add(tag, value);
-            }
-          }
-          input.popLimit(oldLimit);
-          if (input.getPosition() != start + length) {
-            throw new IOException("Packed data had wrong length!");
-          }
-        } else {
-          // Read a single value
+        if (fieldMask.isAll()) {
+          fieldMask = null;
+        }
+      }
+
+      if (fieldMask == null && codec != null && codec.read(builder, input, tag, wireType)) {
+        continue;
+      }
+
+      Datatype datatype;
+      Label label;
+      FieldInfo fieldInfo = fieldInfoMap.get(tag);
+      if (fieldInfo != null) {
+        datatype = fieldInfo.datatype;
+        label = fieldInfo.label;
+      } else {
+        extension = getExtension(tag);
+        if (extension == null) {
+          readUnknownField(builder, input, tag, wireType);
+          continue;
+        }
+        datatype = extension.getDatatype();
+        label = extension.getLabel();
+      }
+      Object value;
+
+      if (label.isPacked() && wireType == WireType.LENGTH_DELIMITED) {
+        // Decode packed format
+        int length = input.readVarint32();
+        long start = input.getPosition();
+        long oldLimit = input.pushLimit(length);
+        while (input.getPosition() < start + length) {
           value = readValue(input, tag, datatype);
           if (datatype == Datatype.ENUM && value instanceof Integer) {
             // An unknown Enum value was encountered, store it as an unknown field
             builder.addVarint(tag, (Integer) value);
           } else {
-            if (label.isRepeated()) {
-              storage.add(tag, value);
-            } else if (extension != null) {
-              setExtension((ExtendableBuilder<?>) builder, extension, value);
-            } else if (label.isOneOf()) {
-              // In order to maintain the 'oneof' invariant, call the builder setter method rather
-              // than setting the builder field directly.
-              setBuilderMethod(builder, fieldInfo, value);
-            } else {
-              setBuilderField(builder, fieldInfo, value);
-            }
+            storage.add(tag, value, datatype);
+          }
+        }
+        input.popLimit(oldLimit);
+        if (input.getPosition() != start + length) {
+          throw new IOException("Packed data had wrong length!");
+        }
+      } else {
+        // Read a single value
+        if (fieldMask != null) {
+          value = readMessage(input, tag, fieldMask);
+          if (fieldInfo.lazy) {
+            value = LazyMessage.of((Message) value);
+          }
+        } else if (fieldInfo != null && fieldInfo.lazy) {
+          value = readLazy(input, tag);
+        } else {
+          value = readValue(input, tag, datatype);
+        }
+        if (datatype == Datatype.ENUM && value instanceof Integer) {
+          // An unknown Enum value was encountered, store it as an unknown field
+          builder.addVarint(tag, (Integer) value);
+        } else {
+          if (label.isRepeated()) {
+            storage.add(tag, value, datatype);
+          } else if (extension != null) {
+            setExtension((ExtendableBuilder<?>) builder, extension, value);
+          } else if (label.isOneOf()) {
+            // In order to maintain the 'oneof' invariant, call the builder setter method rather
+            // than setting the builder field directly.
+            setBuilderMethod(builder, fieldInfo, value);
+          } else {
+            setBuilderField(builder, fieldInfo, value);
           }
         }
       }
-    } catch (IllegalAccessException e) {
-      throw new RuntimeException(e);
-    } catch (InstantiationException e) {
-      throw new RuntimeException(e);
     }
   }
 
@@ -652,21 +862,76 @@ final class MessageAdapter<M extends Message> {
     }
   }
 
-  private Message readMessage(WireInput input, int tag) throws IOException {
+  Message readMessage(WireInput input, int tag) throws IOException {
+    return readMessage(input, tag, null);
+  }
+
+  private Message readMessage(WireInput input, int tag, FieldMask mask) throws IOException {
     final int length = input.readVarint32();
     if (input.recursionDepth >= WireInput.RECURSION_LIMIT) {
       throw new IOException("Wire recursion limit exceeded");
     }
-    final int oldLimit = input.pushLimit(length);
+    final long oldLimit = input.pushLimit(length);
     ++input.recursionDepth;
     MessageAdapter<? extends Message> adapter = getMessageAdapter(tag);
-    Message message = adapter.read(input);
+    Message message = adapter.read(input, mask);
     input.checkLastTagWas(0);
     --input.recursionDepth;
     input.popLimit(oldLimit);
     return message;
   }
 
+  /** Reads the bytes of a lazy message field without decoding them. */
+  @SuppressWarnings("unchecked")
+  <MM extends Message> LazyMessage<MM> readLazy(WireInput input, int tag) throws IOException {
+    MessageAdapter<MM> adapter = (MessageAdapter<MM>) getMessageAdapter(tag);
+    int count = input.readVarint32();
+    ByteBuffer region = input.readRegion(count);
+    if (region == null) {
+      region = ByteBuffer.wrap(input.readByteArray(count));
+    }
+    return new LazyMessage<MM>(adapter, region);
+  }
+
+  /**
+   * Builds a message without checking that its required fields are set, since a field mask may
+   * leave them out.
+   */
+  private M buildPartial(Builder<M> builder) {
+    try {
+      Constructor<M> constructor = partialConstructor;
+      if (constructor == null) {
+        constructor = messageType.getDeclaredConstructor(builderType);
+        constructor.setAccessible(true);
+        partialConstructor = constructor;
+      }
+      return constructor.newInstance(builder);
+    } catch (NoSuchMethodException e) {
+      throw new AssertionError(e);
+    } catch (IllegalAccessException e) {
+      throw new AssertionError(e);
+    } catch (InstantiationException e) {
+      throw new AssertionError(e);
+    } catch (InvocationTargetException e) {
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  /**
+   * Resolves the adapters of every message and enum field of {@code M} now, rather than when each
+   * field is first read or written.
+   */
+  void link() {
+    for (FieldInfo fieldInfo : getFields()) {
+      if (fieldInfo.messageType != null && fieldInfo.messageAdapter == null) {
+        fieldInfo.messageAdapter = wire.messageAdapter(fieldInfo.messageType);
+      }
+      if (fieldInfo.enumType != null && fieldInfo.enumAdapter == null) {
+        fieldInfo.enumAdapter = wire.enumAdapter(fieldInfo.enumType);
+      }
+    }
+  }
+
   private MessageAdapter<? extends Message> getMessageAdapter(int tag) {
     FieldInfo fieldInfo = fieldInfoMap.get(tag);
     if (fieldInfo != null && fieldInfo.messageAdapter != null) {
@@ -679,7 +944,7 @@ final class MessageAdapter<M extends Message> {
     return result;
   }
 
-  private EnumAdapter<? extends ProtoEnum> getEnumAdapter(int tag) {
+  EnumAdapter<? extends ProtoEnum> getEnumAdapter(int tag) {
     FieldInfo fieldInfo = fieldInfoMap.get(tag);
     if (fieldInfo != null && fieldInfo.enumAdapter != null) {
       return fieldInfo.enumAdapter;
@@ -732,18 +997,27 @@ final class MessageAdapter<M extends Message> {
   }
 
   private static class Storage {
-    private Map<Integer, ImmutableList<Object>> map;
+    private Map<Integer, List<Object>> map;
 
-    void add(int tag, Object value) {
-      ImmutableList<Object> list = map == null ? null : map.get(tag);
+    @SuppressWarnings("unchecked")
+    void add(int tag, Object value, Datatype datatype) {
+      List<Object> list = map == null ? null : map.get(tag);
       if (list == null) {
-        list = new ImmutableList<Object>();
+        // Collect scalars into unboxed lists.
+        list = (List<Object>) PrimitiveList.forDatatype(datatype);
+        if (list == null) {
+          list = new ImmutableList<Object>();
+        }
         if (map == null) {
-          map = new LinkedHashMap<Integer, ImmutableList<Object>>();
+          map = new LinkedHashMap<Integer, List<Object>>();
         }
         map.put(tag, list);
       }
-      list.list.add(value);
+      if (list instanceof PrimitiveList) {
+        ((PrimitiveList<Object>) list).addValue(value);
+      } else {
+        ((ImmutableList<Object>) list).list.add(value);
+      }
     }
 
     Set<Integer> getTags() {
@@ -758,9 +1032,7 @@ final class MessageAdapter<M extends Message> {
 
   @SuppressWarnings("unchecked")
   private Extension<ExtendableMessage<?>, ?> getExtension(int tag) {
-    ExtensionRegistry registry = wire.registry;
-    return registry == null
-        ? null : registry.getExtension((Class<ExtendableMessage<?>>) messageType, tag);
+    return extensions == null ? null : (Extension<ExtendableMessage<?>, ?>) extensions.get(tag);
   }
 
   @SuppressWarnings("unchecked")
@@ -794,12 +1066,23 @@ final class MessageAdapter<M extends Message> {
   static class ImmutableList<T> extends AbstractList<T>
       implements Cloneable, RandomAccess, Serializable {
 
-    private final List<T> list = new ArrayList<T>();
+    final List<T> list = new ArrayList<T>();
+
+    /** True if a builder holds this list to clear and refill it on its next parse. */
+    private transient boolean reusable;
 
     @Override public Object clone() {
       return this;
     }
 
+    /** Returns this list, or a copy of it if a builder may still clear and refill it. */
+    ImmutableList<T> immutableCopy() {
+      if (!reusable) return this;
+      ImmutableList<T> copy = new ImmutableList<T>();
+      copy.list.addAll(list);
+      return copy;
+    }
+
     @Override public int size() {
       return list.size();
     }
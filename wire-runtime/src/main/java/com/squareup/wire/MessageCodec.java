@@ -0,0 +1,369 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.io.IOException;
+import java.util.List;
+import okio.ByteString;
+
+/**
+ * Superclass for the codecs emitted by the Wire compiler as a nested {@code Codec} class of each
+ * message. A codec reads and writes the declared fields of its message directly, without
+ * reflection or boxing through {@link MessageAdapter}. Extensions and unknown fields are still
+ * handled by the runtime.
+ *
+ * @param <M> the message type handled by this codec.
+ * @param <B> the builder type of {@code M}.
+ */
+public abstract class MessageCodec<M extends Message, B extends Message.Builder<M>> {
+
+  /** The adapter this codec is bound to. Assigned by {@link MessageAdapter}. */
+  MessageAdapter<M> adapter;
+
+  protected MessageCodec() {
+  }
+
+  /** Returns a new, empty builder for {@code M}. */
+  protected abstract B newBuilder();
+
+  /**
+   * Returns the serialized size in bytes of the declared fields of {@code message}, excluding
+   * extensions and unknown fields.
+   */
+  protected abstract int getSerializedSize(M message);
+
+  /** Writes the declared fields of {@code message} to {@code output}. */
+  protected abstract void write(M message, WireOutput output) throws IOException;
+
+  /**
+   * Reads the value of the field with the given {@code tag} from {@code input} into
+   * {@code builder}. Returns false without consuming any input if {@code tag} is not a declared
+   * field of {@code M}.
+   */
+  protected abstract boolean read(B builder, WireInput input, int tag, WireType wireType)
+      throws IOException;
+
+  // Field access
+
+  /**
+   * Returns the declared fields of {@code M} in declaration order, or null to have the runtime
+   * find them by scanning {@link ProtoField} annotations. Fields found by scanning are accessed
+   * reflectively; fields with descriptors are accessed through the methods below.
+   */
+  protected FieldDescriptor[] getFieldDescriptors() {
+    return null;
+  }
+
+  /** Returns {@code fields}, so that generated code can declare its table in one expression. */
+  protected static FieldDescriptor[] fields(FieldDescriptor... fields) {
+    return fields;
+  }
+
+  /** Returns the value of the field with the given {@code tag} in {@code message}. */
+  protected abstract Object getFieldValue(M message, int tag);
+
+  /** Returns the value of the field with the given {@code tag} in {@code builder}. */
+  protected abstract Object getBuilderFieldValue(B builder, int tag);
+
+  /**
+   * Sets the field with the given {@code tag} in {@code builder} to {@code value}. Members of a
+   * {@code oneof} are set through their builder method so that the other members are cleared.
+   */
+  protected abstract void setBuilderFieldValue(B builder, int tag, Object value);
+
+  // Reading
+
+  /** Reads a length-delimited message for the field with the given {@code tag}. */
+  protected final Message readMessage(WireInput input, int tag) throws IOException {
+    return adapter.readMessage(input, tag);
+  }
+
+  /** Reads a {@code [lazy = true]} message field, retaining its bytes without decoding them. */
+  protected final <T extends Message> LazyMessage<T> readLazy(WireInput input, int tag)
+      throws IOException {
+    return adapter.readLazy(input, tag);
+  }
+
+  /**
+   * Reads an enum value for the field with the given {@code tag}. If the value is not known to
+   * the enum type it is added to the unknown fields of {@code builder} and null is returned.
+   */
+  protected final ProtoEnum readEnum(WireInput input, Message.Builder<?> builder, int tag)
+      throws IOException {
+    int value = input.readVarint32();
+    try {
+      return adapter.getEnumAdapter(tag).fromInt(value);
+    } catch (IllegalArgumentException e) {
+      builder.addVarint(tag, value);
+      return null;
+    }
+  }
+
+  /**
+   * Adds {@code value} to {@code list}, creating the list if it is null. Lists created by this
+   * method are not copied by the message constructor.
+   */
+  protected static <T> List<T> append(List<T> list, T value) {
+    if (list == null) {
+      list = new MessageAdapter.ImmutableList<T>();
+    }
+    if (list instanceof MessageAdapter.ImmutableList) {
+      ((MessageAdapter.ImmutableList<T>) list).list.add(value);
+    } else {
+      list.add(value);
+    }
+    return list;
+  }
+
+  /** Adds {@code value} to {@code list}, creating an unboxed {@link IntList} if it is null. */
+  protected static List<Integer> appendInt(List<Integer> list, int value) {
+    if (list == null) {
+      list = new IntList();
+    }
+    if (list instanceof IntList) {
+      ((IntList) list).addInt(value);
+    } else {
+      list.add(value);
+    }
+    return list;
+  }
+
+  /** Adds {@code value} to {@code list}, creating an unboxed {@link LongList} if it is null. */
+  protected static List<Long> appendLong(List<Long> list, long value) {
+    if (list == null) {
+      list = new LongList();
+    }
+    if (list instanceof LongList) {
+      ((LongList) list).addLong(value);
+    } else {
+      list.add(value);
+    }
+    return list;
+  }
+
+  /** Adds {@code value} to {@code list}, creating an unboxed {@link FloatList} if it is null. */
+  protected static List<Float> appendFloat(List<Float> list, float value) {
+    if (list == null) {
+      list = new FloatList();
+    }
+    if (list instanceof FloatList) {
+      ((FloatList) list).addFloat(value);
+    } else {
+      list.add(value);
+    }
+    return list;
+  }
+
+  /** Adds {@code value} to {@code list}, creating an unboxed {@link DoubleList} if it is null. */
+  protected static List<Double> appendDouble(List<Double> list, double value) {
+    if (list == null) {
+      list = new DoubleList();
+    }
+    if (list instanceof DoubleList) {
+      ((DoubleList) list).addDouble(value);
+    } else {
+      list.add(value);
+    }
+    return list;
+  }
+
+  /** Adds {@code value} to {@code list}, creating an unboxed {@link BooleanList} if it is null. */
+  protected static List<Boolean> appendBoolean(List<Boolean> list, boolean value) {
+    if (list == null) {
+      list = new BooleanList();
+    }
+    if (list instanceof BooleanList) {
+      ((BooleanList) list).addBoolean(value);
+    } else {
+      list.add(value);
+    }
+    return list;
+  }
+
+  /**
+   * Reads the length of a packed field and limits {@code input} to its contents.
+   *
+   * @return the old limit, to be passed to {@link #endPacked}.
+   */
+  protected static long beginPacked(WireInput input) throws IOException {
+    return input.pushLimit(input.readVarint32());
+  }
+
+  /** Returns true if the packed field started by {@link #beginPacked} has more values. */
+  protected static boolean hasMorePacked(WireInput input) {
+    return input.getPosition() < input.getLimit();
+  }
+
+  /** Verifies that the packed field has been fully consumed and restores the old limit. */
+  protected static void endPacked(WireInput input, long oldLimit) throws IOException {
+    if (input.getPosition() != input.getLimit()) {
+      throw new IOException("Packed data had wrong length!");
+    }
+    input.popLimit(oldLimit);
+  }
+
+  // Writing
+
+  /** Writes a string whose length was recorded by {@link #stringSize(String, IntList)}. */
+  protected static void writeString(WireOutput output, String value, int utf8Length)
+      throws IOException {
+    output.writeString(value, utf8Length);
+  }
+
+  /**
+   * Writes {@code message}, a value of the field with the given {@code tag}, preceded by its
+   * length.
+   */
+  protected final void writeMessage(WireOutput output, int tag, Message message)
+      throws IOException {
+    adapter.writeMessage(adapter.getField(tag), message, output);
+  }
+
+  /**
+   * Writes the values of the repeated message field with the given {@code tag}, each preceded by
+   * its tag and length. The field is looked up once for all of the values.
+   */
+  protected final void writeMessages(WireOutput output, int tag, List<? extends Message> values)
+      throws IOException {
+    MessageAdapter.FieldInfo fieldInfo = adapter.getField(tag);
+    for (int i = 0, count = values.size(); i < count; i++) {
+      output.writeTag(tag, WireType.LENGTH_DELIMITED);
+      adapter.writeMessage(fieldInfo, values.get(i), output);
+    }
+  }
+
+  /** Returns the element of {@code list} at {@code index}, without boxing if possible. */
+  protected static int getInt(List<Integer> list, int index) {
+    return list instanceof IntList ? ((IntList) list).getInt(index) : list.get(index);
+  }
+
+  /** Returns the element of {@code list} at {@code index}, without boxing if possible. */
+  protected static long getLong(List<Long> list, int index) {
+    return list instanceof LongList ? ((LongList) list).getLong(index) : list.get(index);
+  }
+
+  /** Returns the element of {@code list} at {@code index}, without boxing if possible. */
+  protected static float getFloat(List<Float> list, int index) {
+    return list instanceof FloatList ? ((FloatList) list).getFloat(index) : list.get(index);
+  }
+
+  /** Returns the element of {@code list} at {@code index}, without boxing if possible. */
+  protected static double getDouble(List<Double> list, int index) {
+    return list instanceof DoubleList ? ((DoubleList) list).getDouble(index) : list.get(index);
+  }
+
+  /** Returns the element of {@code list} at {@code index}, without boxing if possible. */
+  protected static boolean getBoolean(List<Boolean> list, int index) {
+    return list instanceof BooleanList ? ((BooleanList) list).getBoolean(index) : list.get(index);
+  }
+
+  /** Writes a value of the lazy message field with the given {@code tag}. */
+  protected final void writeLazy(WireOutput output, int tag, LazyMessage<?> value)
+      throws IOException {
+    adapter.writeLazy(adapter.getField(tag), value, output);
+  }
+
+  /** Returns the size of an {@code int32} value, which is sign-extended if negative. */
+  protected static int int32Size(int value) {
+    return WireOutput.int32Size(value);
+  }
+
+  /** Returns the size of an unsigned varint. */
+  protected static int varint32Size(int value) {
+    return WireOutput.varint32Size(value);
+  }
+
+  /** Returns the size of an unsigned 64-bit varint. */
+  protected static int varint64Size(long value) {
+    return WireOutput.varint64Size(value);
+  }
+
+  /** Returns the size of a ZigZag-encoded {@code sint32} value. */
+  protected static int sint32Size(int value) {
+    return WireOutput.varint32Size(WireOutput.zigZag32(value));
+  }
+
+  /** Returns the size of a ZigZag-encoded {@code sint64} value. */
+  protected static int sint64Size(long value) {
+    return WireOutput.varint64Size(WireOutput.zigZag64(value));
+  }
+
+  /** Returns the size of an enum value. */
+  protected static int enumSize(ProtoEnum value) {
+    return WireOutput.varint32Size(value.getValue());
+  }
+
+  /** Returns the size of a length-prefixed UTF-8 string. */
+  protected static int stringSize(String value) {
+    int utf8Length = WireOutput.utf8Length(value);
+    return WireOutput.varint32Size(utf8Length) + utf8Length;
+  }
+
+  /** Returns an empty list to record the lengths measured while sizing a message. */
+  protected static IntList newLengths() {
+    return new IntList();
+  }
+
+  /**
+   * Returns the size of a length-prefixed UTF-8 string, and adds its encoded length to
+   * {@code lengths} unless it is null.
+   */
+  protected static int stringSize(String value, IntList lengths) {
+    int utf8Length = WireOutput.utf8Length(value);
+    if (lengths != null) lengths.addInt(utf8Length);
+    return WireOutput.varint32Size(utf8Length) + utf8Length;
+  }
+
+  /** Adds the length of a packed field to {@code lengths} unless it is null, and returns it. */
+  protected static int recordLength(IntList lengths, int length) {
+    if (lengths != null) lengths.addInt(length);
+    return length;
+  }
+
+  /** Returns the size of a length-prefixed byte string. */
+  protected static int bytesSize(ByteString value) {
+    int length = value.size();
+    return WireOutput.varint32Size(length) + length;
+  }
+
+  /**
+   * Returns the size of a length-prefixed message, a value of the field with the given
+   * {@code tag}.
+   */
+  protected final int messageSize(int tag, Message value) {
+    return adapter.getMessageSize(adapter.getField(tag), value);
+  }
+
+  /**
+   * Returns the size of the values of the repeated message field with the given {@code tag},
+   * including the tag and length prefix of each. The field is looked up once for all of the
+   * values.
+   */
+  protected final int messagesSize(int tag, List<? extends Message> values) {
+    MessageAdapter.FieldInfo fieldInfo = adapter.getField(tag);
+    int tagSize = WireOutput.tagSize(tag, WireType.LENGTH_DELIMITED);
+    int size = 0;
+    for (int i = 0, count = values.size(); i < count; i++) {
+      size += tagSize + adapter.getMessageSize(fieldInfo, values.get(i));
+    }
+    return size;
+  }
+
+  /** Returns the size of a length-prefixed lazy message field value. */
+  protected static int lazySize(LazyMessage<?> value) {
+    return MessageAdapter.getLazySize(value);
+  }
+}
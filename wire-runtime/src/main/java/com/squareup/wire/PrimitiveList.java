@@ -0,0 +1,111 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Superclass of the immutable lists that store repeated scalar field values without boxing each
+ * element. Instances are filled by the decoder and are never modified after they are handed to a
+ * message. A list that a builder holds to refill on each {@link Wire#parseInto} is copied rather
+ * than shared when a message is built from it.
+ *
+ * @param <T> the boxed element type.
+ */
+abstract class PrimitiveList<T> extends AbstractList<T>
+    implements Cloneable, RandomAccess, Serializable {
+  private static final long serialVersionUID = 0L;
+
+  /** The initial capacity of lists created by the decoder. */
+  static final int INITIAL_CAPACITY = 8;
+
+  private int size;
+
+  /** True if a builder holds this list to clear and refill it on its next parse. */
+  private transient boolean reusable;
+
+  PrimitiveList(int size) {
+    this.size = size;
+  }
+
+  /** Appends {@code value}, which must be of the list's boxed element type. */
+  abstract void addValue(T value);
+
+  /** Returns the length of the backing array. */
+  abstract int capacity();
+
+  /** Replaces the backing array with a copy of it of length {@code capacity}. */
+  abstract void grow(int capacity);
+
+  /** Returns a list that holds the same elements as this one but doesn't share its storage. */
+  abstract PrimitiveList<T> copy();
+
+  /** Returns the index to store a new element at, growing the backing array if it is full. */
+  final int append() {
+    if (size == capacity()) {
+      grow(newCapacity(size));
+    }
+    return size++;
+  }
+
+  /** Empties this list so that the builder holding it can refill it. */
+  final void reset() {
+    size = 0;
+  }
+
+  /** Marks this list as held by a builder that will clear and refill it. */
+  final void markReusable() {
+    reusable = true;
+  }
+
+  /** Returns this list, or a copy of it if a builder may still clear and refill it. */
+  final PrimitiveList<T> immutableCopy() {
+    return reusable ? copy() : this;
+  }
+
+  @Override public final int size() {
+    return size;
+  }
+
+  @Override public final Object clone() {
+    return this;
+  }
+
+  final void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("index=" + index + ", size=" + size);
+    }
+  }
+
+  /** Returns the capacity to grow an array of length {@code length} to when it is full. */
+  private static int newCapacity(int length) {
+    return length < INITIAL_CAPACITY ? INITIAL_CAPACITY : length + (length >> 1);
+  }
+
+  /** Returns the appropriate list to collect decoded values of {@code datatype}, or null. */
+  static PrimitiveList<?> forDatatype(Message.Datatype datatype) {
+    switch (datatype) {
+      case INT32: case UINT32: case SINT32: case FIXED32: case SFIXED32: return new IntList();
+      case INT64: case UINT64: case SINT64: case FIXED64: case SFIXED64: return new LongList();
+      case FLOAT: return new FloatList();
+      case DOUBLE: return new DoubleList();
+      case BOOL: return new BooleanList();
+      default: return null;
+    }
+  }
+}
@@ -47,7 +47,7 @@ public @interface ProtoField {
   Label label() default Label.OPTIONAL;
 
   /**
-   * For repeated Message fields, the underlying Message type.
+   * For repeated and lazy Message fields, the underlying Message type.
    */
   // The exact supertype 'Message.class' is used as a sentinel for 'no value'.
   Class<? extends Message> messageType() default Message.class;
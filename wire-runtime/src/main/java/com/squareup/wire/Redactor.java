@@ -66,10 +66,13 @@ public class Redactor<T extends Message> {
           }
 
           redactedFields.add(builderClass.getDeclaredField(messageField.getName()));
-        } else if (Message.class.isAssignableFrom(messageField.getType())) {
+        } else if (Message.class.isAssignableFrom(messageField.getType())
+            || messageField.getType() == LazyMessage.class) {
           // If the field is a Message, it needs its own Redactor.
           Field field = builderClass.getDeclaredField(messageField.getName());
-          Redactor<?> fieldRedactor = get((Class) field.getType());
+          Redactor<?> fieldRedactor = field.getType() == LazyMessage.class
+              ? get(annotation.messageType())
+              : get((Class) field.getType());
 
           // This message doesn't redact any fields, so we don't recursively call it.
           if (fieldRedactor == NOOP_REDACTOR) continue;
@@ -118,7 +121,12 @@ public class Redactor<T extends Message> {
       for (int i = 0; i < messageFields.size(); i++) {
         Field field = messageFields.get(i);
         Redactor<Message> r = (Redactor<Message>) messageRedactors.get(i);
-        field.set(builder, r.redact((Message) field.get(builder)));
+        Object value = field.get(builder);
+        if (value instanceof LazyMessage) {
+          field.set(builder, LazyMessage.of(r.redact(((LazyMessage<?>) value).get())));
+        } else {
+          field.set(builder, r.redact((Message) value));
+        }
       }
 
       return builder.build();
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.io.IOException;
+import java.util.NoSuchElementException;
+
+/**
+ * Decodes the elements of one repeated message field of an encoded message as they are requested,
+ * skipping every other field. The input is closed once it is exhausted or a read fails.
+ *
+ * @param <E> the element type of the field.
+ */
+final class RepeatedFieldIterator<E extends Message> implements CloseableIterator<E> {
+  private final WireInput input;
+  private final MessageAdapter<?> adapter;
+  private final int tag;
+
+  /** The element to be returned by {@link #next}, or null if it hasn't been read yet. */
+  private E next;
+  private boolean exhausted;
+
+  RepeatedFieldIterator(WireInput input, MessageAdapter<?> adapter, int tag) {
+    this.input = input;
+    this.adapter = adapter;
+    this.tag = tag;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override public boolean hasNext() {
+    if (next != null) return true;
+    if (exhausted) return false;
+    try {
+      while (true) {
+        int tagAndType = input.readTag();
+        if (tagAndType == 0) {
+          close();
+          return false;
+        }
+        if (tagAndType >> WireType.TAG_TYPE_BITS == tag
+            && WireType.valueOf(tagAndType) == WireType.LENGTH_DELIMITED) {
+          next = (E) adapter.readMessage(input, tag);
+          return true;
+        }
+        input.skipField(tagAndType);
+      }
+    } catch (IOException e) {
+      closeAfterError();
+      throw new RuntimeException(e);
+    } catch (RuntimeException e) {
+      closeAfterError();
+      throw e;
+    }
+  }
+
+  @Override public E next() {
+    if (!hasNext()) throw new NoSuchElementException();
+    E result = next;
+    next = null;
+    return result;
+  }
+
+  @Override public void remove() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override public void close() throws IOException {
+    exhausted = true;
+    next = null;
+    input.close();
+  }
+
+  /** Closes the input after a failed read, so that the read's exception is the one reported. */
+  private void closeAfterError() {
+    try {
+      close();
+    } catch (IOException ignored) {
+    }
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+/**
+ * A scratch byte array owned by a single {@link WireDecoder} or {@link WireEncoder} and reused
+ * from one call to the next. Because it is never shared, it needs no locking. Only arrays of up
+ * to {@link #MAX_RETAINED_SIZE} bytes are kept, so that one large message doesn't pin a large
+ * array for the life of its owner.
+ */
+final class ScratchBuffer {
+  /** The size of new arrays, unless a larger one is needed. */
+  static final int MIN_SIZE = 8192;
+  static final int MAX_RETAINED_SIZE = 128 * 1024;
+
+  /** The retained array, or null if none is retained or it is in use. */
+  private byte[] array;
+
+  /** Returns an array of at least {@code minSize} bytes, reusing the retained one if it fits. */
+  byte[] take(int minSize) {
+    byte[] result = array;
+    if (result != null && result.length >= minSize) {
+      array = null;
+      return result;
+    }
+    return new byte[Math.max(minSize, MIN_SIZE)];
+  }
+
+  /**
+   * Offers {@code array} for reuse. It is retained unless it is too large, or smaller than the
+   * array already retained.
+   */
+  void give(byte[] array) {
+    if (array.length <= MAX_RETAINED_SIZE
+        && (this.array == null || array.length > this.array.length)) {
+      this.array = array;
+    }
+  }
+
+  /** Returns the size of the retained array, or 0 if none is retained. */
+  int retainedSize() {
+    return array != null ? array.length : 0;
+  }
+}
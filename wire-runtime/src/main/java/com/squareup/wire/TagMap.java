@@ -38,7 +38,7 @@ abstract class TagMap<T> {
     if (isCompact(map.size(), maxTag)) {
       return TagMap.Compact.compactTagMapOf(map, maxTag);
     } else {
-      return TagMap.Sparse.sparseTagMapOf(map);
+      return TagMap.Hashed.hashedTagMapOf(map);
     }
   }
 
@@ -117,28 +117,68 @@ abstract class TagMap<T> {
     }
   }
 
-  /** Sparse implementation class. */
-  static final class Sparse<T> extends TagMap<T> {
-    Map<Integer, T> map;
-
-    public static <T> Sparse<T> sparseTagMapOf(Map<Integer, T> map) {
-      return new Sparse<T>(map);
+  /**
+   * Sparse implementation class using open addressing, so that tags are looked up without being
+   * boxed. The table is kept at most half full and probed linearly; 0 marks an empty slot.
+   */
+  static final class Hashed<T> extends TagMap<T> {
+    final int[] tags;
+    final Object[] elements;
+    final int mask;
+    final int shift;
+
+    public static <T> Hashed<T> hashedTagMapOf(Map<Integer, T> map) {
+      return new Hashed<T>(map);
     }
 
-    private Sparse(Map<Integer, T> map) {
+    private Hashed(Map<Integer, T> map) {
       super(map);
-      this.map = map;
+      int capacity = 2;
+      while (capacity < map.size() * 2) {
+        capacity <<= 1;
+      }
+      tags = new int[capacity];
+      elements = new Object[capacity];
+      mask = capacity - 1;
+      shift = Integer.numberOfLeadingZeros(mask);
+
+      for (Map.Entry<Integer, T> entry : map.entrySet()) {
+        int key = entry.getKey();
+        if (key <= 0) {
+          throw new IllegalArgumentException("Input map key is negative or zero");
+        }
+        int i = slot(key);
+        while (tags[i] != 0) {
+          i = (i + 1) & mask;
+        }
+        tags[i] = key;
+        elements[i] = entry.getValue();
+      }
+    }
+
+    /**
+     * Returns the first slot to probe for {@code tag}. Tags are often multiples of a round
+     * number, so the high bits of a multiplicative hash are used rather than the low bits.
+     */
+    private int slot(int tag) {
+      return (tag * 0x9e3779b9) >>> shift;
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public T get(int tag) {
-      return map.get(tag);
+      int i = slot(tag);
+      while (true) {
+        int key = tags[i];
+        if (key == tag) return (T) elements[i];
+        if (key == 0) return null;
+        i = (i + 1) & mask;
+      }
     }
 
     @Override
     public boolean containsKey(int tag) {
-      return map.containsKey(tag);
+      return get(tag) != null;
     }
   }
 }
@@ -15,13 +15,21 @@
  */
 package com.squareup.wire;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.RandomAccessFile;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.LinkedHashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import okio.Source;
 
 import static com.squareup.wire.Preconditions.checkArgument;
@@ -32,14 +40,19 @@ import static com.squareup.wire.Preconditions.checkNotNull;
  */
 public final class Wire {
 
-  private final Map<Class<? extends Message>, MessageAdapter<? extends Message>> messageAdapters =
-      new LinkedHashMap<Class<? extends Message>, MessageAdapter<? extends Message>>();
-  private final Map<Class<? extends Message.Builder>,
+  // Adapters are created on demand by any thread. Lookups don't lock, so they don't contend on hot
+  // paths like Message.toByteArray(); two threads racing to create the same adapter may both do
+  // so, but only the first one published is ever used.
+  private final ConcurrentMap<Class<? extends Message>, MessageAdapter<? extends Message>>
+      messageAdapters =
+          new ConcurrentHashMap<Class<? extends Message>, MessageAdapter<? extends Message>>();
+  private final ConcurrentMap<Class<? extends Message.Builder>,
       BuilderAdapter<? extends Message.Builder>> builderAdapters =
-          new LinkedHashMap<Class<? extends Message.Builder>,
+          new ConcurrentHashMap<Class<? extends Message.Builder>,
               BuilderAdapter<? extends Message.Builder>>();
-  private final Map<Class<? extends ProtoEnum>, EnumAdapter<? extends ProtoEnum>> enumAdapters =
-      new LinkedHashMap<Class<? extends ProtoEnum>, EnumAdapter<? extends ProtoEnum>>();
+  private final ConcurrentMap<Class<? extends ProtoEnum>, EnumAdapter<? extends ProtoEnum>>
+      enumAdapters =
+          new ConcurrentHashMap<Class<? extends ProtoEnum>, EnumAdapter<? extends ProtoEnum>>();
 
   // Visible to MessageAdapter
   final ExtensionRegistry registry;
@@ -59,30 +72,115 @@ public final class Wire {
    * and start with the "Ext_" prefix.
    */
   public Wire(List<Class<?>> extensionClasses) {
-    this.registry = new ExtensionRegistry();
+    List<Extension<?, ?>> extensions = new ArrayList<Extension<?, ?>>();
     for (Class<?> extensionClass : extensionClasses) {
       for (Field field : extensionClass.getDeclaredFields()) {
         if (field.getType().equals(Extension.class)) {
           try {
-            Extension extension = (Extension) field.get(null);
-            registry.add(extension);
+            extensions.add((Extension<?, ?>) field.get(null));
           } catch (IllegalAccessException e) {
             throw new AssertionError(e);
           }
         }
       }
     }
+    this.registry = new ExtensionRegistry(extensions);
+  }
+
+  /**
+   * Returns a new decoder that reuses its input and scratch buffers across calls. Decoders are
+   * not thread-safe.
+   */
+  public WireDecoder newDecoder() {
+    return new WireDecoder(this);
+  }
+
+  /**
+   * Returns a new encoder that reuses its output and scratch buffers across calls. Encoders are
+   * not thread-safe.
+   */
+  public WireEncoder newEncoder() {
+    return new WireEncoder(this);
+  }
+
+  /**
+   * Creates and links the adapters of {@code roots} and of every message and enum type reachable
+   * from their fields and registered extensions, so that the first messages encoded or decoded
+   * don't pay for it. Each root may be a message class, an enum class, a generated extension class
+   * such as {@code Ext_foo}, or a registry class emitted with {@code --registry_class}.
+   */
+  public void preload(Class<?>... roots) {
+    checkNotNull(roots, "roots");
+    List<Class<?>> queue = new ArrayList<Class<?>>();
+    for (Class<?> root : roots) {
+      checkNotNull(root, "root");
+      addPreloadRoot(root, queue);
+    }
+
+    Set<Class<?>> visited = new HashSet<Class<?>>();
+    while (!queue.isEmpty()) {
+      Class<?> type = queue.remove(queue.size() - 1);
+      if (!visited.add(type)) continue;
+      if (ProtoEnum.class.isAssignableFrom(type)) {
+        enumAdapter(type.asSubclass(ProtoEnum.class));
+        continue;
+      }
+      MessageAdapter<? extends Message> adapter = messageAdapter(type.asSubclass(Message.class));
+      adapter.link();
+      for (MessageAdapter.FieldInfo fieldInfo : adapter.getFields()) {
+        if (fieldInfo.messageType != null) queue.add(fieldInfo.messageType);
+        if (fieldInfo.enumType != null) queue.add(fieldInfo.enumType);
+      }
+      for (Extension<?, ?> extension : registry.getExtensions(type)) {
+        addExtensionTypes(extension, queue);
+      }
+    }
+  }
+
+  private static void addPreloadRoot(Class<?> root, List<Class<?>> queue) {
+    if (Message.class.isAssignableFrom(root) || ProtoEnum.class.isAssignableFrom(root)) {
+      queue.add(root);
+      return;
+    }
+    // A registry class lists extension classes, whose fields are the extensions themselves.
+    boolean found = false;
+    try {
+      for (Field field : root.getDeclaredFields()) {
+        if (!Modifier.isStatic(field.getModifiers())) continue;
+        if (field.getType() == Extension.class) {
+          addExtensionTypes((Extension<?, ?>) field.get(null), queue);
+          found = true;
+        } else if ("EXTENSIONS".equals(field.getName()) && field.getType() == List.class) {
+          for (Object extensionClass : (List<?>) field.get(null)) {
+            addPreloadRoot((Class<?>) extensionClass, queue);
+          }
+          found = true;
+        }
+      }
+    } catch (IllegalAccessException e) {
+      throw new AssertionError(e);
+    }
+    checkArgument(found, root.getName()
+        + " is not a message, enum, extension or registry class");
+  }
+
+  private static void addExtensionTypes(Extension<?, ?> extension, List<Class<?>> queue) {
+    queue.add(extension.getExtendedType());
+    if (extension.getMessageType() != null) queue.add(extension.getMessageType());
+    if (extension.getEnumType() != null) queue.add(extension.getEnumType());
   }
 
   /**
    * Returns a message adapter for {@code messageType}.
    */
   @SuppressWarnings("unchecked")
-  synchronized <M extends Message> MessageAdapter<M> messageAdapter(Class<M> messageType) {
+  <M extends Message> MessageAdapter<M> messageAdapter(Class<M> messageType) {
     MessageAdapter<M> adapter = (MessageAdapter<M>) messageAdapters.get(messageType);
     if (adapter == null) {
       adapter = new MessageAdapter<M>(this, messageType);
-      messageAdapters.put(messageType, adapter);
+      MessageAdapter<M> existing =
+          (MessageAdapter<M>) messageAdapters.putIfAbsent(messageType, adapter);
+      if (existing != null) adapter = existing;
     }
     return adapter;
   }
@@ -91,12 +189,13 @@ public final class Wire {
    * Returns a builder adapter for {@code builderType}.
    */
   @SuppressWarnings("unchecked")
-  synchronized <B extends Message.Builder> BuilderAdapter<B>
-      builderAdapter(Class<B> builderType) {
+  <B extends Message.Builder> BuilderAdapter<B> builderAdapter(Class<B> builderType) {
     BuilderAdapter<B> adapter = (BuilderAdapter<B>) builderAdapters.get(builderType);
     if (adapter == null) {
       adapter = new BuilderAdapter<B>(builderType);
-      builderAdapters.put(builderType, adapter);
+      BuilderAdapter<B> existing =
+          (BuilderAdapter<B>) builderAdapters.putIfAbsent(builderType, adapter);
+      if (existing != null) adapter = existing;
     }
     return adapter;
   }
@@ -105,11 +204,12 @@ public final class Wire {
    * Returns an enum adapter for {@code enumClass}.
    */
   @SuppressWarnings("unchecked")
-  synchronized <E extends ProtoEnum> EnumAdapter<E> enumAdapter(Class<E> enumClass) {
+  <E extends ProtoEnum> EnumAdapter<E> enumAdapter(Class<E> enumClass) {
     EnumAdapter<E> adapter = (EnumAdapter<E>) enumAdapters.get(enumClass);
     if (adapter == null) {
       adapter = new EnumAdapter<E>(enumClass);
-      enumAdapters.put(enumClass, adapter);
+      EnumAdapter<E> existing = (EnumAdapter<E>) enumAdapters.putIfAbsent(enumClass, adapter);
+      if (existing != null) adapter = existing;
     }
     return adapter;
   }
@@ -158,6 +258,163 @@ public final class Wire {
     return parseFrom(WireInput.newInstance(input), messageClass);
   }
 
+  /**
+   * Reads a message of type {@code messageClass} from the bytes remaining in {@code buffer} and
+   * returns it. Heap and direct buffers are read in place; the buffer's position is not changed.
+   */
+  public <M extends Message> M parseFrom(ByteBuffer buffer, Class<M> messageClass)
+      throws IOException {
+    checkNotNull(buffer, "buffer");
+    checkNotNull(messageClass, "messageClass");
+    return parseFrom(WireInput.newInstance(buffer), messageClass);
+  }
+
+  /**
+   * Reads a message of type {@code messageClass} from the whole of the file open in
+   * {@code channel} and returns it. The file is memory-mapped and decoded in place rather than
+   * streamed through a buffer. Lazy message fields continue to reference the mapped file after
+   * this returns, so it must not be modified while they are in use.
+   */
+  public <M extends Message> M parseFrom(FileChannel channel, Class<M> messageClass)
+      throws IOException {
+    checkNotNull(channel, "channel");
+    checkNotNull(messageClass, "messageClass");
+    long size = channel.size();
+    if (size > Integer.MAX_VALUE) {
+      throw new IOException("File is too large to decode: " + size + " bytes");
+    }
+    return parseFrom(
+        WireInput.newMappedInstance(channel.map(FileChannel.MapMode.READ_ONLY, 0, size)),
+        messageClass);
+  }
+
+  /**
+   * Reads a message of type {@code messageClass} from {@code file} and returns it. The file is
+   * memory-mapped as described in {@link #parseFrom(FileChannel, Class)}.
+   */
+  public <M extends Message> M parseFrom(File file, Class<M> messageClass) throws IOException {
+    checkNotNull(file, "file");
+    checkNotNull(messageClass, "messageClass");
+    RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+    try {
+      return parseFrom(randomAccessFile.getChannel(), messageClass);
+    } finally {
+      randomAccessFile.close();
+    }
+  }
+
+  /**
+   * Clears {@code builder} and refills it with the fields of a message read from {@code bytes},
+   * without building it. Calling this repeatedly with the same builder avoids allocating a new
+   * builder per message, and reuses the builder's repeated-field lists until a message is built
+   * from it. Nested messages are decoded and built as usual.
+   */
+  public <M extends Message> void parseInto(Message.Builder<M> builder, byte[] bytes)
+      throws IOException {
+    checkNotNull(builder, "builder");
+    checkNotNull(bytes, "bytes");
+    parseInto(builder, WireInput.newInstance(bytes));
+  }
+
+  /**
+   * Clears {@code builder} and refills it with the fields of a message read from the given
+   * {@link InputStream}, as described in {@link #parseInto(Message.Builder, byte[])}.
+   */
+  public <M extends Message> void parseInto(Message.Builder<M> builder, InputStream input)
+      throws IOException {
+    checkNotNull(builder, "builder");
+    checkNotNull(input, "input");
+    parseInto(builder, WireInput.newInstance(input));
+  }
+
+  /**
+   * Clears {@code builder} and refills it with the fields of a message read from the given
+   * {@link Source}, as described in {@link #parseInto(Message.Builder, byte[])}.
+   */
+  public <M extends Message> void parseInto(Message.Builder<M> builder, Source input)
+      throws IOException {
+    checkNotNull(builder, "builder");
+    checkNotNull(input, "input");
+    parseInto(builder, WireInput.newInstance(input));
+  }
+
+  /**
+   * Reads a message of type {@code messageClass} from {@code bytes} and returns it with only the
+   * fields selected by {@code mask} populated. Other fields are skipped without being decoded, and
+   * required fields are not checked.
+   */
+  public <M extends Message> M parseFrom(byte[] bytes, Class<M> messageClass, FieldMask mask)
+      throws IOException {
+    checkNotNull(bytes, "bytes");
+    checkNotNull(messageClass, "messageClass");
+    checkNotNull(mask, "mask");
+    return parseFrom(WireInput.newInstance(bytes), messageClass, mask);
+  }
+
+  /**
+   * Reads a message of type {@code messageClass} from the given {@link InputStream} and returns it
+   * with only the fields selected by {@code mask} populated.
+   */
+  public <M extends Message> M parseFrom(InputStream input, Class<M> messageClass, FieldMask mask)
+      throws IOException {
+    checkNotNull(input, "input");
+    checkNotNull(messageClass, "messageClass");
+    checkNotNull(mask, "mask");
+    return parseFrom(WireInput.newInstance(input), messageClass, mask);
+  }
+
+  /**
+   * Reads a message of type {@code messageClass} from the given {@link Source} and returns it with
+   * only the fields selected by {@code mask} populated.
+   */
+  public <M extends Message> M parseFrom(Source input, Class<M> messageClass, FieldMask mask)
+      throws IOException {
+    checkNotNull(input, "input");
+    checkNotNull(messageClass, "messageClass");
+    checkNotNull(mask, "mask");
+    return parseFrom(WireInput.newInstance(input), messageClass, mask);
+  }
+
+  /**
+   * Returns an iterator over the elements of the repeated message field {@code tag} of a message
+   * of type {@code messageClass} read from {@code input}. Elements are decoded one at a time as the
+   * iterator advances, and all other fields of the message are skipped. An {@link IOException}
+   * thrown while reading is rethrown by the iterator wrapped in a {@link RuntimeException}.
+   * {@code input} is closed when the iterator is exhausted or fails, or when it is closed.
+   *
+   * @throws IllegalArgumentException if {@code tag} is not a repeated field of {@code messageClass}
+   *     whose elements are of type {@code elementClass}.
+   */
+  public <M extends Message, E extends Message> CloseableIterator<E> streamRepeated(
+      Source input, Class<M> messageClass, int tag, Class<E> elementClass) {
+    checkNotNull(input, "input");
+    checkNotNull(messageClass, "messageClass");
+    checkNotNull(elementClass, "elementClass");
+    MessageAdapter<M> adapter = messageAdapter(messageClass);
+    MessageAdapter.FieldInfo fieldInfo = adapter.getField(tag);
+    checkArgument(fieldInfo != null && fieldInfo.label.isRepeated()
+        && fieldInfo.messageType == elementClass,
+        "No repeated " + elementClass.getName() + " field with tag " + tag + " in "
+            + messageClass.getName());
+    return new RepeatedFieldIterator<E>(WireInput.newInstance(input), adapter, tag);
+  }
+
+  /**
+   * Returns an iterator over consecutive messages of type {@code messageClass} read from
+   * {@code input}, each preceded by its length as a varint, as written by
+   * {@link Message#writeDelimitedTo}. Messages are decoded one at a time as the iterator advances,
+   * until {@code input} is exhausted. An {@link IOException} thrown while reading is rethrown by
+   * the iterator wrapped in a {@link RuntimeException}. {@code input} is closed when the iterator
+   * is exhausted or fails, or when it is closed.
+   */
+  public <M extends Message> CloseableIterator<M> delimitedReader(Source input,
+      Class<M> messageClass) {
+    checkNotNull(input, "input");
+    checkNotNull(messageClass, "messageClass");
+    return new DelimitedMessageIterator<M>(WireInput.newInstance(input),
+        messageAdapter(messageClass));
+  }
+
   /**
    * Reads a message of type {@code messageClass} from {@code input} and returns it.
    */
@@ -167,6 +424,20 @@ public final class Wire {
     return adapter.read(input);
   }
 
+  @SuppressWarnings("unchecked")
+  private <M extends Message> void parseInto(Message.Builder<M> builder, WireInput input)
+      throws IOException {
+    // Generated builders are nested in their message class.
+    MessageAdapter<M> adapter = messageAdapter((Class<M>) builder.getClass().getEnclosingClass());
+    adapter.readInto(builder, input);
+  }
+
+  private <M extends Message> M parseFrom(WireInput input, Class<M> messageClass, FieldMask mask)
+      throws IOException {
+    MessageAdapter<M> adapter = messageAdapter(messageClass);
+    return adapter.read(input, mask);
+  }
+
   /**
    * Returns {@code value} if it is not null; {@code defaultValue} otherwise.
    * This is used to conveniently return a default value when a value is null.
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static com.squareup.wire.Preconditions.checkArgument;
+import static com.squareup.wire.Preconditions.checkNotNull;
+
+/**
+ * Decodes messages like {@link Wire#parseFrom(byte[], Class)}, but reuses the same input from
+ * one call to the next, and reads streams into a scratch array of its own. Create instances with
+ * {@link Wire#newDecoder}.
+ *
+ * <p>Decoders are not thread-safe. Loops that decode many small messages should keep one decoder
+ * per thread.
+ */
+public final class WireDecoder {
+  private final Wire wire;
+  private final WireInput.ArrayWireInput input = new WireInput.ArrayWireInput(null, 0, 0);
+  final ScratchBuffer scratchBuffer = new ScratchBuffer();
+
+  WireDecoder(Wire wire) {
+    this.wire = wire;
+  }
+
+  /** Reads a message of type {@code messageClass} from {@code bytes} and returns it. */
+  public <M extends Message> M decode(byte[] bytes, Class<M> messageClass) throws IOException {
+    checkNotNull(bytes, "bytes");
+    return decode(bytes, 0, bytes.length, messageClass);
+  }
+
+  /**
+   * Reads a message of type {@code messageClass} from the given range of {@code bytes} and
+   * returns it.
+   */
+  public <M extends Message> M decode(byte[] bytes, int offset, int count, Class<M> messageClass)
+      throws IOException {
+    checkNotNull(bytes, "bytes");
+    checkArgument(offset >= 0, "offset < 0");
+    checkArgument(count >= 0, "count < 0");
+    checkArgument(offset + count <= bytes.length, "offset + count > bytes");
+    checkNotNull(messageClass, "messageClass");
+    input.reset(bytes, offset, count);
+    return wire.messageAdapter(messageClass).read(input);
+  }
+
+  /**
+   * Reads the rest of {@code stream} and returns it decoded as a message of type
+   * {@code messageClass}. The stream is not closed.
+   */
+  public <M extends Message> M decode(InputStream stream, Class<M> messageClass)
+      throws IOException {
+    checkNotNull(stream, "stream");
+    checkNotNull(messageClass, "messageClass");
+    byte[] scratch = scratchBuffer.take(0);
+    try {
+      int count = 0;
+      for (int read; (read = stream.read(scratch, count, scratch.length - count)) != -1;) {
+        count += read;
+        if (count == scratch.length) {
+          byte[] larger = new byte[scratch.length * 2];
+          System.arraycopy(scratch, 0, larger, 0, count);
+          scratch = larger;
+        }
+      }
+      // Decoded values never share the scratch array, so it can be reused right away.
+      return decode(scratch, 0, count, messageClass);
+    } finally {
+      scratchBuffer.give(scratch);
+    }
+  }
+}
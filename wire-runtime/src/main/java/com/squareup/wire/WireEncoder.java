@@ -0,0 +1,99 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static com.squareup.wire.Preconditions.checkArgument;
+import static com.squareup.wire.Preconditions.checkNotNull;
+
+/**
+ * Encodes messages like {@link Message#toByteArray}, but reuses the same output from one call to
+ * the next, and writes to streams through a scratch array of its own. Create instances with
+ * {@link Wire#newEncoder}.
+ *
+ * <p>Encoders are not thread-safe. Loops that encode many small messages should keep one encoder
+ * per thread.
+ */
+public final class WireEncoder {
+  private final Wire wire;
+  private final WireOutput.ArrayWireOutput output = new WireOutput.ArrayWireOutput(null, 0, 0);
+  final ScratchBuffer scratchBuffer = new ScratchBuffer();
+
+  WireEncoder(Wire wire) {
+    this.wire = wire;
+  }
+
+  /**
+   * Returns the encoded bytes of {@code message} in a new array. Use
+   * {@link #encode(Message, byte[], int)} to encode into an array that is reused instead.
+   */
+  public byte[] encode(Message message) {
+    checkNotNull(message, "message");
+    byte[] result = new byte[message.getSerializedSize()];
+    try {
+      write(message, result, 0, result.length);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+    return result;
+  }
+
+  /**
+   * Writes the encoded bytes of {@code message} to {@code sink} starting at {@code offset}, and
+   * returns their count.
+   *
+   * @throws IllegalArgumentException if the encoded message doesn't fit in {@code sink}.
+   */
+  public int encode(Message message, byte[] sink, int offset) {
+    checkNotNull(message, "message");
+    checkNotNull(sink, "sink");
+    checkArgument(offset >= 0 && offset <= sink.length, "offset out of range");
+    int size = message.getSerializedSize();
+    checkArgument(size <= sink.length - offset,
+        "message of " + size + " bytes doesn't fit in " + (sink.length - offset) + " bytes");
+    try {
+      write(message, sink, offset, size);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+    return size;
+  }
+
+  /**
+   * Writes the encoded bytes of {@code message} to {@code stream} with a single write. The stream
+   * is not flushed or closed.
+   */
+  public void encode(Message message, OutputStream stream) throws IOException {
+    checkNotNull(message, "message");
+    checkNotNull(stream, "stream");
+    int size = message.getSerializedSize();
+    byte[] scratch = scratchBuffer.take(size);
+    try {
+      write(message, scratch, 0, size);
+      stream.write(scratch, 0, size);
+    } finally {
+      scratchBuffer.give(scratch);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void write(Message message, byte[] buffer, int offset, int count) throws IOException {
+    output.reset(buffer, offset, count);
+    wire.messageAdapter((Class<Message>) message.getClass()).write(message, output);
+  }
+}
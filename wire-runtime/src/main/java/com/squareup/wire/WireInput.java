@@ -36,51 +36,82 @@ package com.squareup.wire;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
 import java.nio.charset.Charset;
-import okio.Buffer;
 import okio.BufferedSource;
 import okio.ByteString;
 import okio.Okio;
 import okio.Source;
 
 /**
- * Reads and decodes protocol message fields.
+ * Reads and decodes protocol message fields. Instances read either from an okio
+ * {@link BufferedSource} or directly from a byte array or {@link ByteBuffer}.
+ *
+ * <p>Generated {@link MessageCodec codecs} read field values with the public methods of this
+ * class. Tags, limits and nesting depth are managed by the runtime and are not public.
  */
-final class WireInput {
+public abstract class WireInput {
 
-  private static final Charset UTF_8 = Charset.forName("UTF-8");
+  static final Charset UTF_8 = Charset.forName("UTF-8");
 
   private static final String ENCOUNTERED_A_NEGATIVE_SIZE =
       "Encountered a negative size";
-  private static final String INPUT_ENDED_UNEXPECTEDLY =
+  static final String INPUT_ENDED_UNEXPECTEDLY =
       "The input ended unexpectedly in the middle of a field";
   private static final String PROTOCOL_MESSAGE_CONTAINED_AN_INVALID_TAG_ZERO =
       "Protocol message contained an invalid tag (zero).";
   private static final String PROTOCOL_MESSAGE_END_GROUP_TAG_DID_NOT_MATCH_EXPECTED_TAG =
       "Protocol message end-group tag did not match expected tag.";
-  private static final String ENCOUNTERED_A_MALFORMED_VARINT =
+  static final String ENCOUNTERED_A_MALFORMED_VARINT =
       "WireInput encountered a malformed varint.";
 
   /**
-   * Create a new WireInput wrapping the given byte array.
+   * Create a new WireInput wrapping the given byte array. The array is read in place and must
+   * not be modified while the input is in use.
    */
-  public static WireInput newInstance(byte[] buf) {
-    return new WireInput(new Buffer().write(buf));
+  static WireInput newInstance(byte[] buf) {
+    return new ArrayWireInput(buf, 0, buf.length);
   }
 
   /**
-   * Create a new WireInput wrapping the given byte array slice.
+   * Create a new WireInput wrapping the given byte array slice. The array is read in place and
+   * must not be modified while the input is in use.
    */
-  public static WireInput newInstance(byte[] buf, int offset, int count) {
-    return new WireInput(new Buffer().write(buf, offset, count));
+  static WireInput newInstance(byte[] buf, int offset, int count) {
+    return new ArrayWireInput(buf, offset, count);
   }
 
-  public static WireInput newInstance(InputStream source) {
-    return new WireInput(Okio.buffer(Okio.source(source)));
+  /**
+   * Create a new WireInput wrapping the bytes between the position and limit of {@code buffer}.
+   * Heap and direct buffers are both read in place, without being copied, and must not be
+   * modified while the input is in use. The buffer's position, limit and byte order are not
+   * changed.
+   */
+  static WireInput newInstance(ByteBuffer buffer) {
+    if (buffer.hasArray()) {
+      return new ArrayWireInput(buffer.array(), buffer.arrayOffset() + buffer.position(),
+          buffer.remaining());
+    }
+    return new ByteBufferWireInput(buffer, false);
+  }
+
+  /**
+   * Create a new WireInput wrapping the whole of a memory-mapped file. Unlike other inputs, lazy
+   * message fields read from it reference the mapped region instead of copying it, so the file
+   * must not be modified while they are in use.
+   */
+  static WireInput newMappedInstance(MappedByteBuffer buffer) {
+    return new ByteBufferWireInput(buffer, true);
+  }
+
+  static WireInput newInstance(InputStream source) {
+    return new SourceWireInput(Okio.buffer(Okio.source(source)));
   }
 
-  public static WireInput newInstance(Source source) {
-    return new WireInput(Okio.buffer(source));
+  static WireInput newInstance(Source source) {
+    return new SourceWireInput(Okio.buffer(source));
   }
 
   // -----------------------------------------------------------------
@@ -90,7 +121,7 @@ final class WireInput {
    * Protocol message parsers use this to read tags, since a protocol message
    * may legally end wherever a tag occurs, and zero is not a valid tag number.
    */
-  public int readTag() throws IOException {
+  int readTag() throws IOException {
     if (isAtEnd()) {
       lastTag = 0;
       return 0;
@@ -111,7 +142,7 @@ final class WireInput {
    *
    * @throws IOException if {@code value} does not match the last tag.
    */
-  public void checkLastTagWas(int value) throws IOException {
+  void checkLastTagWas(int value) throws IOException {
     if (lastTag != value) {
       throw new IOException(PROTOCOL_MESSAGE_END_GROUP_TAG_DID_NOT_MATCH_EXPECTED_TAG);
     }
@@ -120,10 +151,12 @@ final class WireInput {
   /** Reads a {@code string} field value from the stream. */
   public String readString() throws IOException {
     int count = readVarint32();
-    pos += count;
-    return source.readString(count, UTF_8);
+    return readString(count);
   }
 
+  /** Reads a UTF-8 string from the stream with a given size in bytes. */
+  abstract String readString(int count) throws IOException;
+
   /**
    * Reads a {@code bytes} field value from the stream. The length is read from the
    * stream prior to the actual data.
@@ -134,82 +167,96 @@ final class WireInput {
   }
 
   /** Reads a ByteString from the stream with a given size in bytes. */
-  public ByteString readBytes(int count) throws IOException {
-    pos += count;
-    source.require(count); // Throws EOFException if insufficient bytes are available.
-    return source.readByteString(count);
+  abstract ByteString readBytes(int count) throws IOException;
+
+  /** Reads {@code count} bytes from the stream into a new array. */
+  abstract byte[] readByteArray(int count) throws IOException;
+
+  /**
+   * Returns the next {@code count} bytes of the input as a buffer that shares the input's own
+   * storage, or null without consuming anything if this input can't safely share it.
+   */
+  ByteBuffer readRegion(int count) throws IOException {
+    return null;
   }
 
   /**
    * Reads a raw varint from the stream.  If larger than 32 bits, discard the
    * upper bits.
    */
-  public int readVarint32() throws IOException {
-    pos++;
-    byte tmp = source.readByte();
-    if (tmp >= 0) {
-      return tmp;
-    }
-    int result = tmp & 0x7f;
-    pos++;
-    if ((tmp = source.readByte()) >= 0) {
-      result |= tmp << 7;
-    } else {
-      result |= (tmp & 0x7f) << 7;
-      pos++;
-      if ((tmp = source.readByte()) >= 0) {
-        result |= tmp << 14;
-      } else {
-        result |= (tmp & 0x7f) << 14;
-        pos++;
-        if ((tmp = source.readByte()) >= 0) {
-          result |= tmp << 21;
-        } else {
-          result |= (tmp & 0x7f) << 21;
-          pos++;
-          result |= (tmp = source.readByte()) << 28;
-          if (tmp < 0) {
-            // Discard upper 32 bits.
-            for (int i = 0; i < 5; i++) {
-              pos++;
-              if (source.readByte() >= 0) {
-                return result;
-              }
-            }
-            throw new IOException(ENCOUNTERED_A_MALFORMED_VARINT);
-          }
-        }
-      }
-    }
-    return result;
-  }
+  public abstract int readVarint32() throws IOException;
 
   /** Reads a raw varint up to 64 bits in length from the stream. */
-  public long readVarint64() throws IOException {
-    int shift = 0;
-    long result = 0;
-    while (shift < 64) {
-      pos++;
-      byte b = source.readByte();
-      result |= (long) (b & 0x7F) << shift;
-      if ((b & 0x80) == 0) {
-        return result;
-      }
-      shift += 7;
-    }
-    throw new IOException(ENCOUNTERED_A_MALFORMED_VARINT);
-  }
+  public abstract long readVarint64() throws IOException;
 
   /** Reads a 32-bit little-endian integer from the stream. */
-  public int readFixed32() throws IOException {
-    pos += 4;
-    return source.readIntLe();
-  }
+  public abstract int readFixed32() throws IOException;
 
   /** Reads a 64-bit little-endian integer from the stream. */
-  public long readFixed64() throws IOException {
-    pos += 8;
-    return source.readLongLe();
+  public abstract long readFixed64() throws IOException;
+
+  /**
+   * Decodes {@code count} bytes of UTF-8 starting at {@code offset}. Runs of ASCII are copied
+   * directly and multi-byte sequences are decoded by hand, avoiding the general-purpose charset
+   * decoder. Malformed input is passed to that decoder instead, so that it is replaced exactly
+   * as {@link String#String(byte[], int, int, Charset)} would.
+   */
+  static String decodeUtf8(byte[] data, int offset, int count) {
+    char[] chars = new char[count]; // Never more chars than bytes.
+    int limit = offset + count;
+    int i = offset;
+    int c = 0;
+
+    // Fast path: copy the leading run of ASCII bytes, which is usually the whole string.
+    while (i < limit && data[i] >= 0) {
+      chars[c++] = (char) data[i++];
+    }
+
+    while (i < limit) {
+      int b0 = data[i];
+      if (b0 >= 0) {
+        chars[c++] = (char) b0;
+        i++;
+      } else if ((b0 & 0xE0) == 0xC0 && i + 1 < limit) {
+        int b1 = data[i + 1];
+        // Lead bytes 0xC0 and 0xC1 would be overlong encodings of ASCII.
+        if ((b1 & 0xC0) != 0x80 || (b0 & 0x1E) == 0) break;
+        chars[c++] = (char) (((b0 & 0x1F) << 6) | (b1 & 0x3F));
+        i += 2;
+      } else if ((b0 & 0xF0) == 0xE0 && i + 2 < limit) {
+        int b1 = data[i + 1];
+        int b2 = data[i + 2];
+        if ((b1 & 0xC0) != 0x80 || (b2 & 0xC0) != 0x80) break;
+        int codePoint = ((b0 & 0x0F) << 12) | ((b1 & 0x3F) << 6) | (b2 & 0x3F);
+        if (codePoint < 0x800
+            || (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+          break;
+        }
+        chars[c++] = (char) codePoint;
+        i += 3;
+      } else if ((b0 & 0xF8) == 0xF0 && i + 3 < limit) {
+        int b1 = data[i + 1];
+        int b2 = data[i + 2];
+        int b3 = data[i + 3];
+        if ((b1 & 0xC0) != 0x80 || (b2 & 0xC0) != 0x80 || (b3 & 0xC0) != 0x80) break;
+        int codePoint = ((b0 & 0x07) << 18) | ((b1 & 0x3F) << 12) | ((b2 & 0x3F) << 6)
+            | (b3 & 0x3F);
+        if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT
+            || codePoint > Character.MAX_CODE_POINT) {
+          break;
+        }
+        codePoint -= Character.MIN_SUPPLEMENTARY_CODE_POINT;
+        chars[c++] = (char) (Character.MIN_HIGH_SURROGATE + (codePoint >>> 10));
+        chars[c++] = (char) (Character.MIN_LOW_SURROGATE + (codePoint & 0x3FF));
+        i += 4;
+      } else {
+        break;
+      }
+    }
+
+    return i == limit
+        ? new String(chars, 0, c)
+        : new String(data, offset, count, UTF_8);
   }
 
   /**
@@ -242,28 +289,29 @@ final class WireInput {
 
   // -----------------------------------------------------------------
 
-  /** The Okio input source. */
-  private final BufferedSource source;
-
   /**
-   * The current position in the input source, starting at 0 and increasing monotonically.
+   * The absolute position of the end of the current message. Positions and limits are longs so
+   * that streamed inputs may exceed 2 GiB; only individual messages are limited to int sizes.
    */
-  private int pos = 0;
-
-  /** The absolute position of the end of the current message. */
-  private int currentLimit = Integer.MAX_VALUE;
+  private long currentLimit = Long.MAX_VALUE;
 
   /** The standard number of levels of message nesting to allow. */
-  public static final int RECURSION_LIMIT = 64;
+  static final int RECURSION_LIMIT = 64;
 
   /** The current number of levels of message nesting. */
-  public int recursionDepth;
+  int recursionDepth;
 
   /** The last tag that was read. */
   private int lastTag;
 
-  private WireInput(BufferedSource source) {
-    this.source = source;
+  WireInput() {
+  }
+
+  /** Returns this input's limit, nesting depth and last tag to their initial values. */
+  void reset() {
+    currentLimit = Long.MAX_VALUE;
+    recursionDepth = 0;
+    lastTag = 0;
   }
 
   /**
@@ -272,16 +320,16 @@ final class WireInput {
    *
    * @return the old limit.
    */
-  public int pushLimit(int byteLimit) throws IOException {
+  long pushLimit(int byteLimit) throws IOException {
     if (byteLimit < 0) {
       throw new IOException(ENCOUNTERED_A_NEGATIVE_SIZE);
     }
-    byteLimit += pos;
-    int oldLimit = currentLimit;
-    if (byteLimit > oldLimit) {
+    long newLimit = getPosition() + byteLimit;
+    long oldLimit = currentLimit;
+    if (newLimit > oldLimit) {
       throw new EOFException(INPUT_ENDED_UNEXPECTEDLY);
     }
-    currentLimit = byteLimit;
+    currentLimit = newLimit;
     return oldLimit;
   }
 
@@ -290,7 +338,7 @@ final class WireInput {
    *
    * @param oldLimit The old limit, as returned by {@code pushLimit}.
    */
-  public void popLimit(int oldLimit) {
+  void popLimit(long oldLimit) {
     currentLimit = oldLimit;
   }
 
@@ -305,18 +353,24 @@ final class WireInput {
     if (getPosition() == currentLimit) {
       return true;
     }
-    return source.exhausted();
+    return exhausted();
   }
 
+  /** Returns true if there are no more bytes in the underlying input. */
+  abstract boolean exhausted() throws IOException;
+
   /**
-   * Returns the current source position in bytes.
+   * Returns the current source position in bytes, starting at 0 and increasing monotonically.
    */
-  public long getPosition() {
-    return pos;
+  abstract long getPosition();
+
+  /** Returns the absolute position of the end of the current message. */
+  long getLimit() {
+    return currentLimit;
   }
 
   /** Skips a section of the input delimited by START_GROUP/END_GROUP type markers. */
-  public void skipGroup() throws IOException {
+  void skipGroup() throws IOException {
     while (true) {
       int tag = readTag();
       if (tag == 0 || skipField(tag)) {
@@ -325,8 +379,11 @@ final class WireInput {
     }
   }
 
-  // Returns true when END_GROUP tag found
-  private boolean skipField(int tag) throws IOException {
+  /**
+   * Skips the value of the field whose tag and wire type were just read as {@code tag}. Returns
+   * true if {@code tag} is an END_GROUP marker.
+   */
+  boolean skipField(int tag) throws IOException {
     switch (WireType.valueOf(tag)) {
       case VARINT: readVarint64(); return false;
       case FIXED32: readFixed32(); return false;
@@ -344,8 +401,432 @@ final class WireInput {
   }
 
   // Skips count bytes of input.
-  private void skip(long count) throws IOException {
-    pos += count;
-    source.skip(count);
+  abstract void skip(long count) throws IOException;
+
+  /** Releases the underlying input, if it needs releasing. */
+  void close() throws IOException {
+  }
+
+  /** Reads from an okio {@link BufferedSource}. */
+  private static final class SourceWireInput extends WireInput {
+    /** The Okio input source. */
+    private final BufferedSource source;
+    private long pos;
+
+    SourceWireInput(BufferedSource source) {
+      this.source = source;
+    }
+
+    @Override long getPosition() {
+      return pos;
+    }
+
+    @Override String readString(int count) throws IOException {
+      pos += count;
+      return source.readString(count, UTF_8);
+    }
+
+    @Override ByteString readBytes(int count) throws IOException {
+      pos += count;
+      source.require(count); // Throws EOFException if insufficient bytes are available.
+      return source.readByteString(count);
+    }
+
+    @Override byte[] readByteArray(int count) throws IOException {
+      pos += count;
+      return source.readByteArray(count); // Throws EOFException if insufficient bytes remain.
+    }
+
+    @Override public int readVarint32() throws IOException {
+      pos++;
+      byte tmp = source.readByte();
+      if (tmp >= 0) {
+        return tmp;
+      }
+      int result = tmp & 0x7f;
+      pos++;
+      if ((tmp = source.readByte()) >= 0) {
+        result |= tmp << 7;
+      } else {
+        result |= (tmp & 0x7f) << 7;
+        pos++;
+        if ((tmp = source.readByte()) >= 0) {
+          result |= tmp << 14;
+        } else {
+          result |= (tmp & 0x7f) << 14;
+          pos++;
+          if ((tmp = source.readByte()) >= 0) {
+            result |= tmp << 21;
+          } else {
+            result |= (tmp & 0x7f) << 21;
+            pos++;
+            result |= (tmp = source.readByte()) << 28;
+            if (tmp < 0) {
+              // Discard upper 32 bits.
+              for (int i = 0; i < 5; i++) {
+                pos++;
+                if (source.readByte() >= 0) {
+                  return result;
+                }
+              }
+              throw new IOException(ENCOUNTERED_A_MALFORMED_VARINT);
+            }
+          }
+        }
+      }
+      return result;
+    }
+
+    @Override public long readVarint64() throws IOException {
+      int shift = 0;
+      long result = 0;
+      while (shift < 64) {
+        pos++;
+        byte b = source.readByte();
+        result |= (long) (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return result;
+        }
+        shift += 7;
+      }
+      throw new IOException(ENCOUNTERED_A_MALFORMED_VARINT);
+    }
+
+    @Override public int readFixed32() throws IOException {
+      pos += 4;
+      return source.readIntLe();
+    }
+
+    @Override public long readFixed64() throws IOException {
+      pos += 8;
+      return source.readLongLe();
+    }
+
+    @Override boolean exhausted() throws IOException {
+      return source.exhausted();
+    }
+
+    @Override void skip(long count) throws IOException {
+      pos += count;
+      source.skip(count);
+    }
+
+    @Override void close() throws IOException {
+      source.close();
+    }
+  }
+
+  /**
+   * Reads directly from a byte array slice. Unlike reading from a {@link BufferedSource} this
+   * doesn't copy the input, and each byte is read with plain index arithmetic.
+   */
+  static final class ArrayWireInput extends WireInput {
+    private byte[] buffer;
+    private int offset;
+    private int size;
+    private int pos;
+
+    ArrayWireInput(byte[] buffer, int offset, int count) {
+      this.buffer = buffer;
+      this.offset = offset;
+      this.size = count;
+    }
+
+    /** Discards any state from previous reads, and starts reading the given array slice. */
+    void reset(byte[] buffer, int offset, int count) {
+      this.buffer = buffer;
+      this.offset = offset;
+      this.size = count;
+      this.pos = 0;
+      reset();
+    }
+
+    @Override long getPosition() {
+      return pos;
+    }
+
+    /** Throws if {@code byteCount} is negative or fewer than {@code byteCount} bytes remain. */
+    private void require(long byteCount) throws IOException {
+      if (byteCount < 0) {
+        throw new IOException(ENCOUNTERED_A_NEGATIVE_SIZE);
+      }
+      if (size - pos < byteCount) {
+        throw new EOFException();
+      }
+    }
+
+    private byte readByte() throws EOFException {
+      if (pos == size) {
+        throw new EOFException();
+      }
+      return buffer[offset + pos++];
+    }
+
+    @Override String readString(int count) throws IOException {
+      require(count);
+      String result = decodeUtf8(buffer, offset + pos, count);
+      pos += count;
+      return result;
+    }
+
+    @Override ByteString readBytes(int count) throws IOException {
+      require(count);
+      ByteString result = ByteString.of(buffer, offset + pos, count);
+      pos += count;
+      return result;
+    }
+
+    @Override byte[] readByteArray(int count) throws IOException {
+      require(count);
+      byte[] result = new byte[count];
+      System.arraycopy(buffer, offset + pos, result, 0, count);
+      pos += count;
+      return result;
+    }
+
+    @Override public int readVarint32() throws IOException {
+      byte tmp = readByte();
+      if (tmp >= 0) {
+        return tmp;
+      }
+      int result = tmp & 0x7f;
+      if ((tmp = readByte()) >= 0) {
+        result |= tmp << 7;
+      } else {
+        result |= (tmp & 0x7f) << 7;
+        if ((tmp = readByte()) >= 0) {
+          result |= tmp << 14;
+        } else {
+          result |= (tmp & 0x7f) << 14;
+          if ((tmp = readByte()) >= 0) {
+            result |= tmp << 21;
+          } else {
+            result |= (tmp & 0x7f) << 21;
+            result |= (tmp = readByte()) << 28;
+            if (tmp < 0) {
+              // Discard upper 32 bits.
+              for (int i = 0; i < 5; i++) {
+                if (readByte() >= 0) {
+                  return result;
+                }
+              }
+              throw new IOException(ENCOUNTERED_A_MALFORMED_VARINT);
+            }
+          }
+        }
+      }
+      return result;
+    }
+
+    @Override public long readVarint64() throws IOException {
+      int shift = 0;
+      long result = 0;
+      while (shift < 64) {
+        byte b = readByte();
+        result |= (long) (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return result;
+        }
+        shift += 7;
+      }
+      throw new IOException(ENCOUNTERED_A_MALFORMED_VARINT);
+    }
+
+    @Override public int readFixed32() throws IOException {
+      require(4);
+      int i = offset + pos;
+      pos += 4;
+      byte[] buffer = this.buffer;
+      return (buffer[i] & 0xff)
+          | (buffer[i + 1] & 0xff) << 8
+          | (buffer[i + 2] & 0xff) << 16
+          | (buffer[i + 3] & 0xff) << 24;
+    }
+
+    @Override public long readFixed64() throws IOException {
+      require(8);
+      int i = offset + pos;
+      pos += 8;
+      byte[] buffer = this.buffer;
+      return (buffer[i] & 0xffL)
+          | (buffer[i + 1] & 0xffL) << 8
+          | (buffer[i + 2] & 0xffL) << 16
+          | (buffer[i + 3] & 0xffL) << 24
+          | (buffer[i + 4] & 0xffL) << 32
+          | (buffer[i + 5] & 0xffL) << 40
+          | (buffer[i + 6] & 0xffL) << 48
+          | (buffer[i + 7] & 0xffL) << 56;
+    }
+
+    @Override boolean exhausted() {
+      return pos == size;
+    }
+
+    @Override void skip(long count) throws IOException {
+      require(count);
+      pos += count;
+    }
+  }
+
+  /**
+   * Reads directly from a {@link ByteBuffer}, typically a direct or read-only one whose backing
+   * array is not accessible. Bytes are read at absolute indices of a private slice of the buffer,
+   * and fixed-width values are read with its little-endian bulk getters.
+   */
+  private static final class ByteBufferWireInput extends WireInput {
+    private final ByteBuffer buffer;
+    private final int size;
+    private int pos;
+
+    /** True if {@link #readRegion} may return views of the buffer. */
+    private final boolean shareRegions;
+
+    /** Reads from {@link #buffer} at its current position, or null if unused. */
+    private InputStream bufferStream;
+
+    ByteBufferWireInput(ByteBuffer buffer, boolean shareRegions) {
+      this.buffer = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+      this.size = this.buffer.limit();
+      this.shareRegions = shareRegions;
+    }
+
+    @Override long getPosition() {
+      return pos;
+    }
+
+    /** Throws if {@code byteCount} is negative or fewer than {@code byteCount} bytes remain. */
+    private void require(long byteCount) throws IOException {
+      if (byteCount < 0) {
+        throw new IOException(ENCOUNTERED_A_NEGATIVE_SIZE);
+      }
+      if (size - pos < byteCount) {
+        throw new EOFException();
+      }
+    }
+
+    private byte readByte() throws EOFException {
+      if (pos == size) {
+        throw new EOFException();
+      }
+      return buffer.get(pos++);
+    }
+
+    @Override String readString(int count) throws IOException {
+      return decodeUtf8(readByteArray(count), 0, count);
+    }
+
+    @Override byte[] readByteArray(int count) throws IOException {
+      require(count);
+      byte[] result = new byte[count];
+      buffer.position(pos);
+      buffer.get(result);
+      pos += count;
+      return result;
+    }
+
+    @Override ByteString readBytes(int count) throws IOException {
+      require(count);
+      InputStream stream = bufferStream;
+      if (stream == null) {
+        stream = bufferStream = new InputStream() {
+          @Override public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+          }
+
+          @Override public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining()) return -1;
+            len = Math.min(len, buffer.remaining());
+            buffer.get(b, off, len);
+            return len;
+          }
+        };
+      }
+      // Copies straight into the byte string's own array, unlike ByteString.of(byte[]).
+      buffer.position(pos);
+      ByteString result = ByteString.read(stream, count);
+      pos += count;
+      return result;
+    }
+
+    @Override ByteBuffer readRegion(int count) throws IOException {
+      if (!shareRegions) return null;
+      require(count);
+      ByteBuffer region = buffer.duplicate();
+      region.position(pos);
+      region.limit(pos + count);
+      pos += count;
+      return region.slice();
+    }
+
+    @Override public int readVarint32() throws IOException {
+      byte tmp = readByte();
+      if (tmp >= 0) {
+        return tmp;
+      }
+      int result = tmp & 0x7f;
+      if ((tmp = readByte()) >= 0) {
+        result |= tmp << 7;
+      } else {
+        result |= (tmp & 0x7f) << 7;
+        if ((tmp = readByte()) >= 0) {
+          result |= tmp << 14;
+        } else {
+          result |= (tmp & 0x7f) << 14;
+          if ((tmp = readByte()) >= 0) {
+            result |= tmp << 21;
+          } else {
+            result |= (tmp & 0x7f) << 21;
+            result |= (tmp = readByte()) << 28;
+            if (tmp < 0) {
+              // Discard upper 32 bits.
+              for (int i = 0; i < 5; i++) {
+                if (readByte() >= 0) {
+                  return result;
+                }
+              }
+              throw new IOException(ENCOUNTERED_A_MALFORMED_VARINT);
+            }
+          }
+        }
+      }
+      return result;
+    }
+
+    @Override public long readVarint64() throws IOException {
+      int shift = 0;
+      long result = 0;
+      while (shift < 64) {
+        byte b = readByte();
+        result |= (long) (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return result;
+        }
+        shift += 7;
+      }
+      throw new IOException(ENCOUNTERED_A_MALFORMED_VARINT);
+    }
+
+    @Override public int readFixed32() throws IOException {
+      require(4);
+      int result = buffer.getInt(pos);
+      pos += 4;
+      return result;
+    }
+
+    @Override public long readFixed64() throws IOException {
+      require(8);
+      long result = buffer.getLong(pos);
+      pos += 8;
+      return result;
+    }
+
+    @Override boolean exhausted() {
+      return pos == size;
+    }
+
+    @Override void skip(long count) throws IOException {
+      require(count);
+      pos += count;
+    }
   }
 }
@@ -50,11 +50,17 @@ package com.squareup.wire;
 // OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import okio.BufferedSink;
+import okio.ByteString;
 
 /**
- * Utilities for encoding and writing protocol message fields.
+ * Utilities for encoding and writing protocol message fields. Instances write either into a
+ * fixed-size byte array or {@link ByteBuffer}, or directly into an okio {@link BufferedSink}.
  */
-public final class WireOutput {
+public abstract class WireOutput {
 
   // Public utility methods
 
@@ -152,14 +158,10 @@ public final class WireOutput {
     return (fieldNumber << WireType.TAG_TYPE_BITS) | wireType.value();
   }
 
-  private final byte[] buffer;
-  private final int limit;
-  private int position;
+  /** Forwards the bytes of a {@link ByteString} to {@link #writeRawBytes}, or null if unused. */
+  private OutputStream rawBytesStream;
 
-  private WireOutput(byte[] buffer, int offset, int length) {
-    this.buffer = buffer;
-    position = offset;
-    limit = offset + length;
+  WireOutput() {
   }
 
   /**
@@ -179,7 +181,28 @@ public final class WireOutput {
    * array is faster than writing to an {@code OutputStream}.
    */
   static WireOutput newInstance(byte[] flatArray, int offset, int length) {
-    return new WireOutput(flatArray, offset, length);
+    return new ArrayWireOutput(flatArray, offset, length);
+  }
+
+  /**
+   * Create a new {@code WireOutput} that writes into the bytes between the position and limit of
+   * {@code buffer}. Heap buffers are written through their backing array; others, such as direct
+   * buffers, are written in place. The buffer's position, limit and byte order are not changed.
+   */
+  static WireOutput newInstance(ByteBuffer buffer) {
+    if (buffer.hasArray()) {
+      return new ArrayWireOutput(buffer.array(), buffer.arrayOffset() + buffer.position(),
+          buffer.remaining());
+    }
+    return new ByteBufferWireOutput(buffer);
+  }
+
+  /**
+   * Create a new {@code WireOutput} that writes to {@code sink}. Bytes are written into the
+   * sink's buffer as they are encoded; callers are responsible for emitting or flushing it.
+   */
+  static WireOutput newInstance(BufferedSink sink) {
+    return new SinkWireOutput(sink);
   }
 
   /** Compute the number of bytes that would be needed to encode a tag. */
@@ -192,7 +215,7 @@ public final class WireOutput {
    * {@code value} is treated as unsigned, so it won't be sign-extended if
    * negative.
    */
-  static int varint32Size(int value) {
+  public static int varint32Size(int value) {
     if ((value & (0xffffffff <<  7)) == 0) return 1;
     if ((value & (0xffffffff << 14)) == 0) return 2;
     if ((value & (0xffffffff << 21)) == 0) return 3;
@@ -201,7 +224,7 @@ public final class WireOutput {
   }
 
   /** Compute the number of bytes that would be needed to encode a varint. */
-  static int varint64Size(long value) {
+  public static int varint64Size(long value) {
     if ((value & (0xffffffffffffffffL <<  7)) == 0) return 1;
     if ((value & (0xffffffffffffffffL << 14)) == 0) return 2;
     if ((value & (0xffffffffffffffffL << 21)) == 0) return 3;
@@ -214,44 +237,141 @@ public final class WireOutput {
     return 10;
   }
 
-  /** Write a single byte. */
-  void writeRawByte(byte value) throws IOException {
-    if (position == limit) {
-      // We're writing to a single buffer.
-      throw new IOException("Out of space: position=" + position + ", limit=" + limit);
+  /**
+   * Compute the number of bytes that would be needed to encode {@code s} as UTF-8. Like
+   * {@link String#getBytes(String)}, unpaired surrogates are encoded as a single '?'.
+   */
+  static int utf8Length(String s) {
+    int count = 0;
+    for (int i = 0, length = s.length(); i < length; i++) {
+      char ch = s.charAt(i);
+      if (ch <= 0x7F) {
+        count++;
+      } else if (ch <= 0x7FF) {
+        count += 2;
+      } else if (ch < Character.MIN_SURROGATE || ch > Character.MAX_SURROGATE) {
+        count += 3;
+      } else if (isSurrogatePair(s, i)) {
+        count += 4;
+        ++i;
+      } else {
+        count++;
+      }
     }
-    buffer[position++] = value;
+    return count;
   }
 
+  /** Returns true if the chars of {@code s} at {@code i} and {@code i + 1} are a surrogate pair. */
+  private static boolean isSurrogatePair(String s, int i) {
+    return Character.isHighSurrogate(s.charAt(i))
+        && i + 1 < s.length()
+        && Character.isLowSurrogate(s.charAt(i + 1));
+  }
+
+  /** Write a single byte. */
+  public abstract void writeRawByte(byte value) throws IOException;
+
   /** Write a single byte, represented by an integer value. */
-  void writeRawByte(int value) throws IOException {
+  public void writeRawByte(int value) throws IOException {
     writeRawByte((byte) value);
   }
 
   /** Write an array of bytes. */
-  void writeRawBytes(byte[] value) throws IOException {
+  public void writeRawBytes(byte[] value) throws IOException {
     writeRawBytes(value, 0, value.length);
   }
 
   /** Write part of an array of bytes. */
-  void writeRawBytes(byte[] value, int offset, int length) throws IOException {
-    if (limit - position >= length) {
-      // We have room in the current buffer.
-      System.arraycopy(value, offset, buffer, position, length);
-      position += length;
-    } else {
-      // We're writing to a single buffer.
-      throw new IOException("Out of space: position=" + position + ", limit=" + limit);
+  public abstract void writeRawBytes(byte[] value, int offset, int length) throws IOException;
+
+  /**
+   * Write the contents of {@code value}. Unlike {@code writeRawBytes(value.toByteArray())}, the
+   * bytes are copied once, straight from the byte string's backing storage.
+   */
+  void writeRawBytes(ByteString value) throws IOException {
+    OutputStream stream = rawBytesStream;
+    if (stream == null) {
+      stream = rawBytesStream = new OutputStream() {
+        @Override public void write(int b) throws IOException {
+          writeRawByte(b);
+        }
+
+        @Override public void write(byte[] b, int off, int len) throws IOException {
+          writeRawBytes(b, off, len);
+        }
+      };
+    }
+    value.write(stream);
+  }
+
+  /**
+   * Write the bytes remaining in {@code value}, without changing its position. Buffers without an
+   * accessible array are copied in chunks.
+   */
+  void writeRawBytes(ByteBuffer value) throws IOException {
+    if (value.hasArray()) {
+      writeRawBytes(value.array(), value.arrayOffset() + value.position(), value.remaining());
+      return;
     }
+    ByteBuffer source = value.duplicate();
+    byte[] chunk = new byte[Math.min(source.remaining(), 8192)];
+    while (source.hasRemaining()) {
+      int count = Math.min(chunk.length, source.remaining());
+      source.get(chunk, 0, count);
+      writeRawBytes(chunk, 0, count);
+    }
+  }
+
+  /**
+   * Write a {@code string} field value, preceded by its length in bytes. The string is encoded
+   * directly into the output, without allocating an intermediate byte array.
+   */
+  public void writeString(String value) throws IOException {
+    writeString(value, utf8Length(value));
+  }
+
+  /**
+   * Write a {@code string} field value whose encoded length {@code utf8Length}, as returned by
+   * {@link #utf8Length}, was already computed when the message was sized.
+   */
+  void writeString(String value, int utf8Length) throws IOException {
+    writeVarint32(utf8Length);
+    for (int i = 0, length = value.length(); i < length; i++) {
+      char ch = value.charAt(i);
+      if (ch <= 0x7F) {
+        writeRawByte(ch);
+      } else if (ch <= 0x7FF) {
+        writeRawByte(0xC0 | (ch >>> 6));
+        writeRawByte(0x80 | (ch & 0x3F));
+      } else if (ch < Character.MIN_SURROGATE || ch > Character.MAX_SURROGATE) {
+        writeRawByte(0xE0 | (ch >>> 12));
+        writeRawByte(0x80 | ((ch >>> 6) & 0x3F));
+        writeRawByte(0x80 | (ch & 0x3F));
+      } else if (isSurrogatePair(value, i)) {
+        int codePoint = Character.toCodePoint(ch, value.charAt(++i));
+        writeRawByte(0xF0 | (codePoint >>> 18));
+        writeRawByte(0x80 | ((codePoint >>> 12) & 0x3F));
+        writeRawByte(0x80 | ((codePoint >>> 6) & 0x3F));
+        writeRawByte(0x80 | (codePoint & 0x3F));
+      } else {
+        writeRawByte('?');
+      }
+    }
+  }
+
+  /** Write a {@code bytes} field value, preceded by its length in bytes. */
+  public void writeBytes(ByteString value) throws IOException {
+    writeVarint32(value.size());
+    writeRawBytes(value);
   }
 
   /** Encode and write a tag. */
-  void writeTag(int fieldNumber, WireType wireType) throws IOException {
+  public void writeTag(int fieldNumber, WireType wireType) throws IOException {
     writeVarint32(makeTag(fieldNumber, wireType));
   }
 
   /** Write an {@code int32} field to the stream. */
-  void writeSignedVarint32(int value) throws IOException {
+  public void writeSignedVarint32(int value) throws IOException {
     if (value >= 0) {
       writeVarint32(value);
     } else {
@@ -264,7 +384,7 @@ public final class WireOutput {
    * Encode and write a varint.  {@code value} is treated as
    * unsigned, so it won't be sign-extended if negative.
    */
-  void writeVarint32(int value) throws IOException {
+  public void writeVarint32(int value) throws IOException {
     while (true) {
       if ((value & ~0x7F) == 0) {
         writeRawByte(value);
@@ -277,7 +397,7 @@ public final class WireOutput {
   }
 
   /** Encode and write a varint. */
-  void writeVarint64(long value) throws IOException {
+  public void writeVarint64(long value) throws IOException {
     while (true) {
       if ((value & ~0x7FL) == 0) {
         writeRawByte((int) value);
@@ -290,7 +410,7 @@ public final class WireOutput {
   }
 
   /** Write a little-endian 32-bit integer. */
-  void writeFixed32(int value) throws IOException {
+  public void writeFixed32(int value) throws IOException {
     // CHECKSTYLE.OFF: ParenPad
     writeRawByte((value      ) & 0xFF);
     writeRawByte((value >>  8) & 0xFF);
@@ -300,7 +420,7 @@ public final class WireOutput {
   }
 
   /** Write a little-endian 64-bit integer. */
-  void writeFixed64(long value) throws IOException {
+  public void writeFixed64(long value) throws IOException {
     // CHECKSTYLE.OFF: ParenPad
     writeRawByte((int) (value      ) & 0xFF);
     writeRawByte((int) (value >>  8) & 0xFF);
@@ -323,7 +443,7 @@ public final class WireOutput {
    * @return An unsigned 32-bit integer, stored in a signed int because
    *         Java has no explicit unsigned support.
    */
-  static int zigZag32(int n) {
+  public static int zigZag32(int n) {
     // Note:  the right-shift must be arithmetic
     return (n << 1) ^ (n >> 31);
   }
@@ -338,8 +458,219 @@ public final class WireOutput {
    * @return An unsigned 64-bit integer, stored in a signed int because
    *         Java has no explicit unsigned support.
    */
-  static long zigZag64(long n) {
+  public static long zigZag64(long n) {
     // Note:  the right-shift must be arithmetic
     return (n << 1) ^ (n >> 63);
   }
+
+  /** Writes to a fixed-size byte array slice. */
+  static final class ArrayWireOutput extends WireOutput {
+    private byte[] buffer;
+    private int limit;
+    private int position;
+
+    ArrayWireOutput(byte[] buffer, int offset, int length) {
+      reset(buffer, offset, length);
+    }
+
+    /** Starts writing to the given array slice, forgetting the previous one. */
+    void reset(byte[] buffer, int offset, int length) {
+      this.buffer = buffer;
+      position = offset;
+      limit = offset + length;
+    }
+
+    @Override public void writeRawByte(byte value) throws IOException {
+      if (position == limit) {
+        // We're writing to a single buffer.
+        throw new IOException("Out of space: position=" + position + ", limit=" + limit);
+      }
+      buffer[position++] = value;
+    }
+
+    @Override public void writeRawBytes(byte[] value, int offset, int length) throws IOException {
+      if (limit - position >= length) {
+        // We have room in the current buffer.
+        System.arraycopy(value, offset, buffer, position, length);
+        position += length;
+      } else {
+        // We're writing to a single buffer.
+        throw new IOException("Out of space: position=" + position + ", limit=" + limit);
+      }
+    }
+
+    @Override void writeRawBytes(ByteBuffer value) throws IOException {
+      int length = value.remaining();
+      if (limit - position < length) {
+        throw new IOException("Out of space: position=" + position + ", limit=" + limit);
+      }
+      value.duplicate().get(buffer, position, length);
+      position += length;
+    }
+
+    @Override void writeString(String value, int utf8Length) throws IOException {
+      writeVarint32(utf8Length);
+      if (limit - position < utf8Length) {
+        throw new IOException("Out of space: position=" + position + ", limit=" + limit);
+      }
+      // The length is known so the bytes can be encoded straight into the buffer.
+      byte[] buffer = this.buffer;
+      int position = this.position;
+      int i = 0;
+      int length = value.length();
+
+      // Fast path: copy the leading run of ASCII chars, which is usually the whole string.
+      for (char ch; i < length && (ch = value.charAt(i)) <= 0x7F; i++) {
+        buffer[position++] = (byte) ch;
+      }
+
+      for (; i < length; i++) {
+        char ch = value.charAt(i);
+        if (ch <= 0x7F) {
+          buffer[position++] = (byte) ch;
+        } else if (ch <= 0x7FF) {
+          buffer[position++] = (byte) (0xC0 | (ch >>> 6));
+          buffer[position++] = (byte) (0x80 | (ch & 0x3F));
+        } else if (ch < Character.MIN_SURROGATE || ch > Character.MAX_SURROGATE) {
+          buffer[position++] = (byte) (0xE0 | (ch >>> 12));
+          buffer[position++] = (byte) (0x80 | ((ch >>> 6) & 0x3F));
+          buffer[position++] = (byte) (0x80 | (ch & 0x3F));
+        } else if (isSurrogatePair(value, i)) {
+          int codePoint = Character.toCodePoint(ch, value.charAt(++i));
+          buffer[position++] = (byte) (0xF0 | (codePoint >>> 18));
+          buffer[position++] = (byte) (0x80 | ((codePoint >>> 12) & 0x3F));
+          buffer[position++] = (byte) (0x80 | ((codePoint >>> 6) & 0x3F));
+          buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else {
+          buffer[position++] = '?';
+        }
+      }
+      this.position = position;
+    }
+  }
+
+  /** Writes into the segments of an okio {@link BufferedSink}. */
+  private static final class SinkWireOutput extends WireOutput {
+    private final BufferedSink sink;
+
+    SinkWireOutput(BufferedSink sink) {
+      this.sink = sink;
+    }
+
+    @Override public void writeRawByte(byte value) throws IOException {
+      sink.writeByte(value);
+    }
+
+    @Override public void writeRawBytes(byte[] value, int offset, int length) throws IOException {
+      sink.write(value, offset, length);
+    }
+
+    @Override void writeRawBytes(ByteString value) throws IOException {
+      sink.write(value);
+    }
+
+    @Override void writeString(String value, int utf8Length) throws IOException {
+      writeVarint32(utf8Length);
+      sink.writeUtf8(value);
+    }
+
+    @Override public void writeFixed32(int value) throws IOException {
+      sink.writeIntLe(value);
+    }
+
+    @Override public void writeFixed64(long value) throws IOException {
+      sink.writeLongLe(value);
+    }
+  }
+
+  /**
+   * Writes into a {@link ByteBuffer} whose backing array is not accessible, such as a direct
+   * buffer. Each field checks once that there is room for it, then writes with the buffer's
+   * relative and little-endian bulk putters.
+   */
+  private static final class ByteBufferWireOutput extends WireOutput {
+    private final ByteBuffer buffer;
+
+    ByteBufferWireOutput(ByteBuffer buffer) {
+      this.buffer = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /** Throws if fewer than {@code byteCount} bytes of space remain. */
+    private void require(int byteCount) throws IOException {
+      if (buffer.remaining() < byteCount) {
+        throw new IOException("Out of space: position=" + buffer.position()
+            + ", limit=" + buffer.limit());
+      }
+    }
+
+    @Override public void writeRawByte(byte value) throws IOException {
+      require(1);
+      buffer.put(value);
+    }
+
+    @Override public void writeRawBytes(byte[] value, int offset, int length) throws IOException {
+      require(length);
+      buffer.put(value, offset, length);
+    }
+
+    @Override void writeRawBytes(ByteBuffer value) throws IOException {
+      require(value.remaining());
+      buffer.put(value.duplicate());
+    }
+
+    @Override public void writeVarint32(int value) throws IOException {
+      require(varint32Size(value));
+      while ((value & ~0x7F) != 0) {
+        buffer.put((byte) ((value & 0x7F) | 0x80));
+        value >>>= 7;
+      }
+      buffer.put((byte) value);
+    }
+
+    @Override public void writeVarint64(long value) throws IOException {
+      require(varint64Size(value));
+      while ((value & ~0x7FL) != 0) {
+        buffer.put((byte) (((int) value & 0x7F) | 0x80));
+        value >>>= 7;
+      }
+      buffer.put((byte) value);
+    }
+
+    @Override public void writeFixed32(int value) throws IOException {
+      require(4);
+      buffer.putInt(value);
+    }
+
+    @Override public void writeFixed64(long value) throws IOException {
+      require(8);
+      buffer.putLong(value);
+    }
+
+    @Override void writeString(String value, int utf8Length) throws IOException {
+      writeVarint32(utf8Length);
+      require(utf8Length);
+      ByteBuffer buffer = this.buffer;
+      for (int i = 0, length = value.length(); i < length; i++) {
+        char ch = value.charAt(i);
+        if (ch <= 0x7F) {
+          buffer.put((byte) ch);
+        } else if (ch <= 0x7FF) {
+          buffer.put((byte) (0xC0 | (ch >>> 6)));
+          buffer.put((byte) (0x80 | (ch & 0x3F)));
+        } else if (ch < Character.MIN_SURROGATE || ch > Character.MAX_SURROGATE) {
+          buffer.put((byte) (0xE0 | (ch >>> 12)));
+          buffer.put((byte) (0x80 | ((ch >>> 6) & 0x3F)));
+          buffer.put((byte) (0x80 | (ch & 0x3F)));
+        } else if (isSurrogatePair(value, i)) {
+          int codePoint = Character.toCodePoint(ch, value.charAt(++i));
+          buffer.put((byte) (0xF0 | (codePoint >>> 18)));
+          buffer.put((byte) (0x80 | ((codePoint >>> 12) & 0x3F)));
+          buffer.put((byte) (0x80 | ((codePoint >>> 6) & 0x3F)));
+          buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+        } else {
+          buffer.put((byte) '?');
+        }
+      }
+    }
+  }
 }
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.io.IOException;
+import java.io.InputStream;
+import okio.ByteString;
+import okio.Source;
+
+/**
+ * Reads the fields of an encoded message one at a time, without building messages. Callers loop
+ * over {@link #nextTag}, and for each tag either read its value with the method matching the
+ * field's declared type, or {@link #skip} it:
+ *
+ * <pre>
+ * long total = 0;
+ * long token = reader.beginMessage();
+ * for (int tag; (tag = reader.nextTag()) != -1;) {
+ *   if (tag == 2) {
+ *     total += reader.readInt64();
+ *   } else {
+ *     reader.skip();
+ *   }
+ * }
+ * reader.endMessage(token);
+ * </pre>
+ *
+ * The top-level message is read the same way, without calling {@link #beginMessage}. Nested
+ * messages are entered with {@link #beginMessage} and left with {@link #endMessage}, which skips
+ * any fields that were not read. Packed repeated fields are read between {@link #beginPacked} and
+ * {@link #endPacked}.
+ */
+public final class WireReader {
+  private final WireInput input;
+
+  /** The tag and wire type of the current field, or 0 if there is no current field. */
+  private int tagAndType;
+
+  /** The wire type of the current field, or null if there is no current field. */
+  private WireType wireType;
+
+  private WireReader(WireInput input) {
+    this.input = input;
+  }
+
+  /**
+   * Returns a reader of {@code bytes}. The array is read in place and must not be modified while
+   * the reader is in use.
+   */
+  public static WireReader newInstance(byte[] bytes) {
+    return new WireReader(WireInput.newInstance(bytes));
+  }
+
+  /** Returns a reader of the bytes of {@code source}. */
+  public static WireReader newInstance(InputStream source) {
+    return new WireReader(WireInput.newInstance(source));
+  }
+
+  /** Returns a reader of the bytes of {@code source}. */
+  public static WireReader newInstance(Source source) {
+    return new WireReader(WireInput.newInstance(source));
+  }
+
+  /**
+   * Advances to the next field of the current message and returns its tag, or -1 if the end of
+   * the message or of the input has been reached.
+   */
+  public int nextTag() throws IOException {
+    tagAndType = input.readTag();
+    if (tagAndType == 0) {
+      wireType = null;
+      return -1;
+    }
+    wireType = WireType.valueOf(tagAndType);
+    return tagAndType >> WireType.TAG_TYPE_BITS;
+  }
+
+  /** Returns the wire type of the current field, or null if there is no current field. */
+  public WireType getWireType() {
+    return wireType;
+  }
+
+  /** Skips the value of the current field. */
+  public void skip() throws IOException {
+    input.skipField(tagAndType);
+  }
+
+  /**
+   * Enters the current field, which must be a message, so that {@link #nextTag} returns its
+   * fields.
+   *
+   * @return a token to be passed to {@link #endMessage}.
+   */
+  public long beginMessage() throws IOException {
+    checkLengthDelimited();
+    if (input.recursionDepth >= WireInput.RECURSION_LIMIT) {
+      throw new IOException("Wire recursion limit exceeded");
+    }
+    long token = input.pushLimit(input.readVarint32());
+    ++input.recursionDepth;
+    return token;
+  }
+
+  /** Skips the unread fields of the message entered by {@link #beginMessage} and leaves it. */
+  public void endMessage(long token) throws IOException {
+    while (nextTag() != -1) {
+      skip();
+    }
+    --input.recursionDepth;
+    input.popLimit(token);
+  }
+
+  /**
+   * Enters the current field, which must be a packed repeated field. Its values are read with the
+   * method matching the field's type while {@link #hasMorePacked} returns true.
+   *
+   * @return a token to be passed to {@link #endPacked}.
+   */
+  public long beginPacked() throws IOException {
+    checkLengthDelimited();
+    return input.pushLimit(input.readVarint32());
+  }
+
+  /** Returns true if the packed field entered by {@link #beginPacked} has more values. */
+  public boolean hasMorePacked() {
+    return input.getPosition() < input.getLimit();
+  }
+
+  /** Verifies that the packed field has been fully consumed and leaves it. */
+  public void endPacked(long token) throws IOException {
+    if (input.getPosition() != input.getLimit()) {
+      throw new IOException("Packed data had wrong length!");
+    }
+    input.popLimit(token);
+  }
+
+  private void checkLengthDelimited() throws IOException {
+    if (getWireType() != WireType.LENGTH_DELIMITED) {
+      throw new IOException("Expected LENGTH_DELIMITED but was " + getWireType());
+    }
+  }
+
+  /** Reads an {@code int32}, {@code uint32} or enum value. */
+  public int readInt32() throws IOException {
+    return input.readVarint32();
+  }
+
+  /** Reads an {@code int64} or {@code uint64} value. */
+  public long readInt64() throws IOException {
+    return input.readVarint64();
+  }
+
+  /** Reads an {@code sint32} value. */
+  public int readSint32() throws IOException {
+    return WireInput.decodeZigZag32(input.readVarint32());
+  }
+
+  /** Reads an {@code sint64} value. */
+  public long readSint64() throws IOException {
+    return WireInput.decodeZigZag64(input.readVarint64());
+  }
+
+  /** Reads a {@code bool} value. */
+  public boolean readBool() throws IOException {
+    return input.readVarint32() != 0;
+  }
+
+  /** Reads a {@code fixed32} or {@code sfixed32} value. */
+  public int readFixed32() throws IOException {
+    return input.readFixed32();
+  }
+
+  /** Reads a {@code fixed64} or {@code sfixed64} value. */
+  public long readFixed64() throws IOException {
+    return input.readFixed64();
+  }
+
+  /** Reads a {@code float} value. */
+  public float readFloat() throws IOException {
+    return Float.intBitsToFloat(input.readFixed32());
+  }
+
+  /** Reads a {@code double} value. */
+  public double readDouble() throws IOException {
+    return Double.longBitsToDouble(input.readFixed64());
+  }
+
+  /** Reads a {@code string} value. */
+  public String readString() throws IOException {
+    return input.readString();
+  }
+
+  /** Reads a {@code bytes} value. */
+  public ByteString readBytes() throws IOException {
+    return input.readBytes();
+  }
+}
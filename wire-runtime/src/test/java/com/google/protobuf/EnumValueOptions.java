@@ -4,10 +4,17 @@ package com.google.protobuf;
 
 import com.squareup.wire.ExtendableMessage;
 import com.squareup.wire.Extension;
+import com.squareup.wire.FieldDescriptor;
+import com.squareup.wire.MessageCodec;
 import com.squareup.wire.ProtoField;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 
+import static com.squareup.wire.Message.Datatype.MESSAGE;
 import static com.squareup.wire.Message.Label.REPEATED;
 
 public final class EnumValueOptions extends ExtendableMessage<EnumValueOptions> {
@@ -82,4 +89,70 @@ public final class EnumValueOptions extends ExtendableMessage<EnumValueOptions>
       return new EnumValueOptions(this);
     }
   }
+
+  public static final class Codec extends MessageCodec<EnumValueOptions, Builder> {
+
+    private static final FieldDescriptor[] FIELDS = fields(
+        new FieldDescriptor(999, "uninterpreted_option", MESSAGE, REPEATED, UninterpretedOption.class, false, false));
+
+    @Override
+    protected FieldDescriptor[] getFieldDescriptors() {
+      return FIELDS;
+    }
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(EnumValueOptions message) {
+      int size = 0;
+      size += messagesSize(999, message.uninterpreted_option);
+      return size;
+    }
+
+    @Override
+    protected void write(EnumValueOptions message, WireOutput output)
+        throws IOException {
+      writeMessages(output, 999, message.uninterpreted_option);
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      switch (tag) {
+        case 999: {
+          builder.uninterpreted_option = append(builder.uninterpreted_option, (UninterpretedOption) readMessage(input, 999));
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(EnumValueOptions message, int tag) {
+      switch (tag) {
+        case 999: return message.uninterpreted_option;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      switch (tag) {
+        case 999: return builder.uninterpreted_option;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      switch (tag) {
+        case 999: builder.uninterpreted_option = (List<UninterpretedOption>) value; break;
+        default: throw new AssertionError(tag);
+      }
+    }
+  }
 }
@@ -4,14 +4,23 @@ package com.google.protobuf;
 
 import com.squareup.wire.ExtendableMessage;
 import com.squareup.wire.Extension;
+import com.squareup.wire.FieldDescriptor;
+import com.squareup.wire.IntList;
+import com.squareup.wire.MessageCodec;
 import com.squareup.wire.ProtoEnum;
 import com.squareup.wire.ProtoField;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 
 import static com.squareup.wire.Message.Datatype.BOOL;
 import static com.squareup.wire.Message.Datatype.ENUM;
+import static com.squareup.wire.Message.Datatype.MESSAGE;
 import static com.squareup.wire.Message.Datatype.STRING;
+import static com.squareup.wire.Message.Label.OPTIONAL;
 import static com.squareup.wire.Message.Label.REPEATED;
 
 public final class FieldOptions extends ExtendableMessage<FieldOptions> {
@@ -207,6 +216,132 @@ public final class FieldOptions extends ExtendableMessage<FieldOptions> {
     }
   }
 
+  public static final class Codec extends MessageCodec<FieldOptions, Builder> {
+
+    private static final FieldDescriptor[] FIELDS = fields(
+        new FieldDescriptor(1, "ctype", ENUM, OPTIONAL, CType.class, false, false),
+        new FieldDescriptor(2, "packed", BOOL, OPTIONAL, null, false, false),
+        new FieldDescriptor(3, "deprecated", BOOL, OPTIONAL, null, false, false),
+        new FieldDescriptor(9, "experimental_map_key", STRING, OPTIONAL, null, false, false),
+        new FieldDescriptor(999, "uninterpreted_option", MESSAGE, REPEATED, UninterpretedOption.class, false, false));
+
+    @Override
+    protected FieldDescriptor[] getFieldDescriptors() {
+      return FIELDS;
+    }
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(FieldOptions message) {
+      return getSerializedSize(message, null);
+    }
+
+    private int getSerializedSize(FieldOptions message, IntList lengths) {
+      int size = 0;
+      if (message.ctype != null) size += 1 + enumSize(message.ctype);
+      if (message.packed != null) size += 2;
+      if (message.deprecated != null) size += 2;
+      if (message.experimental_map_key != null) size += 1 + stringSize(message.experimental_map_key, lengths);
+      size += messagesSize(999, message.uninterpreted_option);
+      return size;
+    }
+
+    @Override
+    protected void write(FieldOptions message, WireOutput output)
+        throws IOException {
+      IntList lengths = newLengths();
+      getSerializedSize(message, lengths);
+      int lengthIndex = 0;
+      if (message.ctype != null) {
+        output.writeTag(1, WireType.VARINT);
+        output.writeVarint32(message.ctype.getValue());
+      }
+      if (message.packed != null) {
+        output.writeTag(2, WireType.VARINT);
+        output.writeRawByte(message.packed ? 1 : 0);
+      }
+      if (message.deprecated != null) {
+        output.writeTag(3, WireType.VARINT);
+        output.writeRawByte(message.deprecated ? 1 : 0);
+      }
+      if (message.experimental_map_key != null) {
+        output.writeTag(9, WireType.LENGTH_DELIMITED);
+        writeString(output, message.experimental_map_key, lengths.getInt(lengthIndex++));
+      }
+      writeMessages(output, 999, message.uninterpreted_option);
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      switch (tag) {
+        case 1: {
+          CType value = (CType) readEnum(input, builder, 1);
+          if (value != null) builder.ctype = value;
+          return true;
+        }
+        case 2: {
+          builder.packed = input.readVarint32() != 0;
+          return true;
+        }
+        case 3: {
+          builder.deprecated = input.readVarint32() != 0;
+          return true;
+        }
+        case 9: {
+          builder.experimental_map_key = input.readString();
+          return true;
+        }
+        case 999: {
+          builder.uninterpreted_option = append(builder.uninterpreted_option, (UninterpretedOption) readMessage(input, 999));
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(FieldOptions message, int tag) {
+      switch (tag) {
+        case 1: return message.ctype;
+        case 2: return message.packed;
+        case 3: return message.deprecated;
+        case 9: return message.experimental_map_key;
+        case 999: return message.uninterpreted_option;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      switch (tag) {
+        case 1: return builder.ctype;
+        case 2: return builder.packed;
+        case 3: return builder.deprecated;
+        case 9: return builder.experimental_map_key;
+        case 999: return builder.uninterpreted_option;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      switch (tag) {
+        case 1: builder.ctype = (CType) value; break;
+        case 2: builder.packed = (Boolean) value; break;
+        case 3: builder.deprecated = (Boolean) value; break;
+        case 9: builder.experimental_map_key = (String) value; break;
+        case 999: builder.uninterpreted_option = (List<UninterpretedOption>) value; break;
+        default: throw new AssertionError(tag);
+      }
+    }
+  }
+
   public enum CType
       implements ProtoEnum {
     /**
@@ -218,7 +353,7 @@ public final class FieldOptions extends ExtendableMessage<FieldOptions> {
 
     private final int value;
 
-    private CType(int value) {
+    CType(int value) {
       this.value = value;
     }
 
@@ -4,11 +4,19 @@ package com.google.protobuf;
 
 import com.squareup.wire.ExtendableMessage;
 import com.squareup.wire.Extension;
+import com.squareup.wire.FieldDescriptor;
+import com.squareup.wire.MessageCodec;
 import com.squareup.wire.ProtoField;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 
 import static com.squareup.wire.Message.Datatype.BOOL;
+import static com.squareup.wire.Message.Datatype.MESSAGE;
+import static com.squareup.wire.Message.Label.OPTIONAL;
 import static com.squareup.wire.Message.Label.REPEATED;
 
 public final class MessageOptions extends ExtendableMessage<MessageOptions> {
@@ -161,4 +169,96 @@ public final class MessageOptions extends ExtendableMessage<MessageOptions> {
       return new MessageOptions(this);
     }
   }
+
+  public static final class Codec extends MessageCodec<MessageOptions, Builder> {
+
+    private static final FieldDescriptor[] FIELDS = fields(
+        new FieldDescriptor(1, "message_set_wire_format", BOOL, OPTIONAL, null, false, false),
+        new FieldDescriptor(2, "no_standard_descriptor_accessor", BOOL, OPTIONAL, null, false, false),
+        new FieldDescriptor(999, "uninterpreted_option", MESSAGE, REPEATED, UninterpretedOption.class, false, false));
+
+    @Override
+    protected FieldDescriptor[] getFieldDescriptors() {
+      return FIELDS;
+    }
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(MessageOptions message) {
+      int size = 0;
+      if (message.message_set_wire_format != null) size += 2;
+      if (message.no_standard_descriptor_accessor != null) size += 2;
+      size += messagesSize(999, message.uninterpreted_option);
+      return size;
+    }
+
+    @Override
+    protected void write(MessageOptions message, WireOutput output)
+        throws IOException {
+      if (message.message_set_wire_format != null) {
+        output.writeTag(1, WireType.VARINT);
+        output.writeRawByte(message.message_set_wire_format ? 1 : 0);
+      }
+      if (message.no_standard_descriptor_accessor != null) {
+        output.writeTag(2, WireType.VARINT);
+        output.writeRawByte(message.no_standard_descriptor_accessor ? 1 : 0);
+      }
+      writeMessages(output, 999, message.uninterpreted_option);
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      switch (tag) {
+        case 1: {
+          builder.message_set_wire_format = input.readVarint32() != 0;
+          return true;
+        }
+        case 2: {
+          builder.no_standard_descriptor_accessor = input.readVarint32() != 0;
+          return true;
+        }
+        case 999: {
+          builder.uninterpreted_option = append(builder.uninterpreted_option, (UninterpretedOption) readMessage(input, 999));
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(MessageOptions message, int tag) {
+      switch (tag) {
+        case 1: return message.message_set_wire_format;
+        case 2: return message.no_standard_descriptor_accessor;
+        case 999: return message.uninterpreted_option;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      switch (tag) {
+        case 1: return builder.message_set_wire_format;
+        case 2: return builder.no_standard_descriptor_accessor;
+        case 999: return builder.uninterpreted_option;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      switch (tag) {
+        case 1: builder.message_set_wire_format = (Boolean) value; break;
+        case 2: builder.no_standard_descriptor_accessor = (Boolean) value; break;
+        case 999: builder.uninterpreted_option = (List<UninterpretedOption>) value; break;
+        default: throw new AssertionError(tag);
+      }
+    }
+  }
 }
@@ -2,8 +2,15 @@
 // Source file: ../wire-runtime/src/test/proto/google/protobuf/descriptor.proto
 package com.google.protobuf;
 
+import com.squareup.wire.FieldDescriptor;
+import com.squareup.wire.IntList;
 import com.squareup.wire.Message;
+import com.squareup.wire.MessageCodec;
 import com.squareup.wire.ProtoField;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 import okio.ByteString;
@@ -12,8 +19,10 @@ import static com.squareup.wire.Message.Datatype.BOOL;
 import static com.squareup.wire.Message.Datatype.BYTES;
 import static com.squareup.wire.Message.Datatype.DOUBLE;
 import static com.squareup.wire.Message.Datatype.INT64;
+import static com.squareup.wire.Message.Datatype.MESSAGE;
 import static com.squareup.wire.Message.Datatype.STRING;
 import static com.squareup.wire.Message.Datatype.UINT64;
+import static com.squareup.wire.Message.Label.OPTIONAL;
 import static com.squareup.wire.Message.Label.REPEATED;
 import static com.squareup.wire.Message.Label.REQUIRED;
 
@@ -176,6 +185,157 @@ public final class UninterpretedOption extends Message {
     }
   }
 
+  public static final class Codec extends MessageCodec<UninterpretedOption, Builder> {
+
+    private static final FieldDescriptor[] FIELDS = fields(
+        new FieldDescriptor(2, "name", MESSAGE, REPEATED, NamePart.class, false, false),
+        new FieldDescriptor(3, "identifier_value", STRING, OPTIONAL, null, false, false),
+        new FieldDescriptor(4, "positive_int_value", UINT64, OPTIONAL, null, false, false),
+        new FieldDescriptor(5, "negative_int_value", INT64, OPTIONAL, null, false, false),
+        new FieldDescriptor(6, "double_value", DOUBLE, OPTIONAL, null, false, false),
+        new FieldDescriptor(7, "string_value", BYTES, OPTIONAL, null, false, false),
+        new FieldDescriptor(8, "aggregate_value", STRING, OPTIONAL, null, false, false));
+
+    @Override
+    protected FieldDescriptor[] getFieldDescriptors() {
+      return FIELDS;
+    }
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(UninterpretedOption message) {
+      return getSerializedSize(message, null);
+    }
+
+    private int getSerializedSize(UninterpretedOption message, IntList lengths) {
+      int size = 0;
+      size += messagesSize(2, message.name);
+      if (message.identifier_value != null) size += 1 + stringSize(message.identifier_value, lengths);
+      if (message.positive_int_value != null) size += 1 + varint64Size(message.positive_int_value);
+      if (message.negative_int_value != null) size += 1 + varint64Size(message.negative_int_value);
+      if (message.double_value != null) size += 9;
+      if (message.string_value != null) size += 1 + bytesSize(message.string_value);
+      if (message.aggregate_value != null) size += 1 + stringSize(message.aggregate_value, lengths);
+      return size;
+    }
+
+    @Override
+    protected void write(UninterpretedOption message, WireOutput output)
+        throws IOException {
+      IntList lengths = newLengths();
+      getSerializedSize(message, lengths);
+      int lengthIndex = 0;
+      writeMessages(output, 2, message.name);
+      if (message.identifier_value != null) {
+        output.writeTag(3, WireType.LENGTH_DELIMITED);
+        writeString(output, message.identifier_value, lengths.getInt(lengthIndex++));
+      }
+      if (message.positive_int_value != null) {
+        output.writeTag(4, WireType.VARINT);
+        output.writeVarint64(message.positive_int_value);
+      }
+      if (message.negative_int_value != null) {
+        output.writeTag(5, WireType.VARINT);
+        output.writeVarint64(message.negative_int_value);
+      }
+      if (message.double_value != null) {
+        output.writeTag(6, WireType.FIXED64);
+        output.writeFixed64(Double.doubleToLongBits(message.double_value));
+      }
+      if (message.string_value != null) {
+        output.writeTag(7, WireType.LENGTH_DELIMITED);
+        output.writeBytes(message.string_value);
+      }
+      if (message.aggregate_value != null) {
+        output.writeTag(8, WireType.LENGTH_DELIMITED);
+        writeString(output, message.aggregate_value, lengths.getInt(lengthIndex++));
+      }
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      switch (tag) {
+        case 2: {
+          builder.name = append(builder.name, (NamePart) readMessage(input, 2));
+          return true;
+        }
+        case 3: {
+          builder.identifier_value = input.readString();
+          return true;
+        }
+        case 4: {
+          builder.positive_int_value = input.readVarint64();
+          return true;
+        }
+        case 5: {
+          builder.negative_int_value = input.readVarint64();
+          return true;
+        }
+        case 6: {
+          builder.double_value = Double.longBitsToDouble(input.readFixed64());
+          return true;
+        }
+        case 7: {
+          builder.string_value = input.readBytes();
+          return true;
+        }
+        case 8: {
+          builder.aggregate_value = input.readString();
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(UninterpretedOption message, int tag) {
+      switch (tag) {
+        case 2: return message.name;
+        case 3: return message.identifier_value;
+        case 4: return message.positive_int_value;
+        case 5: return message.negative_int_value;
+        case 6: return message.double_value;
+        case 7: return message.string_value;
+        case 8: return message.aggregate_value;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      switch (tag) {
+        case 2: return builder.name;
+        case 3: return builder.identifier_value;
+        case 4: return builder.positive_int_value;
+        case 5: return builder.negative_int_value;
+        case 6: return builder.double_value;
+        case 7: return builder.string_value;
+        case 8: return builder.aggregate_value;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      switch (tag) {
+        case 2: builder.name = (List<NamePart>) value; break;
+        case 3: builder.identifier_value = (String) value; break;
+        case 4: builder.positive_int_value = (Long) value; break;
+        case 5: builder.negative_int_value = (Long) value; break;
+        case 6: builder.double_value = (Double) value; break;
+        case 7: builder.string_value = (ByteString) value; break;
+        case 8: builder.aggregate_value = (String) value; break;
+        default: throw new AssertionError(tag);
+      }
+    }
+  }
+
   /**
    * The name of the uninterpreted option.  Each string represents a segment in
    * a dot-separated name.  is_extension is true iff a segment represents an
@@ -252,9 +412,99 @@ public final class UninterpretedOption extends Message {
 
       @Override
       public NamePart build() {
-        checkRequiredFields();
+        if (is_extension == null || name_part == null) {
+          throw missingRequiredFields(is_extension, "is_extension", name_part, "name_part");
+        }
         return new NamePart(this);
       }
     }
+
+    public static final class Codec extends MessageCodec<NamePart, Builder> {
+
+      private static final FieldDescriptor[] FIELDS = fields(
+          new FieldDescriptor(1, "name_part", STRING, REQUIRED, null, false, false),
+          new FieldDescriptor(2, "is_extension", BOOL, REQUIRED, null, false, false));
+
+      @Override
+      protected FieldDescriptor[] getFieldDescriptors() {
+        return FIELDS;
+      }
+
+      @Override
+      protected Builder newBuilder() {
+        return new Builder();
+      }
+
+      @Override
+      protected int getSerializedSize(NamePart message) {
+        return getSerializedSize(message, null);
+      }
+
+      private int getSerializedSize(NamePart message, IntList lengths) {
+        int size = 0;
+        if (message.name_part != null) size += 1 + stringSize(message.name_part, lengths);
+        if (message.is_extension != null) size += 2;
+        return size;
+      }
+
+      @Override
+      protected void write(NamePart message, WireOutput output)
+          throws IOException {
+        IntList lengths = newLengths();
+        getSerializedSize(message, lengths);
+        int lengthIndex = 0;
+        if (message.name_part != null) {
+          output.writeTag(1, WireType.LENGTH_DELIMITED);
+          writeString(output, message.name_part, lengths.getInt(lengthIndex++));
+        }
+        if (message.is_extension != null) {
+          output.writeTag(2, WireType.VARINT);
+          output.writeRawByte(message.is_extension ? 1 : 0);
+        }
+      }
+
+      @Override
+      protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+          throws IOException {
+        switch (tag) {
+          case 1: {
+            builder.name_part = input.readString();
+            return true;
+          }
+          case 2: {
+            builder.is_extension = input.readVarint32() != 0;
+            return true;
+          }
+        }
+        return false;
+      }
+
+      @Override
+      protected Object getFieldValue(NamePart message, int tag) {
+        switch (tag) {
+          case 1: return message.name_part;
+          case 2: return message.is_extension;
+          default: throw new AssertionError(tag);
+        }
+      }
+
+      @Override
+      protected Object getBuilderFieldValue(Builder builder, int tag) {
+        switch (tag) {
+          case 1: return builder.name_part;
+          case 2: return builder.is_extension;
+          default: throw new AssertionError(tag);
+        }
+      }
+
+      @Override
+      protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+        switch (tag) {
+          case 1: builder.name_part = (String) value; break;
+          case 2: builder.is_extension = (Boolean) value; break;
+          default: throw new AssertionError(tag);
+        }
+      }
+    }
   }
 }
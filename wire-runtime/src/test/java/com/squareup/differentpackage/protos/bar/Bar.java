@@ -2,9 +2,17 @@
 // Source file: ../wire-runtime/src/test/proto/differentpackage/bar.proto
 package com.squareup.differentpackage.protos.bar;
 
+import com.squareup.wire.FieldDescriptor;
+import com.squareup.wire.IntList;
 import com.squareup.wire.Message;
+import com.squareup.wire.MessageCodec;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
+import java.io.IOException;
 
 import static com.squareup.wire.Message.Datatype.STRING;
+import static com.squareup.wire.Message.Label.OPTIONAL;
 
 public final class Bar extends Message {
   private static final long serialVersionUID = 0L;
@@ -41,6 +49,46 @@ public final class Bar extends Message {
     }
   }
 
+  public static final class Codec extends MessageCodec<Bar, Builder> {
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(Bar message) {
+      int size = 0;
+      return size;
+    }
+
+    @Override
+    protected void write(Bar message, WireOutput output)
+        throws IOException {
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(Bar message, int tag) {
+      throw new AssertionError(tag);
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      throw new AssertionError(tag);
+    }
+
+    @Override
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      throw new AssertionError(tag);
+    }
+  }
+
   public static final class Baz extends Message {
     private static final long serialVersionUID = 0L;
 
@@ -76,6 +124,46 @@ public final class Bar extends Message {
       }
     }
 
+    public static final class Codec extends MessageCodec<Baz, Builder> {
+
+      @Override
+      protected Builder newBuilder() {
+        return new Builder();
+      }
+
+      @Override
+      protected int getSerializedSize(Baz message) {
+        int size = 0;
+        return size;
+      }
+
+      @Override
+      protected void write(Baz message, WireOutput output)
+          throws IOException {
+      }
+
+      @Override
+      protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+          throws IOException {
+        return false;
+      }
+
+      @Override
+      protected Object getFieldValue(Baz message, int tag) {
+        throw new AssertionError(tag);
+      }
+
+      @Override
+      protected Object getBuilderFieldValue(Builder builder, int tag) {
+        throw new AssertionError(tag);
+      }
+
+      @Override
+      protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+        throw new AssertionError(tag);
+      }
+    }
+
     public static final class Moo extends Message {
       private static final long serialVersionUID = 0L;
 
@@ -129,6 +217,81 @@ public final class Bar extends Message {
           return new Moo(this);
         }
       }
+
+      public static final class Codec extends MessageCodec<Moo, Builder> {
+
+        private static final FieldDescriptor[] FIELDS = fields(
+            new FieldDescriptor(1, "boo", STRING, OPTIONAL, null, false, false));
+
+        @Override
+        protected FieldDescriptor[] getFieldDescriptors() {
+          return FIELDS;
+        }
+
+        @Override
+        protected Builder newBuilder() {
+          return new Builder();
+        }
+
+        @Override
+        protected int getSerializedSize(Moo message) {
+          return getSerializedSize(message, null);
+        }
+
+        private int getSerializedSize(Moo message, IntList lengths) {
+          int size = 0;
+          if (message.boo != null) size += 1 + stringSize(message.boo, lengths);
+          return size;
+        }
+
+        @Override
+        protected void write(Moo message, WireOutput output)
+            throws IOException {
+          IntList lengths = newLengths();
+          getSerializedSize(message, lengths);
+          int lengthIndex = 0;
+          if (message.boo != null) {
+            output.writeTag(1, WireType.LENGTH_DELIMITED);
+            writeString(output, message.boo, lengths.getInt(lengthIndex++));
+          }
+        }
+
+        @Override
+        protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+            throws IOException {
+          switch (tag) {
+            case 1: {
+              builder.boo = input.readString();
+              return true;
+            }
+          }
+          return false;
+        }
+
+        @Override
+        protected Object getFieldValue(Moo message, int tag) {
+          switch (tag) {
+            case 1: return message.boo;
+            default: throw new AssertionError(tag);
+          }
+        }
+
+        @Override
+        protected Object getBuilderFieldValue(Builder builder, int tag) {
+          switch (tag) {
+            case 1: return builder.boo;
+            default: throw new AssertionError(tag);
+          }
+        }
+
+        @Override
+        protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+          switch (tag) {
+            case 1: builder.boo = (String) value; break;
+            default: throw new AssertionError(tag);
+          }
+        }
+      }
     }
   }
 }
@@ -3,8 +3,17 @@
 package com.squareup.foobar.protos.foo;
 
 import com.squareup.foobar.protos.bar.Bar;
+import com.squareup.wire.FieldDescriptor;
 import com.squareup.wire.Message;
+import com.squareup.wire.MessageCodec;
 import com.squareup.wire.ProtoField;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
+import java.io.IOException;
+
+import static com.squareup.wire.Message.Datatype.MESSAGE;
+import static com.squareup.wire.Message.Label.OPTIONAL;
 
 public final class Foo extends Message {
   private static final long serialVersionUID = 0L;
@@ -57,4 +66,72 @@ public final class Foo extends Message {
       return new Foo(this);
     }
   }
+
+  public static final class Codec extends MessageCodec<Foo, Builder> {
+
+    private static final FieldDescriptor[] FIELDS = fields(
+        new FieldDescriptor(1, "moo", MESSAGE, OPTIONAL, Bar.Baz.Moo.class, false, false));
+
+    @Override
+    protected FieldDescriptor[] getFieldDescriptors() {
+      return FIELDS;
+    }
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(Foo message) {
+      int size = 0;
+      if (message.moo != null) size += 1 + messageSize(1, message.moo);
+      return size;
+    }
+
+    @Override
+    protected void write(Foo message, WireOutput output)
+        throws IOException {
+      if (message.moo != null) {
+        output.writeTag(1, WireType.LENGTH_DELIMITED);
+        writeMessage(output, 1, message.moo);
+      }
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      switch (tag) {
+        case 1: {
+          builder.moo = (Bar.Baz.Moo) readMessage(input, 1);
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(Foo message, int tag) {
+      switch (tag) {
+        case 1: return message.moo;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      switch (tag) {
+        case 1: return builder.moo;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      switch (tag) {
+        case 1: builder.moo = (Bar.Baz.Moo) value; break;
+        default: throw new AssertionError(tag);
+      }
+    }
+  }
 }
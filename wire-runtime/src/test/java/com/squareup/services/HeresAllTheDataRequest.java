@@ -2,11 +2,18 @@
 // Source file: ../wire-runtime/src/test/proto/rxjava_service2.proto
 package com.squareup.services;
 
+import com.squareup.wire.FieldDescriptor;
 import com.squareup.wire.Message;
+import com.squareup.wire.MessageCodec;
 import com.squareup.wire.ProtoField;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
+import java.io.IOException;
 import okio.ByteString;
 
 import static com.squareup.wire.Message.Datatype.BYTES;
+import static com.squareup.wire.Message.Label.OPTIONAL;
 
 public final class HeresAllTheDataRequest extends Message {
   private static final long serialVersionUID = 0L;
@@ -61,4 +68,72 @@ public final class HeresAllTheDataRequest extends Message {
       return new HeresAllTheDataRequest(this);
     }
   }
+
+  public static final class Codec extends MessageCodec<HeresAllTheDataRequest, Builder> {
+
+    private static final FieldDescriptor[] FIELDS = fields(
+        new FieldDescriptor(1, "data", BYTES, OPTIONAL, null, false, false));
+
+    @Override
+    protected FieldDescriptor[] getFieldDescriptors() {
+      return FIELDS;
+    }
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(HeresAllTheDataRequest message) {
+      int size = 0;
+      if (message.data != null) size += 1 + bytesSize(message.data);
+      return size;
+    }
+
+    @Override
+    protected void write(HeresAllTheDataRequest message, WireOutput output)
+        throws IOException {
+      if (message.data != null) {
+        output.writeTag(1, WireType.LENGTH_DELIMITED);
+        output.writeBytes(message.data);
+      }
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      switch (tag) {
+        case 1: {
+          builder.data = input.readBytes();
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(HeresAllTheDataRequest message, int tag) {
+      switch (tag) {
+        case 1: return message.data;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      switch (tag) {
+        case 1: return builder.data;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      switch (tag) {
+        case 1: builder.data = (ByteString) value; break;
+        default: throw new AssertionError(tag);
+      }
+    }
+  }
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import com.squareup.wire.protos.lazy.Envelope;
+import com.squareup.wire.protos.lazy.Header;
+import com.squareup.wire.protos.lazy.Payload;
+import com.squareup.wire.protos.simple.SimpleMessage;
+import java.util.Arrays;
+import okio.Buffer;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public final class FieldMaskTest {
+  private final Wire wire = new Wire();
+
+  private final Envelope envelope = new Envelope.Builder()
+      .header(new Header.Builder().trace_id("abc").route("checkout").build())
+      .payload(LazyMessage.of(new Payload.Builder()
+          .items(Arrays.asList(
+              new Payload.Item.Builder().name("apple").price(100L).build(),
+              new Payload.Item.Builder().name("pear").price(150L).build()))
+          .total(250L)
+          .build()))
+      .build();
+
+  @Test public void onlySelectedFieldsAreDecoded() throws Exception {
+    FieldMask mask = FieldMask.of("header.trace_id", "payload.items.price");
+    Envelope parsed = wire.parseFrom(envelope.toByteArray(), Envelope.class, mask);
+
+    Envelope expected = new Envelope.Builder()
+        .header(new Header.Builder().trace_id("abc").build())
+        .payload(LazyMessage.of(new Payload.Builder()
+            .items(Arrays.asList(
+                new Payload.Item.Builder().price(100L).build(),
+                new Payload.Item.Builder().price(150L).build()))
+            .build()))
+        .build();
+    assertEquals(expected, parsed);
+    assertEquals(0, parsed.header.getUnknownFieldsSerializedSize());
+  }
+
+  @Test public void pathEndingAtMessageSelectsWholeMessage() throws Exception {
+    FieldMask mask = FieldMask.of("header", "header.route");
+    Envelope parsed = wire.parseFrom(new Buffer().write(envelope.toByteArray()), Envelope.class,
+        mask);
+    assertEquals(envelope.header, parsed.header);
+    assertNull(parsed.payload);
+  }
+
+  @Test public void requiredFieldsAreNotChecked() throws Exception {
+    SimpleMessage message = new SimpleMessage.Builder()
+        .required_int32(456)
+        .optional_int32(789)
+        .build();
+    SimpleMessage parsed = wire.parseFrom(message.toByteArray(), SimpleMessage.class,
+        FieldMask.of("optional_int32"));
+    assertEquals(Integer.valueOf(789), parsed.optional_int32);
+    assertNull(parsed.required_int32);
+  }
+
+  @Test public void unknownFieldNameIsRejected() throws Exception {
+    try {
+      wire.parseFrom(envelope.toByteArray(), Envelope.class, FieldMask.of("header.user"));
+      fail();
+    } catch (IllegalArgumentException expected) {
+      assertEquals("No field named user in " + Header.class.getName(), expected.getMessage());
+    }
+  }
+
+  @Test public void pathThroughScalarIsRejected() throws Exception {
+    try {
+      wire.parseFrom(envelope.toByteArray(), Envelope.class, FieldMask.of("header.route.x"));
+      fail();
+    } catch (IllegalArgumentException expected) {
+      assertEquals("Field route in " + Header.class.getName() + " is not a message",
+          expected.getMessage());
+    }
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import com.squareup.wire.protos.lazy.Envelope;
+import com.squareup.wire.protos.lazy.Header;
+import com.squareup.wire.protos.lazy.Payload;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Arrays;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public final class LazyMessageTest {
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final Wire wire = new Wire();
+
+  private final Payload payload = new Payload.Builder()
+      .items(Arrays.asList(
+          new Payload.Item.Builder().name("apple").price(100L).build(),
+          new Payload.Item.Builder().name("pear").price(150L).build()))
+      .total(250L)
+      .build();
+
+  private final Envelope envelope = new Envelope.Builder()
+      .header(new Header.Builder().trace_id("abc").route("checkout").build())
+      .payload(LazyMessage.of(payload))
+      .build();
+
+  @Test public void lazyFieldIsDecodedOnFirstAccess() throws Exception {
+    Envelope parsed = wire.parseFrom(envelope.toByteArray(), Envelope.class);
+    assertEquals("abc", parsed.header.trace_id);
+    assertFalse(parsed.payload.isDecoded());
+
+    Payload parsedPayload = parsed.payload.get();
+    assertTrue(parsed.payload.isDecoded());
+    assertEquals(payload, parsedPayload);
+    assertSame(parsedPayload, parsed.payload.get());
+    assertEquals(envelope, parsed);
+  }
+
+  @Test public void undecodedFieldIsCopiedWhenWritten() throws Exception {
+    byte[] bytes = envelope.toByteArray();
+    Envelope parsed = wire.parseFrom(bytes, Envelope.class);
+    Envelope forwarded = new Envelope.Builder(parsed)
+        .header(new Header.Builder(parsed.header).route("shipping").build())
+        .build();
+
+    Envelope reparsed = wire.parseFrom(forwarded.toByteArray(), Envelope.class);
+    assertFalse(parsed.payload.isDecoded());
+    assertEquals("shipping", reparsed.header.route);
+    assertEquals(payload, reparsed.payload.get());
+    assertArrayEquals(bytes, wire.parseFrom(bytes, Envelope.class).toByteArray());
+  }
+
+  @Test public void toStringDecodes() throws Exception {
+    Envelope parsed = wire.parseFrom(envelope.toByteArray(), Envelope.class);
+    assertEquals(envelope.toString(), parsed.toString());
+  }
+
+  @Test public void lazyFieldReadFromMappedFile() throws Exception {
+    byte[] bytes = envelope.toByteArray();
+    File file = temporaryFolder.newFile("envelope.bin");
+    FileOutputStream out = new FileOutputStream(file);
+    try {
+      out.write(bytes);
+    } finally {
+      out.close();
+    }
+
+    Envelope parsed = wire.parseFrom(file, Envelope.class);
+    assertEquals("checkout", parsed.header.route);
+    assertFalse(parsed.payload.isDecoded());
+    assertArrayEquals(bytes, parsed.toByteArray());
+    assertEquals(payload, parsed.payload.get());
+    assertEquals(envelope, parsed);
+  }
+}
@@ -18,8 +18,11 @@ package com.squareup.wire;
 import com.squareup.wire.protos.edgecases.OneBytesField;
 import com.squareup.wire.protos.edgecases.OneField;
 import com.squareup.wire.protos.edgecases.Recursive;
+import com.squareup.wire.protos.simple.SimpleMessage;
 import java.io.EOFException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import okio.ByteString;
 import org.junit.Test;
 
@@ -49,6 +52,40 @@ public final class ParseTest {
     }
   }
 
+  @Test public void negativeLengthInArrayThrowsIOException() throws Exception {
+    // tag 100 / type 3: start group
+    // tag 101 / type 2: length -7, which must not move the read position backwards
+    byte[] data = ByteString.decodeHex("a306aa06f9ffffff0f").toByteArray();
+    try {
+      wire.parseFrom(data, SimpleMessage.class);
+      fail();
+    } catch (IOException expected) {
+      assertEquals("Encountered a negative size", expected.getMessage());
+    }
+
+    // tag 1 / type 2: length -7
+    try {
+      wire.parseFrom(ByteString.decodeHex("0af9ffffff0f").toByteArray(), OneBytesField.class);
+      fail();
+    } catch (IOException expected) {
+      assertEquals("Encountered a negative size", expected.getMessage());
+    }
+  }
+
+  @Test public void negativeLengthInByteBufferThrowsIOException() throws Exception {
+    byte[] data = ByteString.decodeHex("a306aa06f9ffffff0f").toByteArray();
+    ByteBuffer direct = ByteBuffer.allocateDirect(data.length);
+    direct.put(data).flip();
+    for (ByteBuffer buffer : Arrays.asList(ByteBuffer.wrap(data), direct)) {
+      try {
+        wire.parseFrom(buffer, SimpleMessage.class);
+        fail();
+      } catch (IOException expected) {
+        assertEquals("Encountered a negative size", expected.getMessage());
+      }
+    }
+  }
+
   @Test public void typeMismatchHonorsWireDeclaredType() throws Exception {
     // tag 1 / 3-byte length-delimited string: 0x109506
     // (0x109506 is a well-formed proto message that sets tag 2 to 456).
@@ -67,6 +104,16 @@ public final class ParseTest {
     }
   }
 
+  @Test public void truncatedSliceThrowsEOFException() throws Exception {
+    // tag 1 / 4-byte length delimited string: 0x00000000, sliced to end after 3 bytes
+    ByteString data = ByteString.decodeHex("ff0a0400000000ff");
+    try {
+      wire.parseFrom(data.toByteArray(), 1, 5, OneBytesField.class);
+      fail();
+    } catch (EOFException expected) {
+    }
+  }
+
   @Test public void repeatedUnknownValueWithDifferentTypesThrowsIOException() throws Exception {
     // tag 2 / 3-byte length-delimited string: 0x109506
     // tag 2 / type 0: 456
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import com.squareup.wire.protos.custom_options.FooBar;
+import java.util.Arrays;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public final class PrimitiveListTest {
+  @Test public void intListGrowsAndIsImmutable() {
+    IntList list = new IntList();
+    for (int i = 0; i < 100; i++) {
+      list.addInt(i * 3);
+    }
+    assertEquals(100, list.size());
+    assertEquals(297, list.getInt(99));
+    assertEquals(Integer.valueOf(42), list.get(14));
+    try {
+      list.add(1);
+      fail();
+    } catch (UnsupportedOperationException expected) {
+    }
+    try {
+      list.getInt(100);
+      fail();
+    } catch (IndexOutOfBoundsException expected) {
+    }
+  }
+
+  @Test public void equalsBoxedList() {
+    assertEquals(Arrays.asList(1L, 2L, 3L), LongList.of(1L, 2L, 3L));
+    assertEquals(LongList.of(1L, 2L, 3L), Arrays.asList(1L, 2L, 3L));
+    assertEquals(Arrays.asList(1L, 2L, 3L).hashCode(), LongList.of(1L, 2L, 3L).hashCode());
+    assertEquals(Arrays.asList(true, false), BooleanList.of(true, false));
+  }
+
+  @Test public void ofCopiesValues() {
+    double[] values = { 1.5, 2.5 };
+    DoubleList list = DoubleList.of(values);
+    values[0] = 0;
+    assertEquals(1.5, list.getDouble(0), 0);
+    assertArrayEquals(new double[] { 1.5, 2.5 }, list.toDoubleArray(), 0);
+  }
+
+  @Test public void messageDoesNotCopyPrimitiveList() {
+    FloatList list = FloatList.of(1f, 2f);
+    FooBar fooBar = new FooBar.Builder().fred(list).build();
+    assertSame(list, fooBar.fred);
+  }
+}
@@ -79,7 +79,7 @@ public class TagMapTest {
     map.put(200, "Two Hundred");
 
     TagMap<String> tagMap = TagMap.of(map);
-    assertTrue(tagMap instanceof TagMap.Sparse);
+    assertTrue(tagMap instanceof TagMap.Hashed);
 
     assertEquals(null, tagMap.get(0));
     assertEquals("One", tagMap.get(1));
@@ -103,6 +103,31 @@ public class TagMapTest {
     assertEquals("One Two Three Five One Hundred Two Hundred", joinValues(tagMap));
   }
 
+  @Test
+  public void testHashedTagsInThousands() {
+    Map<Integer, String> map = new LinkedHashMap<Integer, String>();
+    for (int tag = 1000; tag <= 64000; tag += 1000) {
+      map.put(tag, "T" + tag);
+    }
+    map.put(7, "Seven");
+
+    TagMap<String> tagMap = TagMap.of(map);
+    assertTrue(tagMap instanceof TagMap.Hashed);
+
+    for (int tag = 1000; tag <= 64000; tag += 1000) {
+      assertEquals("T" + tag, tagMap.get(tag));
+      assertTrue(tagMap.containsKey(tag));
+      assertEquals(null, tagMap.get(tag + 1));
+      assertFalse(tagMap.containsKey(tag - 1));
+    }
+    assertEquals("Seven", tagMap.get(7));
+    assertEquals(null, tagMap.get(0));
+    assertEquals(null, tagMap.get(-1000));
+    assertFalse(tagMap.containsKey(0));
+    assertEquals(65, tagMap.values().size());
+    assertEquals("Seven", tagMap.values().iterator().next());
+  }
+
   private String joinValues(TagMap<String> tagMap) {
     StringBuilder sb = new StringBuilder();
     for (String s : tagMap.values()) {
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import com.squareup.wire.protos.edgecases.OneBytesField;
+import com.squareup.wire.protos.person.Person;
+import com.squareup.wire.protos.person.Person.PhoneNumber;
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.util.Arrays;
+import okio.ByteString;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public final class WireDecoderTest {
+  private final Wire wire = new Wire();
+
+  private final Person person = new Person.Builder()
+      .id(1)
+      .name("Joe Schmoe")
+      .phone(Arrays.asList(new PhoneNumber.Builder().number("555-1212").build()))
+      .build();
+
+  @Test public void decoderIsReusable() throws Exception {
+    WireDecoder decoder = wire.newDecoder();
+    byte[] bytes = person.toByteArray();
+    assertEquals(person, decoder.decode(bytes, Person.class));
+    assertEquals(person, decoder.decode(new ByteArrayInputStream(bytes), Person.class));
+
+    byte[] padded = new byte[bytes.length + 2];
+    System.arraycopy(bytes, 0, padded, 1, bytes.length);
+    assertEquals(person, decoder.decode(padded, 1, bytes.length, Person.class));
+  }
+
+  @Test public void decoderRecoversFromTruncatedInput() throws Exception {
+    WireDecoder decoder = wire.newDecoder();
+    try {
+      // tag 1 / 4-byte length delimited string: 0x000000 (3 bytes)
+      decoder.decode(ByteString.decodeHex("0a04000000").toByteArray(), OneBytesField.class);
+      fail();
+    } catch (EOFException expected) {
+    }
+    assertEquals(person, decoder.decode(person.toByteArray(), Person.class));
+  }
+
+  @Test public void decodeStreamLargerThanScratchArray() throws Exception {
+    byte[] data = new byte[ScratchBuffer.MIN_SIZE * 3];
+    OneBytesField message = new OneBytesField.Builder().opt_bytes(ByteString.of(data)).build();
+    WireDecoder decoder = wire.newDecoder();
+    assertEquals(message,
+        decoder.decode(new ByteArrayInputStream(message.toByteArray()), OneBytesField.class));
+    assertEquals(person,
+        decoder.decode(new ByteArrayInputStream(person.toByteArray()), Person.class));
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import com.squareup.wire.protos.person.Person;
+import java.io.ByteArrayOutputStream;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public final class WireEncoderTest {
+  private final Wire wire = new Wire();
+
+  @Test public void encoderIsReusable() throws Exception {
+    WireEncoder encoder = wire.newEncoder();
+    Person joe = new Person.Builder().id(1).name("Joe Schmoe").build();
+    Person jane = new Person.Builder().id(2).name("Jane Doe").email("jane@example.com").build();
+    assertArrayEquals(joe.toByteArray(), encoder.encode(joe));
+    assertArrayEquals(jane.toByteArray(), encoder.encode(jane));
+
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    encoder.encode(joe, stream);
+    encoder.encode(jane, stream);
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    expected.write(joe.toByteArray());
+    expected.write(jane.toByteArray());
+    assertArrayEquals(expected.toByteArray(), stream.toByteArray());
+  }
+
+  @Test public void encodeIntoArray() throws Exception {
+    WireEncoder encoder = wire.newEncoder();
+    Person joe = new Person.Builder().id(1).name("Joe Schmoe").build();
+    byte[] bytes = joe.toByteArray();
+    byte[] sink = new byte[bytes.length + 2];
+    assertEquals(bytes.length, encoder.encode(joe, sink, 1));
+    byte[] written = new byte[bytes.length];
+    System.arraycopy(sink, 1, written, 0, bytes.length);
+    assertArrayEquals(bytes, written);
+
+    try {
+      encoder.encode(joe, sink, 3);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  @Test public void scratchArrayIsReused() throws Exception {
+    Person person = new Person.Builder().id(1).name("Joe Schmoe").build();
+    WireEncoder encoder = wire.newEncoder();
+    encoder.encode(person, new ByteArrayOutputStream());
+    byte[] scratch = encoder.scratchBuffer.take(0);
+    encoder.scratchBuffer.give(scratch);
+    encoder.encode(person, new ByteArrayOutputStream());
+    assertSame(scratch, encoder.scratchBuffer.take(0));
+  }
+
+  @Test public void largeScratchArraysAreNotRetained() {
+    ScratchBuffer scratchBuffer = new ScratchBuffer();
+    scratchBuffer.give(new byte[ScratchBuffer.MAX_RETAINED_SIZE + 1]);
+    assertEquals(0, scratchBuffer.retainedSize());
+    scratchBuffer.give(new byte[ScratchBuffer.MIN_SIZE]);
+    assertEquals(ScratchBuffer.MIN_SIZE, scratchBuffer.retainedSize());
+    assertEquals(ScratchBuffer.MIN_SIZE, scratchBuffer.take(100).length);
+    assertEquals(0, scratchBuffer.retainedSize());
+  }
+}
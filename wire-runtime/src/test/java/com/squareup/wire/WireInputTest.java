@@ -0,0 +1,118 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.Random;
+import okio.Buffer;
+import okio.ByteString;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public final class WireInputTest {
+  @Test public void readStringDecodesUtf8() throws Exception {
+    String[] strings = {
+        "",
+        "ascii only",
+        "caf\u00e9 cr\u00e8me",
+        "\u65e5\u672c\u8a9e\u30c6\u30ad\u30b9\u30c8",
+        "clef \ud834\udd1e and \udbff\udfff",
+        "\u0080\u07ff\u0800\uffff",
+    };
+    for (String string : strings) {
+      byte[] bytes = string.getBytes("UTF-8");
+      byte[] data = new Buffer().writeByte(bytes.length).write(bytes).readByteArray();
+      assertEquals(string, WireInput.newInstance(data).readString());
+    }
+  }
+
+  @Test public void malformedUtf8IsReplacedLikeStringConstructor() throws Exception {
+    String[] hex = {
+        "c0af", // Overlong '/'.
+        "e080af", // Overlong '/'.
+        "eda080", // Encoded surrogate.
+        "f4908080", // Above U+10FFFF.
+        "80", // Unexpected continuation byte.
+        "61c3", // Truncated 2-byte sequence.
+        "61e282", // Truncated 3-byte sequence.
+        "f09d", // Truncated 4-byte sequence.
+        "ff61", // Invalid lead byte.
+    };
+    for (String h : hex) {
+      byte[] bytes = ByteString.decodeHex(h).toByteArray();
+      assertEquals(h, new String(bytes, "UTF-8"),
+          WireInput.decodeUtf8(bytes, 0, bytes.length));
+    }
+  }
+
+  @Test public void decodeUtf8MatchesStringConstructorOnRandomInput() throws Exception {
+    Random random = new Random(0);
+    for (int i = 0; i < 10000; i++) {
+      byte[] bytes = new byte[1 + random.nextInt(16)];
+      random.nextBytes(bytes);
+      if (i % 2 == 0) {
+        // Bias half of the inputs towards well-formed text.
+        StringBuilder builder = new StringBuilder();
+        for (int j = 0; j < bytes.length; j++) {
+          builder.appendCodePoint(random.nextInt(4) == 0
+              ? random.nextInt(Character.MAX_CODE_POINT + 1)
+              : random.nextInt(0x800));
+        }
+        bytes = builder.toString().getBytes("UTF-8");
+      }
+      int offset = random.nextInt(bytes.length);
+      int count = random.nextInt(bytes.length - offset + 1);
+      assertEquals(new String(bytes, offset, count, "UTF-8"),
+          WireInput.decodeUtf8(bytes, offset, count));
+    }
+  }
+
+  @Test public void positionsAndLimitsPastTwoGigabytes() throws Exception {
+    final long padding = 3L << 30;
+    InputStream paddingStream = new InputStream() {
+      long remaining = padding;
+
+      @Override public int read() {
+        throw new UnsupportedOperationException();
+      }
+
+      // The padding is skipped unread, so the bytes of b are left as they are.
+      @Override public int read(byte[] b, int off, int len) {
+        if (remaining == 0) return -1;
+        int count = (int) Math.min(len, remaining);
+        remaining -= count;
+        return count;
+      }
+    };
+    // A 3-byte message holding field 1 = 150.
+    byte[] message = { 0x03, 0x08, (byte) 0x96, 0x01 };
+    WireInput input = WireInput.newInstance(
+        new SequenceInputStream(paddingStream, new ByteArrayInputStream(message)));
+
+    input.skip(padding);
+    assertEquals(padding, input.getPosition());
+    long oldLimit = input.pushLimit(input.readVarint32());
+    assertEquals(padding + 4, input.getLimit());
+    assertEquals(8, input.readTag());
+    assertEquals(150, input.readVarint32());
+    assertEquals(0, input.readTag());
+    input.popLimit(oldLimit);
+    assertEquals(0, input.readTag());
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import okio.Buffer;
+import okio.ByteString;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public final class WireOutputTest {
+  private static final String[] STRINGS = {
+      "",
+      "ascii only",
+      "caf\u00e9 cr\u00e8me",
+      "\u65e5\u672c\u8a9e\u30c6\u30ad\u30b9\u30c8",
+      "clef \ud834\udd1e",
+      "mixed ascii then \u00ff\u0800\uffff",
+      "unpaired \ud800 \udc00 \ud800",
+  };
+
+  @Test public void writeStringMatchesGetBytes() throws IOException {
+    for (String string : STRINGS) {
+      byte[] bytes = string.getBytes("UTF-8");
+      ByteString expected = new Buffer().writeByte(bytes.length).write(bytes).readByteString();
+
+      byte[] array = new byte[expected.size()];
+      WireOutput.newInstance(array).writeString(string);
+      assertEquals(string, expected, ByteString.of(array));
+
+      Buffer sink = new Buffer();
+      WireOutput.newInstance(sink).writeString(string);
+      assertEquals(string, expected, sink.readByteString());
+
+      ByteBuffer direct = ByteBuffer.allocateDirect(expected.size());
+      WireOutput.newInstance(direct).writeString(string);
+      direct.get(array);
+      assertEquals(string, expected, ByteString.of(array));
+    }
+  }
+
+  @Test public void writeStringOutOfSpace() throws IOException {
+    WireOutput output = WireOutput.newInstance(new byte[4]);
+    try {
+      output.writeString("\u00e9\u00e9");
+      fail();
+    } catch (IOException expected) {
+    }
+  }
+
+  @Test public void writeBytesLargerThanSegment() throws IOException {
+    byte[] data = new byte[100000];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) (i * 31);
+    }
+    ByteString value = ByteString.of(data);
+    ByteString expected = new Buffer().write(new byte[] { (byte) 0xa0, (byte) 0x8d, 0x06 })
+        .write(data).readByteString();
+
+    byte[] array = new byte[expected.size()];
+    WireOutput.newInstance(array).writeBytes(value);
+    assertEquals(expected, ByteString.of(array));
+
+    Buffer sink = new Buffer();
+    WireOutput.newInstance(sink).writeBytes(value);
+    assertEquals(expected, sink.readByteString());
+  }
+
+  @Test public void writeBytesOutOfSpace() throws IOException {
+    WireOutput output = WireOutput.newInstance(new byte[4]);
+    try {
+      output.writeBytes(ByteString.of(new byte[4]));
+      fail();
+    } catch (IOException expected) {
+    }
+  }
+
+  @Test public void writeToDirectByteBufferOutOfSpace() throws IOException {
+    WireOutput output = WireOutput.newInstance(ByteBuffer.allocateDirect(4));
+    output.writeVarint32(300);
+    try {
+      output.writeFixed32(1);
+      fail();
+    } catch (IOException expected) {
+    }
+  }
+}
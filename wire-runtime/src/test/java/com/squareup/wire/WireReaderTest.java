@@ -0,0 +1,129 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import com.squareup.wire.protos.lazy.Envelope;
+import com.squareup.wire.protos.lazy.Header;
+import com.squareup.wire.protos.lazy.Payload;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import okio.Buffer;
+import okio.ByteString;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+public final class WireReaderTest {
+  private final Envelope envelope = new Envelope.Builder()
+      .header(new Header.Builder().trace_id("abc").route("checkout").build())
+      .payload(LazyMessage.of(new Payload.Builder()
+          .items(Arrays.asList(
+              new Payload.Item.Builder().name("apple").price(100L).build(),
+              new Payload.Item.Builder().name("pear").price(150L).build()))
+          .total(250L)
+          .build()))
+      .build();
+
+  @Test public void readNestedFields() throws Exception {
+    WireReader reader = WireReader.newInstance(new Buffer().write(envelope.toByteArray()));
+    String traceId = null;
+    long prices = 0;
+    for (int tag; (tag = reader.nextTag()) != -1;) {
+      if (tag == 1) {
+        long header = reader.beginMessage();
+        for (int headerTag; (headerTag = reader.nextTag()) != -1;) {
+          if (headerTag == 1) {
+            traceId = reader.readString();
+          } else {
+            reader.skip();
+          }
+        }
+        reader.endMessage(header);
+      } else if (tag == 2) {
+        long payload = reader.beginMessage();
+        while (reader.nextTag() == 1) {
+          long item = reader.beginMessage();
+          while (reader.nextTag() != 2) {
+            reader.skip();
+          }
+          prices += reader.readInt64();
+          // Leaves the item without visiting the rest of its fields.
+          reader.endMessage(item);
+        }
+        reader.skip();
+        reader.endMessage(payload);
+      } else {
+        reader.skip();
+      }
+    }
+    assertEquals("abc", traceId);
+    assertEquals(250L, prices);
+  }
+
+  @Test public void readPacked() throws Exception {
+    // Field 1, packed int32 values 1, 300, -1.
+    ByteString bytes = ByteString.decodeHex("0a0d01ac02ffffffffffffffffff01");
+    WireReader reader = WireReader.newInstance(bytes.toByteArray());
+    assertEquals(1, reader.nextTag());
+    assertEquals(WireType.LENGTH_DELIMITED, reader.getWireType());
+    long token = reader.beginPacked();
+    assertEquals(1, reader.readInt32());
+    assertEquals(300, reader.readInt32());
+    assertEquals(-1, reader.readInt32());
+    assertFalse(reader.hasMorePacked());
+    reader.endPacked(token);
+    assertEquals(-1, reader.nextTag());
+  }
+
+  @Test public void beginMessageRequiresLengthDelimited() throws Exception {
+    WireReader reader = WireReader.newInstance(ByteString.decodeHex("0801").toByteArray());
+    assertEquals(1, reader.nextTag());
+    try {
+      reader.beginMessage();
+      fail();
+    } catch (IOException expected) {
+      assertEquals("Expected LENGTH_DELIMITED but was VARINT", expected.getMessage());
+    }
+  }
+
+  @Test public void failedBeginMessageLeavesDepthUnchanged() throws Exception {
+    // A message holding 64 fields whose lengths exceed it, then one empty message field.
+    StringBuilder hex = new StringBuilder("0ac201");
+    for (int i = 0; i < 64; i++) {
+      hex.append("0aff7f");
+    }
+    hex.append("0a00");
+    WireReader reader = WireReader.newInstance(ByteString.decodeHex(hex.toString()).toByteArray());
+    assertEquals(1, reader.nextTag());
+    long outer = reader.beginMessage();
+    for (int i = 0; i < 64; i++) {
+      assertEquals(1, reader.nextTag());
+      try {
+        reader.beginMessage();
+        fail();
+      } catch (EOFException expected) {
+      }
+    }
+    assertEquals(1, reader.nextTag());
+    long inner = reader.beginMessage();
+    assertEquals(-1, reader.nextTag());
+    reader.endMessage(inner);
+    reader.endMessage(outer);
+  }
+}
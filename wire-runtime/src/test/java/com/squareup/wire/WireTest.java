@@ -15,27 +15,43 @@
  */
 package com.squareup.wire;
 
+import com.google.protobuf.MessageOptions;
+import com.squareup.wire.protos.ProtoRegistry;
+import com.squareup.wire.protos.alltypes.AllTypes;
+import com.squareup.wire.protos.lazy.Envelope;
+import com.squareup.wire.protos.oneof.OneOfMessage;
 import com.squareup.wire.protos.person.Person;
 import com.squareup.wire.protos.person.Person.PhoneNumber;
 import com.squareup.wire.protos.person.Person.PhoneType;
 import com.squareup.wire.protos.simple.Ext_simple_message;
 import com.squareup.wire.protos.simple.ExternalMessage;
 import com.squareup.wire.protos.simple.SimpleMessage;
+import java.io.EOFException;
 import java.io.IOException;
+import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import okio.Buffer;
+import okio.ByteString;
+import okio.ForwardingSource;
 import org.junit.Test;
 
 import static com.squareup.wire.protos.simple.Ext_simple_message.barext;
 import static com.squareup.wire.protos.simple.Ext_simple_message.bazext;
 import static com.squareup.wire.protos.simple.Ext_simple_message.fooext;
 import static com.squareup.wire.protos.simple.Ext_simple_message.nested_message_ext;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -324,4 +340,361 @@ public class WireTest {
     byte[] newData = result.toByteArray();
     assertTrue(Arrays.equals(data, newData));
   }
+
+  @Test
+  public void testStreamRepeated() throws IOException {
+    Person person = new Person.Builder()
+        .id(1)
+        .name("Joe Schmoe")
+        .phone(Arrays.asList(
+            new PhoneNumber.Builder().number("555-1212").type(PhoneType.WORK).build(),
+            new PhoneNumber.Builder().number("555-3434").build()))
+        .email("joe@example.com")
+        .build();
+
+    Iterator<PhoneNumber> phones = new Wire().streamRepeated(
+        new Buffer().write(person.toByteArray()), Person.class, 4, PhoneNumber.class);
+    assertTrue(phones.hasNext());
+    assertEquals(person.phone.get(0), phones.next());
+    assertEquals(person.phone.get(1), phones.next());
+    assertFalse(phones.hasNext());
+
+    try {
+      new Wire().streamRepeated(new Buffer(), Person.class, 3, PhoneNumber.class);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  @Test
+  public void testStreamRepeatedClosesSource() throws IOException {
+    Person person = new Person.Builder()
+        .id(1)
+        .name("Joe Schmoe")
+        .phone(Arrays.asList(
+            new PhoneNumber.Builder().number("555-1212").build(),
+            new PhoneNumber.Builder().number("555-3434").build()))
+        .build();
+
+    // Exhausting the iterator closes the source.
+    CloseTrackingSource source = new CloseTrackingSource(person.toByteArray());
+    Iterator<PhoneNumber> phones =
+        new Wire().streamRepeated(source, Person.class, 4, PhoneNumber.class);
+    assertEquals(person.phone.get(0), phones.next());
+    assertEquals(person.phone.get(1), phones.next());
+    assertFalse(source.closed);
+    assertFalse(phones.hasNext());
+    assertTrue(source.closed);
+
+    // Closing it early closes the source.
+    source = new CloseTrackingSource(person.toByteArray());
+    CloseableIterator<PhoneNumber> closeable =
+        new Wire().streamRepeated(source, Person.class, 4, PhoneNumber.class);
+    assertEquals(person.phone.get(0), closeable.next());
+    closeable.close();
+    assertTrue(source.closed);
+    assertFalse(closeable.hasNext());
+
+    // A failed read closes the source.
+    byte[] bytes = person.toByteArray();
+    source = new CloseTrackingSource(Arrays.copyOf(bytes, bytes.length - 1));
+    phones = new Wire().streamRepeated(source, Person.class, 4, PhoneNumber.class);
+    assertEquals(person.phone.get(0), phones.next());
+    try {
+      phones.hasNext();
+      fail();
+    } catch (RuntimeException expected) {
+    }
+    assertTrue(source.closed);
+  }
+
+  @Test
+  public void testDelimitedMessages() throws IOException {
+    List<Person> people = Arrays.asList(
+        new Person.Builder().id(1).name("Joe Schmoe").email("joe@example.com").build(),
+        new Person.Builder().id(0).name("").build(),
+        new Person.Builder().id(2).name("Jane Doe")
+            .phone(Arrays.asList(new PhoneNumber.Builder().number("555-1212").build()))
+            .build());
+    Buffer buffer = new Buffer();
+    for (Person person : people) {
+      person.writeDelimitedTo(buffer);
+    }
+
+    Iterator<Person> iterator = new Wire().delimitedReader(buffer, Person.class);
+    List<Person> read = new ArrayList<Person>();
+    while (iterator.hasNext()) {
+      read.add(iterator.next());
+    }
+    assertEquals(people, read);
+    assertFalse(iterator.hasNext());
+  }
+
+  @Test
+  public void testConcurrentWritesOfSharedMessage() throws Exception {
+    final List<SimpleMessage> messages = new ArrayList<SimpleMessage>();
+    final List<byte[]> expected = new ArrayList<byte[]>();
+    for (int i = 0; i < 200; i++) {
+      SimpleMessage.Builder builder = new SimpleMessage.Builder()
+          .required_int32(i)
+          .result("result " + i)
+          .other("other \u00e9 " + i)
+          .o("o");
+      messages.add(builder.build());
+      expected.add(builder.build().toByteArray());
+    }
+
+    final CountDownLatch start = new CountDownLatch(1);
+    final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int t = 0; t < 8; t++) {
+      Thread thread = new Thread() {
+        @Override public void run() {
+          try {
+            start.await();
+            for (int i = 0; i < messages.size(); i++) {
+              if (!Arrays.equals(expected.get(i), messages.get(i).toByteArray())) {
+                throw new AssertionError("Wrong encoding of message " + i);
+              }
+            }
+          } catch (Throwable e) {
+            failure.compareAndSet(null, e);
+          }
+        }
+      };
+      thread.start();
+      threads.add(thread);
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    if (failure.get() != null) {
+      throw new AssertionError(failure.get());
+    }
+  }
+
+  @Test
+  public void testDelimitedMessagesTruncated() throws IOException {
+    Person joe = new Person.Builder().id(1).name("Joe Schmoe").build();
+    Person jane = new Person.Builder().id(2).name("Jane Doe")
+        .phone(Arrays.asList(new PhoneNumber.Builder().number("555-1212").build()))
+        .build();
+    Buffer buffer = new Buffer();
+    joe.writeDelimitedTo(buffer);
+    // Jane's length prefix, followed by her fields without the last one, so that the input ends
+    // on a field boundary.
+    buffer.writeByte(jane.getSerializedSize());
+    buffer.write(new Person.Builder(jane).phone(null).build().toByteArray());
+
+    CloseTrackingSource source = new CloseTrackingSource(buffer.readByteArray());
+    Iterator<Person> iterator = new Wire().delimitedReader(source, Person.class);
+    assertEquals(joe, iterator.next());
+    try {
+      iterator.hasNext();
+      fail();
+    } catch (RuntimeException expected) {
+      assertTrue(expected.getCause() instanceof EOFException);
+    }
+    assertTrue(source.closed);
+  }
+
+  @Test
+  public void testDelimitedReaderClosesSource() throws IOException {
+    Person joe = new Person.Builder().id(1).name("Joe Schmoe").build();
+    Buffer buffer = new Buffer();
+    joe.writeDelimitedTo(buffer);
+    joe.writeDelimitedTo(buffer);
+    byte[] bytes = buffer.readByteArray();
+
+    // Exhausting the iterator closes the source.
+    CloseTrackingSource source = new CloseTrackingSource(bytes);
+    Iterator<Person> iterator = new Wire().delimitedReader(source, Person.class);
+    assertEquals(joe, iterator.next());
+    assertEquals(joe, iterator.next());
+    assertFalse(source.closed);
+    assertFalse(iterator.hasNext());
+    assertTrue(source.closed);
+
+    // Closing it early closes the source.
+    source = new CloseTrackingSource(bytes);
+    CloseableIterator<Person> closeable = new Wire().delimitedReader(source, Person.class);
+    assertEquals(joe, closeable.next());
+    closeable.close();
+    assertTrue(source.closed);
+    assertFalse(closeable.hasNext());
+  }
+
+  @Test
+  public void testParseInto() throws IOException {
+    Person joe = new Person.Builder()
+        .id(1)
+        .name("Joe Schmoe")
+        .phone(Arrays.asList(
+            new PhoneNumber.Builder().number("555-1212").build(),
+            new PhoneNumber.Builder().number("555-3434").build()))
+        .email("joe@example.com")
+        .build();
+    Person jane = new Person.Builder()
+        .id(2)
+        .name("Jane Doe")
+        .phone(Arrays.asList(new PhoneNumber.Builder().number("555-5656").build()))
+        .build();
+    Wire wire = new Wire();
+
+    Person.Builder builder = new Person.Builder();
+    wire.parseInto(builder, joe.toByteArray());
+    assertEquals("Joe Schmoe", builder.name);
+    List<PhoneNumber> phones = builder.phone;
+
+    // Lists are cleared and reused by the next parse.
+    wire.parseInto(builder, jane.toByteArray());
+    assertNull(builder.email);
+    assertSame(phones, builder.phone);
+    assertEquals(jane.phone, builder.phone);
+    Person built = builder.build();
+    assertEquals(jane, built);
+    assertNotSame(phones, built.phone);
+
+    // Built messages hold copies, so they don't change when the builder is refilled.
+    wire.parseInto(builder, joe.toByteArray());
+    assertSame(phones, builder.phone);
+    assertEquals(jane, built);
+    assertEquals(joe, builder.build());
+  }
+
+  @Test
+  public void testParseIntoDoesNotChangeBuiltPrimitiveLists() throws IOException {
+    SimpleMessage first = new SimpleMessage.Builder()
+        .required_int32(1)
+        .repeated_double(Arrays.asList(1.0, 2.0, 3.0))
+        .build();
+    SimpleMessage second = new SimpleMessage.Builder()
+        .required_int32(2)
+        .repeated_double(Arrays.asList(4.0))
+        .build();
+    Wire wire = new Wire();
+
+    SimpleMessage.Builder builder = new SimpleMessage.Builder();
+    wire.parseInto(builder, first.toByteArray());
+    List<Double> doubles = builder.repeated_double;
+    SimpleMessage built = builder.build();
+    SimpleMessage constructed = new SimpleMessage(null, null, null, null, 1, builder.repeated_double,
+        null, null, null, null, null, null);
+
+    wire.parseInto(builder, second.toByteArray());
+    assertSame(doubles, builder.repeated_double);
+    assertEquals(Arrays.asList(4.0), builder.repeated_double);
+    assertEquals(Arrays.asList(1.0, 2.0, 3.0), built.repeated_double);
+    assertEquals(Arrays.asList(1.0, 2.0, 3.0), constructed.repeated_double);
+    assertEquals(first, built);
+  }
+
+  @Test
+  public void testUtf8StringsMatchGetBytes() throws IOException {
+    String name = "h\u00e9llo \u20ac \ud834\udd1e";
+    String email = "broken \ud800 \udc00 \ud800";
+    Person person = new Person.Builder().id(1).name(name).email(email).build();
+
+    byte[] nameBytes = name.getBytes("UTF-8");
+    byte[] emailBytes = email.getBytes("UTF-8");
+    ByteString expected = new Buffer()
+        .writeByte(0x0a).writeByte(nameBytes.length).write(nameBytes)
+        .writeByte(0x10).writeByte(1)
+        .writeByte(0x1a).writeByte(emailBytes.length).write(emailBytes)
+        .readByteString();
+    assertEquals(expected, ByteString.of(person.toByteArray()));
+
+    Buffer sink = new Buffer();
+    person.writeTo(sink);
+    assertEquals(expected, sink.readByteString());
+
+    assertEquals(name, new Wire().parseFrom(person.toByteArray(), Person.class).name);
+  }
+
+  @Test
+  public void testFieldDescriptorsMatchAnnotations() throws Exception {
+    Wire wire = new Wire();
+    for (Class<? extends Message> type : Arrays.asList(AllTypes.class, Envelope.class,
+        OneOfMessage.class, Person.class)) {
+      MessageAdapter<? extends Message> adapter = wire.messageAdapter(type);
+      int count = 0;
+      for (Field field : type.getDeclaredFields()) {
+        ProtoField annotation = field.getAnnotation(ProtoField.class);
+        if (annotation == null) continue;
+        MessageAdapter.FieldInfo fieldInfo = adapter.getField(annotation.tag());
+        assertEquals(field.getName(), fieldInfo.name);
+        assertEquals(annotation.type(), fieldInfo.datatype);
+        assertEquals(annotation.label(), fieldInfo.label);
+        assertEquals(annotation.redacted(), fieldInfo.redacted);
+        assertEquals(field.getType() == LazyMessage.class, fieldInfo.lazy);
+        assertEquals(annotation.type() == Message.Datatype.ENUM, fieldInfo.enumType != null);
+        assertEquals(annotation.type() == Message.Datatype.MESSAGE,
+            fieldInfo.messageType != null);
+        count++;
+      }
+      assertEquals(count, adapter.getFields().size());
+    }
+
+    // Fields are read and written through the generated accessors.
+    MessageAdapter<OneOfMessage> adapter = wire.messageAdapter(OneOfMessage.class);
+    OneOfMessage.Builder builder = new OneOfMessage.Builder().foo(1);
+    adapter.setBuilderMethod(builder, adapter.getField("bar"), "two");
+    assertNull(builder.foo);
+    OneOfMessage message = builder.build();
+    assertEquals("two", adapter.getFieldValue(message, adapter.getField("bar")));
+  }
+
+  @Test
+  public void testPreload() throws Exception {
+    Wire wire = new Wire();
+    wire.preload(Person.class);
+    assertNotNull(wire.messageAdapter(Person.class).getField("phone").messageAdapter);
+    assertNotNull(wire.messageAdapter(PhoneNumber.class).getField("type").enumAdapter);
+
+    // A registry class leads to the extended messages and the extensions' own types.
+    wire = new Wire(ProtoRegistry.EXTENSIONS);
+    wire.preload(ProtoRegistry.class);
+    assertNotNull(wire.messageAdapter(MessageOptions.class).getField("uninterpreted_option")
+        .messageAdapter);
+
+    try {
+      wire.preload(String.class);
+      fail();
+    } catch (IllegalArgumentException expected) {
+      assertEquals("java.lang.String is not a message, enum, extension or registry class",
+          expected.getMessage());
+    }
+  }
+
+  @Test
+  public void testEncodingLinksNestedAdapters() throws Exception {
+    Person person = new Person.Builder()
+        .name("Omar")
+        .id(1)
+        .phone(Arrays.asList(new PhoneNumber.Builder().number("555").build()))
+        .build();
+    Wire wire = new Wire();
+    MessageAdapter<Person> adapter = wire.messageAdapter(Person.class);
+    MessageAdapter.FieldInfo phone = adapter.getField("phone");
+    assertNull(phone.messageAdapter);
+
+    byte[] bytes = adapter.toByteArray(person);
+    assertSame(wire.messageAdapter(PhoneNumber.class), phone.messageAdapter);
+    assertEquals(person, wire.parseFrom(bytes, Person.class));
+  }
+
+  /** A source of fixed bytes that records whether it was closed. */
+  static final class CloseTrackingSource extends ForwardingSource {
+    boolean closed;
+
+    CloseTrackingSource(byte[] bytes) {
+      super(new Buffer().write(bytes));
+    }
+
+    @Override public void close() throws IOException {
+      closed = true;
+      super.close();
+    }
+  }
 }
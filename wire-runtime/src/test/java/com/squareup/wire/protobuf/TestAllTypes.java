@@ -15,14 +15,23 @@
  */
 package com.squareup.wire.protobuf;
 
+import com.squareup.wire.BooleanList;
+import com.squareup.wire.DoubleList;
 import com.squareup.wire.Extension;
+import com.squareup.wire.FloatList;
+import com.squareup.wire.IntList;
+import com.squareup.wire.LongList;
 import com.squareup.wire.Message;
 import com.squareup.wire.Wire;
 import com.squareup.wire.protos.alltypes.AllTypes;
 import com.squareup.wire.protos.alltypes.Ext_all_types;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -331,6 +340,49 @@ public class TestAllTypes {
     assertEquals(ByteString.of(TestAllTypesData.expectedOutput), ByteString.of(output));
   }
 
+  @Test
+  public void testWriteToBufferedSink() throws IOException {
+    Buffer output = new Buffer();
+    allTypes.writeTo(output);
+    assertEquals(ByteString.of(TestAllTypesData.expectedOutput), output.readByteString());
+  }
+
+  @Test
+  public void testWriteToByteBuffer() {
+    int count = TestAllTypesData.expectedOutput.length;
+    for (ByteBuffer buffer
+        : Arrays.asList(ByteBuffer.allocate(count + 10), ByteBuffer.allocateDirect(count + 10))) {
+      buffer.position(5);
+      allTypes.writeTo(buffer);
+      assertEquals(count + 5, buffer.position());
+
+      buffer.flip();
+      buffer.position(5);
+      byte[] output = new byte[count];
+      buffer.get(output);
+      assertEquals(ByteString.of(TestAllTypesData.expectedOutput), ByteString.of(output));
+    }
+  }
+
+  @Test
+  public void testWriteToByteBufferOverflow() {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(TestAllTypesData.expectedOutput.length - 1);
+    try {
+      allTypes.writeTo(buffer);
+      fail();
+    } catch (BufferOverflowException expected) {
+    }
+    assertEquals(0, buffer.position());
+  }
+
+  @Test
+  public void testWriteToOutputStream() throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    allTypes.writeTo(output);
+    assertEquals(ByteString.of(TestAllTypesData.expectedOutput),
+        ByteString.of(output.toByteArray()));
+  }
+
   @Test
   public void testRead() throws IOException {
     byte[] data = new byte[TestAllTypesData.expectedOutput.length];
@@ -349,6 +401,17 @@ public class TestAllTypes {
     assertTrue(extensions.contains(Ext_all_types.ext_pack_bool));
   }
 
+  @Test
+  public void testReadRepeatedScalarsUnboxed() throws IOException {
+    AllTypes parsed = wire.parseFrom(allTypes.toByteArray(), AllTypes.class);
+    assertTrue(parsed.rep_int32 instanceof IntList);
+    assertTrue(parsed.pack_sint64 instanceof LongList);
+    assertTrue(parsed.pack_float instanceof FloatList);
+    assertTrue(parsed.rep_double instanceof DoubleList);
+    assertTrue(parsed.pack_bool instanceof BooleanList);
+    assertTrue(parsed.getExtension(Ext_all_types.ext_pack_bool) instanceof BooleanList);
+  }
+
   @Test
   public void testReadWithOffset() throws IOException {
     byte[] data = new byte[TestAllTypesData.expectedOutput.length + 100];
@@ -407,6 +470,40 @@ public class TestAllTypes {
     assertTrue(extensions.contains(Ext_all_types.ext_pack_bool));
   }
 
+  @Test
+  public void testReadFromByteBuffer() throws IOException {
+    byte[] data = allTypes.toByteArray();
+    ByteBuffer heap = ByteBuffer.allocate(data.length + 100);
+    ByteBuffer direct = ByteBuffer.allocateDirect(data.length + 100);
+    for (ByteBuffer buffer : Arrays.asList(heap, direct, heap.asReadOnlyBuffer())) {
+      if (!buffer.isReadOnly()) {
+        buffer.position(50);
+        buffer.put(data);
+      }
+      buffer.limit(50 + data.length);
+      buffer.position(50);
+
+      AllTypes parsed = wire.parseFrom(buffer, AllTypes.class);
+      assertEquals(allTypes, parsed);
+      assertEquals(list(true), parsed.getExtension(Ext_all_types.ext_pack_bool));
+      assertEquals(50, buffer.position());
+    }
+  }
+
+  @Test
+  public void testReadFromTruncatedDirectByteBuffer() throws IOException {
+    byte[] data = allTypes.toByteArray();
+    ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+    buffer.put(data);
+    buffer.flip();
+    buffer.limit(data.length - 1);
+    try {
+      wire.parseFrom(buffer, AllTypes.class);
+      fail();
+    } catch (EOFException expected) {
+    }
+  }
+
   @Test
   public void testReadLongMessagesFromInputStream() throws IOException {
     AllTypes allTypes = createAllTypes(50);
@@ -2,11 +2,18 @@
 // Source file: ../wire-runtime/src/test/proto/child_pkg.proto
 package com.squareup.wire.protos;
 
+import com.squareup.wire.FieldDescriptor;
 import com.squareup.wire.Message;
+import com.squareup.wire.MessageCodec;
 import com.squareup.wire.ProtoField;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
 import com.squareup.wire.protos.foreign.ForeignEnum;
+import java.io.IOException;
 
 import static com.squareup.wire.Message.Datatype.ENUM;
+import static com.squareup.wire.Message.Label.OPTIONAL;
 
 public final class ChildPackage extends Message {
   private static final long serialVersionUID = 0L;
@@ -61,4 +68,73 @@ public final class ChildPackage extends Message {
       return new ChildPackage(this);
     }
   }
+
+  public static final class Codec extends MessageCodec<ChildPackage, Builder> {
+
+    private static final FieldDescriptor[] FIELDS = fields(
+        new FieldDescriptor(1, "inner_foreign_enum", ENUM, OPTIONAL, ForeignEnum.class, false, false));
+
+    @Override
+    protected FieldDescriptor[] getFieldDescriptors() {
+      return FIELDS;
+    }
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(ChildPackage message) {
+      int size = 0;
+      if (message.inner_foreign_enum != null) size += 1 + enumSize(message.inner_foreign_enum);
+      return size;
+    }
+
+    @Override
+    protected void write(ChildPackage message, WireOutput output)
+        throws IOException {
+      if (message.inner_foreign_enum != null) {
+        output.writeTag(1, WireType.VARINT);
+        output.writeVarint32(message.inner_foreign_enum.getValue());
+      }
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      switch (tag) {
+        case 1: {
+          ForeignEnum value = (ForeignEnum) readEnum(input, builder, 1);
+          if (value != null) builder.inner_foreign_enum = value;
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(ChildPackage message, int tag) {
+      switch (tag) {
+        case 1: return message.inner_foreign_enum;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      switch (tag) {
+        case 1: return builder.inner_foreign_enum;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      switch (tag) {
+        case 1: builder.inner_foreign_enum = (ForeignEnum) value; break;
+        default: throw new AssertionError(tag);
+      }
+    }
+  }
 }
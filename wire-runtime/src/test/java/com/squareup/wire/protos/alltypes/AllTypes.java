@@ -4,9 +4,16 @@ package com.squareup.wire.protos.alltypes;
 
 import com.squareup.wire.ExtendableMessage;
 import com.squareup.wire.Extension;
+import com.squareup.wire.FieldDescriptor;
+import com.squareup.wire.IntList;
 import com.squareup.wire.Message;
+import com.squareup.wire.MessageCodec;
 import com.squareup.wire.ProtoEnum;
 import com.squareup.wire.ProtoField;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 import okio.ByteString;
@@ -20,6 +27,7 @@ import static com.squareup.wire.Message.Datatype.FIXED64;
 import static com.squareup.wire.Message.Datatype.FLOAT;
 import static com.squareup.wire.Message.Datatype.INT32;
 import static com.squareup.wire.Message.Datatype.INT64;
+import static com.squareup.wire.Message.Datatype.MESSAGE;
 import static com.squareup.wire.Message.Datatype.SFIXED32;
 import static com.squareup.wire.Message.Datatype.SFIXED64;
 import static com.squareup.wire.Message.Datatype.SINT32;
@@ -27,6 +35,7 @@ import static com.squareup.wire.Message.Datatype.SINT64;
 import static com.squareup.wire.Message.Datatype.STRING;
 import static com.squareup.wire.Message.Datatype.UINT32;
 import static com.squareup.wire.Message.Datatype.UINT64;
+import static com.squareup.wire.Message.Label.OPTIONAL;
 import static com.squareup.wire.Message.Label.PACKED;
 import static com.squareup.wire.Message.Label.REPEATED;
 import static com.squareup.wire.Message.Label.REQUIRED;
@@ -1222,11 +1231,1494 @@ public final class AllTypes extends ExtendableMessage<AllTypes> {
 
     @Override
     public AllTypes build() {
-      checkRequiredFields();
+      if (req_bool == null || req_bytes == null || req_double == null || req_fixed32 == null || req_fixed64 == null || req_float == null || req_int32 == null || req_int64 == null || req_nested_enum == null || req_nested_message == null || req_sfixed32 == null || req_sfixed64 == null || req_sint32 == null || req_sint64 == null || req_string == null || req_uint32 == null || req_uint64 == null) {
+        throw missingRequiredFields(req_bool, "req_bool", req_bytes, "req_bytes", req_double, "req_double", req_fixed32, "req_fixed32", req_fixed64, "req_fixed64", req_float, "req_float", req_int32, "req_int32", req_int64, "req_int64", req_nested_enum, "req_nested_enum", req_nested_message, "req_nested_message", req_sfixed32, "req_sfixed32", req_sfixed64, "req_sfixed64", req_sint32, "req_sint32", req_sint64, "req_sint64", req_string, "req_string", req_uint32, "req_uint32", req_uint64, "req_uint64");
+      }
       return new AllTypes(this);
     }
   }
 
+  public static final class Codec extends MessageCodec<AllTypes, Builder> {
+
+    private static final FieldDescriptor[] FIELDS = fields(
+        new FieldDescriptor(1, "opt_int32", INT32, OPTIONAL, null, false, false),
+        new FieldDescriptor(2, "opt_uint32", UINT32, OPTIONAL, null, false, false),
+        new FieldDescriptor(3, "opt_sint32", SINT32, OPTIONAL, null, false, false),
+        new FieldDescriptor(4, "opt_fixed32", FIXED32, OPTIONAL, null, false, false),
+        new FieldDescriptor(5, "opt_sfixed32", SFIXED32, OPTIONAL, null, false, false),
+        new FieldDescriptor(6, "opt_int64", INT64, OPTIONAL, null, false, false),
+        new FieldDescriptor(7, "opt_uint64", UINT64, OPTIONAL, null, false, false),
+        new FieldDescriptor(8, "opt_sint64", SINT64, OPTIONAL, null, false, false),
+        new FieldDescriptor(9, "opt_fixed64", FIXED64, OPTIONAL, null, false, false),
+        new FieldDescriptor(10, "opt_sfixed64", SFIXED64, OPTIONAL, null, false, false),
+        new FieldDescriptor(11, "opt_bool", BOOL, OPTIONAL, null, false, false),
+        new FieldDescriptor(12, "opt_float", FLOAT, OPTIONAL, null, false, false),
+        new FieldDescriptor(13, "opt_double", DOUBLE, OPTIONAL, null, false, false),
+        new FieldDescriptor(14, "opt_string", STRING, OPTIONAL, null, false, false),
+        new FieldDescriptor(15, "opt_bytes", BYTES, OPTIONAL, null, false, false),
+        new FieldDescriptor(16, "opt_nested_enum", ENUM, OPTIONAL, NestedEnum.class, false, false),
+        new FieldDescriptor(17, "opt_nested_message", MESSAGE, OPTIONAL, NestedMessage.class, false, false),
+        new FieldDescriptor(101, "req_int32", INT32, REQUIRED, null, false, false),
+        new FieldDescriptor(102, "req_uint32", UINT32, REQUIRED, null, false, false),
+        new FieldDescriptor(103, "req_sint32", SINT32, REQUIRED, null, false, false),
+        new FieldDescriptor(104, "req_fixed32", FIXED32, REQUIRED, null, false, false),
+        new FieldDescriptor(105, "req_sfixed32", SFIXED32, REQUIRED, null, false, false),
+        new FieldDescriptor(106, "req_int64", INT64, REQUIRED, null, false, false),
+        new FieldDescriptor(107, "req_uint64", UINT64, REQUIRED, null, false, false),
+        new FieldDescriptor(108, "req_sint64", SINT64, REQUIRED, null, false, false),
+        new FieldDescriptor(109, "req_fixed64", FIXED64, REQUIRED, null, false, false),
+        new FieldDescriptor(110, "req_sfixed64", SFIXED64, REQUIRED, null, false, false),
+        new FieldDescriptor(111, "req_bool", BOOL, REQUIRED, null, false, false),
+        new FieldDescriptor(112, "req_float", FLOAT, REQUIRED, null, false, false),
+        new FieldDescriptor(113, "req_double", DOUBLE, REQUIRED, null, false, false),
+        new FieldDescriptor(114, "req_string", STRING, REQUIRED, null, false, false),
+        new FieldDescriptor(115, "req_bytes", BYTES, REQUIRED, null, false, false),
+        new FieldDescriptor(116, "req_nested_enum", ENUM, REQUIRED, NestedEnum.class, false, false),
+        new FieldDescriptor(117, "req_nested_message", MESSAGE, REQUIRED, NestedMessage.class, false, false),
+        new FieldDescriptor(201, "rep_int32", INT32, REPEATED, null, false, false),
+        new FieldDescriptor(202, "rep_uint32", UINT32, REPEATED, null, false, false),
+        new FieldDescriptor(203, "rep_sint32", SINT32, REPEATED, null, false, false),
+        new FieldDescriptor(204, "rep_fixed32", FIXED32, REPEATED, null, false, false),
+        new FieldDescriptor(205, "rep_sfixed32", SFIXED32, REPEATED, null, false, false),
+        new FieldDescriptor(206, "rep_int64", INT64, REPEATED, null, false, false),
+        new FieldDescriptor(207, "rep_uint64", UINT64, REPEATED, null, false, false),
+        new FieldDescriptor(208, "rep_sint64", SINT64, REPEATED, null, false, false),
+        new FieldDescriptor(209, "rep_fixed64", FIXED64, REPEATED, null, false, false),
+        new FieldDescriptor(210, "rep_sfixed64", SFIXED64, REPEATED, null, false, false),
+        new FieldDescriptor(211, "rep_bool", BOOL, REPEATED, null, false, false),
+        new FieldDescriptor(212, "rep_float", FLOAT, REPEATED, null, false, false),
+        new FieldDescriptor(213, "rep_double", DOUBLE, REPEATED, null, false, false),
+        new FieldDescriptor(214, "rep_string", STRING, REPEATED, null, false, false),
+        new FieldDescriptor(215, "rep_bytes", BYTES, REPEATED, null, false, false),
+        new FieldDescriptor(216, "rep_nested_enum", ENUM, REPEATED, NestedEnum.class, false, false),
+        new FieldDescriptor(217, "rep_nested_message", MESSAGE, REPEATED, NestedMessage.class, false, false),
+        new FieldDescriptor(301, "pack_int32", INT32, PACKED, null, false, false),
+        new FieldDescriptor(302, "pack_uint32", UINT32, PACKED, null, false, false),
+        new FieldDescriptor(303, "pack_sint32", SINT32, PACKED, null, false, false),
+        new FieldDescriptor(304, "pack_fixed32", FIXED32, PACKED, null, false, false),
+        new FieldDescriptor(305, "pack_sfixed32", SFIXED32, PACKED, null, false, false),
+        new FieldDescriptor(306, "pack_int64", INT64, PACKED, null, false, false),
+        new FieldDescriptor(307, "pack_uint64", UINT64, PACKED, null, false, false),
+        new FieldDescriptor(308, "pack_sint64", SINT64, PACKED, null, false, false),
+        new FieldDescriptor(309, "pack_fixed64", FIXED64, PACKED, null, false, false),
+        new FieldDescriptor(310, "pack_sfixed64", SFIXED64, PACKED, null, false, false),
+        new FieldDescriptor(311, "pack_bool", BOOL, PACKED, null, false, false),
+        new FieldDescriptor(312, "pack_float", FLOAT, PACKED, null, false, false),
+        new FieldDescriptor(313, "pack_double", DOUBLE, PACKED, null, false, false),
+        new FieldDescriptor(316, "pack_nested_enum", ENUM, PACKED, NestedEnum.class, false, false),
+        new FieldDescriptor(401, "default_int32", INT32, OPTIONAL, null, false, false),
+        new FieldDescriptor(402, "default_uint32", UINT32, OPTIONAL, null, false, false),
+        new FieldDescriptor(403, "default_sint32", SINT32, OPTIONAL, null, false, false),
+        new FieldDescriptor(404, "default_fixed32", FIXED32, OPTIONAL, null, false, false),
+        new FieldDescriptor(405, "default_sfixed32", SFIXED32, OPTIONAL, null, false, false),
+        new FieldDescriptor(406, "default_int64", INT64, OPTIONAL, null, false, false),
+        new FieldDescriptor(407, "default_uint64", UINT64, OPTIONAL, null, false, false),
+        new FieldDescriptor(408, "default_sint64", SINT64, OPTIONAL, null, false, false),
+        new FieldDescriptor(409, "default_fixed64", FIXED64, OPTIONAL, null, false, false),
+        new FieldDescriptor(410, "default_sfixed64", SFIXED64, OPTIONAL, null, false, false),
+        new FieldDescriptor(411, "default_bool", BOOL, OPTIONAL, null, false, false),
+        new FieldDescriptor(412, "default_float", FLOAT, OPTIONAL, null, false, false),
+        new FieldDescriptor(413, "default_double", DOUBLE, OPTIONAL, null, false, false),
+        new FieldDescriptor(414, "default_string", STRING, OPTIONAL, null, false, false),
+        new FieldDescriptor(415, "default_bytes", BYTES, OPTIONAL, null, false, false),
+        new FieldDescriptor(416, "default_nested_enum", ENUM, OPTIONAL, NestedEnum.class, false, false));
+
+    @Override
+    protected FieldDescriptor[] getFieldDescriptors() {
+      return FIELDS;
+    }
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(AllTypes message) {
+      return getSerializedSize(message, null);
+    }
+
+    private int getSerializedSize(AllTypes message, IntList lengths) {
+      int size = 0;
+      if (message.opt_int32 != null) size += 1 + int32Size(message.opt_int32);
+      if (message.opt_uint32 != null) size += 1 + varint32Size(message.opt_uint32);
+      if (message.opt_sint32 != null) size += 1 + sint32Size(message.opt_sint32);
+      if (message.opt_fixed32 != null) size += 5;
+      if (message.opt_sfixed32 != null) size += 5;
+      if (message.opt_int64 != null) size += 1 + varint64Size(message.opt_int64);
+      if (message.opt_uint64 != null) size += 1 + varint64Size(message.opt_uint64);
+      if (message.opt_sint64 != null) size += 1 + sint64Size(message.opt_sint64);
+      if (message.opt_fixed64 != null) size += 9;
+      if (message.opt_sfixed64 != null) size += 9;
+      if (message.opt_bool != null) size += 2;
+      if (message.opt_float != null) size += 5;
+      if (message.opt_double != null) size += 9;
+      if (message.opt_string != null) size += 1 + stringSize(message.opt_string, lengths);
+      if (message.opt_bytes != null) size += 1 + bytesSize(message.opt_bytes);
+      if (message.opt_nested_enum != null) size += 2 + enumSize(message.opt_nested_enum);
+      if (message.opt_nested_message != null) size += 2 + messageSize(17, message.opt_nested_message);
+      if (message.req_int32 != null) size += 2 + int32Size(message.req_int32);
+      if (message.req_uint32 != null) size += 2 + varint32Size(message.req_uint32);
+      if (message.req_sint32 != null) size += 2 + sint32Size(message.req_sint32);
+      if (message.req_fixed32 != null) size += 6;
+      if (message.req_sfixed32 != null) size += 6;
+      if (message.req_int64 != null) size += 2 + varint64Size(message.req_int64);
+      if (message.req_uint64 != null) size += 2 + varint64Size(message.req_uint64);
+      if (message.req_sint64 != null) size += 2 + sint64Size(message.req_sint64);
+      if (message.req_fixed64 != null) size += 10;
+      if (message.req_sfixed64 != null) size += 10;
+      if (message.req_bool != null) size += 3;
+      if (message.req_float != null) size += 6;
+      if (message.req_double != null) size += 10;
+      if (message.req_string != null) size += 2 + stringSize(message.req_string, lengths);
+      if (message.req_bytes != null) size += 2 + bytesSize(message.req_bytes);
+      if (message.req_nested_enum != null) size += 2 + enumSize(message.req_nested_enum);
+      if (message.req_nested_message != null) size += 2 + messageSize(117, message.req_nested_message);
+      for (int i = 0, count = message.rep_int32.size(); i < count; i++) {
+        size += 2 + int32Size(getInt(message.rep_int32, i));
+      }
+      for (int i = 0, count = message.rep_uint32.size(); i < count; i++) {
+        size += 2 + varint32Size(getInt(message.rep_uint32, i));
+      }
+      for (int i = 0, count = message.rep_sint32.size(); i < count; i++) {
+        size += 2 + sint32Size(getInt(message.rep_sint32, i));
+      }
+      size += message.rep_fixed32.size() * 6;
+      size += message.rep_sfixed32.size() * 6;
+      for (int i = 0, count = message.rep_int64.size(); i < count; i++) {
+        size += 2 + varint64Size(getLong(message.rep_int64, i));
+      }
+      for (int i = 0, count = message.rep_uint64.size(); i < count; i++) {
+        size += 2 + varint64Size(getLong(message.rep_uint64, i));
+      }
+      for (int i = 0, count = message.rep_sint64.size(); i < count; i++) {
+        size += 2 + sint64Size(getLong(message.rep_sint64, i));
+      }
+      size += message.rep_fixed64.size() * 10;
+      size += message.rep_sfixed64.size() * 10;
+      size += message.rep_bool.size() * 3;
+      size += message.rep_float.size() * 6;
+      size += message.rep_double.size() * 10;
+      for (int i = 0, count = message.rep_string.size(); i < count; i++) {
+        size += 2 + stringSize(message.rep_string.get(i), lengths);
+      }
+      for (int i = 0, count = message.rep_bytes.size(); i < count; i++) {
+        size += 2 + bytesSize(message.rep_bytes.get(i));
+      }
+      for (int i = 0, count = message.rep_nested_enum.size(); i < count; i++) {
+        size += 2 + enumSize(message.rep_nested_enum.get(i));
+      }
+      size += messagesSize(217, message.rep_nested_message);
+      if (message.pack_int32 != null) {
+        int packedSize = 0;
+        for (int i = 0, count = message.pack_int32.size(); i < count; i++) {
+          packedSize += int32Size(getInt(message.pack_int32, i));
+        }
+        size += 2 + varint32Size(recordLength(lengths, packedSize)) + packedSize;
+      }
+      if (message.pack_uint32 != null) {
+        int packedSize = 0;
+        for (int i = 0, count = message.pack_uint32.size(); i < count; i++) {
+          packedSize += varint32Size(getInt(message.pack_uint32, i));
+        }
+        size += 2 + varint32Size(recordLength(lengths, packedSize)) + packedSize;
+      }
+      if (message.pack_sint32 != null) {
+        int packedSize = 0;
+        for (int i = 0, count = message.pack_sint32.size(); i < count; i++) {
+          packedSize += sint32Size(getInt(message.pack_sint32, i));
+        }
+        size += 2 + varint32Size(recordLength(lengths, packedSize)) + packedSize;
+      }
+      if (message.pack_fixed32 != null) {
+        int packedSize = message.pack_fixed32.size() * 4;
+        size += 2 + varint32Size(packedSize) + packedSize;
+      }
+      if (message.pack_sfixed32 != null) {
+        int packedSize = message.pack_sfixed32.size() * 4;
+        size += 2 + varint32Size(packedSize) + packedSize;
+      }
+      if (message.pack_int64 != null) {
+        int packedSize = 0;
+        for (int i = 0, count = message.pack_int64.size(); i < count; i++) {
+          packedSize += varint64Size(getLong(message.pack_int64, i));
+        }
+        size += 2 + varint32Size(recordLength(lengths, packedSize)) + packedSize;
+      }
+      if (message.pack_uint64 != null) {
+        int packedSize = 0;
+        for (int i = 0, count = message.pack_uint64.size(); i < count; i++) {
+          packedSize += varint64Size(getLong(message.pack_uint64, i));
+        }
+        size += 2 + varint32Size(recordLength(lengths, packedSize)) + packedSize;
+      }
+      if (message.pack_sint64 != null) {
+        int packedSize = 0;
+        for (int i = 0, count = message.pack_sint64.size(); i < count; i++) {
+          packedSize += sint64Size(getLong(message.pack_sint64, i));
+        }
+        size += 2 + varint32Size(recordLength(lengths, packedSize)) + packedSize;
+      }
+      if (message.pack_fixed64 != null) {
+        int packedSize = message.pack_fixed64.size() * 8;
+        size += 2 + varint32Size(packedSize) + packedSize;
+      }
+      if (message.pack_sfixed64 != null) {
+        int packedSize = message.pack_sfixed64.size() * 8;
+        size += 2 + varint32Size(packedSize) + packedSize;
+      }
+      if (message.pack_bool != null) {
+        int packedSize = message.pack_bool.size() * 1;
+        size += 2 + varint32Size(packedSize) + packedSize;
+      }
+      if (message.pack_float != null) {
+        int packedSize = message.pack_float.size() * 4;
+        size += 2 + varint32Size(packedSize) + packedSize;
+      }
+      if (message.pack_double != null) {
+        int packedSize = message.pack_double.size() * 8;
+        size += 2 + varint32Size(packedSize) + packedSize;
+      }
+      if (message.pack_nested_enum != null) {
+        int packedSize = 0;
+        for (int i = 0, count = message.pack_nested_enum.size(); i < count; i++) {
+          packedSize += enumSize(message.pack_nested_enum.get(i));
+        }
+        size += 2 + varint32Size(recordLength(lengths, packedSize)) + packedSize;
+      }
+      if (message.default_int32 != null) size += 2 + int32Size(message.default_int32);
+      if (message.default_uint32 != null) size += 2 + varint32Size(message.default_uint32);
+      if (message.default_sint32 != null) size += 2 + sint32Size(message.default_sint32);
+      if (message.default_fixed32 != null) size += 6;
+      if (message.default_sfixed32 != null) size += 6;
+      if (message.default_int64 != null) size += 2 + varint64Size(message.default_int64);
+      if (message.default_uint64 != null) size += 2 + varint64Size(message.default_uint64);
+      if (message.default_sint64 != null) size += 2 + sint64Size(message.default_sint64);
+      if (message.default_fixed64 != null) size += 10;
+      if (message.default_sfixed64 != null) size += 10;
+      if (message.default_bool != null) size += 3;
+      if (message.default_float != null) size += 6;
+      if (message.default_double != null) size += 10;
+      if (message.default_string != null) size += 2 + stringSize(message.default_string, lengths);
+      if (message.default_bytes != null) size += 2 + bytesSize(message.default_bytes);
+      if (message.default_nested_enum != null) size += 2 + enumSize(message.default_nested_enum);
+      return size;
+    }
+
+    @Override
+    protected void write(AllTypes message, WireOutput output)
+        throws IOException {
+      IntList lengths = newLengths();
+      getSerializedSize(message, lengths);
+      int lengthIndex = 0;
+      if (message.opt_int32 != null) {
+        output.writeTag(1, WireType.VARINT);
+        output.writeSignedVarint32(message.opt_int32);
+      }
+      if (message.opt_uint32 != null) {
+        output.writeTag(2, WireType.VARINT);
+        output.writeVarint32(message.opt_uint32);
+      }
+      if (message.opt_sint32 != null) {
+        output.writeTag(3, WireType.VARINT);
+        output.writeVarint32(WireOutput.zigZag32(message.opt_sint32));
+      }
+      if (message.opt_fixed32 != null) {
+        output.writeTag(4, WireType.FIXED32);
+        output.writeFixed32(message.opt_fixed32);
+      }
+      if (message.opt_sfixed32 != null) {
+        output.writeTag(5, WireType.FIXED32);
+        output.writeFixed32(message.opt_sfixed32);
+      }
+      if (message.opt_int64 != null) {
+        output.writeTag(6, WireType.VARINT);
+        output.writeVarint64(message.opt_int64);
+      }
+      if (message.opt_uint64 != null) {
+        output.writeTag(7, WireType.VARINT);
+        output.writeVarint64(message.opt_uint64);
+      }
+      if (message.opt_sint64 != null) {
+        output.writeTag(8, WireType.VARINT);
+        output.writeVarint64(WireOutput.zigZag64(message.opt_sint64));
+      }
+      if (message.opt_fixed64 != null) {
+        output.writeTag(9, WireType.FIXED64);
+        output.writeFixed64(message.opt_fixed64);
+      }
+      if (message.opt_sfixed64 != null) {
+        output.writeTag(10, WireType.FIXED64);
+        output.writeFixed64(message.opt_sfixed64);
+      }
+      if (message.opt_bool != null) {
+        output.writeTag(11, WireType.VARINT);
+        output.writeRawByte(message.opt_bool ? 1 : 0);
+      }
+      if (message.opt_float != null) {
+        output.writeTag(12, WireType.FIXED32);
+        output.writeFixed32(Float.floatToIntBits(message.opt_float));
+      }
+      if (message.opt_double != null) {
+        output.writeTag(13, WireType.FIXED64);
+        output.writeFixed64(Double.doubleToLongBits(message.opt_double));
+      }
+      if (message.opt_string != null) {
+        output.writeTag(14, WireType.LENGTH_DELIMITED);
+        writeString(output, message.opt_string, lengths.getInt(lengthIndex++));
+      }
+      if (message.opt_bytes != null) {
+        output.writeTag(15, WireType.LENGTH_DELIMITED);
+        output.writeBytes(message.opt_bytes);
+      }
+      if (message.opt_nested_enum != null) {
+        output.writeTag(16, WireType.VARINT);
+        output.writeVarint32(message.opt_nested_enum.getValue());
+      }
+      if (message.opt_nested_message != null) {
+        output.writeTag(17, WireType.LENGTH_DELIMITED);
+        writeMessage(output, 17, message.opt_nested_message);
+      }
+      if (message.req_int32 != null) {
+        output.writeTag(101, WireType.VARINT);
+        output.writeSignedVarint32(message.req_int32);
+      }
+      if (message.req_uint32 != null) {
+        output.writeTag(102, WireType.VARINT);
+        output.writeVarint32(message.req_uint32);
+      }
+      if (message.req_sint32 != null) {
+        output.writeTag(103, WireType.VARINT);
+        output.writeVarint32(WireOutput.zigZag32(message.req_sint32));
+      }
+      if (message.req_fixed32 != null) {
+        output.writeTag(104, WireType.FIXED32);
+        output.writeFixed32(message.req_fixed32);
+      }
+      if (message.req_sfixed32 != null) {
+        output.writeTag(105, WireType.FIXED32);
+        output.writeFixed32(message.req_sfixed32);
+      }
+      if (message.req_int64 != null) {
+        output.writeTag(106, WireType.VARINT);
+        output.writeVarint64(message.req_int64);
+      }
+      if (message.req_uint64 != null) {
+        output.writeTag(107, WireType.VARINT);
+        output.writeVarint64(message.req_uint64);
+      }
+      if (message.req_sint64 != null) {
+        output.writeTag(108, WireType.VARINT);
+        output.writeVarint64(WireOutput.zigZag64(message.req_sint64));
+      }
+      if (message.req_fixed64 != null) {
+        output.writeTag(109, WireType.FIXED64);
+        output.writeFixed64(message.req_fixed64);
+      }
+      if (message.req_sfixed64 != null) {
+        output.writeTag(110, WireType.FIXED64);
+        output.writeFixed64(message.req_sfixed64);
+      }
+      if (message.req_bool != null) {
+        output.writeTag(111, WireType.VARINT);
+        output.writeRawByte(message.req_bool ? 1 : 0);
+      }
+      if (message.req_float != null) {
+        output.writeTag(112, WireType.FIXED32);
+        output.writeFixed32(Float.floatToIntBits(message.req_float));
+      }
+      if (message.req_double != null) {
+        output.writeTag(113, WireType.FIXED64);
+        output.writeFixed64(Double.doubleToLongBits(message.req_double));
+      }
+      if (message.req_string != null) {
+        output.writeTag(114, WireType.LENGTH_DELIMITED);
+        writeString(output, message.req_string, lengths.getInt(lengthIndex++));
+      }
+      if (message.req_bytes != null) {
+        output.writeTag(115, WireType.LENGTH_DELIMITED);
+        output.writeBytes(message.req_bytes);
+      }
+      if (message.req_nested_enum != null) {
+        output.writeTag(116, WireType.VARINT);
+        output.writeVarint32(message.req_nested_enum.getValue());
+      }
+      if (message.req_nested_message != null) {
+        output.writeTag(117, WireType.LENGTH_DELIMITED);
+        writeMessage(output, 117, message.req_nested_message);
+      }
+      for (int i = 0, count = message.rep_int32.size(); i < count; i++) {
+        output.writeTag(201, WireType.VARINT);
+        output.writeSignedVarint32(getInt(message.rep_int32, i));
+      }
+      for (int i = 0, count = message.rep_uint32.size(); i < count; i++) {
+        output.writeTag(202, WireType.VARINT);
+        output.writeVarint32(getInt(message.rep_uint32, i));
+      }
+      for (int i = 0, count = message.rep_sint32.size(); i < count; i++) {
+        output.writeTag(203, WireType.VARINT);
+        output.writeVarint32(WireOutput.zigZag32(getInt(message.rep_sint32, i)));
+      }
+      for (int i = 0, count = message.rep_fixed32.size(); i < count; i++) {
+        output.writeTag(204, WireType.FIXED32);
+        output.writeFixed32(getInt(message.rep_fixed32, i));
+      }
+      for (int i = 0, count = message.rep_sfixed32.size(); i < count; i++) {
+        output.writeTag(205, WireType.FIXED32);
+        output.writeFixed32(getInt(message.rep_sfixed32, i));
+      }
+      for (int i = 0, count = message.rep_int64.size(); i < count; i++) {
+        output.writeTag(206, WireType.VARINT);
+        output.writeVarint64(getLong(message.rep_int64, i));
+      }
+      for (int i = 0, count = message.rep_uint64.size(); i < count; i++) {
+        output.writeTag(207, WireType.VARINT);
+        output.writeVarint64(getLong(message.rep_uint64, i));
+      }
+      for (int i = 0, count = message.rep_sint64.size(); i < count; i++) {
+        output.writeTag(208, WireType.VARINT);
+        output.writeVarint64(WireOutput.zigZag64(getLong(message.rep_sint64, i)));
+      }
+      for (int i = 0, count = message.rep_fixed64.size(); i < count; i++) {
+        output.writeTag(209, WireType.FIXED64);
+        output.writeFixed64(getLong(message.rep_fixed64, i));
+      }
+      for (int i = 0, count = message.rep_sfixed64.size(); i < count; i++) {
+        output.writeTag(210, WireType.FIXED64);
+        output.writeFixed64(getLong(message.rep_sfixed64, i));
+      }
+      for (int i = 0, count = message.rep_bool.size(); i < count; i++) {
+        output.writeTag(211, WireType.VARINT);
+        output.writeRawByte(getBoolean(message.rep_bool, i) ? 1 : 0);
+      }
+      for (int i = 0, count = message.rep_float.size(); i < count; i++) {
+        output.writeTag(212, WireType.FIXED32);
+        output.writeFixed32(Float.floatToIntBits(getFloat(message.rep_float, i)));
+      }
+      for (int i = 0, count = message.rep_double.size(); i < count; i++) {
+        output.writeTag(213, WireType.FIXED64);
+        output.writeFixed64(Double.doubleToLongBits(getDouble(message.rep_double, i)));
+      }
+      for (int i = 0, count = message.rep_string.size(); i < count; i++) {
+        output.writeTag(214, WireType.LENGTH_DELIMITED);
+        writeString(output, message.rep_string.get(i), lengths.getInt(lengthIndex++));
+      }
+      for (int i = 0, count = message.rep_bytes.size(); i < count; i++) {
+        output.writeTag(215, WireType.LENGTH_DELIMITED);
+        output.writeBytes(message.rep_bytes.get(i));
+      }
+      for (int i = 0, count = message.rep_nested_enum.size(); i < count; i++) {
+        output.writeTag(216, WireType.VARINT);
+        output.writeVarint32(message.rep_nested_enum.get(i).getValue());
+      }
+      writeMessages(output, 217, message.rep_nested_message);
+      if (message.pack_int32 != null) {
+        int packedSize = lengths.getInt(lengthIndex++);
+        output.writeTag(301, WireType.LENGTH_DELIMITED);
+        output.writeVarint32(packedSize);
+        for (int i = 0, count = message.pack_int32.size(); i < count; i++) {
+          output.writeSignedVarint32(getInt(message.pack_int32, i));
+        }
+      }
+      if (message.pack_uint32 != null) {
+        int packedSize = lengths.getInt(lengthIndex++);
+        output.writeTag(302, WireType.LENGTH_DELIMITED);
+        output.writeVarint32(packedSize);
+        for (int i = 0, count = message.pack_uint32.size(); i < count; i++) {
+          output.writeVarint32(getInt(message.pack_uint32, i));
+        }
+      }
+      if (message.pack_sint32 != null) {
+        int packedSize = lengths.getInt(lengthIndex++);
+        output.writeTag(303, WireType.LENGTH_DELIMITED);
+        output.writeVarint32(packedSize);
+        for (int i = 0, count = message.pack_sint32.size(); i < count; i++) {
+          output.writeVarint32(WireOutput.zigZag32(getInt(message.pack_sint32, i)));
+        }
+      }
+      if (message.pack_fixed32 != null) {
+        int packedSize = message.pack_fixed32.size() * 4;
+        output.writeTag(304, WireType.LENGTH_DELIMITED);
+        output.writeVarint32(packedSize);
+        for (int i = 0, count = message.pack_fixed32.size(); i < count; i++) {
+          output.writeFixed32(getInt(message.pack_fixed32, i));
+        }
+      }
+      if (message.pack_sfixed32 != null) {
+        int packedSize = message.pack_sfixed32.size() * 4;
+        output.writeTag(305, WireType.LENGTH_DELIMITED);
+        output.writeVarint32(packedSize);
+        for (int i = 0, count = message.pack_sfixed32.size(); i < count; i++) {
+          output.writeFixed32(getInt(message.pack_sfixed32, i));
+        }
+      }
+      if (message.pack_int64 != null) {
+        int packedSize = lengths.getInt(lengthIndex++);
+        output.writeTag(306, WireType.LENGTH_DELIMITED);
+        output.writeVarint32(packedSize);
+        for (int i = 0, count = message.pack_int64.size(); i < count; i++) {
+          output.writeVarint64(getLong(message.pack_int64, i));
+        }
+      }
+      if (message.pack_uint64 != null) {
+        int packedSize = lengths.getInt(lengthIndex++);
+        output.writeTag(307, WireType.LENGTH_DELIMITED);
+        output.writeVarint32(packedSize);
+        for (int i = 0, count = message.pack_uint64.size(); i < count; i++) {
+          output.writeVarint64(getLong(message.pack_uint64, i));
+        }
+      }
+      if (message.pack_sint64 != null) {
+        int packedSize = lengths.getInt(lengthIndex++);
+        output.writeTag(308, WireType.LENGTH_DELIMITED);
+        output.writeVarint32(packedSize);
+        for (int i = 0, count = message.pack_sint64.size(); i < count; i++) {
+          output.writeVarint64(WireOutput.zigZag64(getLong(message.pack_sint64, i)));
+        }
+      }
+      if (message.pack_fixed64 != null) {
+        int packedSize = message.pack_fixed64.size() * 8;
+        output.writeTag(309, WireType.LENGTH_DELIMITED);
+        output.writeVarint32(packedSize);
+        for (int i = 0, count = message.pack_fixed64.size(); i < count; i++) {
+          output.writeFixed64(getLong(message.pack_fixed64, i));
+        }
+      }
+      if (message.pack_sfixed64 != null) {
+        int packedSize = message.pack_sfixed64.size() * 8;
+        output.writeTag(310, WireType.LENGTH_DELIMITED);
+        output.writeVarint32(packedSize);
+        for (int i = 0, count = message.pack_sfixed64.size(); i < count; i++) {
+          output.writeFixed64(getLong(message.pack_sfixed64, i));
+        }
+      }
+      if (message.pack_bool != null) {
+        int packedSize = message.pack_bool.size() * 1;
+        output.writeTag(311, WireType.LENGTH_DELIMITED);
+        output.writeVarint32(packedSize);
+        for (int i = 0, count = message.pack_bool.size(); i < count; i++) {
+          output.writeRawByte(getBoolean(message.pack_bool, i) ? 1 : 0);
+        }
+      }
+      if (message.pack_float != null) {
+        int packedSize = message.pack_float.size() * 4;
+        output.writeTag(312, WireType.LENGTH_DELIMITED);
+        output.writeVarint32(packedSize);
+        for (int i = 0, count = message.pack_float.size(); i < count; i++) {
+          output.writeFixed32(Float.floatToIntBits(getFloat(message.pack_float, i)));
+        }
+      }
+      if (message.pack_double != null) {
+        int packedSize = message.pack_double.size() * 8;
+        output.writeTag(313, WireType.LENGTH_DELIMITED);
+        output.writeVarint32(packedSize);
+        for (int i = 0, count = message.pack_double.size(); i < count; i++) {
+          output.writeFixed64(Double.doubleToLongBits(getDouble(message.pack_double, i)));
+        }
+      }
+      if (message.pack_nested_enum != null) {
+        int packedSize = lengths.getInt(lengthIndex++);
+        output.writeTag(316, WireType.LENGTH_DELIMITED);
+        output.writeVarint32(packedSize);
+        for (int i = 0, count = message.pack_nested_enum.size(); i < count; i++) {
+          output.writeVarint32(message.pack_nested_enum.get(i).getValue());
+        }
+      }
+      if (message.default_int32 != null) {
+        output.writeTag(401, WireType.VARINT);
+        output.writeSignedVarint32(message.default_int32);
+      }
+      if (message.default_uint32 != null) {
+        output.writeTag(402, WireType.VARINT);
+        output.writeVarint32(message.default_uint32);
+      }
+      if (message.default_sint32 != null) {
+        output.writeTag(403, WireType.VARINT);
+        output.writeVarint32(WireOutput.zigZag32(message.default_sint32));
+      }
+      if (message.default_fixed32 != null) {
+        output.writeTag(404, WireType.FIXED32);
+        output.writeFixed32(message.default_fixed32);
+      }
+      if (message.default_sfixed32 != null) {
+        output.writeTag(405, WireType.FIXED32);
+        output.writeFixed32(message.default_sfixed32);
+      }
+      if (message.default_int64 != null) {
+        output.writeTag(406, WireType.VARINT);
+        output.writeVarint64(message.default_int64);
+      }
+      if (message.default_uint64 != null) {
+        output.writeTag(407, WireType.VARINT);
+        output.writeVarint64(message.default_uint64);
+      }
+      if (message.default_sint64 != null) {
+        output.writeTag(408, WireType.VARINT);
+        output.writeVarint64(WireOutput.zigZag64(message.default_sint64));
+      }
+      if (message.default_fixed64 != null) {
+        output.writeTag(409, WireType.FIXED64);
+        output.writeFixed64(message.default_fixed64);
+      }
+      if (message.default_sfixed64 != null) {
+        output.writeTag(410, WireType.FIXED64);
+        output.writeFixed64(message.default_sfixed64);
+      }
+      if (message.default_bool != null) {
+        output.writeTag(411, WireType.VARINT);
+        output.writeRawByte(message.default_bool ? 1 : 0);
+      }
+      if (message.default_float != null) {
+        output.writeTag(412, WireType.FIXED32);
+        output.writeFixed32(Float.floatToIntBits(message.default_float));
+      }
+      if (message.default_double != null) {
+        output.writeTag(413, WireType.FIXED64);
+        output.writeFixed64(Double.doubleToLongBits(message.default_double));
+      }
+      if (message.default_string != null) {
+        output.writeTag(414, WireType.LENGTH_DELIMITED);
+        writeString(output, message.default_string, lengths.getInt(lengthIndex++));
+      }
+      if (message.default_bytes != null) {
+        output.writeTag(415, WireType.LENGTH_DELIMITED);
+        output.writeBytes(message.default_bytes);
+      }
+      if (message.default_nested_enum != null) {
+        output.writeTag(416, WireType.VARINT);
+        output.writeVarint32(message.default_nested_enum.getValue());
+      }
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      switch (tag) {
+        case 1: {
+          builder.opt_int32 = input.readVarint32();
+          return true;
+        }
+        case 2: {
+          builder.opt_uint32 = input.readVarint32();
+          return true;
+        }
+        case 3: {
+          builder.opt_sint32 = WireInput.decodeZigZag32(input.readVarint32());
+          return true;
+        }
+        case 4: {
+          builder.opt_fixed32 = input.readFixed32();
+          return true;
+        }
+        case 5: {
+          builder.opt_sfixed32 = input.readFixed32();
+          return true;
+        }
+        case 6: {
+          builder.opt_int64 = input.readVarint64();
+          return true;
+        }
+        case 7: {
+          builder.opt_uint64 = input.readVarint64();
+          return true;
+        }
+        case 8: {
+          builder.opt_sint64 = WireInput.decodeZigZag64(input.readVarint64());
+          return true;
+        }
+        case 9: {
+          builder.opt_fixed64 = input.readFixed64();
+          return true;
+        }
+        case 10: {
+          builder.opt_sfixed64 = input.readFixed64();
+          return true;
+        }
+        case 11: {
+          builder.opt_bool = input.readVarint32() != 0;
+          return true;
+        }
+        case 12: {
+          builder.opt_float = Float.intBitsToFloat(input.readFixed32());
+          return true;
+        }
+        case 13: {
+          builder.opt_double = Double.longBitsToDouble(input.readFixed64());
+          return true;
+        }
+        case 14: {
+          builder.opt_string = input.readString();
+          return true;
+        }
+        case 15: {
+          builder.opt_bytes = input.readBytes();
+          return true;
+        }
+        case 16: {
+          NestedEnum value = (NestedEnum) readEnum(input, builder, 16);
+          if (value != null) builder.opt_nested_enum = value;
+          return true;
+        }
+        case 17: {
+          builder.opt_nested_message = (NestedMessage) readMessage(input, 17);
+          return true;
+        }
+        case 101: {
+          builder.req_int32 = input.readVarint32();
+          return true;
+        }
+        case 102: {
+          builder.req_uint32 = input.readVarint32();
+          return true;
+        }
+        case 103: {
+          builder.req_sint32 = WireInput.decodeZigZag32(input.readVarint32());
+          return true;
+        }
+        case 104: {
+          builder.req_fixed32 = input.readFixed32();
+          return true;
+        }
+        case 105: {
+          builder.req_sfixed32 = input.readFixed32();
+          return true;
+        }
+        case 106: {
+          builder.req_int64 = input.readVarint64();
+          return true;
+        }
+        case 107: {
+          builder.req_uint64 = input.readVarint64();
+          return true;
+        }
+        case 108: {
+          builder.req_sint64 = WireInput.decodeZigZag64(input.readVarint64());
+          return true;
+        }
+        case 109: {
+          builder.req_fixed64 = input.readFixed64();
+          return true;
+        }
+        case 110: {
+          builder.req_sfixed64 = input.readFixed64();
+          return true;
+        }
+        case 111: {
+          builder.req_bool = input.readVarint32() != 0;
+          return true;
+        }
+        case 112: {
+          builder.req_float = Float.intBitsToFloat(input.readFixed32());
+          return true;
+        }
+        case 113: {
+          builder.req_double = Double.longBitsToDouble(input.readFixed64());
+          return true;
+        }
+        case 114: {
+          builder.req_string = input.readString();
+          return true;
+        }
+        case 115: {
+          builder.req_bytes = input.readBytes();
+          return true;
+        }
+        case 116: {
+          NestedEnum value = (NestedEnum) readEnum(input, builder, 116);
+          if (value != null) builder.req_nested_enum = value;
+          return true;
+        }
+        case 117: {
+          builder.req_nested_message = (NestedMessage) readMessage(input, 117);
+          return true;
+        }
+        case 201: {
+          if (wireType == WireType.LENGTH_DELIMITED) {
+            long oldLimit = beginPacked(input);
+            while (hasMorePacked(input)) {
+              builder.rep_int32 = appendInt(builder.rep_int32, input.readVarint32());
+            }
+            endPacked(input, oldLimit);
+          } else {
+            builder.rep_int32 = appendInt(builder.rep_int32, input.readVarint32());
+          }
+          return true;
+        }
+        case 202: {
+          if (wireType == WireType.LENGTH_DELIMITED) {
+            long oldLimit = beginPacked(input);
+            while (hasMorePacked(input)) {
+              builder.rep_uint32 = appendInt(builder.rep_uint32, input.readVarint32());
+            }
+            endPacked(input, oldLimit);
+          } else {
+            builder.rep_uint32 = appendInt(builder.rep_uint32, input.readVarint32());
+          }
+          return true;
+        }
+        case 203: {
+          if (wireType == WireType.LENGTH_DELIMITED) {
+            long oldLimit = beginPacked(input);
+            while (hasMorePacked(input)) {
+              builder.rep_sint32 = appendInt(builder.rep_sint32, WireInput.decodeZigZag32(input.readVarint32()));
+            }
+            endPacked(input, oldLimit);
+          } else {
+            builder.rep_sint32 = appendInt(builder.rep_sint32, WireInput.decodeZigZag32(input.readVarint32()));
+          }
+          return true;
+        }
+        case 204: {
+          if (wireType == WireType.LENGTH_DELIMITED) {
+            long oldLimit = beginPacked(input);
+            while (hasMorePacked(input)) {
+              builder.rep_fixed32 = appendInt(builder.rep_fixed32, input.readFixed32());
+            }
+            endPacked(input, oldLimit);
+          } else {
+            builder.rep_fixed32 = appendInt(builder.rep_fixed32, input.readFixed32());
+          }
+          return true;
+        }
+        case 205: {
+          if (wireType == WireType.LENGTH_DELIMITED) {
+            long oldLimit = beginPacked(input);
+            while (hasMorePacked(input)) {
+              builder.rep_sfixed32 = appendInt(builder.rep_sfixed32, input.readFixed32());
+            }
+            endPacked(input, oldLimit);
+          } else {
+            builder.rep_sfixed32 = appendInt(builder.rep_sfixed32, input.readFixed32());
+          }
+          return true;
+        }
+        case 206: {
+          if (wireType == WireType.LENGTH_DELIMITED) {
+            long oldLimit = beginPacked(input);
+            while (hasMorePacked(input)) {
+              builder.rep_int64 = appendLong(builder.rep_int64, input.readVarint64());
+            }
+            endPacked(input, oldLimit);
+          } else {
+            builder.rep_int64 = appendLong(builder.rep_int64, input.readVarint64());
+          }
+          return true;
+        }
+        case 207: {
+          if (wireType == WireType.LENGTH_DELIMITED) {
+            long oldLimit = beginPacked(input);
+            while (hasMorePacked(input)) {
+              builder.rep_uint64 = appendLong(builder.rep_uint64, input.readVarint64());
+            }
+            endPacked(input, oldLimit);
+          } else {
+            builder.rep_uint64 = appendLong(builder.rep_uint64, input.readVarint64());
+          }
+          return true;
+        }
+        case 208: {
+          if (wireType == WireType.LENGTH_DELIMITED) {
+            long oldLimit = beginPacked(input);
+            while (hasMorePacked(input)) {
+              builder.rep_sint64 = appendLong(builder.rep_sint64, WireInput.decodeZigZag64(input.readVarint64()));
+            }
+            endPacked(input, oldLimit);
+          } else {
+            builder.rep_sint64 = appendLong(builder.rep_sint64, WireInput.decodeZigZag64(input.readVarint64()));
+          }
+          return true;
+        }
+        case 209: {
+          if (wireType == WireType.LENGTH_DELIMITED) {
+            long oldLimit = beginPacked(input);
+            while (hasMorePacked(input)) {
+              builder.rep_fixed64 = appendLong(builder.rep_fixed64, input.readFixed64());
+            }
+            endPacked(input, oldLimit);
+          } else {
+            builder.rep_fixed64 = appendLong(builder.rep_fixed64, input.readFixed64());
+          }
+          return true;
+        }
+        case 210: {
+          if (wireType == WireType.LENGTH_DELIMITED) {
+            long oldLimit = beginPacked(input);
+            while (hasMorePacked(input)) {
+              builder.rep_sfixed64 = appendLong(builder.rep_sfixed64, input.readFixed64());
+            }
+            endPacked(input, oldLimit);
+          } else {
+            builder.rep_sfixed64 = appendLong(builder.rep_sfixed64, input.readFixed64());
+          }
+          return true;
+        }
+        case 211: {
+          if (wireType == WireType.LENGTH_DELIMITED) {
+            long oldLimit = beginPacked(input);
+            while (hasMorePacked(input)) {
+              builder.rep_bool = appendBoolean(builder.rep_bool, input.readVarint32() != 0);
+            }
+            endPacked(input, oldLimit);
+          } else {
+            builder.rep_bool = appendBoolean(builder.rep_bool, input.readVarint32() != 0);
+          }
+          return true;
+        }
+        case 212: {
+          if (wireType == WireType.LENGTH_DELIMITED) {
+            long oldLimit = beginPacked(input);
+            while (hasMorePacked(input)) {
+              builder.rep_float = appendFloat(builder.rep_float, Float.intBitsToFloat(input.readFixed32()));
+            }
+            endPacked(input, oldLimit);
+          } else {
+            builder.rep_float = appendFloat(builder.rep_float, Float.intBitsToFloat(input.readFixed32()));
+          }
+          return true;
+        }
+        case 213: {
+          if (wireType == WireType.LENGTH_DELIMITED) {
+            long oldLimit = beginPacked(input);
+            while (hasMorePacked(input)) {
+              builder.rep_double = appendDouble(builder.rep_double, Double.longBitsToDouble(input.readFixed64()));
+            }
+            endPacked(input, oldLimit);
+          } else {
+            builder.rep_double = appendDouble(builder.rep_double, Double.longBitsToDouble(input.readFixed64()));
+          }
+          return true;
+        }
+        case 214: {
+          builder.rep_string = append(builder.rep_string, input.readString());
+          return true;
+        }
+        case 215: {
+          builder.rep_bytes = append(builder.rep_bytes, input.readBytes());
+          return true;
+        }
+        case 216: {
+          if (wireType == WireType.LENGTH_DELIMITED) {
+            long oldLimit = beginPacked(input);
+            while (hasMorePacked(input)) {
+              NestedEnum value = (NestedEnum) readEnum(input, builder, 216);
+              if (value != null) builder.rep_nested_enum = append(builder.rep_nested_enum, value);
+            }
+            endPacked(input, oldLimit);
+          } else {
+            NestedEnum value = (NestedEnum) readEnum(input, builder, 216);
+            if (value != null) builder.rep_nested_enum = append(builder.rep_nested_enum, value);
+          }
+          return true;
+        }
+        case 217: {
+          builder.rep_nested_message = append(builder.rep_nested_message, (NestedMessage) readMessage(input, 217));
+          return true;
+        }
+        case 301: {
+          if (wireType == WireType.LENGTH_DELIMITED) {
+            long oldLimit = beginPacked(input);
+            while (hasMorePacked(input)) {
+              builder.pack_int32 = appendInt(builder.pack_int32, input.readVarint32());
+            }
+            endPacked(input, oldLimit);
+          } else {
+            builder.pack_int32 = appendInt(builder.pack_int32, input.readVarint32());
+          }
+          return true;
+        }
+        case 302: {
+          if (wireType == WireType.LENGTH_DELIMITED) {
+            long oldLimit = beginPacked(input);
+            while (hasMorePacked(input)) {
+              builder.pack_uint32 = appendInt(builder.pack_uint32, input.readVarint32());
+            }
+            endPacked(input, oldLimit);
+          } else {
+            builder.pack_uint32 = appendInt(builder.pack_uint32, input.readVarint32());
+          }
+          return true;
+        }
+        case 303: {
+          if (wireType == WireType.LENGTH_DELIMITED) {
+            long oldLimit = beginPacked(input);
+            while (hasMorePacked(input)) {
+              builder.pack_sint32 = appendInt(builder.pack_sint32, WireInput.decodeZigZag32(input.readVarint32()));
+            }
+            endPacked(input, oldLimit);
+          } else {
+            builder.pack_sint32 = appendInt(builder.pack_sint32, WireInput.decodeZigZag32(input.readVarint32()));
+          }
+          return true;
+        }
+        case 304: {
+          if (wireType == WireType.LENGTH_DELIMITED) {
+            long oldLimit = beginPacked(input);
+            while (hasMorePacked(input)) {
+              builder.pack_fixed32 = appendInt(builder.pack_fixed32, input.readFixed32());
+            }
+            endPacked(input, oldLimit);
+          } else {
+            builder.pack_fixed32 = appendInt(builder.pack_fixed32, input.readFixed32());
+          }
+          return true;
+        }
+        case 305: {
+          if (wireType == WireType.LENGTH_DELIMITED) {
+            long oldLimit = beginPacked(input);
+            while (hasMorePacked(input)) {
+              builder.pack_sfixed32 = appendInt(builder.pack_sfixed32, input.readFixed32());
+            }
+            endPacked(input, oldLimit);
+          } else {
+            builder.pack_sfixed32 = appendInt(builder.pack_sfixed32, input.readFixed32());
+          }
+          return true;
+        }
+        case 306: {
+          if (wireType == WireType.LENGTH_DELIMITED) {
+            long oldLimit = beginPacked(input);
+            while (hasMorePacked(input)) {
+              builder.pack_int64 = appendLong(builder.pack_int64, input.readVarint64());
+            }
+            endPacked(input, oldLimit);
+          } else {
+            builder.pack_int64 = appendLong(builder.pack_int64, input.readVarint64());
+          }
+          return true;
+        }
+        case 307: {
+          if (wireType == WireType.LENGTH_DELIMITED) {
+            long oldLimit = beginPacked(input);
+            while (hasMorePacked(input)) {
+              builder.pack_uint64 = appendLong(builder.pack_uint64, input.readVarint64());
+            }
+            endPacked(input, oldLimit);
+          } else {
+            builder.pack_uint64 = appendLong(builder.pack_uint64, input.readVarint64());
+          }
+          return true;
+        }
+        case 308: {
+          if (wireType == WireType.LENGTH_DELIMITED) {
+            long oldLimit = beginPacked(input);
+            while (hasMorePacked(input)) {
+              builder.pack_sint64 = appendLong(builder.pack_sint64, WireInput.decodeZigZag64(input.readVarint64()));
+            }
+            endPacked(input, oldLimit);
+          } else {
+            builder.pack_sint64 = appendLong(builder.pack_sint64, WireInput.decodeZigZag64(input.readVarint64()));
+          }
+          return true;
+        }
+        case 309: {
+          if (wireType == WireType.LENGTH_DELIMITED) {
+            long oldLimit = beginPacked(input);
+            while (hasMorePacked(input)) {
+              builder.pack_fixed64 = appendLong(builder.pack_fixed64, input.readFixed64());
+            }
+            endPacked(input, oldLimit);
+          } else {
+            builder.pack_fixed64 = appendLong(builder.pack_fixed64, input.readFixed64());
+          }
+          return true;
+        }
+        case 310: {
+          if (wireType == WireType.LENGTH_DELIMITED) {
+            long oldLimit = beginPacked(input);
+            while (hasMorePacked(input)) {
+              builder.pack_sfixed64 = appendLong(builder.pack_sfixed64, input.readFixed64());
+            }
+            endPacked(input, oldLimit);
+          } else {
+            builder.pack_sfixed64 = appendLong(builder.pack_sfixed64, input.readFixed64());
+          }
+          return true;
+        }
+        case 311: {
+          if (wireType == WireType.LENGTH_DELIMITED) {
+            long oldLimit = beginPacked(input);
+            while (hasMorePacked(input)) {
+              builder.pack_bool = appendBoolean(builder.pack_bool, input.readVarint32() != 0);
+            }
+            endPacked(input, oldLimit);
+          } else {
+            builder.pack_bool = appendBoolean(builder.pack_bool, input.readVarint32() != 0);
+          }
+          return true;
+        }
+        case 312: {
+          if (wireType == WireType.LENGTH_DELIMITED) {
+            long oldLimit = beginPacked(input);
+            while (hasMorePacked(input)) {
+              builder.pack_float = appendFloat(builder.pack_float, Float.intBitsToFloat(input.readFixed32()));
+            }
+            endPacked(input, oldLimit);
+          } else {
+            builder.pack_float = appendFloat(builder.pack_float, Float.intBitsToFloat(input.readFixed32()));
+          }
+          return true;
+        }
+        case 313: {
+          if (wireType == WireType.LENGTH_DELIMITED) {
+            long oldLimit = beginPacked(input);
+            while (hasMorePacked(input)) {
+              builder.pack_double = appendDouble(builder.pack_double, Double.longBitsToDouble(input.readFixed64()));
+            }
+            endPacked(input, oldLimit);
+          } else {
+            builder.pack_double = appendDouble(builder.pack_double, Double.longBitsToDouble(input.readFixed64()));
+          }
+          return true;
+        }
+        case 316: {
+          if (wireType == WireType.LENGTH_DELIMITED) {
+            long oldLimit = beginPacked(input);
+            while (hasMorePacked(input)) {
+              NestedEnum value = (NestedEnum) readEnum(input, builder, 316);
+              if (value != null) builder.pack_nested_enum = append(builder.pack_nested_enum, value);
+            }
+            endPacked(input, oldLimit);
+          } else {
+            NestedEnum value = (NestedEnum) readEnum(input, builder, 316);
+            if (value != null) builder.pack_nested_enum = append(builder.pack_nested_enum, value);
+          }
+          return true;
+        }
+        case 401: {
+          builder.default_int32 = input.readVarint32();
+          return true;
+        }
+        case 402: {
+          builder.default_uint32 = input.readVarint32();
+          return true;
+        }
+        case 403: {
+          builder.default_sint32 = WireInput.decodeZigZag32(input.readVarint32());
+          return true;
+        }
+        case 404: {
+          builder.default_fixed32 = input.readFixed32();
+          return true;
+        }
+        case 405: {
+          builder.default_sfixed32 = input.readFixed32();
+          return true;
+        }
+        case 406: {
+          builder.default_int64 = input.readVarint64();
+          return true;
+        }
+        case 407: {
+          builder.default_uint64 = input.readVarint64();
+          return true;
+        }
+        case 408: {
+          builder.default_sint64 = WireInput.decodeZigZag64(input.readVarint64());
+          return true;
+        }
+        case 409: {
+          builder.default_fixed64 = input.readFixed64();
+          return true;
+        }
+        case 410: {
+          builder.default_sfixed64 = input.readFixed64();
+          return true;
+        }
+        case 411: {
+          builder.default_bool = input.readVarint32() != 0;
+          return true;
+        }
+        case 412: {
+          builder.default_float = Float.intBitsToFloat(input.readFixed32());
+          return true;
+        }
+        case 413: {
+          builder.default_double = Double.longBitsToDouble(input.readFixed64());
+          return true;
+        }
+        case 414: {
+          builder.default_string = input.readString();
+          return true;
+        }
+        case 415: {
+          builder.default_bytes = input.readBytes();
+          return true;
+        }
+        case 416: {
+          NestedEnum value = (NestedEnum) readEnum(input, builder, 416);
+          if (value != null) builder.default_nested_enum = value;
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(AllTypes message, int tag) {
+      switch (tag) {
+        case 1: return message.opt_int32;
+        case 2: return message.opt_uint32;
+        case 3: return message.opt_sint32;
+        case 4: return message.opt_fixed32;
+        case 5: return message.opt_sfixed32;
+        case 6: return message.opt_int64;
+        case 7: return message.opt_uint64;
+        case 8: return message.opt_sint64;
+        case 9: return message.opt_fixed64;
+        case 10: return message.opt_sfixed64;
+        case 11: return message.opt_bool;
+        case 12: return message.opt_float;
+        case 13: return message.opt_double;
+        case 14: return message.opt_string;
+        case 15: return message.opt_bytes;
+        case 16: return message.opt_nested_enum;
+        case 17: return message.opt_nested_message;
+        case 101: return message.req_int32;
+        case 102: return message.req_uint32;
+        case 103: return message.req_sint32;
+        case 104: return message.req_fixed32;
+        case 105: return message.req_sfixed32;
+        case 106: return message.req_int64;
+        case 107: return message.req_uint64;
+        case 108: return message.req_sint64;
+        case 109: return message.req_fixed64;
+        case 110: return message.req_sfixed64;
+        case 111: return message.req_bool;
+        case 112: return message.req_float;
+        case 113: return message.req_double;
+        case 114: return message.req_string;
+        case 115: return message.req_bytes;
+        case 116: return message.req_nested_enum;
+        case 117: return message.req_nested_message;
+        case 201: return message.rep_int32;
+        case 202: return message.rep_uint32;
+        case 203: return message.rep_sint32;
+        case 204: return message.rep_fixed32;
+        case 205: return message.rep_sfixed32;
+        case 206: return message.rep_int64;
+        case 207: return message.rep_uint64;
+        case 208: return message.rep_sint64;
+        case 209: return message.rep_fixed64;
+        case 210: return message.rep_sfixed64;
+        case 211: return message.rep_bool;
+        case 212: return message.rep_float;
+        case 213: return message.rep_double;
+        case 214: return message.rep_string;
+        case 215: return message.rep_bytes;
+        case 216: return message.rep_nested_enum;
+        case 217: return message.rep_nested_message;
+        case 301: return message.pack_int32;
+        case 302: return message.pack_uint32;
+        case 303: return message.pack_sint32;
+        case 304: return message.pack_fixed32;
+        case 305: return message.pack_sfixed32;
+        case 306: return message.pack_int64;
+        case 307: return message.pack_uint64;
+        case 308: return message.pack_sint64;
+        case 309: return message.pack_fixed64;
+        case 310: return message.pack_sfixed64;
+        case 311: return message.pack_bool;
+        case 312: return message.pack_float;
+        case 313: return message.pack_double;
+        case 316: return message.pack_nested_enum;
+        case 401: return message.default_int32;
+        case 402: return message.default_uint32;
+        case 403: return message.default_sint32;
+        case 404: return message.default_fixed32;
+        case 405: return message.default_sfixed32;
+        case 406: return message.default_int64;
+        case 407: return message.default_uint64;
+        case 408: return message.default_sint64;
+        case 409: return message.default_fixed64;
+        case 410: return message.default_sfixed64;
+        case 411: return message.default_bool;
+        case 412: return message.default_float;
+        case 413: return message.default_double;
+        case 414: return message.default_string;
+        case 415: return message.default_bytes;
+        case 416: return message.default_nested_enum;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      switch (tag) {
+        case 1: return builder.opt_int32;
+        case 2: return builder.opt_uint32;
+        case 3: return builder.opt_sint32;
+        case 4: return builder.opt_fixed32;
+        case 5: return builder.opt_sfixed32;
+        case 6: return builder.opt_int64;
+        case 7: return builder.opt_uint64;
+        case 8: return builder.opt_sint64;
+        case 9: return builder.opt_fixed64;
+        case 10: return builder.opt_sfixed64;
+        case 11: return builder.opt_bool;
+        case 12: return builder.opt_float;
+        case 13: return builder.opt_double;
+        case 14: return builder.opt_string;
+        case 15: return builder.opt_bytes;
+        case 16: return builder.opt_nested_enum;
+        case 17: return builder.opt_nested_message;
+        case 101: return builder.req_int32;
+        case 102: return builder.req_uint32;
+        case 103: return builder.req_sint32;
+        case 104: return builder.req_fixed32;
+        case 105: return builder.req_sfixed32;
+        case 106: return builder.req_int64;
+        case 107: return builder.req_uint64;
+        case 108: return builder.req_sint64;
+        case 109: return builder.req_fixed64;
+        case 110: return builder.req_sfixed64;
+        case 111: return builder.req_bool;
+        case 112: return builder.req_float;
+        case 113: return builder.req_double;
+        case 114: return builder.req_string;
+        case 115: return builder.req_bytes;
+        case 116: return builder.req_nested_enum;
+        case 117: return builder.req_nested_message;
+        case 201: return builder.rep_int32;
+        case 202: return builder.rep_uint32;
+        case 203: return builder.rep_sint32;
+        case 204: return builder.rep_fixed32;
+        case 205: return builder.rep_sfixed32;
+        case 206: return builder.rep_int64;
+        case 207: return builder.rep_uint64;
+        case 208: return builder.rep_sint64;
+        case 209: return builder.rep_fixed64;
+        case 210: return builder.rep_sfixed64;
+        case 211: return builder.rep_bool;
+        case 212: return builder.rep_float;
+        case 213: return builder.rep_double;
+        case 214: return builder.rep_string;
+        case 215: return builder.rep_bytes;
+        case 216: return builder.rep_nested_enum;
+        case 217: return builder.rep_nested_message;
+        case 301: return builder.pack_int32;
+        case 302: return builder.pack_uint32;
+        case 303: return builder.pack_sint32;
+        case 304: return builder.pack_fixed32;
+        case 305: return builder.pack_sfixed32;
+        case 306: return builder.pack_int64;
+        case 307: return builder.pack_uint64;
+        case 308: return builder.pack_sint64;
+        case 309: return builder.pack_fixed64;
+        case 310: return builder.pack_sfixed64;
+        case 311: return builder.pack_bool;
+        case 312: return builder.pack_float;
+        case 313: return builder.pack_double;
+        case 316: return builder.pack_nested_enum;
+        case 401: return builder.default_int32;
+        case 402: return builder.default_uint32;
+        case 403: return builder.default_sint32;
+        case 404: return builder.default_fixed32;
+        case 405: return builder.default_sfixed32;
+        case 406: return builder.default_int64;
+        case 407: return builder.default_uint64;
+        case 408: return builder.default_sint64;
+        case 409: return builder.default_fixed64;
+        case 410: return builder.default_sfixed64;
+        case 411: return builder.default_bool;
+        case 412: return builder.default_float;
+        case 413: return builder.default_double;
+        case 414: return builder.default_string;
+        case 415: return builder.default_bytes;
+        case 416: return builder.default_nested_enum;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      switch (tag) {
+        case 1: builder.opt_int32 = (Integer) value; break;
+        case 2: builder.opt_uint32 = (Integer) value; break;
+        case 3: builder.opt_sint32 = (Integer) value; break;
+        case 4: builder.opt_fixed32 = (Integer) value; break;
+        case 5: builder.opt_sfixed32 = (Integer) value; break;
+        case 6: builder.opt_int64 = (Long) value; break;
+        case 7: builder.opt_uint64 = (Long) value; break;
+        case 8: builder.opt_sint64 = (Long) value; break;
+        case 9: builder.opt_fixed64 = (Long) value; break;
+        case 10: builder.opt_sfixed64 = (Long) value; break;
+        case 11: builder.opt_bool = (Boolean) value; break;
+        case 12: builder.opt_float = (Float) value; break;
+        case 13: builder.opt_double = (Double) value; break;
+        case 14: builder.opt_string = (String) value; break;
+        case 15: builder.opt_bytes = (ByteString) value; break;
+        case 16: builder.opt_nested_enum = (NestedEnum) value; break;
+        case 17: builder.opt_nested_message = (NestedMessage) value; break;
+        case 101: builder.req_int32 = (Integer) value; break;
+        case 102: builder.req_uint32 = (Integer) value; break;
+        case 103: builder.req_sint32 = (Integer) value; break;
+        case 104: builder.req_fixed32 = (Integer) value; break;
+        case 105: builder.req_sfixed32 = (Integer) value; break;
+        case 106: builder.req_int64 = (Long) value; break;
+        case 107: builder.req_uint64 = (Long) value; break;
+        case 108: builder.req_sint64 = (Long) value; break;
+        case 109: builder.req_fixed64 = (Long) value; break;
+        case 110: builder.req_sfixed64 = (Long) value; break;
+        case 111: builder.req_bool = (Boolean) value; break;
+        case 112: builder.req_float = (Float) value; break;
+        case 113: builder.req_double = (Double) value; break;
+        case 114: builder.req_string = (String) value; break;
+        case 115: builder.req_bytes = (ByteString) value; break;
+        case 116: builder.req_nested_enum = (NestedEnum) value; break;
+        case 117: builder.req_nested_message = (NestedMessage) value; break;
+        case 201: builder.rep_int32 = (List<Integer>) value; break;
+        case 202: builder.rep_uint32 = (List<Integer>) value; break;
+        case 203: builder.rep_sint32 = (List<Integer>) value; break;
+        case 204: builder.rep_fixed32 = (List<Integer>) value; break;
+        case 205: builder.rep_sfixed32 = (List<Integer>) value; break;
+        case 206: builder.rep_int64 = (List<Long>) value; break;
+        case 207: builder.rep_uint64 = (List<Long>) value; break;
+        case 208: builder.rep_sint64 = (List<Long>) value; break;
+        case 209: builder.rep_fixed64 = (List<Long>) value; break;
+        case 210: builder.rep_sfixed64 = (List<Long>) value; break;
+        case 211: builder.rep_bool = (List<Boolean>) value; break;
+        case 212: builder.rep_float = (List<Float>) value; break;
+        case 213: builder.rep_double = (List<Double>) value; break;
+        case 214: builder.rep_string = (List<String>) value; break;
+        case 215: builder.rep_bytes = (List<ByteString>) value; break;
+        case 216: builder.rep_nested_enum = (List<NestedEnum>) value; break;
+        case 217: builder.rep_nested_message = (List<NestedMessage>) value; break;
+        case 301: builder.pack_int32 = (List<Integer>) value; break;
+        case 302: builder.pack_uint32 = (List<Integer>) value; break;
+        case 303: builder.pack_sint32 = (List<Integer>) value; break;
+        case 304: builder.pack_fixed32 = (List<Integer>) value; break;
+        case 305: builder.pack_sfixed32 = (List<Integer>) value; break;
+        case 306: builder.pack_int64 = (List<Long>) value; break;
+        case 307: builder.pack_uint64 = (List<Long>) value; break;
+        case 308: builder.pack_sint64 = (List<Long>) value; break;
+        case 309: builder.pack_fixed64 = (List<Long>) value; break;
+        case 310: builder.pack_sfixed64 = (List<Long>) value; break;
+        case 311: builder.pack_bool = (List<Boolean>) value; break;
+        case 312: builder.pack_float = (List<Float>) value; break;
+        case 313: builder.pack_double = (List<Double>) value; break;
+        case 316: builder.pack_nested_enum = (List<NestedEnum>) value; break;
+        case 401: builder.default_int32 = (Integer) value; break;
+        case 402: builder.default_uint32 = (Integer) value; break;
+        case 403: builder.default_sint32 = (Integer) value; break;
+        case 404: builder.default_fixed32 = (Integer) value; break;
+        case 405: builder.default_sfixed32 = (Integer) value; break;
+        case 406: builder.default_int64 = (Long) value; break;
+        case 407: builder.default_uint64 = (Long) value; break;
+        case 408: builder.default_sint64 = (Long) value; break;
+        case 409: builder.default_fixed64 = (Long) value; break;
+        case 410: builder.default_sfixed64 = (Long) value; break;
+        case 411: builder.default_bool = (Boolean) value; break;
+        case 412: builder.default_float = (Float) value; break;
+        case 413: builder.default_double = (Double) value; break;
+        case 414: builder.default_string = (String) value; break;
+        case 415: builder.default_bytes = (ByteString) value; break;
+        case 416: builder.default_nested_enum = (NestedEnum) value; break;
+        default: throw new AssertionError(tag);
+      }
+    }
+  }
+
   public enum NestedEnum
       implements ProtoEnum {
     A(1);
@@ -1296,5 +2788,73 @@ public final class AllTypes extends ExtendableMessage<AllTypes> {
         return new NestedMessage(this);
       }
     }
+
+    public static final class Codec extends MessageCodec<NestedMessage, Builder> {
+
+      private static final FieldDescriptor[] FIELDS = fields(
+          new FieldDescriptor(1, "a", INT32, OPTIONAL, null, false, false));
+
+      @Override
+      protected FieldDescriptor[] getFieldDescriptors() {
+        return FIELDS;
+      }
+
+      @Override
+      protected Builder newBuilder() {
+        return new Builder();
+      }
+
+      @Override
+      protected int getSerializedSize(NestedMessage message) {
+        int size = 0;
+        if (message.a != null) size += 1 + int32Size(message.a);
+        return size;
+      }
+
+      @Override
+      protected void write(NestedMessage message, WireOutput output)
+          throws IOException {
+        if (message.a != null) {
+          output.writeTag(1, WireType.VARINT);
+          output.writeSignedVarint32(message.a);
+        }
+      }
+
+      @Override
+      protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+          throws IOException {
+        switch (tag) {
+          case 1: {
+            builder.a = input.readVarint32();
+            return true;
+          }
+        }
+        return false;
+      }
+
+      @Override
+      protected Object getFieldValue(NestedMessage message, int tag) {
+        switch (tag) {
+          case 1: return message.a;
+          default: throw new AssertionError(tag);
+        }
+      }
+
+      @Override
+      protected Object getBuilderFieldValue(Builder builder, int tag) {
+        switch (tag) {
+          case 1: return builder.a;
+          default: throw new AssertionError(tag);
+        }
+      }
+
+      @Override
+      protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+        switch (tag) {
+          case 1: builder.a = (Integer) value; break;
+          default: throw new AssertionError(tag);
+        }
+      }
+    }
   }
 }
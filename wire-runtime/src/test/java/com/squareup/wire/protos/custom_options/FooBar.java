@@ -6,9 +6,16 @@ import com.google.protobuf.EnumOptions;
 import com.google.protobuf.FieldOptions;
 import com.squareup.wire.ExtendableMessage;
 import com.squareup.wire.Extension;
+import com.squareup.wire.FieldDescriptor;
+import com.squareup.wire.IntList;
 import com.squareup.wire.Message;
+import com.squareup.wire.MessageCodec;
 import com.squareup.wire.ProtoEnum;
 import com.squareup.wire.ProtoField;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 
@@ -16,8 +23,10 @@ import static com.squareup.wire.Message.Datatype.DOUBLE;
 import static com.squareup.wire.Message.Datatype.ENUM;
 import static com.squareup.wire.Message.Datatype.FLOAT;
 import static com.squareup.wire.Message.Datatype.INT32;
+import static com.squareup.wire.Message.Datatype.MESSAGE;
 import static com.squareup.wire.Message.Datatype.STRING;
 import static com.squareup.wire.Message.Datatype.UINT64;
+import static com.squareup.wire.Message.Label.OPTIONAL;
 import static com.squareup.wire.Message.Label.REPEATED;
 
 public final class FooBar extends ExtendableMessage<FooBar> {
@@ -210,6 +219,165 @@ public final class FooBar extends ExtendableMessage<FooBar> {
     }
   }
 
+  public static final class Codec extends MessageCodec<FooBar, Builder> {
+
+    private static final FieldDescriptor[] FIELDS = fields(
+        new FieldDescriptor(1, "foo", INT32, OPTIONAL, null, false, false),
+        new FieldDescriptor(2, "bar", STRING, OPTIONAL, null, false, false),
+        new FieldDescriptor(3, "baz", MESSAGE, OPTIONAL, Nested.class, false, false),
+        new FieldDescriptor(4, "qux", UINT64, OPTIONAL, null, false, false),
+        new FieldDescriptor(5, "fred", FLOAT, REPEATED, null, false, false),
+        new FieldDescriptor(6, "daisy", DOUBLE, OPTIONAL, null, false, false),
+        new FieldDescriptor(7, "nested", MESSAGE, REPEATED, FooBar.class, false, false));
+
+    @Override
+    protected FieldDescriptor[] getFieldDescriptors() {
+      return FIELDS;
+    }
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(FooBar message) {
+      return getSerializedSize(message, null);
+    }
+
+    private int getSerializedSize(FooBar message, IntList lengths) {
+      int size = 0;
+      if (message.foo != null) size += 1 + int32Size(message.foo);
+      if (message.bar != null) size += 1 + stringSize(message.bar, lengths);
+      if (message.baz != null) size += 1 + messageSize(3, message.baz);
+      if (message.qux != null) size += 1 + varint64Size(message.qux);
+      size += message.fred.size() * 5;
+      if (message.daisy != null) size += 9;
+      size += messagesSize(7, message.nested);
+      return size;
+    }
+
+    @Override
+    protected void write(FooBar message, WireOutput output)
+        throws IOException {
+      IntList lengths = newLengths();
+      getSerializedSize(message, lengths);
+      int lengthIndex = 0;
+      if (message.foo != null) {
+        output.writeTag(1, WireType.VARINT);
+        output.writeSignedVarint32(message.foo);
+      }
+      if (message.bar != null) {
+        output.writeTag(2, WireType.LENGTH_DELIMITED);
+        writeString(output, message.bar, lengths.getInt(lengthIndex++));
+      }
+      if (message.baz != null) {
+        output.writeTag(3, WireType.LENGTH_DELIMITED);
+        writeMessage(output, 3, message.baz);
+      }
+      if (message.qux != null) {
+        output.writeTag(4, WireType.VARINT);
+        output.writeVarint64(message.qux);
+      }
+      for (int i = 0, count = message.fred.size(); i < count; i++) {
+        output.writeTag(5, WireType.FIXED32);
+        output.writeFixed32(Float.floatToIntBits(getFloat(message.fred, i)));
+      }
+      if (message.daisy != null) {
+        output.writeTag(6, WireType.FIXED64);
+        output.writeFixed64(Double.doubleToLongBits(message.daisy));
+      }
+      writeMessages(output, 7, message.nested);
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      switch (tag) {
+        case 1: {
+          builder.foo = input.readVarint32();
+          return true;
+        }
+        case 2: {
+          builder.bar = input.readString();
+          return true;
+        }
+        case 3: {
+          builder.baz = (Nested) readMessage(input, 3);
+          return true;
+        }
+        case 4: {
+          builder.qux = input.readVarint64();
+          return true;
+        }
+        case 5: {
+          if (wireType == WireType.LENGTH_DELIMITED) {
+            long oldLimit = beginPacked(input);
+            while (hasMorePacked(input)) {
+              builder.fred = appendFloat(builder.fred, Float.intBitsToFloat(input.readFixed32()));
+            }
+            endPacked(input, oldLimit);
+          } else {
+            builder.fred = appendFloat(builder.fred, Float.intBitsToFloat(input.readFixed32()));
+          }
+          return true;
+        }
+        case 6: {
+          builder.daisy = Double.longBitsToDouble(input.readFixed64());
+          return true;
+        }
+        case 7: {
+          builder.nested = append(builder.nested, (FooBar) readMessage(input, 7));
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(FooBar message, int tag) {
+      switch (tag) {
+        case 1: return message.foo;
+        case 2: return message.bar;
+        case 3: return message.baz;
+        case 4: return message.qux;
+        case 5: return message.fred;
+        case 6: return message.daisy;
+        case 7: return message.nested;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      switch (tag) {
+        case 1: return builder.foo;
+        case 2: return builder.bar;
+        case 3: return builder.baz;
+        case 4: return builder.qux;
+        case 5: return builder.fred;
+        case 6: return builder.daisy;
+        case 7: return builder.nested;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      switch (tag) {
+        case 1: builder.foo = (Integer) value; break;
+        case 2: builder.bar = (String) value; break;
+        case 3: builder.baz = (Nested) value; break;
+        case 4: builder.qux = (Long) value; break;
+        case 5: builder.fred = (List<Float>) value; break;
+        case 6: builder.daisy = (Double) value; break;
+        case 7: builder.nested = (List<FooBar>) value; break;
+        default: throw new AssertionError(tag);
+      }
+    }
+  }
+
   public static final class Nested extends Message {
     private static final long serialVersionUID = 0L;
 
@@ -263,6 +431,75 @@ public final class FooBar extends ExtendableMessage<FooBar> {
         return new Nested(this);
       }
     }
+
+    public static final class Codec extends MessageCodec<Nested, Builder> {
+
+      private static final FieldDescriptor[] FIELDS = fields(
+          new FieldDescriptor(1, "value", ENUM, OPTIONAL, FooBarBazEnum.class, false, false));
+
+      @Override
+      protected FieldDescriptor[] getFieldDescriptors() {
+        return FIELDS;
+      }
+
+      @Override
+      protected Builder newBuilder() {
+        return new Builder();
+      }
+
+      @Override
+      protected int getSerializedSize(Nested message) {
+        int size = 0;
+        if (message.value != null) size += 1 + enumSize(message.value);
+        return size;
+      }
+
+      @Override
+      protected void write(Nested message, WireOutput output)
+          throws IOException {
+        if (message.value != null) {
+          output.writeTag(1, WireType.VARINT);
+          output.writeVarint32(message.value.getValue());
+        }
+      }
+
+      @Override
+      protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+          throws IOException {
+        switch (tag) {
+          case 1: {
+            FooBarBazEnum value = (FooBarBazEnum) readEnum(input, builder, 1);
+            if (value != null) builder.value = value;
+            return true;
+          }
+        }
+        return false;
+      }
+
+      @Override
+      protected Object getFieldValue(Nested message, int tag) {
+        switch (tag) {
+          case 1: return message.value;
+          default: throw new AssertionError(tag);
+        }
+      }
+
+      @Override
+      protected Object getBuilderFieldValue(Builder builder, int tag) {
+        switch (tag) {
+          case 1: return builder.value;
+          default: throw new AssertionError(tag);
+        }
+      }
+
+      @Override
+      protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+        switch (tag) {
+          case 1: builder.value = (FooBarBazEnum) value; break;
+          default: throw new AssertionError(tag);
+        }
+      }
+    }
   }
 
   public static final class More extends Message {
@@ -318,6 +555,85 @@ public final class FooBar extends ExtendableMessage<FooBar> {
         return new More(this);
       }
     }
+
+    public static final class Codec extends MessageCodec<More, Builder> {
+
+      private static final FieldDescriptor[] FIELDS = fields(
+          new FieldDescriptor(1, "serial", INT32, REPEATED, null, false, false));
+
+      @Override
+      protected FieldDescriptor[] getFieldDescriptors() {
+        return FIELDS;
+      }
+
+      @Override
+      protected Builder newBuilder() {
+        return new Builder();
+      }
+
+      @Override
+      protected int getSerializedSize(More message) {
+        int size = 0;
+        for (int i = 0, count = message.serial.size(); i < count; i++) {
+          size += 1 + int32Size(getInt(message.serial, i));
+        }
+        return size;
+      }
+
+      @Override
+      protected void write(More message, WireOutput output)
+          throws IOException {
+        for (int i = 0, count = message.serial.size(); i < count; i++) {
+          output.writeTag(1, WireType.VARINT);
+          output.writeSignedVarint32(getInt(message.serial, i));
+        }
+      }
+
+      @Override
+      protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+          throws IOException {
+        switch (tag) {
+          case 1: {
+            if (wireType == WireType.LENGTH_DELIMITED) {
+              long oldLimit = beginPacked(input);
+              while (hasMorePacked(input)) {
+                builder.serial = appendInt(builder.serial, input.readVarint32());
+              }
+              endPacked(input, oldLimit);
+            } else {
+              builder.serial = appendInt(builder.serial, input.readVarint32());
+            }
+            return true;
+          }
+        }
+        return false;
+      }
+
+      @Override
+      protected Object getFieldValue(More message, int tag) {
+        switch (tag) {
+          case 1: return message.serial;
+          default: throw new AssertionError(tag);
+        }
+      }
+
+      @Override
+      protected Object getBuilderFieldValue(Builder builder, int tag) {
+        switch (tag) {
+          case 1: return builder.serial;
+          default: throw new AssertionError(tag);
+        }
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+        switch (tag) {
+          case 1: builder.serial = (List<Integer>) value; break;
+          default: throw new AssertionError(tag);
+        }
+      }
+    }
   }
 
   public enum FooBarBazEnum
@@ -4,8 +4,13 @@ package com.squareup.wire.protos.custom_options;
 
 import com.google.protobuf.MessageOptions;
 import com.squareup.wire.Message;
+import com.squareup.wire.MessageCodec;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
 import com.squareup.wire.protos.foreign.Ext_foreign;
 import com.squareup.wire.protos.foreign.ForeignMessage;
+import java.io.IOException;
 
 public final class MessageWithOptions extends Message {
   private static final long serialVersionUID = 0L;
@@ -96,4 +101,44 @@ public final class MessageWithOptions extends Message {
       return new MessageWithOptions(this);
     }
   }
+
+  public static final class Codec extends MessageCodec<MessageWithOptions, Builder> {
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(MessageWithOptions message) {
+      int size = 0;
+      return size;
+    }
+
+    @Override
+    protected void write(MessageWithOptions message, WireOutput output)
+        throws IOException {
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(MessageWithOptions message, int tag) {
+      throw new AssertionError(tag);
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      throw new AssertionError(tag);
+    }
+
+    @Override
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      throw new AssertionError(tag);
+    }
+  }
 }
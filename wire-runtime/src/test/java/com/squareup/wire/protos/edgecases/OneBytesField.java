@@ -2,11 +2,18 @@
 // Source file: ../wire-runtime/src/test/proto/edge_cases.proto
 package com.squareup.wire.protos.edgecases;
 
+import com.squareup.wire.FieldDescriptor;
 import com.squareup.wire.Message;
+import com.squareup.wire.MessageCodec;
 import com.squareup.wire.ProtoField;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
+import java.io.IOException;
 import okio.ByteString;
 
 import static com.squareup.wire.Message.Datatype.BYTES;
+import static com.squareup.wire.Message.Label.OPTIONAL;
 
 public final class OneBytesField extends Message {
   private static final long serialVersionUID = 0L;
@@ -61,4 +68,72 @@ public final class OneBytesField extends Message {
       return new OneBytesField(this);
     }
   }
+
+  public static final class Codec extends MessageCodec<OneBytesField, Builder> {
+
+    private static final FieldDescriptor[] FIELDS = fields(
+        new FieldDescriptor(1, "opt_bytes", BYTES, OPTIONAL, null, false, false));
+
+    @Override
+    protected FieldDescriptor[] getFieldDescriptors() {
+      return FIELDS;
+    }
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(OneBytesField message) {
+      int size = 0;
+      if (message.opt_bytes != null) size += 1 + bytesSize(message.opt_bytes);
+      return size;
+    }
+
+    @Override
+    protected void write(OneBytesField message, WireOutput output)
+        throws IOException {
+      if (message.opt_bytes != null) {
+        output.writeTag(1, WireType.LENGTH_DELIMITED);
+        output.writeBytes(message.opt_bytes);
+      }
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      switch (tag) {
+        case 1: {
+          builder.opt_bytes = input.readBytes();
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(OneBytesField message, int tag) {
+      switch (tag) {
+        case 1: return message.opt_bytes;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      switch (tag) {
+        case 1: return builder.opt_bytes;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      switch (tag) {
+        case 1: builder.opt_bytes = (ByteString) value; break;
+        default: throw new AssertionError(tag);
+      }
+    }
+  }
 }
@@ -2,10 +2,18 @@
 // Source file: ../wire-runtime/src/test/proto/edge_cases.proto
 package com.squareup.wire.protos.edgecases;
 
+import com.squareup.wire.FieldDescriptor;
 import com.squareup.wire.Message;
+import com.squareup.wire.MessageCodec;
 import com.squareup.wire.ProtoField;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
+import java.io.IOException;
 
 import static com.squareup.wire.Message.Datatype.INT32;
+import static com.squareup.wire.Message.Datatype.MESSAGE;
+import static com.squareup.wire.Message.Label.OPTIONAL;
 
 public final class Recursive extends Message {
   private static final long serialVersionUID = 0L;
@@ -78,4 +86,85 @@ public final class Recursive extends Message {
       return new Recursive(this);
     }
   }
+
+  public static final class Codec extends MessageCodec<Recursive, Builder> {
+
+    private static final FieldDescriptor[] FIELDS = fields(
+        new FieldDescriptor(1, "value", INT32, OPTIONAL, null, false, false),
+        new FieldDescriptor(2, "recursive", MESSAGE, OPTIONAL, Recursive.class, false, false));
+
+    @Override
+    protected FieldDescriptor[] getFieldDescriptors() {
+      return FIELDS;
+    }
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(Recursive message) {
+      int size = 0;
+      if (message.value != null) size += 1 + int32Size(message.value);
+      if (message.recursive != null) size += 1 + messageSize(2, message.recursive);
+      return size;
+    }
+
+    @Override
+    protected void write(Recursive message, WireOutput output)
+        throws IOException {
+      if (message.value != null) {
+        output.writeTag(1, WireType.VARINT);
+        output.writeSignedVarint32(message.value);
+      }
+      if (message.recursive != null) {
+        output.writeTag(2, WireType.LENGTH_DELIMITED);
+        writeMessage(output, 2, message.recursive);
+      }
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      switch (tag) {
+        case 1: {
+          builder.value = input.readVarint32();
+          return true;
+        }
+        case 2: {
+          builder.recursive = (Recursive) readMessage(input, 2);
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(Recursive message, int tag) {
+      switch (tag) {
+        case 1: return message.value;
+        case 2: return message.recursive;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      switch (tag) {
+        case 1: return builder.value;
+        case 2: return builder.recursive;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      switch (tag) {
+        case 1: builder.value = (Integer) value; break;
+        case 2: builder.recursive = (Recursive) value; break;
+        default: throw new AssertionError(tag);
+      }
+    }
+  }
 }
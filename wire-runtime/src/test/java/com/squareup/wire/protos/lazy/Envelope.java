@@ -0,0 +1,169 @@
+// Code generated by Wire protocol buffer compiler, do not edit.
+// Source file: ../wire-runtime/src/test/proto/lazy.proto
+package com.squareup.wire.protos.lazy;
+
+import com.squareup.wire.FieldDescriptor;
+import com.squareup.wire.LazyMessage;
+import com.squareup.wire.Message;
+import com.squareup.wire.MessageCodec;
+import com.squareup.wire.ProtoField;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
+import java.io.IOException;
+
+import static com.squareup.wire.Message.Datatype.MESSAGE;
+import static com.squareup.wire.Message.Label.OPTIONAL;
+
+public final class Envelope extends Message {
+  private static final long serialVersionUID = 0L;
+
+  @ProtoField(tag = 1)
+  public final Header header;
+
+  @ProtoField(tag = 2, messageType = Payload.class)
+  public final LazyMessage<Payload> payload;
+
+  public Envelope(Header header, LazyMessage<Payload> payload) {
+    this.header = header;
+    this.payload = payload;
+  }
+
+  private Envelope(Builder builder) {
+    this(builder.header, builder.payload);
+    setBuilder(builder);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (other == this) return true;
+    if (!(other instanceof Envelope)) return false;
+    Envelope o = (Envelope) other;
+    return equals(header, o.header)
+        && equals(payload, o.payload);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = hashCode;
+    if (result == 0) {
+      result = header != null ? header.hashCode() : 0;
+      result = result * 37 + (payload != null ? payload.hashCode() : 0);
+      hashCode = result;
+    }
+    return result;
+  }
+
+  public static final class Builder extends Message.Builder<Envelope> {
+
+    public Header header;
+    public LazyMessage<Payload> payload;
+
+    public Builder() {
+    }
+
+    public Builder(Envelope message) {
+      super(message);
+      if (message == null) return;
+      this.header = message.header;
+      this.payload = message.payload;
+    }
+
+    public Builder header(Header header) {
+      this.header = header;
+      return this;
+    }
+
+    public Builder payload(LazyMessage<Payload> payload) {
+      this.payload = payload;
+      return this;
+    }
+
+    @Override
+    public Envelope build() {
+      return new Envelope(this);
+    }
+  }
+
+  public static final class Codec extends MessageCodec<Envelope, Builder> {
+
+    private static final FieldDescriptor[] FIELDS = fields(
+        new FieldDescriptor(1, "header", MESSAGE, OPTIONAL, Header.class, false, false),
+        new FieldDescriptor(2, "payload", MESSAGE, OPTIONAL, Payload.class, false, true));
+
+    @Override
+    protected FieldDescriptor[] getFieldDescriptors() {
+      return FIELDS;
+    }
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(Envelope message) {
+      int size = 0;
+      if (message.header != null) size += 1 + messageSize(1, message.header);
+      if (message.payload != null) size += 1 + lazySize(message.payload);
+      return size;
+    }
+
+    @Override
+    protected void write(Envelope message, WireOutput output)
+        throws IOException {
+      if (message.header != null) {
+        output.writeTag(1, WireType.LENGTH_DELIMITED);
+        writeMessage(output, 1, message.header);
+      }
+      if (message.payload != null) {
+        output.writeTag(2, WireType.LENGTH_DELIMITED);
+        writeLazy(output, 2, message.payload);
+      }
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      switch (tag) {
+        case 1: {
+          builder.header = (Header) readMessage(input, 1);
+          return true;
+        }
+        case 2: {
+          builder.payload = readLazy(input, 2);
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(Envelope message, int tag) {
+      switch (tag) {
+        case 1: return message.header;
+        case 2: return message.payload;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      switch (tag) {
+        case 1: return builder.header;
+        case 2: return builder.payload;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      switch (tag) {
+        case 1: builder.header = (Header) value; break;
+        case 2: builder.payload = (LazyMessage<Payload>) value; break;
+        default: throw new AssertionError(tag);
+      }
+    }
+  }
+}
@@ -0,0 +1,178 @@
+// Code generated by Wire protocol buffer compiler, do not edit.
+// Source file: ../wire-runtime/src/test/proto/lazy.proto
+package com.squareup.wire.protos.lazy;
+
+import com.squareup.wire.FieldDescriptor;
+import com.squareup.wire.IntList;
+import com.squareup.wire.Message;
+import com.squareup.wire.MessageCodec;
+import com.squareup.wire.ProtoField;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
+import java.io.IOException;
+
+import static com.squareup.wire.Message.Datatype.STRING;
+import static com.squareup.wire.Message.Label.OPTIONAL;
+
+public final class Header extends Message {
+  private static final long serialVersionUID = 0L;
+
+  public static final String DEFAULT_TRACE_ID = "";
+  public static final String DEFAULT_ROUTE = "";
+
+  @ProtoField(tag = 1, type = STRING)
+  public final String trace_id;
+
+  @ProtoField(tag = 2, type = STRING)
+  public final String route;
+
+  public Header(String trace_id, String route) {
+    this.trace_id = trace_id;
+    this.route = route;
+  }
+
+  private Header(Builder builder) {
+    this(builder.trace_id, builder.route);
+    setBuilder(builder);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (other == this) return true;
+    if (!(other instanceof Header)) return false;
+    Header o = (Header) other;
+    return equals(trace_id, o.trace_id)
+        && equals(route, o.route);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = hashCode;
+    if (result == 0) {
+      result = trace_id != null ? trace_id.hashCode() : 0;
+      result = result * 37 + (route != null ? route.hashCode() : 0);
+      hashCode = result;
+    }
+    return result;
+  }
+
+  public static final class Builder extends Message.Builder<Header> {
+
+    public String trace_id;
+    public String route;
+
+    public Builder() {
+    }
+
+    public Builder(Header message) {
+      super(message);
+      if (message == null) return;
+      this.trace_id = message.trace_id;
+      this.route = message.route;
+    }
+
+    public Builder trace_id(String trace_id) {
+      this.trace_id = trace_id;
+      return this;
+    }
+
+    public Builder route(String route) {
+      this.route = route;
+      return this;
+    }
+
+    @Override
+    public Header build() {
+      return new Header(this);
+    }
+  }
+
+  public static final class Codec extends MessageCodec<Header, Builder> {
+
+    private static final FieldDescriptor[] FIELDS = fields(
+        new FieldDescriptor(1, "trace_id", STRING, OPTIONAL, null, false, false),
+        new FieldDescriptor(2, "route", STRING, OPTIONAL, null, false, false));
+
+    @Override
+    protected FieldDescriptor[] getFieldDescriptors() {
+      return FIELDS;
+    }
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(Header message) {
+      return getSerializedSize(message, null);
+    }
+
+    private int getSerializedSize(Header message, IntList lengths) {
+      int size = 0;
+      if (message.trace_id != null) size += 1 + stringSize(message.trace_id, lengths);
+      if (message.route != null) size += 1 + stringSize(message.route, lengths);
+      return size;
+    }
+
+    @Override
+    protected void write(Header message, WireOutput output)
+        throws IOException {
+      IntList lengths = newLengths();
+      getSerializedSize(message, lengths);
+      int lengthIndex = 0;
+      if (message.trace_id != null) {
+        output.writeTag(1, WireType.LENGTH_DELIMITED);
+        writeString(output, message.trace_id, lengths.getInt(lengthIndex++));
+      }
+      if (message.route != null) {
+        output.writeTag(2, WireType.LENGTH_DELIMITED);
+        writeString(output, message.route, lengths.getInt(lengthIndex++));
+      }
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      switch (tag) {
+        case 1: {
+          builder.trace_id = input.readString();
+          return true;
+        }
+        case 2: {
+          builder.route = input.readString();
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(Header message, int tag) {
+      switch (tag) {
+        case 1: return message.trace_id;
+        case 2: return message.route;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      switch (tag) {
+        case 1: return builder.trace_id;
+        case 2: return builder.route;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      switch (tag) {
+        case 1: builder.trace_id = (String) value; break;
+        case 2: builder.route = (String) value; break;
+        default: throw new AssertionError(tag);
+      }
+    }
+  }
+}
@@ -0,0 +1,336 @@
+// Code generated by Wire protocol buffer compiler, do not edit.
+// Source file: ../wire-runtime/src/test/proto/lazy.proto
+package com.squareup.wire.protos.lazy;
+
+import com.squareup.wire.FieldDescriptor;
+import com.squareup.wire.IntList;
+import com.squareup.wire.Message;
+import com.squareup.wire.MessageCodec;
+import com.squareup.wire.ProtoField;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import static com.squareup.wire.Message.Datatype.INT64;
+import static com.squareup.wire.Message.Datatype.MESSAGE;
+import static com.squareup.wire.Message.Datatype.STRING;
+import static com.squareup.wire.Message.Label.OPTIONAL;
+import static com.squareup.wire.Message.Label.REPEATED;
+
+public final class Payload extends Message {
+  private static final long serialVersionUID = 0L;
+
+  public static final List<Item> DEFAULT_ITEMS = Collections.emptyList();
+  public static final Long DEFAULT_TOTAL = 0L;
+
+  @ProtoField(tag = 1, label = REPEATED, messageType = Item.class)
+  public final List<Item> items;
+
+  @ProtoField(tag = 2, type = INT64)
+  public final Long total;
+
+  public Payload(List<Item> items, Long total) {
+    this.items = immutableCopyOf(items);
+    this.total = total;
+  }
+
+  private Payload(Builder builder) {
+    this(builder.items, builder.total);
+    setBuilder(builder);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (other == this) return true;
+    if (!(other instanceof Payload)) return false;
+    Payload o = (Payload) other;
+    return equals(items, o.items)
+        && equals(total, o.total);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = hashCode;
+    if (result == 0) {
+      result = items != null ? items.hashCode() : 1;
+      result = result * 37 + (total != null ? total.hashCode() : 0);
+      hashCode = result;
+    }
+    return result;
+  }
+
+  public static final class Builder extends Message.Builder<Payload> {
+
+    public List<Item> items;
+    public Long total;
+
+    public Builder() {
+    }
+
+    public Builder(Payload message) {
+      super(message);
+      if (message == null) return;
+      this.items = copyOf(message.items);
+      this.total = message.total;
+    }
+
+    public Builder items(List<Item> items) {
+      this.items = checkForNulls(items);
+      return this;
+    }
+
+    public Builder total(Long total) {
+      this.total = total;
+      return this;
+    }
+
+    @Override
+    public Payload build() {
+      return new Payload(this);
+    }
+  }
+
+  public static final class Codec extends MessageCodec<Payload, Builder> {
+
+    private static final FieldDescriptor[] FIELDS = fields(
+        new FieldDescriptor(1, "items", MESSAGE, REPEATED, Item.class, false, false),
+        new FieldDescriptor(2, "total", INT64, OPTIONAL, null, false, false));
+
+    @Override
+    protected FieldDescriptor[] getFieldDescriptors() {
+      return FIELDS;
+    }
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(Payload message) {
+      int size = 0;
+      size += messagesSize(1, message.items);
+      if (message.total != null) size += 1 + varint64Size(message.total);
+      return size;
+    }
+
+    @Override
+    protected void write(Payload message, WireOutput output)
+        throws IOException {
+      writeMessages(output, 1, message.items);
+      if (message.total != null) {
+        output.writeTag(2, WireType.VARINT);
+        output.writeVarint64(message.total);
+      }
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      switch (tag) {
+        case 1: {
+          builder.items = append(builder.items, (Item) readMessage(input, 1));
+          return true;
+        }
+        case 2: {
+          builder.total = input.readVarint64();
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(Payload message, int tag) {
+      switch (tag) {
+        case 1: return message.items;
+        case 2: return message.total;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      switch (tag) {
+        case 1: return builder.items;
+        case 2: return builder.total;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      switch (tag) {
+        case 1: builder.items = (List<Item>) value; break;
+        case 2: builder.total = (Long) value; break;
+        default: throw new AssertionError(tag);
+      }
+    }
+  }
+
+  public static final class Item extends Message {
+    private static final long serialVersionUID = 0L;
+
+    public static final String DEFAULT_NAME = "";
+    public static final Long DEFAULT_PRICE = 0L;
+
+    @ProtoField(tag = 1, type = STRING)
+    public final String name;
+
+    @ProtoField(tag = 2, type = INT64)
+    public final Long price;
+
+    public Item(String name, Long price) {
+      this.name = name;
+      this.price = price;
+    }
+
+    private Item(Builder builder) {
+      this(builder.name, builder.price);
+      setBuilder(builder);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (other == this) return true;
+      if (!(other instanceof Item)) return false;
+      Item o = (Item) other;
+      return equals(name, o.name)
+          && equals(price, o.price);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = hashCode;
+      if (result == 0) {
+        result = name != null ? name.hashCode() : 0;
+        result = result * 37 + (price != null ? price.hashCode() : 0);
+        hashCode = result;
+      }
+      return result;
+    }
+
+    public static final class Builder extends Message.Builder<Item> {
+
+      public String name;
+      public Long price;
+
+      public Builder() {
+      }
+
+      public Builder(Item message) {
+        super(message);
+        if (message == null) return;
+        this.name = message.name;
+        this.price = message.price;
+      }
+
+      public Builder name(String name) {
+        this.name = name;
+        return this;
+      }
+
+      public Builder price(Long price) {
+        this.price = price;
+        return this;
+      }
+
+      @Override
+      public Item build() {
+        return new Item(this);
+      }
+    }
+
+    public static final class Codec extends MessageCodec<Item, Builder> {
+
+      private static final FieldDescriptor[] FIELDS = fields(
+          new FieldDescriptor(1, "name", STRING, OPTIONAL, null, false, false),
+          new FieldDescriptor(2, "price", INT64, OPTIONAL, null, false, false));
+
+      @Override
+      protected FieldDescriptor[] getFieldDescriptors() {
+        return FIELDS;
+      }
+
+      @Override
+      protected Builder newBuilder() {
+        return new Builder();
+      }
+
+      @Override
+      protected int getSerializedSize(Item message) {
+        return getSerializedSize(message, null);
+      }
+
+      private int getSerializedSize(Item message, IntList lengths) {
+        int size = 0;
+        if (message.name != null) size += 1 + stringSize(message.name, lengths);
+        if (message.price != null) size += 1 + varint64Size(message.price);
+        return size;
+      }
+
+      @Override
+      protected void write(Item message, WireOutput output)
+          throws IOException {
+        IntList lengths = newLengths();
+        getSerializedSize(message, lengths);
+        int lengthIndex = 0;
+        if (message.name != null) {
+          output.writeTag(1, WireType.LENGTH_DELIMITED);
+          writeString(output, message.name, lengths.getInt(lengthIndex++));
+        }
+        if (message.price != null) {
+          output.writeTag(2, WireType.VARINT);
+          output.writeVarint64(message.price);
+        }
+      }
+
+      @Override
+      protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+          throws IOException {
+        switch (tag) {
+          case 1: {
+            builder.name = input.readString();
+            return true;
+          }
+          case 2: {
+            builder.price = input.readVarint64();
+            return true;
+          }
+        }
+        return false;
+      }
+
+      @Override
+      protected Object getFieldValue(Item message, int tag) {
+        switch (tag) {
+          case 1: return message.name;
+          case 2: return message.price;
+          default: throw new AssertionError(tag);
+        }
+      }
+
+      @Override
+      protected Object getBuilderFieldValue(Builder builder, int tag) {
+        switch (tag) {
+          case 1: return builder.name;
+          case 2: return builder.price;
+          default: throw new AssertionError(tag);
+        }
+      }
+
+      @Override
+      protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+        switch (tag) {
+          case 1: builder.name = (String) value; break;
+          case 2: builder.price = (Long) value; break;
+          default: throw new AssertionError(tag);
+        }
+      }
+    }
+  }
+}
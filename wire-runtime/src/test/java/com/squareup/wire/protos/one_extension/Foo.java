@@ -2,10 +2,18 @@
 // Source file: ../wire-runtime/src/test/proto/one_extension.proto
 package com.squareup.wire.protos.one_extension;
 
+import com.squareup.wire.FieldDescriptor;
+import com.squareup.wire.IntList;
 import com.squareup.wire.Message;
+import com.squareup.wire.MessageCodec;
 import com.squareup.wire.ProtoField;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
+import java.io.IOException;
 
 import static com.squareup.wire.Message.Datatype.STRING;
+import static com.squareup.wire.Message.Label.OPTIONAL;
 
 public final class Foo extends Message {
   private static final long serialVersionUID = 0L;
@@ -60,4 +68,79 @@ public final class Foo extends Message {
       return new Foo(this);
     }
   }
+
+  public static final class Codec extends MessageCodec<Foo, Builder> {
+
+    private static final FieldDescriptor[] FIELDS = fields(
+        new FieldDescriptor(1, "bar", STRING, OPTIONAL, null, false, false));
+
+    @Override
+    protected FieldDescriptor[] getFieldDescriptors() {
+      return FIELDS;
+    }
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(Foo message) {
+      return getSerializedSize(message, null);
+    }
+
+    private int getSerializedSize(Foo message, IntList lengths) {
+      int size = 0;
+      if (message.bar != null) size += 1 + stringSize(message.bar, lengths);
+      return size;
+    }
+
+    @Override
+    protected void write(Foo message, WireOutput output)
+        throws IOException {
+      IntList lengths = newLengths();
+      getSerializedSize(message, lengths);
+      int lengthIndex = 0;
+      if (message.bar != null) {
+        output.writeTag(1, WireType.LENGTH_DELIMITED);
+        writeString(output, message.bar, lengths.getInt(lengthIndex++));
+      }
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      switch (tag) {
+        case 1: {
+          builder.bar = input.readString();
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(Foo message, int tag) {
+      switch (tag) {
+        case 1: return message.bar;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      switch (tag) {
+        case 1: return builder.bar;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      switch (tag) {
+        case 1: builder.bar = (String) value; break;
+        default: throw new AssertionError(tag);
+      }
+    }
+  }
 }
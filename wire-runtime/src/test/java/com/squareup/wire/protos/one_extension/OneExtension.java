@@ -4,9 +4,17 @@ package com.squareup.wire.protos.one_extension;
 
 import com.squareup.wire.ExtendableMessage;
 import com.squareup.wire.Extension;
+import com.squareup.wire.FieldDescriptor;
+import com.squareup.wire.IntList;
+import com.squareup.wire.MessageCodec;
 import com.squareup.wire.ProtoField;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
+import java.io.IOException;
 
 import static com.squareup.wire.Message.Datatype.STRING;
+import static com.squareup.wire.Message.Label.OPTIONAL;
 
 public final class OneExtension extends ExtendableMessage<OneExtension> {
   private static final long serialVersionUID = 0L;
@@ -74,4 +82,79 @@ public final class OneExtension extends ExtendableMessage<OneExtension> {
       return new OneExtension(this);
     }
   }
+
+  public static final class Codec extends MessageCodec<OneExtension, Builder> {
+
+    private static final FieldDescriptor[] FIELDS = fields(
+        new FieldDescriptor(1, "id", STRING, OPTIONAL, null, false, false));
+
+    @Override
+    protected FieldDescriptor[] getFieldDescriptors() {
+      return FIELDS;
+    }
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(OneExtension message) {
+      return getSerializedSize(message, null);
+    }
+
+    private int getSerializedSize(OneExtension message, IntList lengths) {
+      int size = 0;
+      if (message.id != null) size += 1 + stringSize(message.id, lengths);
+      return size;
+    }
+
+    @Override
+    protected void write(OneExtension message, WireOutput output)
+        throws IOException {
+      IntList lengths = newLengths();
+      getSerializedSize(message, lengths);
+      int lengthIndex = 0;
+      if (message.id != null) {
+        output.writeTag(1, WireType.LENGTH_DELIMITED);
+        writeString(output, message.id, lengths.getInt(lengthIndex++));
+      }
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      switch (tag) {
+        case 1: {
+          builder.id = input.readString();
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(OneExtension message, int tag) {
+      switch (tag) {
+        case 1: return message.id;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      switch (tag) {
+        case 1: return builder.id;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      switch (tag) {
+        case 1: builder.id = (String) value; break;
+        default: throw new AssertionError(tag);
+      }
+    }
+  }
 }
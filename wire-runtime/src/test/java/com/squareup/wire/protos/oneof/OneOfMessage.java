@@ -2,8 +2,15 @@
 // Source file: ../wire-runtime/src/test/proto/one_of.proto
 package com.squareup.wire.protos.oneof;
 
+import com.squareup.wire.FieldDescriptor;
+import com.squareup.wire.IntList;
 import com.squareup.wire.Message;
+import com.squareup.wire.MessageCodec;
 import com.squareup.wire.ProtoField;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
+import java.io.IOException;
 
 import static com.squareup.wire.Message.Datatype.INT32;
 import static com.squareup.wire.Message.Datatype.STRING;
@@ -97,4 +104,92 @@ public final class OneOfMessage extends Message {
       return new OneOfMessage(this);
     }
   }
+
+  public static final class Codec extends MessageCodec<OneOfMessage, Builder> {
+
+    private static final FieldDescriptor[] FIELDS = fields(
+        new FieldDescriptor(1, "foo", INT32, ONE_OF, null, false, false),
+        new FieldDescriptor(3, "bar", STRING, ONE_OF, null, false, false));
+
+    @Override
+    protected FieldDescriptor[] getFieldDescriptors() {
+      return FIELDS;
+    }
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(OneOfMessage message) {
+      return getSerializedSize(message, null);
+    }
+
+    private int getSerializedSize(OneOfMessage message, IntList lengths) {
+      int size = 0;
+      if (message.foo != null) size += 1 + int32Size(message.foo);
+      if (message.bar != null) size += 1 + stringSize(message.bar, lengths);
+      return size;
+    }
+
+    @Override
+    protected void write(OneOfMessage message, WireOutput output)
+        throws IOException {
+      IntList lengths = newLengths();
+      getSerializedSize(message, lengths);
+      int lengthIndex = 0;
+      if (message.foo != null) {
+        output.writeTag(1, WireType.VARINT);
+        output.writeSignedVarint32(message.foo);
+      }
+      if (message.bar != null) {
+        output.writeTag(3, WireType.LENGTH_DELIMITED);
+        writeString(output, message.bar, lengths.getInt(lengthIndex++));
+      }
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      switch (tag) {
+        case 1: {
+          builder.foo(input.readVarint32());
+          return true;
+        }
+        case 3: {
+          builder.bar(input.readString());
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(OneOfMessage message, int tag) {
+      switch (tag) {
+        case 1: return message.foo;
+        case 3: return message.bar;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      switch (tag) {
+        case 1: return builder.foo;
+        case 3: return builder.bar;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      switch (tag) {
+        case 1: builder.foo((Integer) value); break;
+        case 3: builder.bar((String) value); break;
+        default: throw new AssertionError(tag);
+      }
+    }
+  }
 }
@@ -2,15 +2,24 @@
 // Source file: ../wire-runtime/src/test/proto/person.proto
 package com.squareup.wire.protos.person;
 
+import com.squareup.wire.FieldDescriptor;
+import com.squareup.wire.IntList;
 import com.squareup.wire.Message;
+import com.squareup.wire.MessageCodec;
 import com.squareup.wire.ProtoEnum;
 import com.squareup.wire.ProtoField;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 
 import static com.squareup.wire.Message.Datatype.ENUM;
 import static com.squareup.wire.Message.Datatype.INT32;
+import static com.squareup.wire.Message.Datatype.MESSAGE;
 import static com.squareup.wire.Message.Datatype.STRING;
+import static com.squareup.wire.Message.Label.OPTIONAL;
 import static com.squareup.wire.Message.Label.REPEATED;
 import static com.squareup.wire.Message.Label.REQUIRED;
 
@@ -135,11 +144,125 @@ public final class Person extends Message {
 
     @Override
     public Person build() {
-      checkRequiredFields();
+      if (id == null || name == null) {
+        throw missingRequiredFields(id, "id", name, "name");
+      }
       return new Person(this);
     }
   }
 
+  public static final class Codec extends MessageCodec<Person, Builder> {
+
+    private static final FieldDescriptor[] FIELDS = fields(
+        new FieldDescriptor(1, "name", STRING, REQUIRED, null, false, false),
+        new FieldDescriptor(2, "id", INT32, REQUIRED, null, false, false),
+        new FieldDescriptor(3, "email", STRING, OPTIONAL, null, false, false),
+        new FieldDescriptor(4, "phone", MESSAGE, REPEATED, PhoneNumber.class, false, false));
+
+    @Override
+    protected FieldDescriptor[] getFieldDescriptors() {
+      return FIELDS;
+    }
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(Person message) {
+      return getSerializedSize(message, null);
+    }
+
+    private int getSerializedSize(Person message, IntList lengths) {
+      int size = 0;
+      if (message.name != null) size += 1 + stringSize(message.name, lengths);
+      if (message.id != null) size += 1 + int32Size(message.id);
+      if (message.email != null) size += 1 + stringSize(message.email, lengths);
+      size += messagesSize(4, message.phone);
+      return size;
+    }
+
+    @Override
+    protected void write(Person message, WireOutput output)
+        throws IOException {
+      IntList lengths = newLengths();
+      getSerializedSize(message, lengths);
+      int lengthIndex = 0;
+      if (message.name != null) {
+        output.writeTag(1, WireType.LENGTH_DELIMITED);
+        writeString(output, message.name, lengths.getInt(lengthIndex++));
+      }
+      if (message.id != null) {
+        output.writeTag(2, WireType.VARINT);
+        output.writeSignedVarint32(message.id);
+      }
+      if (message.email != null) {
+        output.writeTag(3, WireType.LENGTH_DELIMITED);
+        writeString(output, message.email, lengths.getInt(lengthIndex++));
+      }
+      writeMessages(output, 4, message.phone);
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      switch (tag) {
+        case 1: {
+          builder.name = input.readString();
+          return true;
+        }
+        case 2: {
+          builder.id = input.readVarint32();
+          return true;
+        }
+        case 3: {
+          builder.email = input.readString();
+          return true;
+        }
+        case 4: {
+          builder.phone = append(builder.phone, (PhoneNumber) readMessage(input, 4));
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(Person message, int tag) {
+      switch (tag) {
+        case 1: return message.name;
+        case 2: return message.id;
+        case 3: return message.email;
+        case 4: return message.phone;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      switch (tag) {
+        case 1: return builder.name;
+        case 2: return builder.id;
+        case 3: return builder.email;
+        case 4: return builder.phone;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      switch (tag) {
+        case 1: builder.name = (String) value; break;
+        case 2: builder.id = (Integer) value; break;
+        case 3: builder.email = (String) value; break;
+        case 4: builder.phone = (List<PhoneNumber>) value; break;
+        default: throw new AssertionError(tag);
+      }
+    }
+  }
+
   public enum PhoneType
       implements ProtoEnum {
     MOBILE(0),
@@ -242,9 +365,100 @@ public final class Person extends Message {
 
       @Override
       public PhoneNumber build() {
-        checkRequiredFields();
+        if (number == null) {
+          throw missingRequiredFields(number, "number");
+        }
         return new PhoneNumber(this);
       }
     }
+
+    public static final class Codec extends MessageCodec<PhoneNumber, Builder> {
+
+      private static final FieldDescriptor[] FIELDS = fields(
+          new FieldDescriptor(1, "number", STRING, REQUIRED, null, false, false),
+          new FieldDescriptor(2, "type", ENUM, OPTIONAL, PhoneType.class, false, false));
+
+      @Override
+      protected FieldDescriptor[] getFieldDescriptors() {
+        return FIELDS;
+      }
+
+      @Override
+      protected Builder newBuilder() {
+        return new Builder();
+      }
+
+      @Override
+      protected int getSerializedSize(PhoneNumber message) {
+        return getSerializedSize(message, null);
+      }
+
+      private int getSerializedSize(PhoneNumber message, IntList lengths) {
+        int size = 0;
+        if (message.number != null) size += 1 + stringSize(message.number, lengths);
+        if (message.type != null) size += 1 + enumSize(message.type);
+        return size;
+      }
+
+      @Override
+      protected void write(PhoneNumber message, WireOutput output)
+          throws IOException {
+        IntList lengths = newLengths();
+        getSerializedSize(message, lengths);
+        int lengthIndex = 0;
+        if (message.number != null) {
+          output.writeTag(1, WireType.LENGTH_DELIMITED);
+          writeString(output, message.number, lengths.getInt(lengthIndex++));
+        }
+        if (message.type != null) {
+          output.writeTag(2, WireType.VARINT);
+          output.writeVarint32(message.type.getValue());
+        }
+      }
+
+      @Override
+      protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+          throws IOException {
+        switch (tag) {
+          case 1: {
+            builder.number = input.readString();
+            return true;
+          }
+          case 2: {
+            PhoneType value = (PhoneType) readEnum(input, builder, 2);
+            if (value != null) builder.type = value;
+            return true;
+          }
+        }
+        return false;
+      }
+
+      @Override
+      protected Object getFieldValue(PhoneNumber message, int tag) {
+        switch (tag) {
+          case 1: return message.number;
+          case 2: return message.type;
+          default: throw new AssertionError(tag);
+        }
+      }
+
+      @Override
+      protected Object getBuilderFieldValue(Builder builder, int tag) {
+        switch (tag) {
+          case 1: return builder.number;
+          case 2: return builder.type;
+          default: throw new AssertionError(tag);
+        }
+      }
+
+      @Override
+      protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+        switch (tag) {
+          case 1: builder.number = (String) value; break;
+          case 2: builder.type = (PhoneType) value; break;
+          default: throw new AssertionError(tag);
+        }
+      }
+    }
   }
 }
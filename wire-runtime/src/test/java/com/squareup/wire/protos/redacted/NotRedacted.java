@@ -2,10 +2,18 @@
 // Source file: ../wire-runtime/src/test/proto/redacted_test.proto
 package com.squareup.wire.protos.redacted;
 
+import com.squareup.wire.FieldDescriptor;
+import com.squareup.wire.IntList;
 import com.squareup.wire.Message;
+import com.squareup.wire.MessageCodec;
 import com.squareup.wire.ProtoField;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
+import java.io.IOException;
 
 import static com.squareup.wire.Message.Datatype.STRING;
+import static com.squareup.wire.Message.Label.OPTIONAL;
 
 public final class NotRedacted extends Message {
   private static final long serialVersionUID = 0L;
@@ -79,4 +87,92 @@ public final class NotRedacted extends Message {
       return new NotRedacted(this);
     }
   }
+
+  public static final class Codec extends MessageCodec<NotRedacted, Builder> {
+
+    private static final FieldDescriptor[] FIELDS = fields(
+        new FieldDescriptor(1, "a", STRING, OPTIONAL, null, false, false),
+        new FieldDescriptor(2, "b", STRING, OPTIONAL, null, false, false));
+
+    @Override
+    protected FieldDescriptor[] getFieldDescriptors() {
+      return FIELDS;
+    }
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(NotRedacted message) {
+      return getSerializedSize(message, null);
+    }
+
+    private int getSerializedSize(NotRedacted message, IntList lengths) {
+      int size = 0;
+      if (message.a != null) size += 1 + stringSize(message.a, lengths);
+      if (message.b != null) size += 1 + stringSize(message.b, lengths);
+      return size;
+    }
+
+    @Override
+    protected void write(NotRedacted message, WireOutput output)
+        throws IOException {
+      IntList lengths = newLengths();
+      getSerializedSize(message, lengths);
+      int lengthIndex = 0;
+      if (message.a != null) {
+        output.writeTag(1, WireType.LENGTH_DELIMITED);
+        writeString(output, message.a, lengths.getInt(lengthIndex++));
+      }
+      if (message.b != null) {
+        output.writeTag(2, WireType.LENGTH_DELIMITED);
+        writeString(output, message.b, lengths.getInt(lengthIndex++));
+      }
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      switch (tag) {
+        case 1: {
+          builder.a = input.readString();
+          return true;
+        }
+        case 2: {
+          builder.b = input.readString();
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(NotRedacted message, int tag) {
+      switch (tag) {
+        case 1: return message.a;
+        case 2: return message.b;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      switch (tag) {
+        case 1: return builder.a;
+        case 2: return builder.b;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      switch (tag) {
+        case 1: builder.a = (String) value; break;
+        case 2: builder.b = (String) value; break;
+        default: throw new AssertionError(tag);
+      }
+    }
+  }
 }
@@ -2,10 +2,19 @@
 // Source file: ../wire-runtime/src/test/proto/redacted_test.proto
 package com.squareup.wire.protos.redacted;
 
+import com.squareup.wire.FieldDescriptor;
+import com.squareup.wire.IntList;
 import com.squareup.wire.Message;
+import com.squareup.wire.MessageCodec;
 import com.squareup.wire.ProtoField;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
+import java.io.IOException;
 
+import static com.squareup.wire.Message.Datatype.MESSAGE;
 import static com.squareup.wire.Message.Datatype.STRING;
+import static com.squareup.wire.Message.Label.OPTIONAL;
 
 public final class RedactedChild extends Message {
   private static final long serialVersionUID = 0L;
@@ -91,4 +100,105 @@ public final class RedactedChild extends Message {
       return new RedactedChild(this);
     }
   }
+
+  public static final class Codec extends MessageCodec<RedactedChild, Builder> {
+
+    private static final FieldDescriptor[] FIELDS = fields(
+        new FieldDescriptor(1, "a", STRING, OPTIONAL, null, false, false),
+        new FieldDescriptor(2, "b", MESSAGE, OPTIONAL, Redacted.class, false, false),
+        new FieldDescriptor(3, "c", MESSAGE, OPTIONAL, NotRedacted.class, false, false));
+
+    @Override
+    protected FieldDescriptor[] getFieldDescriptors() {
+      return FIELDS;
+    }
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(RedactedChild message) {
+      return getSerializedSize(message, null);
+    }
+
+    private int getSerializedSize(RedactedChild message, IntList lengths) {
+      int size = 0;
+      if (message.a != null) size += 1 + stringSize(message.a, lengths);
+      if (message.b != null) size += 1 + messageSize(2, message.b);
+      if (message.c != null) size += 1 + messageSize(3, message.c);
+      return size;
+    }
+
+    @Override
+    protected void write(RedactedChild message, WireOutput output)
+        throws IOException {
+      IntList lengths = newLengths();
+      getSerializedSize(message, lengths);
+      int lengthIndex = 0;
+      if (message.a != null) {
+        output.writeTag(1, WireType.LENGTH_DELIMITED);
+        writeString(output, message.a, lengths.getInt(lengthIndex++));
+      }
+      if (message.b != null) {
+        output.writeTag(2, WireType.LENGTH_DELIMITED);
+        writeMessage(output, 2, message.b);
+      }
+      if (message.c != null) {
+        output.writeTag(3, WireType.LENGTH_DELIMITED);
+        writeMessage(output, 3, message.c);
+      }
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      switch (tag) {
+        case 1: {
+          builder.a = input.readString();
+          return true;
+        }
+        case 2: {
+          builder.b = (Redacted) readMessage(input, 2);
+          return true;
+        }
+        case 3: {
+          builder.c = (NotRedacted) readMessage(input, 3);
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(RedactedChild message, int tag) {
+      switch (tag) {
+        case 1: return message.a;
+        case 2: return message.b;
+        case 3: return message.c;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      switch (tag) {
+        case 1: return builder.a;
+        case 2: return builder.b;
+        case 3: return builder.c;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      switch (tag) {
+        case 1: builder.a = (String) value; break;
+        case 2: builder.b = (Redacted) value; break;
+        case 3: builder.c = (NotRedacted) value; break;
+        default: throw new AssertionError(tag);
+      }
+    }
+  }
 }
@@ -2,8 +2,17 @@
 // Source file: ../wire-runtime/src/test/proto/redacted_test.proto
 package com.squareup.wire.protos.redacted;
 
+import com.squareup.wire.FieldDescriptor;
 import com.squareup.wire.Message;
+import com.squareup.wire.MessageCodec;
 import com.squareup.wire.ProtoField;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
+import java.io.IOException;
+
+import static com.squareup.wire.Message.Datatype.MESSAGE;
+import static com.squareup.wire.Message.Label.OPTIONAL;
 
 public final class RedactedCycleA extends Message {
   private static final long serialVersionUID = 0L;
@@ -56,4 +65,72 @@ public final class RedactedCycleA extends Message {
       return new RedactedCycleA(this);
     }
   }
+
+  public static final class Codec extends MessageCodec<RedactedCycleA, Builder> {
+
+    private static final FieldDescriptor[] FIELDS = fields(
+        new FieldDescriptor(1, "b", MESSAGE, OPTIONAL, RedactedCycleB.class, false, false));
+
+    @Override
+    protected FieldDescriptor[] getFieldDescriptors() {
+      return FIELDS;
+    }
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(RedactedCycleA message) {
+      int size = 0;
+      if (message.b != null) size += 1 + messageSize(1, message.b);
+      return size;
+    }
+
+    @Override
+    protected void write(RedactedCycleA message, WireOutput output)
+        throws IOException {
+      if (message.b != null) {
+        output.writeTag(1, WireType.LENGTH_DELIMITED);
+        writeMessage(output, 1, message.b);
+      }
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      switch (tag) {
+        case 1: {
+          builder.b = (RedactedCycleB) readMessage(input, 1);
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(RedactedCycleA message, int tag) {
+      switch (tag) {
+        case 1: return message.b;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      switch (tag) {
+        case 1: return builder.b;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      switch (tag) {
+        case 1: builder.b = (RedactedCycleB) value; break;
+        default: throw new AssertionError(tag);
+      }
+    }
+  }
 }
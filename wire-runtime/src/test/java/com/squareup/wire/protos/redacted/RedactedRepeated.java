@@ -3,8 +3,15 @@
 package com.squareup.wire.protos.redacted;
 
 import com.google.protobuf.FieldOptions;
+import com.squareup.wire.FieldDescriptor;
+import com.squareup.wire.IntList;
 import com.squareup.wire.Message;
+import com.squareup.wire.MessageCodec;
 import com.squareup.wire.ProtoField;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 
@@ -73,4 +80,82 @@ public final class RedactedRepeated extends Message {
       return new RedactedRepeated(this);
     }
   }
+
+  public static final class Codec extends MessageCodec<RedactedRepeated, Builder> {
+
+    private static final FieldDescriptor[] FIELDS = fields(
+        new FieldDescriptor(1, "a", STRING, REPEATED, null, true, false));
+
+    @Override
+    protected FieldDescriptor[] getFieldDescriptors() {
+      return FIELDS;
+    }
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(RedactedRepeated message) {
+      return getSerializedSize(message, null);
+    }
+
+    private int getSerializedSize(RedactedRepeated message, IntList lengths) {
+      int size = 0;
+      for (int i = 0, count = message.a.size(); i < count; i++) {
+        size += 1 + stringSize(message.a.get(i), lengths);
+      }
+      return size;
+    }
+
+    @Override
+    protected void write(RedactedRepeated message, WireOutput output)
+        throws IOException {
+      IntList lengths = newLengths();
+      getSerializedSize(message, lengths);
+      int lengthIndex = 0;
+      for (int i = 0, count = message.a.size(); i < count; i++) {
+        output.writeTag(1, WireType.LENGTH_DELIMITED);
+        writeString(output, message.a.get(i), lengths.getInt(lengthIndex++));
+      }
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      switch (tag) {
+        case 1: {
+          builder.a = append(builder.a, input.readString());
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(RedactedRepeated message, int tag) {
+      switch (tag) {
+        case 1: return message.a;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      switch (tag) {
+        case 1: return builder.a;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      switch (tag) {
+        case 1: builder.a = (List<String>) value; break;
+        default: throw new AssertionError(tag);
+      }
+    }
+  }
 }
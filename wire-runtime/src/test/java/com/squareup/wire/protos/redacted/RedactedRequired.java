@@ -3,8 +3,15 @@
 package com.squareup.wire.protos.redacted;
 
 import com.google.protobuf.FieldOptions;
+import com.squareup.wire.FieldDescriptor;
+import com.squareup.wire.IntList;
 import com.squareup.wire.Message;
+import com.squareup.wire.MessageCodec;
 import com.squareup.wire.ProtoField;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
+import java.io.IOException;
 
 import static com.squareup.wire.Message.Datatype.STRING;
 import static com.squareup.wire.Message.Label.REQUIRED;
@@ -68,8 +75,85 @@ public final class RedactedRequired extends Message {
 
     @Override
     public RedactedRequired build() {
-      checkRequiredFields();
+      if (a == null) {
+        throw missingRequiredFields(a, "a");
+      }
       return new RedactedRequired(this);
     }
   }
+
+  public static final class Codec extends MessageCodec<RedactedRequired, Builder> {
+
+    private static final FieldDescriptor[] FIELDS = fields(
+        new FieldDescriptor(1, "a", STRING, REQUIRED, null, true, false));
+
+    @Override
+    protected FieldDescriptor[] getFieldDescriptors() {
+      return FIELDS;
+    }
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(RedactedRequired message) {
+      return getSerializedSize(message, null);
+    }
+
+    private int getSerializedSize(RedactedRequired message, IntList lengths) {
+      int size = 0;
+      if (message.a != null) size += 1 + stringSize(message.a, lengths);
+      return size;
+    }
+
+    @Override
+    protected void write(RedactedRequired message, WireOutput output)
+        throws IOException {
+      IntList lengths = newLengths();
+      getSerializedSize(message, lengths);
+      int lengthIndex = 0;
+      if (message.a != null) {
+        output.writeTag(1, WireType.LENGTH_DELIMITED);
+        writeString(output, message.a, lengths.getInt(lengthIndex++));
+      }
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      switch (tag) {
+        case 1: {
+          builder.a = input.readString();
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(RedactedRequired message, int tag) {
+      switch (tag) {
+        case 1: return message.a;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      switch (tag) {
+        case 1: return builder.a;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      switch (tag) {
+        case 1: builder.a = (String) value; break;
+        default: throw new AssertionError(tag);
+      }
+    }
+  }
 }
@@ -2,8 +2,17 @@
 // Source file: ../wire-runtime/src/test/proto/roots.proto
 package com.squareup.wire.protos.roots;
 
+import com.squareup.wire.FieldDescriptor;
 import com.squareup.wire.Message;
+import com.squareup.wire.MessageCodec;
 import com.squareup.wire.ProtoField;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
+import java.io.IOException;
+
+import static com.squareup.wire.Message.Datatype.MESSAGE;
+import static com.squareup.wire.Message.Label.OPTIONAL;
 
 /**
  * Used to test --roots flag of WireCompiler
@@ -89,4 +98,85 @@ public final class A extends Message {
       return new A(this);
     }
   }
+
+  public static final class Codec extends MessageCodec<A, Builder> {
+
+    private static final FieldDescriptor[] FIELDS = fields(
+        new FieldDescriptor(1, "c", MESSAGE, OPTIONAL, B.class, false, false),
+        new FieldDescriptor(2, "d", MESSAGE, OPTIONAL, D.class, false, false));
+
+    @Override
+    protected FieldDescriptor[] getFieldDescriptors() {
+      return FIELDS;
+    }
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(A message) {
+      int size = 0;
+      if (message.c != null) size += 1 + messageSize(1, message.c);
+      if (message.d != null) size += 1 + messageSize(2, message.d);
+      return size;
+    }
+
+    @Override
+    protected void write(A message, WireOutput output)
+        throws IOException {
+      if (message.c != null) {
+        output.writeTag(1, WireType.LENGTH_DELIMITED);
+        writeMessage(output, 1, message.c);
+      }
+      if (message.d != null) {
+        output.writeTag(2, WireType.LENGTH_DELIMITED);
+        writeMessage(output, 2, message.d);
+      }
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      switch (tag) {
+        case 1: {
+          builder.c = (B) readMessage(input, 1);
+          return true;
+        }
+        case 2: {
+          builder.d = (D) readMessage(input, 2);
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(A message, int tag) {
+      switch (tag) {
+        case 1: return message.c;
+        case 2: return message.d;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      switch (tag) {
+        case 1: return builder.c;
+        case 2: return builder.d;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      switch (tag) {
+        case 1: builder.c = (B) value; break;
+        case 2: builder.d = (D) value; break;
+        default: throw new AssertionError(tag);
+      }
+    }
+  }
 }
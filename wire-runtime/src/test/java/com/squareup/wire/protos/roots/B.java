@@ -2,9 +2,16 @@
 // Source file: ../wire-runtime/src/test/proto/roots.proto
 package com.squareup.wire.protos.roots;
 
+import com.squareup.wire.FieldDescriptor;
 import com.squareup.wire.Message;
+import com.squareup.wire.MessageCodec;
 import com.squareup.wire.ProtoField;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
+import java.io.IOException;
 
+import static com.squareup.wire.Message.Datatype.MESSAGE;
 import static com.squareup.wire.Message.Label.REQUIRED;
 
 public final class B extends Message {
@@ -55,8 +62,78 @@ public final class B extends Message {
 
     @Override
     public B build() {
-      checkRequiredFields();
+      if (c == null) {
+        throw missingRequiredFields(c, "c");
+      }
       return new B(this);
     }
   }
+
+  public static final class Codec extends MessageCodec<B, Builder> {
+
+    private static final FieldDescriptor[] FIELDS = fields(
+        new FieldDescriptor(1, "c", MESSAGE, REQUIRED, C.class, false, false));
+
+    @Override
+    protected FieldDescriptor[] getFieldDescriptors() {
+      return FIELDS;
+    }
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(B message) {
+      int size = 0;
+      if (message.c != null) size += 1 + messageSize(1, message.c);
+      return size;
+    }
+
+    @Override
+    protected void write(B message, WireOutput output)
+        throws IOException {
+      if (message.c != null) {
+        output.writeTag(1, WireType.LENGTH_DELIMITED);
+        writeMessage(output, 1, message.c);
+      }
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      switch (tag) {
+        case 1: {
+          builder.c = (C) readMessage(input, 1);
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(B message, int tag) {
+      switch (tag) {
+        case 1: return message.c;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      switch (tag) {
+        case 1: return builder.c;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      switch (tag) {
+        case 1: builder.c = (C) value; break;
+        default: throw new AssertionError(tag);
+      }
+    }
+  }
 }
@@ -2,10 +2,17 @@
 // Source file: ../wire-runtime/src/test/proto/roots.proto
 package com.squareup.wire.protos.roots;
 
+import com.squareup.wire.FieldDescriptor;
 import com.squareup.wire.Message;
+import com.squareup.wire.MessageCodec;
 import com.squareup.wire.ProtoField;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
+import java.io.IOException;
 
 import static com.squareup.wire.Message.Datatype.INT32;
+import static com.squareup.wire.Message.Label.OPTIONAL;
 
 public final class C extends Message {
   private static final long serialVersionUID = 0L;
@@ -60,4 +67,72 @@ public final class C extends Message {
       return new C(this);
     }
   }
+
+  public static final class Codec extends MessageCodec<C, Builder> {
+
+    private static final FieldDescriptor[] FIELDS = fields(
+        new FieldDescriptor(1, "i", INT32, OPTIONAL, null, false, false));
+
+    @Override
+    protected FieldDescriptor[] getFieldDescriptors() {
+      return FIELDS;
+    }
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(C message) {
+      int size = 0;
+      if (message.i != null) size += 1 + int32Size(message.i);
+      return size;
+    }
+
+    @Override
+    protected void write(C message, WireOutput output)
+        throws IOException {
+      if (message.i != null) {
+        output.writeTag(1, WireType.VARINT);
+        output.writeSignedVarint32(message.i);
+      }
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      switch (tag) {
+        case 1: {
+          builder.i = input.readVarint32();
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(C message, int tag) {
+      switch (tag) {
+        case 1: return message.i;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      switch (tag) {
+        case 1: return builder.i;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      switch (tag) {
+        case 1: builder.i = (Integer) value; break;
+        default: throw new AssertionError(tag);
+      }
+    }
+  }
 }
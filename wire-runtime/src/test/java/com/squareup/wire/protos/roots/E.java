@@ -2,11 +2,19 @@
 // Source file: ../wire-runtime/src/test/proto/roots.proto
 package com.squareup.wire.protos.roots;
 
+import com.squareup.wire.FieldDescriptor;
 import com.squareup.wire.Message;
+import com.squareup.wire.MessageCodec;
 import com.squareup.wire.ProtoField;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
+import java.io.IOException;
 
 import static com.squareup.wire.Message.Datatype.ENUM;
 import static com.squareup.wire.Message.Datatype.INT32;
+import static com.squareup.wire.Message.Datatype.MESSAGE;
+import static com.squareup.wire.Message.Label.OPTIONAL;
 
 public final class E extends Message {
   private static final long serialVersionUID = 0L;
@@ -80,6 +88,88 @@ public final class E extends Message {
     }
   }
 
+  public static final class Codec extends MessageCodec<E, Builder> {
+
+    private static final FieldDescriptor[] FIELDS = fields(
+        new FieldDescriptor(1, "f", MESSAGE, OPTIONAL, F.class, false, false),
+        new FieldDescriptor(2, "g", ENUM, OPTIONAL, G.class, false, false));
+
+    @Override
+    protected FieldDescriptor[] getFieldDescriptors() {
+      return FIELDS;
+    }
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(E message) {
+      int size = 0;
+      if (message.f != null) size += 1 + messageSize(1, message.f);
+      if (message.g != null) size += 1 + enumSize(message.g);
+      return size;
+    }
+
+    @Override
+    protected void write(E message, WireOutput output)
+        throws IOException {
+      if (message.f != null) {
+        output.writeTag(1, WireType.LENGTH_DELIMITED);
+        writeMessage(output, 1, message.f);
+      }
+      if (message.g != null) {
+        output.writeTag(2, WireType.VARINT);
+        output.writeVarint32(message.g.getValue());
+      }
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      switch (tag) {
+        case 1: {
+          builder.f = (F) readMessage(input, 1);
+          return true;
+        }
+        case 2: {
+          G value = (G) readEnum(input, builder, 2);
+          if (value != null) builder.g = value;
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(E message, int tag) {
+      switch (tag) {
+        case 1: return message.f;
+        case 2: return message.g;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      switch (tag) {
+        case 1: return builder.f;
+        case 2: return builder.g;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      switch (tag) {
+        case 1: builder.f = (F) value; break;
+        case 2: builder.g = (G) value; break;
+        default: throw new AssertionError(tag);
+      }
+    }
+  }
+
   public static final class F extends Message {
     private static final long serialVersionUID = 0L;
 
@@ -133,5 +223,73 @@ public final class E extends Message {
         return new F(this);
       }
     }
+
+    public static final class Codec extends MessageCodec<F, Builder> {
+
+      private static final FieldDescriptor[] FIELDS = fields(
+          new FieldDescriptor(1, "i", INT32, OPTIONAL, null, false, false));
+
+      @Override
+      protected FieldDescriptor[] getFieldDescriptors() {
+        return FIELDS;
+      }
+
+      @Override
+      protected Builder newBuilder() {
+        return new Builder();
+      }
+
+      @Override
+      protected int getSerializedSize(F message) {
+        int size = 0;
+        if (message.i != null) size += 1 + int32Size(message.i);
+        return size;
+      }
+
+      @Override
+      protected void write(F message, WireOutput output)
+          throws IOException {
+        if (message.i != null) {
+          output.writeTag(1, WireType.VARINT);
+          output.writeSignedVarint32(message.i);
+        }
+      }
+
+      @Override
+      protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+          throws IOException {
+        switch (tag) {
+          case 1: {
+            builder.i = input.readVarint32();
+            return true;
+          }
+        }
+        return false;
+      }
+
+      @Override
+      protected Object getFieldValue(F message, int tag) {
+        switch (tag) {
+          case 1: return message.i;
+          default: throw new AssertionError(tag);
+        }
+      }
+
+      @Override
+      protected Object getBuilderFieldValue(Builder builder, int tag) {
+        switch (tag) {
+          case 1: return builder.i;
+          default: throw new AssertionError(tag);
+        }
+      }
+
+      @Override
+      protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+        switch (tag) {
+          case 1: builder.i = (Integer) value; break;
+          default: throw new AssertionError(tag);
+        }
+      }
+    }
   }
 }
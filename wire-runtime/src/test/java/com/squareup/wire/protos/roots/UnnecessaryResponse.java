@@ -3,6 +3,11 @@
 package com.squareup.wire.protos.roots;
 
 import com.squareup.wire.Message;
+import com.squareup.wire.MessageCodec;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
+import java.io.IOException;
 
 public final class UnnecessaryResponse extends Message {
   private static final long serialVersionUID = 0L;
@@ -38,4 +43,44 @@ public final class UnnecessaryResponse extends Message {
       return new UnnecessaryResponse(this);
     }
   }
+
+  public static final class Codec extends MessageCodec<UnnecessaryResponse, Builder> {
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(UnnecessaryResponse message) {
+      int size = 0;
+      return size;
+    }
+
+    @Override
+    protected void write(UnnecessaryResponse message, WireOutput output)
+        throws IOException {
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(UnnecessaryResponse message, int tag) {
+      throw new AssertionError(tag);
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      throw new AssertionError(tag);
+    }
+
+    @Override
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      throw new AssertionError(tag);
+    }
+  }
 }
@@ -4,9 +4,16 @@ package com.squareup.wire.protos.simple;
 
 import com.squareup.wire.ExtendableMessage;
 import com.squareup.wire.Extension;
+import com.squareup.wire.FieldDescriptor;
+import com.squareup.wire.MessageCodec;
 import com.squareup.wire.ProtoField;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
+import java.io.IOException;
 
 import static com.squareup.wire.Message.Datatype.FLOAT;
+import static com.squareup.wire.Message.Label.OPTIONAL;
 
 public final class ExternalMessage extends ExtendableMessage<ExternalMessage> {
   private static final long serialVersionUID = 0L;
@@ -74,4 +81,72 @@ public final class ExternalMessage extends ExtendableMessage<ExternalMessage> {
       return new ExternalMessage(this);
     }
   }
+
+  public static final class Codec extends MessageCodec<ExternalMessage, Builder> {
+
+    private static final FieldDescriptor[] FIELDS = fields(
+        new FieldDescriptor(1, "f", FLOAT, OPTIONAL, null, false, false));
+
+    @Override
+    protected FieldDescriptor[] getFieldDescriptors() {
+      return FIELDS;
+    }
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(ExternalMessage message) {
+      int size = 0;
+      if (message.f != null) size += 5;
+      return size;
+    }
+
+    @Override
+    protected void write(ExternalMessage message, WireOutput output)
+        throws IOException {
+      if (message.f != null) {
+        output.writeTag(1, WireType.FIXED32);
+        output.writeFixed32(Float.floatToIntBits(message.f));
+      }
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      switch (tag) {
+        case 1: {
+          builder.f = Float.intBitsToFloat(input.readFixed32());
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(ExternalMessage message, int tag) {
+      switch (tag) {
+        case 1: return message.f;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      switch (tag) {
+        case 1: return builder.f;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      switch (tag) {
+        case 1: builder.f = (Float) value; break;
+        default: throw new AssertionError(tag);
+      }
+    }
+  }
 }
@@ -2,17 +2,26 @@
 // Source file: ../wire-runtime/src/test/proto/simple_message.proto
 package com.squareup.wire.protos.simple;
 
+import com.squareup.wire.FieldDescriptor;
+import com.squareup.wire.IntList;
 import com.squareup.wire.Message;
+import com.squareup.wire.MessageCodec;
 import com.squareup.wire.ProtoEnum;
 import com.squareup.wire.ProtoField;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
 import com.squareup.wire.protos.foreign.ForeignEnum;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 
 import static com.squareup.wire.Message.Datatype.DOUBLE;
 import static com.squareup.wire.Message.Datatype.ENUM;
 import static com.squareup.wire.Message.Datatype.INT32;
+import static com.squareup.wire.Message.Datatype.MESSAGE;
 import static com.squareup.wire.Message.Datatype.STRING;
+import static com.squareup.wire.Message.Label.OPTIONAL;
 import static com.squareup.wire.Message.Label.REPEATED;
 import static com.squareup.wire.Message.Label.REQUIRED;
 
@@ -301,11 +310,243 @@ public final class SimpleMessage extends Message {
 
     @Override
     public SimpleMessage build() {
-      checkRequiredFields();
+      if (required_int32 == null) {
+        throw missingRequiredFields(required_int32, "required_int32");
+      }
       return new SimpleMessage(this);
     }
   }
 
+  public static final class Codec extends MessageCodec<SimpleMessage, Builder> {
+
+    private static final FieldDescriptor[] FIELDS = fields(
+        new FieldDescriptor(1, "optional_int32", INT32, OPTIONAL, null, false, false),
+        new FieldDescriptor(2, "optional_nested_msg", MESSAGE, OPTIONAL, NestedMessage.class, false, false),
+        new FieldDescriptor(3, "optional_external_msg", MESSAGE, OPTIONAL, ExternalMessage.class, false, false),
+        new FieldDescriptor(4, "default_nested_enum", ENUM, OPTIONAL, NestedEnum.class, false, false),
+        new FieldDescriptor(5, "required_int32", INT32, REQUIRED, null, false, false),
+        new FieldDescriptor(6, "repeated_double", DOUBLE, REPEATED, null, false, false),
+        new FieldDescriptor(7, "default_foreign_enum", ENUM, OPTIONAL, ForeignEnum.class, false, false),
+        new FieldDescriptor(8, "no_default_foreign_enum", ENUM, OPTIONAL, ForeignEnum.class, false, false),
+        new FieldDescriptor(9, "_package", STRING, OPTIONAL, null, false, false),
+        new FieldDescriptor(10, "result", STRING, OPTIONAL, null, false, false),
+        new FieldDescriptor(11, "other", STRING, OPTIONAL, null, false, false),
+        new FieldDescriptor(12, "o", STRING, OPTIONAL, null, false, false));
+
+    @Override
+    protected FieldDescriptor[] getFieldDescriptors() {
+      return FIELDS;
+    }
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(SimpleMessage message) {
+      return getSerializedSize(message, null);
+    }
+
+    private int getSerializedSize(SimpleMessage message, IntList lengths) {
+      int size = 0;
+      if (message.optional_int32 != null) size += 1 + int32Size(message.optional_int32);
+      if (message.optional_nested_msg != null) size += 1 + messageSize(2, message.optional_nested_msg);
+      if (message.optional_external_msg != null) size += 1 + messageSize(3, message.optional_external_msg);
+      if (message.default_nested_enum != null) size += 1 + enumSize(message.default_nested_enum);
+      if (message.required_int32 != null) size += 1 + int32Size(message.required_int32);
+      size += message.repeated_double.size() * 9;
+      if (message.default_foreign_enum != null) size += 1 + enumSize(message.default_foreign_enum);
+      if (message.no_default_foreign_enum != null) size += 1 + enumSize(message.no_default_foreign_enum);
+      if (message._package != null) size += 1 + stringSize(message._package, lengths);
+      if (message.result != null) size += 1 + stringSize(message.result, lengths);
+      if (message.other != null) size += 1 + stringSize(message.other, lengths);
+      if (message.o != null) size += 1 + stringSize(message.o, lengths);
+      return size;
+    }
+
+    @Override
+    protected void write(SimpleMessage message, WireOutput output)
+        throws IOException {
+      IntList lengths = newLengths();
+      getSerializedSize(message, lengths);
+      int lengthIndex = 0;
+      if (message.optional_int32 != null) {
+        output.writeTag(1, WireType.VARINT);
+        output.writeSignedVarint32(message.optional_int32);
+      }
+      if (message.optional_nested_msg != null) {
+        output.writeTag(2, WireType.LENGTH_DELIMITED);
+        writeMessage(output, 2, message.optional_nested_msg);
+      }
+      if (message.optional_external_msg != null) {
+        output.writeTag(3, WireType.LENGTH_DELIMITED);
+        writeMessage(output, 3, message.optional_external_msg);
+      }
+      if (message.default_nested_enum != null) {
+        output.writeTag(4, WireType.VARINT);
+        output.writeVarint32(message.default_nested_enum.getValue());
+      }
+      if (message.required_int32 != null) {
+        output.writeTag(5, WireType.VARINT);
+        output.writeSignedVarint32(message.required_int32);
+      }
+      for (int i = 0, count = message.repeated_double.size(); i < count; i++) {
+        output.writeTag(6, WireType.FIXED64);
+        output.writeFixed64(Double.doubleToLongBits(getDouble(message.repeated_double, i)));
+      }
+      if (message.default_foreign_enum != null) {
+        output.writeTag(7, WireType.VARINT);
+        output.writeVarint32(message.default_foreign_enum.getValue());
+      }
+      if (message.no_default_foreign_enum != null) {
+        output.writeTag(8, WireType.VARINT);
+        output.writeVarint32(message.no_default_foreign_enum.getValue());
+      }
+      if (message._package != null) {
+        output.writeTag(9, WireType.LENGTH_DELIMITED);
+        writeString(output, message._package, lengths.getInt(lengthIndex++));
+      }
+      if (message.result != null) {
+        output.writeTag(10, WireType.LENGTH_DELIMITED);
+        writeString(output, message.result, lengths.getInt(lengthIndex++));
+      }
+      if (message.other != null) {
+        output.writeTag(11, WireType.LENGTH_DELIMITED);
+        writeString(output, message.other, lengths.getInt(lengthIndex++));
+      }
+      if (message.o != null) {
+        output.writeTag(12, WireType.LENGTH_DELIMITED);
+        writeString(output, message.o, lengths.getInt(lengthIndex++));
+      }
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      switch (tag) {
+        case 1: {
+          builder.optional_int32 = input.readVarint32();
+          return true;
+        }
+        case 2: {
+          builder.optional_nested_msg = (NestedMessage) readMessage(input, 2);
+          return true;
+        }
+        case 3: {
+          builder.optional_external_msg = (ExternalMessage) readMessage(input, 3);
+          return true;
+        }
+        case 4: {
+          NestedEnum value = (NestedEnum) readEnum(input, builder, 4);
+          if (value != null) builder.default_nested_enum = value;
+          return true;
+        }
+        case 5: {
+          builder.required_int32 = input.readVarint32();
+          return true;
+        }
+        case 6: {
+          if (wireType == WireType.LENGTH_DELIMITED) {
+            long oldLimit = beginPacked(input);
+            while (hasMorePacked(input)) {
+              builder.repeated_double = appendDouble(builder.repeated_double, Double.longBitsToDouble(input.readFixed64()));
+            }
+            endPacked(input, oldLimit);
+          } else {
+            builder.repeated_double = appendDouble(builder.repeated_double, Double.longBitsToDouble(input.readFixed64()));
+          }
+          return true;
+        }
+        case 7: {
+          ForeignEnum value = (ForeignEnum) readEnum(input, builder, 7);
+          if (value != null) builder.default_foreign_enum = value;
+          return true;
+        }
+        case 8: {
+          ForeignEnum value = (ForeignEnum) readEnum(input, builder, 8);
+          if (value != null) builder.no_default_foreign_enum = value;
+          return true;
+        }
+        case 9: {
+          builder._package = input.readString();
+          return true;
+        }
+        case 10: {
+          builder.result = input.readString();
+          return true;
+        }
+        case 11: {
+          builder.other = input.readString();
+          return true;
+        }
+        case 12: {
+          builder.o = input.readString();
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(SimpleMessage message, int tag) {
+      switch (tag) {
+        case 1: return message.optional_int32;
+        case 2: return message.optional_nested_msg;
+        case 3: return message.optional_external_msg;
+        case 4: return message.default_nested_enum;
+        case 5: return message.required_int32;
+        case 6: return message.repeated_double;
+        case 7: return message.default_foreign_enum;
+        case 8: return message.no_default_foreign_enum;
+        case 9: return message._package;
+        case 10: return message.result;
+        case 11: return message.other;
+        case 12: return message.o;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      switch (tag) {
+        case 1: return builder.optional_int32;
+        case 2: return builder.optional_nested_msg;
+        case 3: return builder.optional_external_msg;
+        case 4: return builder.default_nested_enum;
+        case 5: return builder.required_int32;
+        case 6: return builder.repeated_double;
+        case 7: return builder.default_foreign_enum;
+        case 8: return builder.no_default_foreign_enum;
+        case 9: return builder._package;
+        case 10: return builder.result;
+        case 11: return builder.other;
+        case 12: return builder.o;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      switch (tag) {
+        case 1: builder.optional_int32 = (Integer) value; break;
+        case 2: builder.optional_nested_msg = (NestedMessage) value; break;
+        case 3: builder.optional_external_msg = (ExternalMessage) value; break;
+        case 4: builder.default_nested_enum = (NestedEnum) value; break;
+        case 5: builder.required_int32 = (Integer) value; break;
+        case 6: builder.repeated_double = (List<Double>) value; break;
+        case 7: builder.default_foreign_enum = (ForeignEnum) value; break;
+        case 8: builder.no_default_foreign_enum = (ForeignEnum) value; break;
+        case 9: builder._package = (String) value; break;
+        case 10: builder.result = (String) value; break;
+        case 11: builder.other = (String) value; break;
+        case 12: builder.o = (String) value; break;
+        default: throw new AssertionError(tag);
+      }
+    }
+  }
+
   public static final class NestedMessage extends Message {
     private static final long serialVersionUID = 0L;
 
@@ -365,6 +606,74 @@ public final class SimpleMessage extends Message {
         return new NestedMessage(this);
       }
     }
+
+    public static final class Codec extends MessageCodec<NestedMessage, Builder> {
+
+      private static final FieldDescriptor[] FIELDS = fields(
+          new FieldDescriptor(1, "bb", INT32, OPTIONAL, null, false, false));
+
+      @Override
+      protected FieldDescriptor[] getFieldDescriptors() {
+        return FIELDS;
+      }
+
+      @Override
+      protected Builder newBuilder() {
+        return new Builder();
+      }
+
+      @Override
+      protected int getSerializedSize(NestedMessage message) {
+        int size = 0;
+        if (message.bb != null) size += 1 + int32Size(message.bb);
+        return size;
+      }
+
+      @Override
+      protected void write(NestedMessage message, WireOutput output)
+          throws IOException {
+        if (message.bb != null) {
+          output.writeTag(1, WireType.VARINT);
+          output.writeSignedVarint32(message.bb);
+        }
+      }
+
+      @Override
+      protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+          throws IOException {
+        switch (tag) {
+          case 1: {
+            builder.bb = input.readVarint32();
+            return true;
+          }
+        }
+        return false;
+      }
+
+      @Override
+      protected Object getFieldValue(NestedMessage message, int tag) {
+        switch (tag) {
+          case 1: return message.bb;
+          default: throw new AssertionError(tag);
+        }
+      }
+
+      @Override
+      protected Object getBuilderFieldValue(Builder builder, int tag) {
+        switch (tag) {
+          case 1: return builder.bb;
+          default: throw new AssertionError(tag);
+        }
+      }
+
+      @Override
+      protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+        switch (tag) {
+          case 1: builder.bb = (Integer) value; break;
+          default: throw new AssertionError(tag);
+        }
+      }
+    }
   }
 
   public enum NestedEnum
@@ -2,11 +2,18 @@
 // Source file: ../wire-runtime/src/test/proto/samebasename/single_level.proto
 package com.squareup.wire.protos.single_level;
 
+import com.squareup.wire.FieldDescriptor;
 import com.squareup.wire.Message;
+import com.squareup.wire.MessageCodec;
 import com.squareup.wire.ProtoField;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 
+import static com.squareup.wire.Message.Datatype.MESSAGE;
 import static com.squareup.wire.Message.Label.REPEATED;
 
 public final class Bars extends Message {
@@ -62,4 +69,70 @@ public final class Bars extends Message {
       return new Bars(this);
     }
   }
+
+  public static final class Codec extends MessageCodec<Bars, Builder> {
+
+    private static final FieldDescriptor[] FIELDS = fields(
+        new FieldDescriptor(1, "bars", MESSAGE, REPEATED, Bar.class, false, false));
+
+    @Override
+    protected FieldDescriptor[] getFieldDescriptors() {
+      return FIELDS;
+    }
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(Bars message) {
+      int size = 0;
+      size += messagesSize(1, message.bars);
+      return size;
+    }
+
+    @Override
+    protected void write(Bars message, WireOutput output)
+        throws IOException {
+      writeMessages(output, 1, message.bars);
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      switch (tag) {
+        case 1: {
+          builder.bars = append(builder.bars, (Bar) readMessage(input, 1));
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(Bars message, int tag) {
+      switch (tag) {
+        case 1: return message.bars;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      switch (tag) {
+        case 1: return builder.bars;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      switch (tag) {
+        case 1: builder.bars = (List<Bar>) value; break;
+        default: throw new AssertionError(tag);
+      }
+    }
+  }
 }
@@ -2,11 +2,18 @@
 // Source file: ../wire-runtime/src/test/proto/single_level.proto
 package com.squareup.wire.protos.single_level;
 
+import com.squareup.wire.FieldDescriptor;
 import com.squareup.wire.Message;
+import com.squareup.wire.MessageCodec;
 import com.squareup.wire.ProtoField;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 
+import static com.squareup.wire.Message.Datatype.MESSAGE;
 import static com.squareup.wire.Message.Label.REPEATED;
 
 public final class Foos extends Message {
@@ -62,4 +69,70 @@ public final class Foos extends Message {
       return new Foos(this);
     }
   }
+
+  public static final class Codec extends MessageCodec<Foos, Builder> {
+
+    private static final FieldDescriptor[] FIELDS = fields(
+        new FieldDescriptor(1, "foos", MESSAGE, REPEATED, Foo.class, false, false));
+
+    @Override
+    protected FieldDescriptor[] getFieldDescriptors() {
+      return FIELDS;
+    }
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(Foos message) {
+      int size = 0;
+      size += messagesSize(1, message.foos);
+      return size;
+    }
+
+    @Override
+    protected void write(Foos message, WireOutput output)
+        throws IOException {
+      writeMessages(output, 1, message.foos);
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      switch (tag) {
+        case 1: {
+          builder.foos = append(builder.foos, (Foo) readMessage(input, 1));
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(Foos message, int tag) {
+      switch (tag) {
+        case 1: return message.foos;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      switch (tag) {
+        case 1: return builder.foos;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      switch (tag) {
+        case 1: builder.foos = (List<Foo>) value; break;
+        default: throw new AssertionError(tag);
+      }
+    }
+  }
 }
@@ -2,8 +2,15 @@
 // Source file: ../wire-runtime/src/test/proto/unknown_fields.proto
 package com.squareup.wire.protos.unknownfields;
 
+import com.squareup.wire.FieldDescriptor;
+import com.squareup.wire.IntList;
 import com.squareup.wire.Message;
+import com.squareup.wire.MessageCodec;
 import com.squareup.wire.ProtoField;
+import com.squareup.wire.WireInput;
+import com.squareup.wire.WireOutput;
+import com.squareup.wire.WireType;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 
@@ -11,6 +18,7 @@ import static com.squareup.wire.Message.Datatype.FIXED32;
 import static com.squareup.wire.Message.Datatype.FIXED64;
 import static com.squareup.wire.Message.Datatype.INT32;
 import static com.squareup.wire.Message.Datatype.STRING;
+import static com.squareup.wire.Message.Label.OPTIONAL;
 import static com.squareup.wire.Message.Label.REPEATED;
 
 public final class VersionTwo extends Message {
@@ -141,4 +149,147 @@ public final class VersionTwo extends Message {
       return new VersionTwo(this);
     }
   }
+
+  public static final class Codec extends MessageCodec<VersionTwo, Builder> {
+
+    private static final FieldDescriptor[] FIELDS = fields(
+        new FieldDescriptor(1, "i", INT32, OPTIONAL, null, false, false),
+        new FieldDescriptor(2, "v2_i", INT32, OPTIONAL, null, false, false),
+        new FieldDescriptor(3, "v2_s", STRING, OPTIONAL, null, false, false),
+        new FieldDescriptor(4, "v2_f32", FIXED32, OPTIONAL, null, false, false),
+        new FieldDescriptor(5, "v2_f64", FIXED64, OPTIONAL, null, false, false),
+        new FieldDescriptor(6, "v2_rs", STRING, REPEATED, null, false, false));
+
+    @Override
+    protected FieldDescriptor[] getFieldDescriptors() {
+      return FIELDS;
+    }
+
+    @Override
+    protected Builder newBuilder() {
+      return new Builder();
+    }
+
+    @Override
+    protected int getSerializedSize(VersionTwo message) {
+      return getSerializedSize(message, null);
+    }
+
+    private int getSerializedSize(VersionTwo message, IntList lengths) {
+      int size = 0;
+      if (message.i != null) size += 1 + int32Size(message.i);
+      if (message.v2_i != null) size += 1 + int32Size(message.v2_i);
+      if (message.v2_s != null) size += 1 + stringSize(message.v2_s, lengths);
+      if (message.v2_f32 != null) size += 5;
+      if (message.v2_f64 != null) size += 9;
+      for (int i = 0, count = message.v2_rs.size(); i < count; i++) {
+        size += 1 + stringSize(message.v2_rs.get(i), lengths);
+      }
+      return size;
+    }
+
+    @Override
+    protected void write(VersionTwo message, WireOutput output)
+        throws IOException {
+      IntList lengths = newLengths();
+      getSerializedSize(message, lengths);
+      int lengthIndex = 0;
+      if (message.i != null) {
+        output.writeTag(1, WireType.VARINT);
+        output.writeSignedVarint32(message.i);
+      }
+      if (message.v2_i != null) {
+        output.writeTag(2, WireType.VARINT);
+        output.writeSignedVarint32(message.v2_i);
+      }
+      if (message.v2_s != null) {
+        output.writeTag(3, WireType.LENGTH_DELIMITED);
+        writeString(output, message.v2_s, lengths.getInt(lengthIndex++));
+      }
+      if (message.v2_f32 != null) {
+        output.writeTag(4, WireType.FIXED32);
+        output.writeFixed32(message.v2_f32);
+      }
+      if (message.v2_f64 != null) {
+        output.writeTag(5, WireType.FIXED64);
+        output.writeFixed64(message.v2_f64);
+      }
+      for (int i = 0, count = message.v2_rs.size(); i < count; i++) {
+        output.writeTag(6, WireType.LENGTH_DELIMITED);
+        writeString(output, message.v2_rs.get(i), lengths.getInt(lengthIndex++));
+      }
+    }
+
+    @Override
+    protected boolean read(Builder builder, WireInput input, int tag, WireType wireType)
+        throws IOException {
+      switch (tag) {
+        case 1: {
+          builder.i = input.readVarint32();
+          return true;
+        }
+        case 2: {
+          builder.v2_i = input.readVarint32();
+          return true;
+        }
+        case 3: {
+          builder.v2_s = input.readString();
+          return true;
+        }
+        case 4: {
+          builder.v2_f32 = input.readFixed32();
+          return true;
+        }
+        case 5: {
+          builder.v2_f64 = input.readFixed64();
+          return true;
+        }
+        case 6: {
+          builder.v2_rs = append(builder.v2_rs, input.readString());
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected Object getFieldValue(VersionTwo message, int tag) {
+      switch (tag) {
+        case 1: return message.i;
+        case 2: return message.v2_i;
+        case 3: return message.v2_s;
+        case 4: return message.v2_f32;
+        case 5: return message.v2_f64;
+        case 6: return message.v2_rs;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    protected Object getBuilderFieldValue(Builder builder, int tag) {
+      switch (tag) {
+        case 1: return builder.i;
+        case 2: return builder.v2_i;
+        case 3: return builder.v2_s;
+        case 4: return builder.v2_f32;
+        case 5: return builder.v2_f64;
+        case 6: return builder.v2_rs;
+        default: throw new AssertionError(tag);
+      }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void setBuilderFieldValue(Builder builder, int tag, Object value) {
+      switch (tag) {
+        case 1: builder.i = (Integer) value; break;
+        case 2: builder.v2_i = (Integer) value; break;
+        case 3: builder.v2_s = (String) value; break;
+        case 4: builder.v2_f32 = (Integer) value; break;
+        case 5: builder.v2_f64 = (Long) value; break;
+        case 6: builder.v2_rs = (List<String>) value; break;
+        default: throw new AssertionError(tag);
+      }
+    }
+  }
 }